@@ -66,6 +66,9 @@ public class ActionLibraryConfigurator extends AbstractConfigurator {
     private static final String              FILE_SNAPSHOT_PROPERTIES_FILE_EXTENSIONS     = "actionlibrary.filesnapshot.properties.file.types";
     private static final String              FILE_SNAPSHOT_INI_FILE_EXTENSIONS            = "actionlibrary.filesnapshot.ini.file.types";
     private static final String              FILE_SNAPSHOT_TEXT_FILE_EXTENSIONS           = "actionlibrary.filesnapshot.text.file.types";
+    private static final String              FILE_SNAPSHOT_THREADS                        = "actionlibrary.filesnapshot.threads";
+    private static final String              FILE_SNAPSHOT_USE_HASH_CACHE                 = "actionlibrary.filesnapshot.use.hash.cache";
+    private static final String              FILE_SNAPSHOT_HASH_CACHE_FILE                = "actionlibrary.filesnapshot.hash.cache.file";
 
     private static final String              REST_DEFAULT_REQUEST_MEDIA_TYPE              = "actionlibrary.rest.default.request.media.type";
     private static final String              REST_DEFAULT_REQUEST_MEDIA_CHARSET           = "actionlibrary.rest.default.request.media.charset";
@@ -974,6 +977,80 @@ public void setTextFileExtensions( String... extensions ) {
             setTempProperty(FILE_SNAPSHOT_TEXT_FILE_EXTENSIONS,
                             extensionsList.substring(0, extensionsList.length() - 1));
         }
+
+        /**
+         * @return how many threads process the files when taking a snapshot
+         */
+        @PublicAtsApi
+        public int getThreads() {
+
+            try {
+                return getIntegerProperty(FILE_SNAPSHOT_THREADS);
+            } catch (NoSuchPropertyException nspe) {
+                return 1;
+            }
+        }
+
+        /**
+         * Set how many threads process the files when taking a snapshot.
+         * The directories are always walked by one thread.
+         * @param threads number of threads, 1 means the files are processed one after another
+         */
+        @PublicAtsApi
+        public void setThreads( int threads ) {
+
+            setTempProperty(FILE_SNAPSHOT_THREADS, Integer.toString(threads));
+        }
+
+        /**
+         * @return whether the MD5 sums of not changed files are reused from the previous snapshots
+         */
+        @PublicAtsApi
+        public boolean getUseHashCache() {
+
+            try {
+                return getBooleanProperty(FILE_SNAPSHOT_USE_HASH_CACHE);
+            } catch (NoSuchPropertyException nspe) {
+                return false;
+            }
+        }
+
+        /**
+         * Set whether the MD5 sums of not changed files are reused from the previous snapshots.
+         * A file is considered not changed when its size, modification time and inode are the same.
+         * <br>The MD5 sums are kept in a file, so they are reused in the next test runs as well.
+         * @param useHashCache true to enable the cache
+         */
+        @PublicAtsApi
+        public void setUseHashCache( boolean useHashCache ) {
+
+            setTempProperty(FILE_SNAPSHOT_USE_HASH_CACHE, Boolean.toString(useHashCache));
+        }
+
+        /**
+         * @return the file where the MD5 sums are kept, null means a file in the user temp directory
+         */
+        @PublicAtsApi
+        public String getHashCacheFile() {
+
+            String hashCacheFile = getOptionalProperty(FILE_SNAPSHOT_HASH_CACHE_FILE);
+            if (StringUtils.isNullOrEmpty(hashCacheFile)) {
+                return null;
+            } else {
+                return hashCacheFile;
+            }
+        }
+
+        /**
+         * Set the file where the MD5 sums are kept.
+         * When the snapshot is taken on a remote host, this is a path on that host.
+         * @param hashCacheFile the file path
+         */
+        @PublicAtsApi
+        public void setHashCacheFile( String hashCacheFile ) {
+
+            setTempProperty(FILE_SNAPSHOT_HASH_CACHE_FILE, hashCacheFile);
+        }
     }
 
     @Override
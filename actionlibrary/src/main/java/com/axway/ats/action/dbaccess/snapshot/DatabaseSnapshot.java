@@ -23,6 +23,12 @@
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,14 +42,17 @@
 import com.axway.ats.action.dbaccess.snapshot.rules.SkipIndexAttributes;
 import com.axway.ats.action.dbaccess.snapshot.rules.SkipRows;
 import com.axway.ats.common.PublicAtsApi;
+import com.axway.ats.common.dbaccess.DbQuery;
 import com.axway.ats.common.dbaccess.snapshot.DatabaseSnapshotException;
 import com.axway.ats.common.dbaccess.snapshot.DatabaseSnapshotUtils;
 import com.axway.ats.common.dbaccess.snapshot.IndexMatcher;
 import com.axway.ats.common.dbaccess.snapshot.TableDescription;
 import com.axway.ats.common.dbaccess.snapshot.equality.DatabaseEqualityState;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
 import com.axway.ats.core.dbaccess.DatabaseProviderFactory;
 import com.axway.ats.core.dbaccess.DbProvider;
 import com.axway.ats.core.dbaccess.DbRecordValuesList;
+import com.axway.ats.core.dbaccess.DbReturnModes;
 import com.axway.ats.core.dbaccess.postgresql.PostgreSqlDbProvider;
 import com.axway.ats.core.utils.StringUtils;
 import com.axway.ats.harness.config.TestBox;
@@ -99,6 +108,13 @@ public class DatabaseSnapshot {
     //  An interface which tells whether some table index should be treated as same or not
     private IndexMatcher             indexMatcher;
 
+    // whether to compare and save table content fingerprints instead of all table rows
+    private boolean                  useContentFingerprints;
+
+    // maximum number of tables processed at the same time
+    private int                      parallelism                 = AtsSystemProperties.getPropertyAsNonNegativeNumber(AtsSystemProperties.ACTION__DB_SNAPSHOT_PARALLELISM,
+                                                                                                                      AtsSystemProperties.ACTION__DB_SNAPSHOT_PARALLELISM_DEFAULT);
+
     /**
      * Constructor providing snapshot name and connection parameters
      * 
@@ -322,6 +338,53 @@ public boolean isSame( String table, Properties firstProperties, Properties seco
         };
     }
 
+    /**
+     * Set how many tables are processed at the same time, each one using its own database connection.
+     * This applies when describing the tables while taking the snapshot and when comparing the tables
+     * content with another snapshot.<br>
+     * The default value is 1 or the value of the <code>ats.action.db.snapshot.parallelism</code> system property.<br><br>
+     * 
+     * <b>Note:</b> When comparing, the value of the snapshot on which the compare method is called is used.
+     * A custom {@link IndexMatcher} must be thread safe when this value is more than 1.
+     * The comparison is done in a single thread when any of the snapshots is loaded from a file.
+     * 
+     * @param parallelism the number of tables processed at the same time
+     */
+    @PublicAtsApi
+    public void setParallelism( int parallelism ) {
+
+        if (parallelism < 1) {
+            throw new DatabaseSnapshotException("Invalid parallelism " + parallelism
+                                                + ". It must be a positive number");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Use table content fingerprints instead of the table rows.<br><br>
+     * When comparing, the fingerprints of both tables are compared first and the table rows are
+     * loaded only when the fingerprints are different. Then only the rows of the different table parts are
+     * compared.<br>
+     * When saving the snapshot into a file, the fingerprints are saved instead of the table rows,
+     * so the file is much smaller. When such file is compared with another snapshot, the different tables
+     * are found, but not the different rows.<br><br>
+     * 
+     * <b>Note:</b> When comparing, the value of the snapshot on which the compare method is called is used.
+     * The fingerprints are always used when the other snapshot is loaded from a file with fingerprints.
+     * 
+     * @param useContentFingerprints whether to use content fingerprints
+     */
+    @PublicAtsApi
+    public void setUseContentFingerprints( boolean useContentFingerprints ) {
+
+        this.useContentFingerprints = useContentFingerprints;
+    }
+
+    boolean isUseContentFingerprints() {
+
+        return useContentFingerprints;
+    }
+
     /**
      * Take a database snapshot<br>
      * <b>NOTE:</b> We will get only meta data about the tables in the database. 
@@ -343,7 +406,7 @@ public void takeSnapshot() {
                  + dbProvider.getDbConnection().getDescription());
 
         // load info about all present tables
-        tables = dbProvider.getTableDescriptions(getSkippedTables());
+        tables = dbProvider.getTableDescriptions(getSkippedTables(), parallelism);
         if (tables.size() == 0) {
             log.warn("No tables found for snapshot [" + name + "]");
         }
@@ -718,18 +781,20 @@ public void loadFromFile( String newSnapshotName, String sourceFile ) {
      * @param thatBackupXmlFile
      * @param equality
      */
-    private void compareTables( String thisSnapshotName, List<TableDescription> thisTables,
-                                String thatSnapshotName, List<TableDescription> thatTables,
-                                DbProvider thatDbProvider, Set<String> tablesToSkip,
-                                Map<String, SkipColumns> skipColumns, Map<String, SkipContent> skipContent,
-                                Map<String, SkipRows> skipRows,
-                                IndexMatcher indexNameMatcher,
+    private void compareTables( final String thisSnapshotName, List<TableDescription> thisTables,
+                                final String thatSnapshotName, List<TableDescription> thatTables,
+                                final DbProvider thatDbProvider, Set<String> tablesToSkip,
+                                final Map<String, SkipColumns> skipColumns,
+                                final Map<String, SkipContent> skipContent,
+                                final Map<String, SkipRows> skipRows,
+                                final IndexMatcher indexNameMatcher,
                                 Document thatBackupXmlFile, DatabaseEqualityState equality ) {
 
         // make a list of tables present in both snapshots
         List<String> commonTables = getCommonTables(thisSnapshotName, thisTables, thatSnapshotName,
                                                     thatTables, tablesToSkip);
 
+        final List<TableDescription[]> tablesToCompare = new ArrayList<TableDescription[]>();
         for (String tableName : commonTables) {
             // get tables to compare
             TableDescription thisTable = null;
@@ -752,12 +817,78 @@ private void compareTables( String thisSnapshotName, List<TableDescription> this
                 // if table is not of interest - skip it
                 continue;
             }
-            List<String> thisValuesList = null;
-            List<String> thatValuesList = null;
+            tablesToCompare.add(new TableDescription[]{ thisTable, thatTable });
+        }
+
+        // the XML backup files can not be safely read from more than one thread
+        int numberOfThreads = Math.min(this.parallelism, tablesToCompare.size());
+        if (numberOfThreads <= 1 || this.backupXmlFile != null || thatBackupXmlFile != null) {
+            for (TableDescription[] tables : tablesToCompare) {
+                compareTable(thisSnapshotName, tables[0], thatSnapshotName, tables[1], thatDbProvider,
+                             skipColumns, skipContent, skipRows, indexNameMatcher, thatBackupXmlFile, equality);
+            }
+        } else {
+            if (log.isDebugEnabled()) {
+                log.debug("Comparing " + tablesToCompare.size() + " tables using " + numberOfThreads
+                          + " threads");
+            }
 
-            int thisNumberOfRows = -1;
-            int thatNumberOfRows = -1;
-            SkipContent skipContentForThisTable = skipContent.get(tableName.toLowerCase());
+            // each table is compared into its own equality state,
+            // these are merged in the order of the tables, so the result does not depend on the thread timings
+            ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+            try {
+                List<Future<DatabaseEqualityState>> results = new ArrayList<Future<DatabaseEqualityState>>();
+                for (final TableDescription[] tables : tablesToCompare) {
+                    results.add(executor.submit(new Callable<DatabaseEqualityState>() {
+
+                        @Override
+                        public DatabaseEqualityState call() {
+
+                            DatabaseEqualityState tableEquality = new DatabaseEqualityState(thisSnapshotName,
+                                                                                            thatSnapshotName);
+                            compareTable(thisSnapshotName, tables[0], thatSnapshotName, tables[1],
+                                         thatDbProvider, skipColumns, skipContent, skipRows,
+                                         indexNameMatcher, null, tableEquality);
+                            return tableEquality;
+                        }
+                    }));
+                }
+
+                for (Future<DatabaseEqualityState> result : results) {
+                    equality.merge(result.get());
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseSnapshotException("Interrupted while comparing database snapshots", ie);
+            } catch (ExecutionException ee) {
+                if (ee.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ee.getCause();
+                }
+                throw new DatabaseSnapshotException("Error comparing database snapshots", ee.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        thisTables.clear();
+    }
+
+    /**
+     * Compares one table between two snapshots
+     */
+    private void compareTable( String thisSnapshotName, TableDescription thisTable, String thatSnapshotName,
+                               TableDescription thatTable, DbProvider thatDbProvider,
+                               Map<String, SkipColumns> skipColumns, Map<String, SkipContent> skipContent,
+                               Map<String, SkipRows> skipRows, IndexMatcher indexNameMatcher,
+                               Document thatBackupXmlFile, DatabaseEqualityState equality ) {
+
+        SortedTableRows thisValues = null;
+        SortedTableRows thatValues = null;
+
+        int thisNumberOfRows = -1;
+        int thatNumberOfRows = -1;
+        SkipContent skipContentForThisTable = skipContent.get(thisTable.getName().toLowerCase());
+        try {
             if (skipContentForThisTable != null) {
                 if (skipContentForThisTable.isRememberNumberOfRows()) {
                     // we do not compare the content of the tables,
@@ -768,21 +899,64 @@ private void compareTables( String thisSnapshotName, List<TableDescription> this
                                                        thatBackupXmlFile);
                 }
                 // else -> we completely do not compare the content of the tables
+            } else if (this.useContentFingerprints || isFingerprintOnly(thisTable, this.backupXmlFile)
+                       || isFingerprintOnly(thatTable, thatBackupXmlFile)) {
+                // first compare the table fingerprints, the rows are loaded only if they differ
+                TableFingerprint thisFingerprint = loadTableFingerprint(thisSnapshotName, thisTable, skipColumns,
+                                                                        skipRows, this.dbProvider,
+                                                                        this.backupXmlFile);
+                TableFingerprint thatFingerprint = loadTableFingerprint(thatSnapshotName, thatTable, skipColumns,
+                                                                        skipRows, thatDbProvider,
+                                                                        thatBackupXmlFile);
+                if (thisFingerprint.isSame(thatFingerprint)) {
+                    // same content, so only the table meta data is compared
+                    thisTable.compare(thatTable, Collections.<String> emptyIterator(),
+                                      Collections.<String> emptyIterator(), -1, -1, indexNameMatcher,
+                                      equality);
+                    return;
+                }
+
+                thisNumberOfRows = (int) thisFingerprint.getNumberOfRows();
+                thatNumberOfRows = (int) thatFingerprint.getNumberOfRows();
+                if (isFingerprintOnly(thisTable, this.backupXmlFile)
+                    || isFingerprintOnly(thatTable, thatBackupXmlFile)) {
+                    // the rows of at least one of the tables are not available
+                    log.warn("The content of table " + thisTable.getName()
+                             + " is different, but the different rows can not be found as the content of at least one snapshot is saved as fingerprint");
+                    equality.addTableWithDifferentContent(thisTable.getName());
+                } else {
+                    // load the rows of the different chunks only
+                    boolean[] differentChunks = thisFingerprint.getDifferentChunks(thatFingerprint);
+                    thisValues = loadTableData(thisSnapshotName, thisTable, skipColumns, skipRows,
+                                               this.dbProvider, this.backupXmlFile, differentChunks);
+                    thatValues = loadTableData(thatSnapshotName, thatTable, skipColumns, skipRows,
+                                               thatDbProvider, thatBackupXmlFile, differentChunks);
+                }
             } else {
                 // we want to compare the content of the tables,
                 // so load the table content
-                thisValuesList = loadTableData(thisSnapshotName, thisTable, skipColumns, skipRows,
-                                               this.dbProvider, this.backupXmlFile);
-                thatValuesList = loadTableData(thatSnapshotName, thatTable, skipColumns, skipRows,
-                                               thatDbProvider, thatBackupXmlFile);
+                thisValues = loadTableData(thisSnapshotName, thisTable, skipColumns, skipRows, this.dbProvider,
+                                           this.backupXmlFile);
+                thatValues = loadTableData(thatSnapshotName, thatTable, skipColumns, skipRows, thatDbProvider,
+                                           thatBackupXmlFile);
             }
 
-            // do the actual comparison
-            thisTable.compare(thatTable, thisValuesList, thatValuesList, thisNumberOfRows, thatNumberOfRows,
-                              indexNameMatcher, equality);
+            // do the actual comparison, the sorted rows of both tables are merged while reading them
+            thisTable.compare(thatTable, thisValues == null
+                                                            ? null
+                                                            : thisValues.iterator(),
+                              thatValues == null
+                                                 ? null
+                                                 : thatValues.iterator(),
+                              thisNumberOfRows, thatNumberOfRows, indexNameMatcher, equality);
+        } finally {
+            if (thisValues != null) {
+                thisValues.close();
+            }
+            if (thatValues != null) {
+                thatValues.close();
+            }
         }
-
-        thisTables.clear();
     }
 
     /**
@@ -1085,11 +1259,122 @@ private List<String> getCommonTables( String thisSnapshotName, List<TableDescrip
      * @param backupXmlFile backup file to use
      * @return
      */
-    List<String> loadTableData( String snapshotName, TableDescription table,
-                                Map<String, SkipColumns> skipColumns, Map<String, SkipRows> skipRows,
-                                DbProvider dbProvider, Document backupXmlFile ) {
+    SortedTableRows loadTableData( String snapshotName, TableDescription table,
+                                   Map<String, SkipColumns> skipColumns, Map<String, SkipRows> skipRows,
+                                   DbProvider dbProvider, Document backupXmlFile ) {
+
+        return loadTableData(snapshotName, table, skipColumns, skipRows, dbProvider, backupXmlFile, null);
+    }
+
+    /**
+     * Return list with the rows of some particular table
+     * 
+     * @param snapshotName snapshot name
+     * @param table the table of question
+     * @param skipColumns skip rules
+     * @param skipRows rows to skip
+     * @param dbProvider DB connection to use
+     * @param backupXmlFile backup file to use
+     * @param chunksToLoad if not null, only rows from these fingerprint chunks are loaded
+     * @return
+     */
+    SortedTableRows loadTableData( String snapshotName, final TableDescription table,
+                                   Map<String, SkipColumns> skipColumns, Map<String, SkipRows> skipRows,
+                                   DbProvider dbProvider, Document backupXmlFile, final boolean[] chunksToLoad ) {
+
+        final SortedTableRows valuesList = new SortedTableRows(table.getName(),
+                                                               AtsSystemProperties.getPropertyAsNonNegativeNumber(AtsSystemProperties.ACTION__DB_SNAPSHOT_MAX_ROWS_IN_MEMORY,
+                                                                                                                  AtsSystemProperties.ACTION__DB_SNAPSHOT_MAX_ROWS_IN_MEMORY_DEFAULT));
+        try {
+            loadTableRows(snapshotName, table, skipColumns, skipRows, dbProvider, backupXmlFile,
+                          new Consumer<String>() {
+
+                              @Override
+                              public void accept( String row ) {
+
+                                  if (chunksToLoad == null
+                                      || chunksToLoad[TableFingerprint.getChunk(row,
+                                                                                table.getPrimaryKeyColumn())]) {
+                                      valuesList.add(row);
+                                  }
+                              }
+                          });
+        } catch (RuntimeException e) {
+            valuesList.close();
+            throw e;
+        }
+
+        if (valuesList.getSpillFilesCount() > 0 && log.isDebugEnabled()) {
+            log.debug("[" + snapshotName + "] Used " + valuesList.getSpillFilesCount()
+                      + " temporary files for the rows of table " + table.getName());
+        }
+
+        // the rows are sorted while iterating them, this gives consistent compare results
+        return valuesList;
+    }
+
+    /**
+     * Return the content fingerprint of some particular table.
+     * The rows are streamed through the fingerprint, they are not kept in memory.
+     * 
+     * @param snapshotName snapshot name
+     * @param table the table of question
+     * @param skipColumns skip rules
+     * @param skipRows rows to skip
+     * @param dbProvider DB connection to use
+     * @param backupXmlFile backup file to use
+     * @return
+     */
+    TableFingerprint loadTableFingerprint( String snapshotName, TableDescription table,
+                                           Map<String, SkipColumns> skipColumns, Map<String, SkipRows> skipRows,
+                                           DbProvider dbProvider, Document backupXmlFile ) {
+
+        if (backupXmlFile != null) {
+            Element tableNode = loadTableNode(table, backupXmlFile);
+            if (tableNode != null) {
+                TableFingerprint fingerprint = TableFingerprint.fromXmlNode(tableNode);
+                if (fingerprint != null) {
+                    return fingerprint;
+                }
+            }
+            // else the backup file keeps the table rows
+        }
+
+        final TableFingerprint fingerprint = new TableFingerprint(table.getPrimaryKeyColumn());
+        loadTableRows(snapshotName, table, skipColumns, skipRows, dbProvider, backupXmlFile,
+                      new Consumer<String>() {
+
+                          @Override
+                          public void accept( String row ) {
+
+                              fingerprint.addRow(row);
+                          }
+                      });
+        return fingerprint;
+    }
+
+    /**
+     * @return whether the backup file keeps content fingerprint instead of rows for this table
+     */
+    private boolean isFingerprintOnly( TableDescription table, Document backupXmlFile ) {
+
+        if (backupXmlFile == null) {
+            return false;
+        }
+        Element tableNode = loadTableNode(table, backupXmlFile);
+        return tableNode != null
+               && !DatabaseSnapshotUtils.getChildrenByTagName(tableNode,
+                                                              DatabaseSnapshotUtils.NODE_FINGERPRINT)
+                                        .isEmpty();
+    }
+
+    /**
+     * Pass all rows of some particular table to the row handler, one by one
+     */
+    private void loadTableRows( String snapshotName, TableDescription table, Map<String, SkipColumns> skipColumns,
+                                Map<String, SkipRows> skipRows, DbProvider dbProvider, Document backupXmlFile,
+                                final Consumer<String> rowHandler ) {
 
-        List<String> valuesList = new ArrayList<String>();
         if (backupXmlFile == null) {
             // load table row data from database
 
@@ -1100,24 +1385,36 @@ List<String> loadTableData( String snapshotName, TableDescription table,
 
             String sqlQuery = constructSelectStatement(table, skipColumns);
             if (sqlQuery != null) {
-                for (DbRecordValuesList rowValues : dbProvider.select(sqlQuery)) {
-                    // if there are rows for skipping we will find them and remove them from the list
-                    String stringRowValue = rowValues.toString();
-
-                    // escaping special characters that may 
-                    // cause some trouble while saving the snapshot into XML file
-                    stringRowValue.replace("&", "&amp;");
-                    stringRowValue.replace("<", "&lt;");
-                    stringRowValue.replace(">", "&gt;");
-
-                    SkipRows skipRow = skipRows.get(table.getName().toLowerCase());
-                    if (skipRow == null || !skipRow.skipRow(stringRowValue)) {
-                        valuesList.add(stringRowValue);
-                    }
-                }
+                // if there are rows for skipping we will find them and do not add them
+                final SkipRows skipRow = skipRows.get(table.getName().toLowerCase());
+                final int[] numberOfRows = new int[1];
+
+                // the rows are streamed from the database, so the whole table is never loaded in memory
+                int fetchSize = AtsSystemProperties.getPropertyAsNonNegativeNumber(AtsSystemProperties.ACTION__DB_SNAPSHOT_FETCH_SIZE,
+                                                                                   AtsSystemProperties.ACTION__DB_SNAPSHOT_FETCH_SIZE_DEFAULT);
+                dbProvider.select(new DbQuery(sqlQuery), DbReturnModes.OBJECT, fetchSize,
+                                  new Consumer<DbRecordValuesList>() {
+
+                                      @Override
+                                      public void accept( DbRecordValuesList rowValues ) {
+
+                                          String stringRowValue = rowValues.toString();
+
+                                          // escaping special characters that may 
+                                          // cause some trouble while saving the snapshot into XML file
+                                          stringRowValue.replace("&", "&amp;");
+                                          stringRowValue.replace("<", "&lt;");
+                                          stringRowValue.replace(">", "&gt;");
+
+                                          if (skipRow == null || !skipRow.skipRow(stringRowValue)) {
+                                              numberOfRows[0]++;
+                                              rowHandler.accept(stringRowValue);
+                                          }
+                                      }
+                                  });
                 if (log.isDebugEnabled()) {
-                    log.debug("[" + snapshotName + "] Loaded " + valuesList.size() + " rows for table "
-                            + table.getName());
+                    log.debug("[" + snapshotName + "] Loaded " + numberOfRows[0] + " rows for table "
+                              + table.getName());
                 }
             } else {
                 log.warn("[" + snapshotName + "] No data will be loaded for table " + table.getName()
@@ -1130,20 +1427,12 @@ List<String> loadTableData( String snapshotName, TableDescription table,
             List<Element> tableRows = DatabaseSnapshotUtils.getChildrenByTagName(tableNode, "row");
             if (log.isDebugEnabled()) {
                 log.debug("[" + snapshotName + " from file] Loaded " + tableRows.size() + " rows for table "
-                        + table.getName());
-            }
-            for (Element tableRow : DatabaseSnapshotUtils.getChildrenByTagName(tableNode, "row")) {
-                valuesList.add(tableRow.getTextContent());
+                          + table.getName());
             }
-        }
-        if ( !valuesList.isEmpty()) {
-            if (log.isTraceEnabled()) {
-                log.trace("[" + snapshotName + "] Sorting rows of table " + table.getName());
+            for (Element tableRow : tableRows) {
+                rowHandler.accept(tableRow.getTextContent());
             }
-            valuesList.sort(null); // for consistent compare results
         }
-
-        return valuesList;
     }
 
     /**
@@ -1193,7 +1482,10 @@ int loadTableLength( String snapshotName, TableDescription table, DbProvider dbP
                     }
                 } else {
                     // count the number of rows
-                    return loadTableData(snapshotName, table, null, null, dbProvider, backupXmlFile).size();
+                    SortedTableRows tableRows = loadTableData(snapshotName, table, null, null, dbProvider,
+                                                              backupXmlFile);
+                    tableRows.close();
+                    return tableRows.size();
                 }
             } else {
                 throw new DatabaseSnapshotException("Table " + table.getName()
@@ -103,15 +103,32 @@ public Document saveToFile( DatabaseSnapshot snapshot, String backupFile ) {
                 continue;
             }
 
+            if (snapshot.isUseContentFingerprints()) {
+                // append the table content fingerprint instead of the table rows
+                TableFingerprint fingerprint = snapshot.loadTableFingerprint(snapshot.name, tableDescription,
+                                                                             snapshot.skipColumnsPerTable,
+                                                                             snapshot.skipRowsPerTable, null,
+                                                                             null);
+                tableNode.setAttribute(DatabaseSnapshotUtils.ATTR_TABLE_NUMBER_ROWS,
+                                       String.valueOf(fingerprint.getNumberOfRows()));
+                fingerprint.toXmlNode(doc, tableNode);
+
+                continue;
+            }
+
             // append table content
-            List<String> valuesList = snapshot.loadTableData(snapshot.name, tableDescription,
-                                                             snapshot.skipColumnsPerTable,
-                                                             snapshot.skipRowsPerTable, null, null);
-            for (String values : valuesList) {
-                Element rowNode = doc.createElement(DatabaseSnapshotUtils.NODE_ROW);
-                rowNode.setTextContent(StringUtils.escapeNonPrintableAsciiCharacters(values));
-
-                tableNode.appendChild(rowNode);
+            SortedTableRows valuesList = snapshot.loadTableData(snapshot.name, tableDescription,
+                                                                snapshot.skipColumnsPerTable,
+                                                                snapshot.skipRowsPerTable, null, null);
+            try {
+                for (String values : valuesList) {
+                    Element rowNode = doc.createElement(DatabaseSnapshotUtils.NODE_ROW);
+                    rowNode.setTextContent(StringUtils.escapeNonPrintableAsciiCharacters(values));
+
+                    tableNode.appendChild(rowNode);
+                }
+            } finally {
+                valuesList.close();
             }
         }
 
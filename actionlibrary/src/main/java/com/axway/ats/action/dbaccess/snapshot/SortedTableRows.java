@@ -0,0 +1,292 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.action.dbaccess.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.common.dbaccess.snapshot.DatabaseSnapshotException;
+import com.axway.ats.core.utils.IoUtils;
+
+/**
+ * The rows of one table, kept in natural(lexicographic) order.
+ * <p>
+ * Up to some number of rows are kept in memory. When there are more rows, they are sorted
+ * and spilled into a temporary file and the memory is reused for the next rows.
+ * In the end all sorted chunks are merged while iterating, so the memory used
+ * does not depend on the table size.
+ * </p>
+ * The rows can be iterated once only. Call {@link #close()} when done, so the temporary files are deleted.
+ */
+class SortedTableRows implements Iterable<String>, Closeable {
+
+    private static final Logger   log               = Logger.getLogger(SortedTableRows.class);
+
+    private static final int      SPILL_BUFFER_SIZE = 64 * 1024;
+
+    private final String          tableName;
+    private final int             maxRowsInMemory;
+
+    private List<String>          rowsInMemory      = new ArrayList<String>();
+    private final List<File>      spillFiles        = new ArrayList<File>();
+    private final List<Closeable> openedReaders     = new ArrayList<Closeable>();
+
+    private int                   size;
+    private boolean               iterated;
+
+    /**
+     * @param tableName the table name, used for logging only
+     * @param maxRowsInMemory how many rows to keep in memory before spilling them to a temporary file
+     */
+    SortedTableRows( String tableName, int maxRowsInMemory ) {
+
+        this.tableName = tableName;
+        this.maxRowsInMemory = Math.max(1, maxRowsInMemory);
+    }
+
+    void add( String row ) {
+
+        if (iterated) {
+            throw new IllegalStateException("Rows of table " + tableName + " are already iterated");
+        }
+
+        rowsInMemory.add(row);
+        size++;
+        if (rowsInMemory.size() >= maxRowsInMemory) {
+            spill();
+        }
+    }
+
+    /**
+     * @return the number of rows
+     */
+    int size() {
+
+        return size;
+    }
+
+    /**
+     * @return number of temporary files used
+     */
+    int getSpillFilesCount() {
+
+        return spillFiles.size();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+
+        if (iterated) {
+            throw new IllegalStateException("Rows of table " + tableName + " can be iterated once only");
+        }
+        iterated = true;
+
+        Collections.sort(rowsInMemory);
+        if (spillFiles.isEmpty()) {
+            return rowsInMemory.iterator();
+        }
+
+        // merge the sorted chunks
+        final PriorityQueue<RowsChunk> chunks = new PriorityQueue<RowsChunk>();
+        addChunk(chunks, new RowsChunk(rowsInMemory.iterator()));
+        for (File spillFile : spillFiles) {
+            final DataInputStream in = openSpillFile(spillFile);
+            addChunk(chunks, new RowsChunk(new Iterator<String>() {
+
+                private String nextRow = readRow(in);
+
+                @Override
+                public boolean hasNext() {
+
+                    return nextRow != null;
+                }
+
+                @Override
+                public String next() {
+
+                    if (nextRow == null) {
+                        throw new NoSuchElementException();
+                    }
+                    String row = nextRow;
+                    nextRow = readRow(in);
+                    return row;
+                }
+            }));
+        }
+
+        return new Iterator<String>() {
+
+            @Override
+            public boolean hasNext() {
+
+                return !chunks.isEmpty();
+            }
+
+            @Override
+            public String next() {
+
+                RowsChunk chunk = chunks.poll();
+                if (chunk == null) {
+                    throw new NoSuchElementException();
+                }
+                String row = chunk.currentRow;
+                if (chunk.advance()) {
+                    chunks.add(chunk);
+                }
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Delete the temporary files
+     */
+    @Override
+    public void close() {
+
+        for (Closeable reader : openedReaders) {
+            IoUtils.closeStream(reader);
+        }
+        openedReaders.clear();
+
+        for (File spillFile : spillFiles) {
+            if (!spillFile.delete()) {
+                log.warn("Unable to delete temporary file " + spillFile.getAbsolutePath());
+            }
+        }
+        spillFiles.clear();
+        rowsInMemory = new ArrayList<String>();
+    }
+
+    private void spill() {
+
+        Collections.sort(rowsInMemory);
+
+        File spillFile = null;
+        DataOutputStream out = null;
+        try {
+            // the file is deleted on close(), it is not registered for deletion on JVM exit
+            // as the list of such files would grow with each spilled chunk
+            spillFile = File.createTempFile("ats_db_snapshot_", ".rows");
+            spillFiles.add(spillFile);
+
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile),
+                                                                SPILL_BUFFER_SIZE));
+            for (String row : rowsInMemory) {
+                byte[] rowBytes = row.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(rowBytes.length);
+                out.write(rowBytes);
+            }
+        } catch (IOException ioe) {
+            throw new DatabaseSnapshotException("Error saving rows of table " + tableName + " into temporary file "
+                                                + spillFile, ioe);
+        } finally {
+            IoUtils.closeStream(out);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Saved " + rowsInMemory.size() + " sorted rows of table " + tableName
+                      + " into temporary file " + spillFile.getAbsolutePath());
+        }
+        // do not keep the big array
+        rowsInMemory = new ArrayList<String>();
+    }
+
+    private DataInputStream openSpillFile( File spillFile ) {
+
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile),
+                                                                             SPILL_BUFFER_SIZE));
+            openedReaders.add(in);
+            return in;
+        } catch (IOException ioe) {
+            throw new DatabaseSnapshotException("Error reading rows of table " + tableName
+                                                + " from temporary file " + spillFile, ioe);
+        }
+    }
+
+    private String readRow( DataInputStream in ) {
+
+        try {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException eof) {
+                return null;
+            }
+            byte[] rowBytes = new byte[length];
+            in.readFully(rowBytes);
+            return new String(rowBytes, StandardCharsets.UTF_8);
+        } catch (IOException ioe) {
+            throw new DatabaseSnapshotException("Error reading rows of table " + tableName
+                                                + " from temporary file", ioe);
+        }
+    }
+
+    private void addChunk( PriorityQueue<RowsChunk> chunks, RowsChunk chunk ) {
+
+        if (chunk.advance()) {
+            chunks.add(chunk);
+        }
+    }
+
+    /**
+     * A sorted sequence of rows, ordered by its current row
+     */
+    private static class RowsChunk implements Comparable<RowsChunk> {
+
+        private final Iterator<String> rows;
+        private String                 currentRow;
+
+        RowsChunk( Iterator<String> rows ) {
+
+            this.rows = rows;
+        }
+
+        boolean advance() {
+
+            if (rows.hasNext()) {
+                currentRow = rows.next();
+                return true;
+            }
+            currentRow = null;
+            return false;
+        }
+
+        @Override
+        public int compareTo( RowsChunk that ) {
+
+            return this.currentRow.compareTo(that.currentRow);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.action.dbaccess.snapshot;
+
+import java.util.List;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import com.axway.ats.common.dbaccess.snapshot.DatabaseSnapshotException;
+import com.axway.ats.common.dbaccess.snapshot.DatabaseSnapshotUtils;
+import com.axway.ats.core.utils.StringUtils;
+
+/**
+ * Order independent fingerprint of a table content.
+ * <p>
+ * Each row gets a 64 bit hash. The table hash is the sum of all row hashes, so it does not depend on the
+ * order the rows are read in, and it is calculated while the rows are streamed without keeping them.
+ * </p>
+ * <p>
+ * The rows are also split into chunks by the value of their primary key column, and each chunk has its own
+ * hash. A changed row changes the same chunk in both snapshots, so when the tables differ,
+ * only the rows of the different chunks need to be loaded and compared.
+ * </p>
+ */
+class TableFingerprint {
+
+    static final int          NUMBER_OF_CHUNKS = 64;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME        = 0x100000001b3L;
+
+    private final String      primaryKeyColumn;
+
+    private long              numberOfRows;
+    private long              hash;
+
+    private final long[]      chunkRows        = new long[NUMBER_OF_CHUNKS];
+    private final long[]      chunkHashes      = new long[NUMBER_OF_CHUNKS];
+
+    /**
+     * @param primaryKeyColumn the primary key column, the rows are split into chunks by its value.
+     * If it is empty, the rows are split by their whole content
+     */
+    TableFingerprint( String primaryKeyColumn ) {
+
+        this.primaryKeyColumn = primaryKeyColumn == null
+                                                         ? ""
+                                                         : primaryKeyColumn;
+    }
+
+    void addRow( String row ) {
+
+        long rowHash = hash(row);
+        int chunk = getChunk(row);
+
+        numberOfRows++;
+        hash += rowHash;
+        chunkRows[chunk]++;
+        chunkHashes[chunk] += rowHash;
+    }
+
+    long getNumberOfRows() {
+
+        return numberOfRows;
+    }
+
+    boolean isSame( TableFingerprint that ) {
+
+        return this.numberOfRows == that.numberOfRows && this.hash == that.hash;
+    }
+
+    /**
+     * @param that the other fingerprint
+     * @return for each chunk - whether it is different in both fingerprints
+     */
+    boolean[] getDifferentChunks( TableFingerprint that ) {
+
+        boolean[] differentChunks = new boolean[NUMBER_OF_CHUNKS];
+        for (int i = 0; i < NUMBER_OF_CHUNKS; i++) {
+            differentChunks[i] = this.chunkRows[i] != that.chunkRows[i]
+                                 || this.chunkHashes[i] != that.chunkHashes[i];
+        }
+        return differentChunks;
+    }
+
+    int getChunk( String row ) {
+
+        return getChunk(row, primaryKeyColumn);
+    }
+
+    /**
+     * @param row the row values as returned by the DB provider, for example <i>id=1|name=abc</i>
+     * @param primaryKeyColumn the primary key column, may be empty
+     * @return the chunk of this row
+     */
+    static int getChunk( String row, String primaryKeyColumn ) {
+
+        String chunkKey = row;
+        if (!StringUtils.isNullOrEmpty(primaryKeyColumn)) {
+            // find the primary key value
+            for (String column : row.split("\\|")) {
+                if (column.length() > primaryKeyColumn.length()
+                    && column.charAt(primaryKeyColumn.length()) == '='
+                    && column.regionMatches(true, 0, primaryKeyColumn, 0, primaryKeyColumn.length())) {
+                    chunkKey = column;
+                    break;
+                }
+            }
+        }
+
+        return (int) ( (hash(chunkKey) >>> 1) % NUMBER_OF_CHUNKS);
+    }
+
+    /**
+     * Append the fingerprint into the table node of a backup file
+     */
+    void toXmlNode( Document dom, Element tableNode ) {
+
+        Element fingerprintNode = dom.createElement(DatabaseSnapshotUtils.NODE_FINGERPRINT);
+        fingerprintNode.setAttribute(DatabaseSnapshotUtils.ATTR_FINGERPRINT_ROWS, String.valueOf(numberOfRows));
+        fingerprintNode.setAttribute(DatabaseSnapshotUtils.ATTR_FINGERPRINT_HASH, Long.toHexString(hash));
+        fingerprintNode.setAttribute(DatabaseSnapshotUtils.ATTR_FINGERPRINT_KEY, primaryKeyColumn);
+
+        // only the not empty chunks as 'chunk:rows:hash', separated by comma
+        StringBuilder chunks = new StringBuilder();
+        for (int i = 0; i < NUMBER_OF_CHUNKS; i++) {
+            if (chunkRows[i] > 0) {
+                if (chunks.length() > 0) {
+                    chunks.append(",");
+                }
+                chunks.append(i)
+                      .append(":")
+                      .append(chunkRows[i])
+                      .append(":")
+                      .append(Long.toHexString(chunkHashes[i]));
+            }
+        }
+        fingerprintNode.setTextContent(chunks.toString());
+
+        tableNode.appendChild(fingerprintNode);
+    }
+
+    /**
+     * @param tableNode the table node of a backup file
+     * @return the fingerprint saved in the table node or null if the table content is saved as rows
+     */
+    static TableFingerprint fromXmlNode( Element tableNode ) {
+
+        List<Element> fingerprintNodes = DatabaseSnapshotUtils.getChildrenByTagName(tableNode,
+                                                                                   DatabaseSnapshotUtils.NODE_FINGERPRINT);
+        if (fingerprintNodes.isEmpty()) {
+            return null;
+        }
+
+        Element fingerprintNode = fingerprintNodes.get(0);
+        TableFingerprint fingerprint = new TableFingerprint(fingerprintNode.getAttribute(DatabaseSnapshotUtils.ATTR_FINGERPRINT_KEY));
+        try {
+            fingerprint.numberOfRows = Long.parseLong(fingerprintNode.getAttribute(DatabaseSnapshotUtils.ATTR_FINGERPRINT_ROWS));
+            fingerprint.hash = Long.parseUnsignedLong(fingerprintNode.getAttribute(DatabaseSnapshotUtils.ATTR_FINGERPRINT_HASH),
+                                                      16);
+
+            String chunks = fingerprintNode.getTextContent();
+            if (!StringUtils.isNullOrEmpty(chunks)) {
+                for (String chunk : chunks.trim().split(",")) {
+                    String[] tokens = chunk.split(":");
+                    int index = Integer.parseInt(tokens[0]);
+                    fingerprint.chunkRows[index] = Long.parseLong(tokens[1]);
+                    fingerprint.chunkHashes[index] = Long.parseUnsignedLong(tokens[2], 16);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new DatabaseSnapshotException("Bad content fingerprint for table "
+                                                + tableNode.getAttribute(DatabaseSnapshotUtils.ATTR_TABLE_NAME),
+                                                e);
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * 64 bit FNV-1a hash, with the MurmurHash3 finalizer for better bit distribution
+     */
+    private static long hash( String value ) {
+
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= (hash >>> 33);
+        return hash;
+    }
+}
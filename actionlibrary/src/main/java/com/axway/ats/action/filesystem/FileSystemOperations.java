@@ -81,6 +81,11 @@ public class FileSystemOperations {
      * operations. In that case the test executor should open the data port for sending file to the agent.
      */
     private boolean copyInPassiveMode = false;
+    /**
+     * Delta mode for copy operations. If true - only the parts of the file which are not already present in the
+     * target file are sent.
+     */
+    private boolean copyInDeltaMode   = false;
 
     /**
      * Constructor when working on the local host
@@ -649,6 +654,21 @@ public void setCopyInPassiveMode( boolean copyPassiveMode ) {
         this.copyInPassiveMode = copyPassiveMode;
     }
 
+    /**
+     * Sets delta mode for copying files between the Test Executor and the ATS Agent and between ATS Agents. <br>
+     * In this mode the receiving side checks which blocks of the target file it already has and only the
+     * missing parts are sent. This is a lot faster when a big file is copied over a slightly different
+     * version of it. The copied file is verified with its SHA-256 sum.<br>
+     * Delta mode is not applied when copying in passive mode.
+     *
+     * @param copyDeltaMode <code>true</code> to send only the changed parts of the files
+     */
+    @PublicAtsApi
+    public void setCopyInDeltaMode( boolean copyDeltaMode ) {
+
+        this.copyInDeltaMode = copyDeltaMode;
+    }
+
     /**
      * Deletes a file <br>
      * <b>Note: </b>It does nothing if the file does not exist
@@ -1659,6 +1679,9 @@ private IFileSystemOperations getOperationsImplementationFor( String atsAgent )
         } else {
             RemoteFileSystemOperations rfso = new RemoteFileSystemOperations(atsAgent);
             // move to the place when directly will be needed: rfso.setCopyInPassiveMode(copyInPassiveMode);
+            if (copyInDeltaMode) {
+                rfso.setCopyInDeltaMode(true);
+            }
             return rfso;
         }
     }
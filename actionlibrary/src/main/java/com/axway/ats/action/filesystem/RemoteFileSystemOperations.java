@@ -39,6 +39,7 @@ public class RemoteFileSystemOperations implements IFileSystemOperations {
 
     private String  atsAgent          = null;
     private boolean copyInPassiveMode = false; // whether remote agents wants to work in passive mode
+    private boolean copyInDeltaMode   = false; // whether to send only the changed parts of the files
 
     private InternalFileSystemOperations remoteFileSystemOperations;
     private LocalFileSystemOperations    localFileSystemOperations;
@@ -142,6 +143,11 @@ public void setCopyInPassiveMode( boolean copyPassiveMode ) {
         this.copyInPassiveMode = copyPassiveMode;
     }
 
+    public void setCopyInDeltaMode( boolean copyDeltaMode ) {
+
+        this.copyInDeltaMode = copyDeltaMode;
+    }
+
     @Override
     public void copyFile( String fromFile, String toFile, boolean failOnError ) {
 
@@ -163,9 +169,15 @@ public void copyFile( String fromFile, String toFile, boolean failOnError ) {
             }
             if (!copyInPassiveMode) {
                 int port = remoteFileSystemOperations.openFileTransferSocket();
-                localFileSystemOperations.sendFileTo(fromFile, toFile,
-                                                     HostUtils.splitAddressHostAndPort(atsAgent)[0], port,
-                                                     failOnError);
+                if (copyInDeltaMode) {
+                    localFileSystemOperations.sendFileDeltaTo(fromFile, toFile,
+                                                              HostUtils.splitAddressHostAndPort(atsAgent)[0], port,
+                                                              failOnError);
+                } else {
+                    localFileSystemOperations.sendFileTo(fromFile, toFile,
+                                                         HostUtils.splitAddressHostAndPort(atsAgent)[0], port,
+                                                         failOnError);
+                }
                 remoteFileSystemOperations.waitForFileTransferCompletion(port);
             } else {
 
@@ -203,10 +215,12 @@ public void copyFileTo( String fromFile, String toMachine, String toFile, boolea
                 toRemoteFSOperations.setCopyFilePortRange(copyFileStartPort, copyFileEndPort);
             }
             int port = toRemoteFSOperations.openFileTransferSocket();
-            this.remoteFileSystemOperations.sendFileTo(fromFile, toFile,
-                                                       HostUtils.splitAddressHostAndPort(HostUtils.getAtsAgentIpAndPort(
-                                                               toMachine) /* append port */)[0],
-                                                       port, failOnError);
+            String toMachineIp = HostUtils.splitAddressHostAndPort(HostUtils.getAtsAgentIpAndPort(toMachine) /* append port */)[0];
+            if (copyInDeltaMode) {
+                this.remoteFileSystemOperations.sendFileDeltaTo(fromFile, toFile, toMachineIp, port, failOnError);
+            } else {
+                this.remoteFileSystemOperations.sendFileTo(fromFile, toFile, toMachineIp, port, failOnError);
+            }
             toRemoteFSOperations.waitForFileTransferCompletion(port);
 
         } catch (Exception e) {
@@ -236,9 +250,15 @@ public void copyFileFrom( String fromFile, String toFile, boolean failOnError )
             }
 
             int port = localFileSystemOperations.openFileTransferSocket();
-            remoteFileSystemOperations.sendFileTo(fromFile, toFile,
-                                                  HostUtils.getPublicLocalHostIp(this.atsAgent), port,
-                                                  failOnError);
+            if (copyInDeltaMode) {
+                remoteFileSystemOperations.sendFileDeltaTo(fromFile, toFile,
+                                                           HostUtils.getPublicLocalHostIp(this.atsAgent), port,
+                                                           failOnError);
+            } else {
+                remoteFileSystemOperations.sendFileTo(fromFile, toFile,
+                                                      HostUtils.getPublicLocalHostIp(this.atsAgent), port,
+                                                      failOnError);
+            }
             localFileSystemOperations.waitForFileTransferCompletion(port);
 
         } catch (Exception e) {
@@ -145,6 +145,9 @@ private void loadConfiguration() {
         configuration.setCheckMD5(configurator.snapshots.getCheckFileMd5());
         configuration.setCheckPermissions(configurator.snapshots.getCheckFilePermissions());
         configuration.setSupportHidden(configurator.snapshots.getSupportHiddenFiles());
+        configuration.setThreads(configurator.snapshots.getThreads());
+        configuration.setUseHashCache(configurator.snapshots.getUseHashCache());
+        configuration.setHashCacheFile(configurator.snapshots.getHashCacheFile());
 
         // Properties files
         configuration.setCheckPropertiesFilesContent(configurator.snapshots.getCheckPropertiesFilesContent());
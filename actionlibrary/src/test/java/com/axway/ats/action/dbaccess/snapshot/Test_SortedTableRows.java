@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.action.dbaccess.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.axway.ats.action.BaseTest;
+import com.axway.ats.common.dbaccess.snapshot.TableDescription;
+import com.axway.ats.common.dbaccess.snapshot.equality.DatabaseEqualityState;
+
+public class Test_SortedTableRows extends BaseTest {
+
+    @Test
+    public void rowsInMemoryOnly() {
+
+        SortedTableRows rows = new SortedTableRows("table1", 10);
+        rows.add("id=3");
+        rows.add("id=1");
+        rows.add("id=2");
+
+        assertEquals(3, rows.size());
+        assertEquals(0, rows.getSpillFilesCount());
+        assertEquals(Arrays.asList("id=1", "id=2", "id=3"), toList(rows));
+        rows.close();
+    }
+
+    @Test
+    public void rowsSpilledToFiles() {
+
+        List<String> expectedRows = new ArrayList<String>();
+        Random random = new Random(11);
+        SortedTableRows rows = new SortedTableRows("table1", 7);
+        for (int i = 0; i < 100; i++) {
+            // some duplicated rows and some special characters
+            String row = "id=" + random.nextInt(50) + "|name=äöü\nline " + i % 3;
+            expectedRows.add(row);
+            rows.add(row);
+        }
+        Collections.sort(expectedRows);
+
+        assertEquals(100, rows.size());
+        assertEquals(14, rows.getSpillFilesCount());
+        assertEquals(expectedRows, toList(rows));
+        rows.close();
+        assertEquals(0, rows.getSpillFilesCount());
+    }
+
+    @Test( expected = IllegalStateException.class)
+    public void iterateOnlyOnce() {
+
+        SortedTableRows rows = new SortedTableRows("table1", 10);
+        rows.add("id=1");
+        rows.iterator();
+        rows.iterator();
+    }
+
+    @Test
+    public void compareSortedRows() {
+
+        SortedTableRows thisRows = new SortedTableRows("table1", 2);
+        SortedTableRows thatRows = new SortedTableRows("table1", 2);
+        for (String row : new String[]{ "id=5", "id=1", "id=2", "id=2", "id=4" }) {
+            thisRows.add(row);
+        }
+        for (String row : new String[]{ "id=4", "id=3", "id=2", "id=1" }) {
+            thatRows.add(row);
+        }
+
+        DatabaseEqualityState equality = new DatabaseEqualityState("snapshot1", "snapshot2");
+        table("snapshot1").compare(table("snapshot2"), thisRows.iterator(), thatRows.iterator(), -1, -1, null,
+                                   equality);
+        thisRows.close();
+        thatRows.close();
+
+        assertTrue(equality.hasDifferences());
+        assertEquals(Arrays.asList("id=2", "id=5"),
+                     equality.getRowsPresentInOneSnapshotOnlyAsStrings("snapshot1", "table1"));
+        assertEquals(Arrays.asList("id=3"),
+                     equality.getRowsPresentInOneSnapshotOnlyAsStrings("snapshot2", "table1"));
+        assertEquals(Integer.valueOf(5), equality.getDifferentNumberOfRows("snapshot1", "table1"));
+        assertEquals(Integer.valueOf(4), equality.getDifferentNumberOfRows("snapshot2", "table1"));
+    }
+
+    @Test
+    public void compareSameRows() {
+
+        SortedTableRows thisRows = new SortedTableRows("table1", 3);
+        SortedTableRows thatRows = new SortedTableRows("table1", 3);
+        for (int i = 0; i < 20; i++) {
+            thisRows.add("id=" + i);
+            thatRows.add("id=" + (19 - i));
+        }
+
+        DatabaseEqualityState equality = new DatabaseEqualityState("snapshot1", "snapshot2");
+        table("snapshot1").compare(table("snapshot2"), thisRows.iterator(), thatRows.iterator(), -1, -1, null,
+                                   equality);
+        thisRows.close();
+        thatRows.close();
+
+        assertFalse(equality.hasDifferences());
+        assertNull(equality.getDifferentNumberOfRows("snapshot1", "table1"));
+    }
+
+    private static TableDescription table( String snapshotName ) {
+
+        TableDescription table = new TableDescription();
+        table.setSnapshotName(snapshotName);
+        table.setName("table1");
+        return table;
+    }
+
+    private static List<String> toList( SortedTableRows rows ) {
+
+        List<String> list = new ArrayList<String>();
+        for (String row : rows) {
+            list.add(row);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.action.dbaccess.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import com.axway.ats.action.BaseTest;
+import com.axway.ats.common.dbaccess.snapshot.DatabaseSnapshotUtils;
+
+public class Test_TableFingerprint extends BaseTest {
+
+    @Test
+    public void sameContentInDifferentOrder() {
+
+        TableFingerprint first = new TableFingerprint("id");
+        TableFingerprint second = new TableFingerprint("id");
+        for (int i = 0; i < 1000; i++) {
+            first.addRow("id=" + i + "|name=name " + i);
+            second.addRow("id=" + (999 - i) + "|name=name " + (999 - i));
+        }
+
+        assertEquals(1000, first.getNumberOfRows());
+        assertTrue(first.isSame(second));
+        for (boolean differentChunk : first.getDifferentChunks(second)) {
+            assertFalse(differentChunk);
+        }
+    }
+
+    @Test
+    public void changedRowIsInOneChunk() {
+
+        TableFingerprint first = new TableFingerprint("ID");
+        TableFingerprint second = new TableFingerprint("ID");
+        for (int i = 0; i < 1000; i++) {
+            first.addRow("id=" + i + "|name=name " + i);
+            if (i == 500) {
+                second.addRow("id=" + i + "|name=changed name");
+            } else {
+                second.addRow("id=" + i + "|name=name " + i);
+            }
+        }
+
+        assertFalse(first.isSame(second));
+        boolean[] differentChunks = first.getDifferentChunks(second);
+        int numberOfDifferentChunks = 0;
+        for (int i = 0; i < differentChunks.length; i++) {
+            if (differentChunks[i]) {
+                numberOfDifferentChunks++;
+                // the changed row is in the chunk of its primary key
+                assertEquals(i, first.getChunk("id=500|name=name 500"));
+                assertEquals(i, TableFingerprint.getChunk("name=changed name|id=500", "id"));
+            }
+        }
+        assertEquals(1, numberOfDifferentChunks);
+    }
+
+    @Test
+    public void duplicatedRowsAreCounted() {
+
+        TableFingerprint first = new TableFingerprint("");
+        first.addRow("name=a");
+        first.addRow("name=a");
+        TableFingerprint second = new TableFingerprint("");
+        second.addRow("name=a");
+
+        assertFalse(first.isSame(second));
+    }
+
+    @Test
+    public void saveAndLoad() throws Exception {
+
+        TableFingerprint fingerprint = new TableFingerprint("id");
+        for (int i = 0; i < 100; i++) {
+            fingerprint.addRow("id=" + i + "|name=name " + i);
+        }
+
+        Document dom = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element tableNode = dom.createElement(DatabaseSnapshotUtils.NODE_TABLE);
+        assertNull(TableFingerprint.fromXmlNode(tableNode));
+
+        fingerprint.toXmlNode(dom, tableNode);
+        TableFingerprint loadedFingerprint = TableFingerprint.fromXmlNode(tableNode);
+
+        assertEquals(100, loadedFingerprint.getNumberOfRows());
+        assertTrue(fingerprint.isSame(loadedFingerprint));
+        for (boolean differentChunk : fingerprint.getDifferentChunks(loadedFingerprint)) {
+            assertFalse(differentChunk);
+        }
+    }
+}
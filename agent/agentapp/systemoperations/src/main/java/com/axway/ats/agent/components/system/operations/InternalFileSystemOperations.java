@@ -311,6 +311,16 @@ public void sendFileTo( @Parameter( name = "fromFileName" ) String fromFileName,
         localFSOperations.sendFileTo(fromFileName, toFileName, machineIP, port, failOnError);
     }
 
+    @Action( name = "Internal File System Operations send File Delta To" )
+    public void sendFileDeltaTo( @Parameter( name = "fromFileName" ) String fromFileName,
+                                 @Parameter( name = "toFileName" ) String toFileName,
+                                 @Parameter( name = "machineIP" ) String machineIP,
+                                 @Parameter( name = "port" ) int port,
+                                 @Parameter( name = "failOnError" ) boolean failOnError ) throws Exception {
+
+        localFSOperations.sendFileDeltaTo(fromFileName, toFileName, machineIP, port, failOnError);
+    }
+
     /**
      * Actually get file From. Name left for consistency with other file operations.
      * Used when agent could not open port and will serve as file receiver without opening data pots, i.e. sender
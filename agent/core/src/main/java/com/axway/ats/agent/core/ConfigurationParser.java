@@ -55,6 +55,7 @@
 import com.axway.ats.environment.EnvironmentUnit;
 import com.axway.ats.environment.database.DatabaseEnvironmentUnit;
 import com.axway.ats.environment.database.model.DbTable;
+import com.axway.ats.environment.file.DirectoryBackupMode;
 import com.axway.ats.environment.file.DirectoryEnvironmentUnit;
 import com.axway.ats.environment.file.FileEnvironmentUnit;
 import com.axway.ats.environment.process.SystemProcessAction;
@@ -500,6 +501,14 @@ private EnvironmentUnit parseDirectoryEnvironment( Node directoryEnvironmentNode
                                                                                      backupName);
         directoryEnvironment.addAdditionalActions(additionalActions);
 
+        // get the optional backup mode
+        if (directoryEnvironmentNode.getAttributes().getNamedItem("backupMode") != null) {
+            String backupMode = directoryEnvironmentNode.getAttributes()
+                                                        .getNamedItem("backupMode")
+                                                        .getNodeValue();
+            directoryEnvironment.setBackupMode(DirectoryBackupMode.valueOf(backupMode.trim().toUpperCase()));
+        }
+
         return directoryEnvironment;
     }
 
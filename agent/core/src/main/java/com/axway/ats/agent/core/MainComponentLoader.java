@@ -29,6 +29,7 @@
 import com.axway.ats.agent.core.exceptions.AgentException;
 import com.axway.ats.agent.core.loading.ComponentHotDeployTask;
 import com.axway.ats.agent.core.loading.DynamicComponentLoader;
+import com.axway.ats.agent.core.monitoring.localstore.LocalMetricsStore;
 import com.axway.ats.core.utils.HostUtils;
 
 /**
@@ -106,6 +107,9 @@ public void destroy() throws AgentException {
         // finalize all components
         ComponentRepository.getInstance().finalizeAllComponents();
 
+        // write the last locally stored monitoring results to the disk
+        LocalMetricsStore.closeAll();
+
     }
 
     /**
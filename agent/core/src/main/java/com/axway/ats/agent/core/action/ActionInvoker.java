@@ -15,10 +15,7 @@
  */
 package com.axway.ats.agent.core.action;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import com.axway.ats.agent.core.ComponentActionMap;
 import com.axway.ats.agent.core.ComponentRepository;
@@ -33,10 +30,11 @@
  */
 public class ActionInvoker {
 
-    private ActionRequest        actionRequest;
-    private ActionMethod         actionMethod;
-    private Map<String, Integer> parameterPositions;
-    private Object[]             args;
+    private ActionRequest actionRequest;
+    private ActionMethod  actionMethod;
+    // the parameter names by their position
+    private String[]      parameterNames;
+    private Object[]      args;
 
     public List<String> getActionMethodParameterNames() {
 
@@ -79,14 +77,9 @@ public ActionInvoker( ActionRequest actionRequest ) throws NoSuchComponentExcept
 
         this.actionMethod = actionMap.getActionMethod(actionName, argTypes);
 
-        //get the parameter names
+        //get the parameter names in their positions
         List<String> parameterNames = this.actionMethod.getParameterNames();
-
-        //set the positions
-        this.parameterPositions = new HashMap<String, Integer>();
-        for (int i = 0; i < parameterNames.size(); i++) {
-            this.parameterPositions.put(parameterNames.get(i), i);
-        }
+        this.parameterNames = parameterNames.toArray(new String[parameterNames.size()]);
 
         //set the initial arguments - they can later be changes with
         this.args = args;
@@ -125,10 +118,10 @@ public String getActionName() {
     public List<ArgumentValue> setArguments(
                                              List<ArgumentValue> argumentValues ) {
 
-        for (Entry<String, Integer> paramPositon : parameterPositions.entrySet()) {
+        for (int i = 0; i < parameterNames.length; i++) {
             for (ArgumentValue argumentValue : argumentValues) {
-                if (paramPositon.getKey().equals(argumentValue.getName())) {
-                    args[paramPositon.getValue()] = argumentValue.getValue();
+                if (parameterNames[i].equals(argumentValue.getName())) {
+                    args[i] = argumentValue.getValue();
                     argumentValues.remove(argumentValue);
                     break;
                 }
@@ -16,10 +16,14 @@
 package com.axway.ats.agent.core.action;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,6 +58,21 @@ public class ActionMethod {
     private List<String>        parameterNames;
     private boolean             isDeprecated;
     protected boolean           hasEnumParameter;
+    // ATS internal actions are logged on debug level only
+    private boolean             isInternalAction;
+
+    /*
+     * The method handle used to invoke the action. It is bound on first invocation, as many actions are never invoked.
+     * It accepts the action class instance and the arguments array and returns the result as an Object.
+     */
+    private volatile MethodHandle methodHandle;
+    // set when the method handle cannot be created, so the action is always invoked by reflection
+    private volatile boolean      isMethodHandleUnavailable;
+    // the types the arguments must have so they can be passed to the method handle
+    private Class<?>[]            exactArgumentTypes;
+    private Class<?>[]            methodParameterTypes;
+    // the class of the action instance, null for static methods
+    private Class<?>              instanceClass;
 
     /**
      * @param componentName name of the component
@@ -96,6 +115,16 @@ public ActionMethod( String componentName, String actionName, Method method, Cla
             }
         }
 
+        /*
+         * ATS has some actions for internal usage and users should not see them.
+         * Currently we do not have some good way to distinguish these actions from the regular ones, for
+         * example we could use a new attribute in the Action annotation.
+         * For now we can filter these ATS internal actions by expecting their names match the next regular
+         * expression.
+         */
+        this.isInternalAction = actionName.matches("Internal.*Operations.*")
+                                || actionName.startsWith("InternalProcessTalker");
+
         //check if this method is deprecated
         Annotation deprecatedAnnotation = method.getAnnotation(Deprecated.class);
         if (deprecatedAnnotation != null) {
@@ -156,18 +185,9 @@ protected Object doInvoke( Object instance, List<String> parameterNames,
                                                           IllegalAccessException, InvocationTargetException,
                                                           ActionExecutionException {
 
-        /*
-         * Here we log the action we are going to be execute.
-         *
-         * ATS has some actions for internal usage and users should not see them.
-         * Currently we do not have some good way to distinguish these actions from the regular ones, for
-         * example we could use a new attribute in the Action annotation.
-         * For now we can filter these ATS internal actions by expecting their names match the next regular
-         * expression.
-         */
+        // Here we log the action we are going to be execute.
         if (log.isInfoEnabled()) {
-            if (!actionName.matches("Internal.*Operations.*")
-                && !actionName.startsWith("InternalProcessTalker")) {
+            if (!isInternalAction) {
                 log.info("Executing '" + actionName + "' with arguments "
                          + StringUtils.methodInputArgumentsToString(parameterValues));
             } else {
@@ -178,9 +198,113 @@ protected Object doInvoke( Object instance, List<String> parameterNames,
             }
         }
 
+        return invokeMethod(instance, parameterValues);
+    }
+
+    /**
+     * Invoke the java method which implements the action.
+     * 
+     * When the arguments have the exact types of the method parameters, the method is invoked through
+     * a cached method handle, which is cheaper than reflection.
+     * Otherwise it is invoked by reflection, which also takes care of the widening conversions and
+     * throws the proper exceptions when the arguments do not fit.
+     *
+     * @param instance an instance on which to invoke the method
+     * @param parameterValues the arguments
+     * @return result of the method invocation
+     */
+    protected Object invokeMethod( Object instance, Object[] parameterValues ) throws IllegalArgumentException,
+                                                                               IllegalAccessException,
+                                                                               InvocationTargetException {
+
+        MethodHandle handle = getMethodHandle();
+        if (handle != null && isExactMatch(instance, parameterValues)) {
+            try {
+                return (Object) handle.invokeExact(instance, parameterValues);
+            } catch (Throwable t) {
+                // the arguments were checked, so this comes from the action itself
+                throw new InvocationTargetException(t);
+            }
+        }
+
         return method.invoke(instance, parameterValues);
     }
 
+    private MethodHandle getMethodHandle() {
+
+        MethodHandle handle = methodHandle;
+        if (handle == null && !isMethodHandleUnavailable) {
+            // more than one thread may bind the handle at the same time, but they all get the same result
+            try {
+                handle = bindMethodHandle();
+                methodHandle = handle;
+            } catch (Exception e) {
+                log.debug("Could not create a method handle for '" + method
+                          + "', it will be invoked by reflection", e);
+                isMethodHandleUnavailable = true;
+            }
+        }
+
+        return handle;
+    }
+
+    private MethodHandle bindMethodHandle() throws IllegalAccessException {
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Class<?>[] exactTypes = new Class<?>[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            exactTypes[i] = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+        }
+
+        if (!method.isAccessible()) {
+            method.setAccessible(true);
+        }
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        Class<?> instanceType = method.getDeclaringClass();
+        if (Modifier.isStatic(method.getModifiers())) {
+            // the instance is ignored for static methods, as it is when invoking by reflection
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            instanceType = null;
+        }
+
+        handle = handle.asSpreader(Object[].class, parameterTypes.length)
+                       .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+
+        // publish the argument types before the handle, which is volatile
+        methodParameterTypes = parameterTypes;
+        exactArgumentTypes = exactTypes;
+        instanceClass = instanceType;
+        return handle;
+    }
+
+    /**
+     * @return whether the arguments can be passed to the method handle without any conversions
+     */
+    private boolean isExactMatch( Object instance, Object[] parameterValues ) {
+
+        Class<?>[] exactTypes = exactArgumentTypes;
+        if (parameterValues == null || parameterValues.length != exactTypes.length) {
+            return false;
+        }
+        if (instanceClass != null && !instanceClass.isInstance(instance)) {
+            return false;
+        }
+
+        for (int i = 0; i < exactTypes.length; i++) {
+            Object value = parameterValues[i];
+            if (value == null) {
+                if (methodParameterTypes[i].isPrimitive()) {
+                    // null cannot be passed for a primitive parameter
+                    return false;
+                }
+            } else if (!exactTypes[i].isInstance(value)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Has this action method been deprecated
      *
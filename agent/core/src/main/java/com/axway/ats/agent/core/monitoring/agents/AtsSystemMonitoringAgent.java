@@ -15,6 +15,7 @@
  */
 package com.axway.ats.agent.core.monitoring.agents;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -24,11 +25,13 @@
 import org.apache.log4j.Logger;
 
 import com.axway.ats.agent.core.monitoring.jvmmonitor.AtsJvmMonitor;
+import com.axway.ats.agent.core.monitoring.localstore.LocalMetricsStore;
 import com.axway.ats.agent.core.monitoring.systemmonitor.AtsSystemMonitor;
 import com.axway.ats.agent.core.monitoring.systemmonitor.ReadingsRepository;
 import com.axway.ats.common.performance.monitor.PerformanceMonitor;
 import com.axway.ats.common.performance.monitor.beans.MonitorResults;
 import com.axway.ats.common.performance.monitor.beans.ReadingBean;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
 import com.axway.ats.core.monitoring.MonitoringException;
 import com.axway.ats.core.threads.ThreadsPerCaller;
 import com.axway.ats.core.utils.HostUtils;
@@ -174,6 +177,13 @@ class MonitoringThread extends Thread {
 
         private String                  callerId;
 
+        // keeps the results between two sends to the DB, it is null when the results are sent after each poll
+        private SystemStatisticsBuffer  statisticsBuffer;
+        private long                    flushInterval;
+
+        // keeps a local copy of the results, it is null when not enabled
+        private LocalMetricsStore       localStore;
+
         MonitoringThread( int pollInterval,
                           long executorTimeOffset ) {
 
@@ -183,6 +193,22 @@ class MonitoringThread extends Thread {
             this.executorTimeOffset = executorTimeOffset;
             this.callerId = ThreadsPerCaller.getCaller();
 
+            this.flushInterval = AtsSystemProperties.getPropertyAsNonNegativeNumber(AtsSystemProperties.AGENT__MONITOR_FLUSH_INTERVAL,
+                                                                                    0)
+                                 * 1000L;
+            if (this.flushInterval > pollInterval) {
+                this.statisticsBuffer = new SystemStatisticsBuffer((int) (this.flushInterval / pollInterval) + 1,
+                                                                   MAX_LENGTH_STATISTIC_IDS,
+                                                                   MAX_LENGTH_STATISTIC_VALUES);
+            }
+
+            try {
+                this.localStore = LocalMetricsStore.acquireStore(HostUtils.getLocalHostIP());
+            } catch (IOException ioe) {
+                log.error("Could not open the local monitoring store. The results will be sent to the logging database only",
+                          ioe);
+            }
+
             setName("Monitoring_system-" + this.callerId);
 
             log.debug("Monitoring thread started at timestamp " + new Date());
@@ -278,6 +304,8 @@ public void run() {
 
                         if (newResults.size() > 0) {
 
+                            storeResultsLocally(newResults);
+
                             // update the DB definitions if needed
                             for (MonitorResults monitorResult : newResults) {
                                 updateDatabaseRepository(HostUtils.getLocalHostIP(), monitorResult.getReadings());
@@ -303,6 +331,17 @@ public void run() {
             } catch (Throwable th) {
                 log.error("Monitoring is aborted due to unexpected error", th);
             } finally {
+                // send the results which are still kept here
+                try {
+                    flushResults();
+                } catch (Throwable th) {
+                    log.error("Error sending the last system monitoring results to the logging database", th);
+                }
+                if (localStore != null) {
+                    // the store is shared with the other monitoring threads of this host
+                    localStore.release();
+                }
+
                 this.monitoringThreadState = MONITORING_THREAD_STATE.STOPPED;
                 ThreadsPerCaller.unregisterThread();
             }
@@ -354,6 +393,20 @@ private int logResults(
             // counter to hold the number of results which have logged
             int resultsAddeed = 0;
 
+            if (statisticsBuffer != null) {
+                // keep the results, they will be sent together with the results of the next polls
+                for (MonitorResults newResultsLine : monitorResults) {
+                    resultsAddeed += statisticsBuffer.add(newResultsLine.getTimestamp(),
+                                                          newResultsLine.getReadings());
+                }
+
+                if (System.currentTimeMillis() + executorTimeOffset
+                    - statisticsBuffer.getFirstTimestamp() >= flushInterval) {
+                    flushResults();
+                }
+                return resultsAddeed;
+            }
+
             for (MonitorResults newResultsLine : monitorResults) {
                 resultsAddeed += logResultsForOneTimestamp(newResultsLine);
             }
@@ -361,6 +414,42 @@ private int logResults(
             return resultsAddeed;
         }
 
+        private void storeResultsLocally(
+                                          List<MonitorResults> monitorResults ) {
+
+            if (localStore == null) {
+                return;
+            }
+
+            try {
+                for (MonitorResults newResultsLine : monitorResults) {
+                    localStore.add(newResultsLine.getTimestamp(), newResultsLine.getReadings());
+                }
+            } catch (IOException ioe) {
+                log.error("Could not write to the local monitoring store, it will not be used anymore", ioe);
+                localStore.release();
+                localStore = null;
+            }
+        }
+
+        /**
+         * Send all kept results to the DB
+         */
+        private void flushResults() {
+
+            if (statisticsBuffer == null) {
+                return;
+            }
+
+            SystemStatisticsBuffer.Rows rows = statisticsBuffer.drain();
+            if (rows != null && rows.getTimestamps().length > 0) {
+                dblog.insertSystemStatistcs(HostUtils.getLocalHostIP(),
+                                            rows.getTimestamps(),
+                                            rows.getStatisticIds(),
+                                            rows.getStatisticValues());
+            }
+        }
+
         private int logResultsForOneTimestamp(
                                                MonitorResults resultsLine ) {
 
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.agents;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.common.performance.monitor.beans.ReadingBean;
+
+/**
+ * Keeps the system monitoring results of many polls, so they can be sent to the log DB together.
+ * <p>
+ * The results are kept in columns - the poll timestamps are kept as milliseconds after the first timestamp
+ * and there is one column of values per statistic DB ID. A missing value is kept as null.
+ * The values are kept as they are polled, so they are sent to the DB without any loss of precision.
+ * </p>
+ * This class is not thread safe, it is used by the monitoring thread only.
+ */
+class SystemStatisticsBuffer {
+
+    private static final Logger          log = Logger.getLogger(SystemStatisticsBuffer.class);
+
+    private final int                    maxLengthStatisticIds;
+    private final int                    maxLengthStatisticValues;
+
+    private long                         firstTimestamp;
+    private int[]                        timestampDeltas;
+    private int                          rowsCount;
+
+    // the values per statistic DB ID, the index is the row
+    private final Map<Integer, String[]> columns;
+
+    /**
+     * @param initialCapacity expected number of polls between two flushes
+     * @param maxLengthStatisticIds max length of the statistic IDs of one row sent to the DB, longer rows are split
+     * @param maxLengthStatisticValues max length of the statistic values of one row sent to the DB, longer rows are split
+     */
+    SystemStatisticsBuffer( int initialCapacity,
+                            int maxLengthStatisticIds,
+                            int maxLengthStatisticValues ) {
+
+        this.maxLengthStatisticIds = maxLengthStatisticIds;
+        this.maxLengthStatisticValues = maxLengthStatisticValues;
+
+        this.timestampDeltas = new int[Math.max(1, initialCapacity)];
+        this.columns = new LinkedHashMap<Integer, String[]>();
+    }
+
+    /**
+     * Add the results of one poll
+     *
+     * @param timestamp the poll timestamp
+     * @param readings the polled readings
+     * @return the number of added values
+     */
+    int add(
+             long timestamp,
+             List<ReadingBean> readings ) {
+
+        if (rowsCount == 0) {
+            firstTimestamp = timestamp;
+        }
+        long timestampDelta = timestamp - firstTimestamp;
+        if (timestampDelta > Integer.MAX_VALUE || timestampDelta < Integer.MIN_VALUE) {
+            throw new IllegalStateException("The monitoring results are kept for too long, they must be sent to the DB more often");
+        }
+
+        if (rowsCount == timestampDeltas.length) {
+            grow();
+        }
+        int row = rowsCount++;
+        timestampDeltas[row] = (int) timestampDelta;
+
+        int valuesAdded = 0;
+        for (ReadingBean reading : readings) {
+            String readingValue = reading.getValue();
+            if (readingValue == null) {
+                log.error("Null value is passed for this reading [" + reading.toString()
+                          + "]. We will not insert this reading in the database.");
+                continue;
+            }
+            // like when the results are sent right away, the value is not validated here
+
+            String[] column = columns.get(reading.getDbId());
+            if (column == null) {
+                column = new String[timestampDeltas.length];
+                columns.put(reading.getDbId(), column);
+            }
+            column[row] = readingValue;
+            valuesAdded++;
+        }
+
+        return valuesAdded;
+    }
+
+    /**
+     * @return the number of polls in the buffer
+     */
+    int getRowsCount() {
+
+        return rowsCount;
+    }
+
+    /**
+     * @return the timestamp of the first poll in the buffer
+     */
+    long getFirstTimestamp() {
+
+        return firstTimestamp;
+    }
+
+    /**
+     * Take all results out of the buffer in the format expected by the log DB -
+     * for each row there are the statistic DB IDs and their values, separated by '_'
+     *
+     * @return the results or null if there are no results
+     */
+    Rows drain() {
+
+        if (rowsCount == 0) {
+            return null;
+        }
+
+        List<Long> timestamps = new ArrayList<Long>(rowsCount);
+        List<String> statisticIds = new ArrayList<String>(rowsCount);
+        List<String> statisticValues = new ArrayList<String>(rowsCount);
+
+        StringBuilder rowIds = new StringBuilder();
+        StringBuilder rowValues = new StringBuilder();
+        for (int row = 0; row < rowsCount; row++) {
+            long timestamp = firstTimestamp + timestampDeltas[row];
+
+            for (Map.Entry<Integer, String[]> column : columns.entrySet()) {
+                String value = column.getValue()[row];
+                if (value == null) {
+                    // no value for this statistic in this poll
+                    continue;
+                }
+
+                rowIds.append(column.getKey()).append('_');
+                rowValues.append(value).append('_');
+
+                if (rowIds.length() > maxLengthStatisticIds || rowValues.length() > maxLengthStatisticValues) {
+                    // the row is too long, send it in more chunks
+                    addRow(timestamp, rowIds, rowValues, timestamps, statisticIds, statisticValues);
+                }
+            }
+            if (rowIds.length() > 0) {
+                addRow(timestamp, rowIds, rowValues, timestamps, statisticIds, statisticValues);
+            }
+        }
+
+        rowsCount = 0;
+        columns.clear();
+
+        long[] timestampsArray = new long[timestamps.size()];
+        for (int i = 0; i < timestampsArray.length; i++) {
+            timestampsArray[i] = timestamps.get(i);
+        }
+        return new Rows(timestampsArray,
+                        statisticIds.toArray(new String[statisticIds.size()]),
+                        statisticValues.toArray(new String[statisticValues.size()]));
+    }
+
+    private void addRow(
+                         long timestamp,
+                         StringBuilder rowIds,
+                         StringBuilder rowValues,
+                         List<Long> timestamps,
+                         List<String> statisticIds,
+                         List<String> statisticValues ) {
+
+        // cut the last delimiter
+        timestamps.add(timestamp);
+        statisticIds.add(rowIds.substring(0, rowIds.length() - 1));
+        statisticValues.add(rowValues.substring(0, rowValues.length() - 1));
+
+        rowIds.setLength(0);
+        rowValues.setLength(0);
+    }
+
+    private void grow() {
+
+        int newCapacity = timestampDeltas.length * 2;
+        timestampDeltas = Arrays.copyOf(timestampDeltas, newCapacity);
+        for (Map.Entry<Integer, String[]> column : columns.entrySet()) {
+            column.setValue(Arrays.copyOf(column.getValue(), newCapacity));
+        }
+    }
+
+    /**
+     * The results as they are sent to the log DB
+     */
+    static class Rows {
+
+        private final long[]   timestamps;
+        private final String[] statisticIds;
+        private final String[] statisticValues;
+
+        Rows( long[] timestamps,
+              String[] statisticIds,
+              String[] statisticValues ) {
+
+            this.timestamps = timestamps;
+            this.statisticIds = statisticIds;
+            this.statisticValues = statisticValues;
+        }
+
+        long[] getTimestamps() {
+
+            return timestamps;
+        }
+
+        String[] getStatisticIds() {
+
+            return statisticIds;
+        }
+
+        String[] getStatisticValues() {
+
+            return statisticValues;
+        }
+    }
+}
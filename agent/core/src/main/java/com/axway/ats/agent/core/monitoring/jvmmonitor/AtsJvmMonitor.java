@@ -67,12 +67,16 @@ public void init(
     private void initJMXConnection(
                                     ReadingBean[] readings ) throws Exception {
 
-        // we are looking for all jmx port and put them in the mbeanWrappers map
+        // we are looking for all jmx port and put them in the mbeanWrappers map,
+        // all readings for same JVM use same connection
         int jmxPort;
         for (int i = 0; i < readings.length; i++) {
             try {
-                jmxPort = Integer.parseInt(readings[i].getParameter("JMX_PORT"));
-                mbeanWrappers.put(readings[i].getParameter("JMX_PORT"), new MBeanWrapper(jmxPort));
+                String jmxPortParameter = readings[i].getParameter("JMX_PORT");
+                if (!mbeanWrappers.containsKey(jmxPortParameter)) {
+                    jmxPort = Integer.parseInt(jmxPortParameter);
+                    mbeanWrappers.put(jmxPortParameter, new MBeanWrapper(jmxPort));
+                }
             } catch (Exception e) {
                 final String msg = "Error initializing the JMX monitor. We could not extract a valid JMX port number.";
                 log.error(msg, e);
@@ -84,6 +88,10 @@ private void initJMXConnection(
     @Override
     public void deinit() throws Exception {
 
+        for (MBeanWrapper mbeanWrapper : mbeanWrappers.values()) {
+            mbeanWrapper.close();
+        }
+        mbeanWrappers.clear();
     }
 
     @Override
@@ -103,6 +111,11 @@ public List<ReadingBean> doPoll(
 
         List<ReadingBean> redingsResult = new ArrayList<ReadingBean>();
 
+        // the MBean attributes will be fetched again
+        for (MBeanWrapper mbeanWrapper : mbeanWrappers.values()) {
+            mbeanWrapper.startNewPoll();
+        }
+
         // poll the reading instances
         redingsResult.addAll(pollReadingInstances(readingInstances));
 
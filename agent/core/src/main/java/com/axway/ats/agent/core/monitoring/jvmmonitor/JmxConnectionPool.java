@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.jvmmonitor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.core.monitoring.MonitorConfigurationException;
+
+/**
+ * Keeps one JMX connection per monitored JVM.
+ * <p>
+ * All readings and all JVM monitors watching the same JVM share its connection.
+ * The connection is closed when it is released by all of them.
+ * </p>
+ */
+class JmxConnectionPool {
+
+    private static final Logger                        log         = Logger.getLogger(JmxConnectionPool.class);
+
+    private static final String                        JMX_HOST    = "localhost";
+
+    // the key is the JMX service URL
+    private static final Map<String, PooledConnection> connections = new HashMap<String, PooledConnection>();
+
+    private JmxConnectionPool() {
+
+    }
+
+    /**
+     * Get the connection to the JVM listening at the given port.
+     * It must be released with {@link #release(int)} when not needed anymore.
+     *
+     * @param jvmPort the JMX port
+     * @return the MBean server connection
+     */
+    static synchronized MBeanServerConnection acquire(
+                                                      int jvmPort ) throws MonitorConfigurationException {
+
+        String serviceUrl = getServiceUrl(jvmPort);
+        PooledConnection pooledConnection = connections.get(serviceUrl);
+        if (pooledConnection == null) {
+            try {
+                JMXConnector connector = JMXConnectorFactory.newJMXConnector(new JMXServiceURL(serviceUrl),
+                                                                             null);
+                connector.connect();
+
+                pooledConnection = new PooledConnection(connector, connector.getMBeanServerConnection());
+            } catch (Exception e) {
+                final String msg = "Error initializing the JMV monitor. Unable to connect to JVM at port "
+                                   + jvmPort;
+                log.error(msg, e);
+                throw new MonitorConfigurationException(msg, e);
+            }
+            connections.put(serviceUrl, pooledConnection);
+        }
+
+        pooledConnection.usages++;
+        return pooledConnection.connection;
+    }
+
+    /**
+     * Release a connection got by {@link #acquire(int)}
+     *
+     * @param jvmPort the JMX port
+     */
+    static synchronized void release(
+                                     int jvmPort ) {
+
+        String serviceUrl = getServiceUrl(jvmPort);
+        PooledConnection pooledConnection = connections.get(serviceUrl);
+        if (pooledConnection != null && --pooledConnection.usages == 0) {
+            connections.remove(serviceUrl);
+            try {
+                pooledConnection.connector.close();
+            } catch (Exception e) {
+                log.warn("Error closing the JMX connection to JVM at port " + jvmPort, e);
+            }
+        }
+    }
+
+    private static String getServiceUrl(
+                                        int jvmPort ) {
+
+        return "service:jmx:rmi:///jndi/rmi://" + JMX_HOST + ":" + jvmPort + "/jmxrmi";
+    }
+
+    private static class PooledConnection {
+
+        private final JMXConnector          connector;
+        private final MBeanServerConnection connection;
+        private int                         usages;
+
+        PooledConnection( JMXConnector connector,
+                          MBeanServerConnection connection ) {
+
+            this.connector = connector;
+            this.connection = connection;
+        }
+    }
+}
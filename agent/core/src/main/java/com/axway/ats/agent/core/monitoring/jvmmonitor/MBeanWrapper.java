@@ -15,18 +15,18 @@
  */
 package com.axway.ats.agent.core.monitoring.jvmmonitor;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
-import javax.management.MBeanAttributeInfo;
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.MBeanServerConnection;
 import javax.management.ObjectName;
-import javax.management.remote.JMXConnector;
-import javax.management.remote.JMXConnectorFactory;
-import javax.management.remote.JMXServiceURL;
 
 import org.apache.log4j.Logger;
 
@@ -34,34 +34,52 @@
 
 /**
  * A wrapper around java managed beans
+ * <p>
+ * The attributes of an MBean are fetched with a single remote call per poll.
+ * The wrapper remembers which attributes are requested for each MBean and fetches all of them together
+ * the first time one of them is needed during a poll. Call {@link #startNewPoll()} before each poll.
+ * </p>
  */
 public class MBeanWrapper {
 
-    private static final Logger    log        = Logger.getLogger(MBeanWrapper.class);
+    private static final Logger                  log                 = Logger.getLogger(MBeanWrapper.class);
 
-    private static Set<ObjectName> mBeanNames = null;
+    private Set<ObjectName>                      mBeanNames          = null;
 
-    private static Object          lock       = new Object();
+    private final MBeanServerConnection          connection;
+    private int                                  jvmPort             = -1;
 
-    private MBeanServerConnection  connection;
-    private int                    jvmPort;
+    // the attributes we need from each MBean
+    private final Map<ObjectName, Set<String>>   requestedAttributes = new HashMap<ObjectName, Set<String>>();
+    // the attribute values fetched during the current poll
+    private final Map<ObjectName, AttributeList> fetchedAttributes   = new HashMap<ObjectName, AttributeList>();
 
     MBeanWrapper( int jvmPort ) throws MonitorConfigurationException {
 
         this.jvmPort = jvmPort;
-        try {
-            JMXConnector connector = JMXConnectorFactory.newJMXConnector(new JMXServiceURL("service:jmx:rmi:///jndi/rmi://localhost:"
-                                                                                           + this.jvmPort
-                                                                                           + "/jmxrmi"),
-                                                                         null);
-            connector.connect();
+        this.connection = JmxConnectionPool.acquire(jvmPort);
+    }
 
-            this.connection = connector.getMBeanServerConnection();
-        } catch (Exception e) {
-            final String msg = "Error initializing the JMV monitor. Unable to connect to JVM at port "
-                               + this.jvmPort;
-            log.error(msg, e);
-            throw new MonitorConfigurationException(msg, e);
+    MBeanWrapper( MBeanServerConnection connection ) {
+
+        this.connection = connection;
+    }
+
+    /**
+     * Forget the attribute values from the previous poll
+     */
+    void startNewPoll() {
+
+        fetchedAttributes.clear();
+    }
+
+    /**
+     * Release the JMX connection
+     */
+    void close() {
+
+        if (jvmPort > -1) {
+            JmxConnectionPool.release(jvmPort);
         }
     }
 
@@ -101,11 +119,7 @@ Set<ObjectName> getObjectNames( String regex, boolean oneEntry ) {
         Set<ObjectName> names = new HashSet<ObjectName>();
         try {
             if (mBeanNames == null) {
-                synchronized (lock) {
-                    if (mBeanNames == null) {
-                        mBeanNames = Collections.synchronizedSet(connection.queryNames(null, null));
-                    }
-                }
+                mBeanNames = connection.queryNames(null, null);
             }
 
             Iterator<ObjectName> it = mBeanNames.iterator();
@@ -135,8 +149,9 @@ Set<ObjectName> getObjectNames( String regex, boolean oneEntry ) {
     }
 
     /**
-     * Gets the value of a specific attribute of a named MBean
-     * 
+     * Gets the value of a specific attribute of a named MBean.
+     * All attributes of this MBean needed in the current poll are fetched together.
+     *
      * @param objectName the object name
      * @param attributeName the attribute name
      * @return the attribute value
@@ -145,21 +160,38 @@ Object getMBeanAttribute(
                               ObjectName objectName,
                               String attributeName ) {
 
-        try {
-            for (MBeanAttributeInfo attInfo : connection.getMBeanInfo(objectName).getAttributes()) {
+        Set<String> attributeNames = requestedAttributes.get(objectName);
+        if (attributeNames == null) {
+            attributeNames = new LinkedHashSet<String>();
+            requestedAttributes.put(objectName, attributeNames);
+        }
 
-                String attName = attInfo.getName();
-                if (attName.equals(attributeName)) {
-                    return connection.getAttribute(objectName, attributeName);
-                }
+        AttributeList attributes = fetchedAttributes.get(objectName);
+        if (attributes == null || !attributeNames.contains(attributeName)) {
+            // this is the first request for this MBean in this poll
+            // or this attribute was never requested before
+            attributeNames.add(attributeName);
+            try {
+                attributes = connection.getAttributes(objectName,
+                                                      attributeNames.toArray(new String[attributeNames.size()]));
+            } catch (Exception e) {
+                final String errorMsg = "Error getting the value of the '" + attributeName
+                                        + "' attribute of MBean with name '" + objectName + "'";
+                log.error(errorMsg, e);
+                throw new MonitorConfigurationException(errorMsg, e);
+            }
+            fetchedAttributes.put(objectName, attributes);
+        }
+
+        for (Attribute attribute : attributes.asList()) {
+            if (attribute.getName().equals(attributeName)) {
+                return attribute.getValue();
             }
-        } catch (Exception e) {
-            final String errorMsg = "Error getting the value of the '" + attributeName
-                                    + "' attribute of MBean with name '" + objectName + "'";
-            log.error(errorMsg, e);
-            throw new MonitorConfigurationException(errorMsg, e);
         }
 
+        // do not ask for this attribute again
+        attributeNames.remove(attributeName);
+
         final String errorMsg = "Error getting the value of the '" + attributeName
                                 + "' attribute of MBean with name '" + objectName
                                 + "': The attribute is not found!";
@@ -0,0 +1,562 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.localstore;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.common.performance.monitor.beans.ReadingBean;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.core.monitoring.SystemMonitorDefinitions;
+import com.axway.ats.core.utils.IoUtils;
+import com.axway.ats.core.utils.StringUtils;
+
+/**
+ * Keeps the system monitoring results of one host in local files on the agent.
+ * <p>
+ * There is a folder per monitored host. It contains a list of segment files for each {@link Resolution}.
+ * The polled values go to the {@link Resolution#RAW} segments and are aggregated on the fly into
+ * 1 second, 10 seconds and 1 minute records, each resolution is aggregated from the previous one.
+ * An aggregated record is written when its interval is over, so the last unfinished interval is
+ * not visible in the queries until the next value comes or the store is closed.
+ * </p>
+ * <p>
+ * The statistics get ids which are local for the store, their names and units are kept
+ * in the {@value #STATISTICS_FILE_NAME} file.
+ * </p>
+ * <p>
+ * The store of a host is shared by all its users. Each {@link #acquireStore(String)} or
+ * {@link #acquireExistingStore(String)} must be followed by a {@link #release()}, the store is closed
+ * when its last user releases it.
+ * </p>
+ */
+public class LocalMetricsStore {
+
+    private static final Logger                         log                        = Logger.getLogger(LocalMetricsStore.class);
+
+    static final String                                 STATISTICS_FILE_NAME       = "statistics.txt";
+    static final String                                 SEGMENT_FILE_EXTENSION     = ".seg";
+
+    // number of records in a segment, about 3.5 MB per segment file
+    static final int                                    DEFAULT_SEGMENT_CAPACITY   = 128 * 1024;
+
+    // queries without explicit resolution use the finest one which returns up to this number of intervals
+    static final int                                    MAX_AUTO_RESOLUTION_POINTS = 3600;
+
+    private static final Pattern                        SEGMENT_FILE_NAME_PATTERN  = Pattern.compile("(\\w+)-(\\d+)\\"
+                                                                                                     + SEGMENT_FILE_EXTENSION);
+
+    private static final Map<String, LocalMetricsStore> stores                     = new HashMap<String, LocalMetricsStore>();
+
+    private final File                                  folder;
+    // the key in the shared stores, null for a store which is not shared
+    private String                                      host;
+    // guarded by the class lock
+    private int                                         usersCount;
+    private final int                                   segmentCapacity;
+    private final int                                   maxSegments;
+
+    private final Map<Resolution, Tier>                 tiers                      = new EnumMap<Resolution, Tier>(Resolution.class);
+
+    // statistic key -> local id
+    private final Map<String, Integer>                  statisticIds               = new HashMap<String, Integer>();
+    // local id -> name and unit
+    private final Map<Integer, String[]>                statistics                 = new TreeMap<Integer, String[]>();
+
+    /**
+     * Get the store for some host. It is created when needed.
+     * Call {@link #release()} when done with it.
+     *
+     * @param host the monitored host
+     * @return the store or null if the local store is not enabled by the
+     * {@link AtsSystemProperties#AGENT__MONITOR_LOCAL_STORE_FOLDER} property
+     * @throws IOException
+     */
+    public static synchronized LocalMetricsStore acquireStore( String host ) throws IOException {
+
+        return acquireStore(host, true);
+    }
+
+    /**
+     * Get the store for some host, only if there are results for this host.
+     * Call {@link #release()} when done with it.
+     *
+     * @param host the monitored host
+     * @return the store or null if there are no results for this host
+     * @throws IllegalStateException if the local store is not enabled by the
+     * {@link AtsSystemProperties#AGENT__MONITOR_LOCAL_STORE_FOLDER} property
+     * @throws IOException
+     */
+    public static synchronized LocalMetricsStore acquireExistingStore( String host ) throws IOException {
+
+        if (StringUtils.isNullOrEmpty(getStoresFolder())) {
+            throw new IllegalStateException("The local monitoring store is not enabled. Set the '"
+                                            + AtsSystemProperties.AGENT__MONITOR_LOCAL_STORE_FOLDER
+                                            + "' system property on the agent");
+        }
+        return acquireStore(host, false);
+    }
+
+    private static LocalMetricsStore acquireStore( String host, boolean createIfMissing ) throws IOException {
+
+        String storesFolder = getStoresFolder();
+        if (StringUtils.isNullOrEmpty(storesFolder)) {
+            return null;
+        }
+
+        LocalMetricsStore store = stores.get(host);
+        if (store == null) {
+            File folder = new File(storesFolder, toFolderName(host));
+            if (!createIfMissing && !folder.isDirectory()) {
+                return null;
+            }
+
+            int maxSegments = AtsSystemProperties.getPropertyAsNonNegativeNumber(AtsSystemProperties.AGENT__MONITOR_LOCAL_STORE_MAX_SEGMENTS,
+                                                                                 AtsSystemProperties.AGENT__MONITOR_LOCAL_STORE_MAX_SEGMENTS_DEFAULT);
+            store = new LocalMetricsStore(folder, DEFAULT_SEGMENT_CAPACITY, maxSegments);
+            store.host = host;
+            stores.put(host, store);
+        }
+        store.usersCount++;
+        return store;
+    }
+
+    /**
+     * Release a store got by {@link #acquireStore(String)} or {@link #acquireExistingStore(String)}.
+     * The store is closed when it is released by all its users.
+     */
+    public void release() {
+
+        synchronized (LocalMetricsStore.class) {
+            if (usersCount <= 0) {
+                log.warn("Local monitoring store '" + folder + "' is already released");
+                return;
+            }
+            if (--usersCount > 0) {
+                return;
+            }
+            stores.remove(host);
+            // still under the lock, so a new store for this host is not opened before this one is closed
+            close();
+        }
+    }
+
+    /**
+     * Close the stores of all hosts. Called when the agent is shut down.
+     */
+    public static synchronized void closeAll() {
+
+        for (LocalMetricsStore store : stores.values()) {
+            store.usersCount = 0;
+            store.close();
+        }
+        stores.clear();
+    }
+
+    private static String getStoresFolder() {
+
+        return AtsSystemProperties.getPropertyAsString(AtsSystemProperties.AGENT__MONITOR_LOCAL_STORE_FOLDER);
+    }
+
+    /**
+     * @param folder the store folder
+     * @param segmentCapacity number of records in a segment file
+     * @param maxSegments how many segments are kept per resolution, 0 means no limit
+     * @throws IOException
+     */
+    LocalMetricsStore( File folder, int segmentCapacity, int maxSegments ) throws IOException {
+
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            throw new IOException("Could not create the local monitoring store folder '" + folder + "'");
+        }
+
+        this.folder = folder;
+        this.segmentCapacity = segmentCapacity;
+        this.maxSegments = maxSegments;
+
+        for (Resolution resolution : Resolution.values()) {
+            tiers.put(resolution, new Tier(resolution));
+        }
+        loadSegments();
+        loadStatistics();
+    }
+
+    /**
+     * Add the values of some readings
+     *
+     * @param timestamp the poll timestamp
+     * @param readings the polled readings
+     * @return the number of added values, the null and not numeric values are skipped
+     * @throws IOException
+     */
+    public synchronized int add( long timestamp, List<ReadingBean> readings ) throws IOException {
+
+        int added = 0;
+        for (ReadingBean reading : readings) {
+            String readingValue = reading.getValue();
+            if (readingValue == null) {
+                continue;
+            }
+            float value;
+            try {
+                value = Float.parseFloat(readingValue);
+            } catch (NumberFormatException nfe) {
+                continue;
+            }
+
+            add(timestamp, getStatisticId(reading), value);
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Add one value
+     *
+     * @param timestamp the poll timestamp
+     * @param statisticId the local statistic id
+     * @param value the polled value
+     * @throws IOException
+     */
+    synchronized void add( long timestamp, int statisticId, float value ) throws IOException {
+
+        append(tiers.get(Resolution.RAW), new MetricRecord(timestamp, statisticId, value, value, value, 1));
+    }
+
+    /**
+     * Find the records in some time range
+     *
+     * @param statisticId the local statistic id or a negative number for all statistics
+     * @param fromTimestamp start timestamp, inclusive
+     * @param toTimestamp end timestamp, inclusive
+     * @param resolution the resolution, if null it is chosen by {@link #pickResolution(long, long)}
+     * @return the records ordered by timestamp
+     * @throws IOException
+     */
+    public synchronized List<MetricRecord> query( int statisticId, long fromTimestamp, long toTimestamp,
+                                                  Resolution resolution ) throws IOException {
+
+        if (resolution == null) {
+            resolution = pickResolution(fromTimestamp, toTimestamp);
+        }
+
+        List<MetricRecord> records = new ArrayList<MetricRecord>();
+        for (MetricsSegment segment : tiers.get(resolution).segments) {
+            segment.read(statisticId, fromTimestamp, toTimestamp, records);
+        }
+
+        // the aggregated records of different statistics may come slightly out of order
+        Collections.sort(records, new Comparator<MetricRecord>() {
+
+            @Override
+            public int compare( MetricRecord record1, MetricRecord record2 ) {
+
+                return Long.compare(record1.getTimestamp(), record2.getTimestamp());
+            }
+        });
+        return records;
+    }
+
+    /**
+     * @return the finest resolution with up to {@value #MAX_AUTO_RESOLUTION_POINTS} intervals in the time range.
+     * The raw values are treated as if they are polled every 100 ms.
+     */
+    public static Resolution pickResolution( long fromTimestamp, long toTimestamp ) {
+
+        long range = toTimestamp - fromTimestamp;
+        for (Resolution resolution : Resolution.values()) {
+            long bucketLength = Math.max(resolution.getBucketLength(), 100);
+            if (range / bucketLength <= MAX_AUTO_RESOLUTION_POINTS) {
+                return resolution;
+            }
+        }
+        return Resolution.MINUTE;
+    }
+
+    /**
+     * @return the known statistics as local id -> { name, unit }
+     */
+    public synchronized Map<Integer, String[]> getStatistics() {
+
+        return new LinkedHashMap<Integer, String[]>(statistics);
+    }
+
+    /**
+     * Write the unfinished aggregations and the mapped segments to the disk
+     */
+    public synchronized void close() {
+
+        for (Resolution resolution : Resolution.values()) {
+            Tier tier = tiers.get(resolution);
+            Tier nextTier = tiers.get(resolution.getNext());
+            if (nextTier != null) {
+                for (Bucket bucket : tier.openBuckets.values()) {
+                    try {
+                        append(nextTier, bucket.toRecord());
+                    } catch (IOException ioe) {
+                        log.error("Could not write the last " + nextTier.resolution.getName()
+                                  + " aggregation in local monitoring store '" + folder + "'", ioe);
+                    }
+                }
+            }
+            tier.openBuckets.clear();
+        }
+
+        for (Tier tier : tiers.values()) {
+            for (MetricsSegment segment : tier.segments) {
+                segment.close();
+            }
+        }
+    }
+
+    private void append( Tier tier, MetricRecord record ) throws IOException {
+
+        MetricsSegment segment = tier.getCurrentSegment();
+        if (!segment.append(record.getTimestamp(), record.getStatisticId(), record.getMin(), record.getMax(),
+                            record.getAvg(), record.getCount())) {
+            segment = tier.rollSegment();
+            segment.append(record.getTimestamp(), record.getStatisticId(), record.getMin(), record.getMax(),
+                           record.getAvg(), record.getCount());
+        }
+
+        // aggregate into the next resolution
+        Resolution nextResolution = tier.resolution.getNext();
+        if (nextResolution == null) {
+            return;
+        }
+
+        long bucketStart = record.getTimestamp()
+                           - record.getTimestamp() % nextResolution.getBucketLength();
+        Bucket bucket = tier.openBuckets.get(record.getStatisticId());
+        if (bucket != null && bucket.start != bucketStart) {
+            // the previous interval is over
+            tier.openBuckets.remove(record.getStatisticId());
+            append(tiers.get(nextResolution), bucket.toRecord());
+            bucket = null;
+        }
+        if (bucket == null) {
+            bucket = new Bucket(bucketStart, record.getStatisticId());
+            tier.openBuckets.put(record.getStatisticId(), bucket);
+        }
+        bucket.add(record);
+    }
+
+    private int getStatisticId( ReadingBean reading ) throws IOException {
+
+        String name = reading.getName();
+        String alias = reading.getParameter(SystemMonitorDefinitions.PARAMETER_NAME__PROCESS_ALIAS);
+        if (alias != null) {
+            name = "[process] " + alias + " - " + name;
+        }
+        String unit = reading.getUnit();
+
+        String key = name + "\t" + unit;
+        Integer id = statisticIds.get(key);
+        if (id == null) {
+            id = statistics.size();
+            statisticIds.put(key, id);
+            statistics.put(id, new String[]{ name, unit });
+
+            Writer writer = null;
+            try {
+                writer = new OutputStreamWriter(new FileOutputStream(new File(folder, STATISTICS_FILE_NAME),
+                                                                     true),
+                                                StandardCharsets.UTF_8);
+                writer.write(id + "\t" + key.replace('\n', ' ') + "\n");
+            } finally {
+                IoUtils.closeStream(writer);
+            }
+        }
+        return id;
+    }
+
+    private void loadStatistics() throws IOException {
+
+        File statisticsFile = new File(folder, STATISTICS_FILE_NAME);
+        if (!statisticsFile.isFile()) {
+            return;
+        }
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(statisticsFile),
+                                                              StandardCharsets.UTF_8));
+            String line;
+            while ( (line = reader.readLine()) != null) {
+                String[] tokens = line.split("\t", 3);
+                if (tokens.length == 3) {
+                    int id = Integer.parseInt(tokens[0]);
+                    statisticIds.put(tokens[1] + "\t" + tokens[2], id);
+                    statistics.put(id, new String[]{ tokens[1], tokens[2] });
+                }
+            }
+        } finally {
+            IoUtils.closeStream(reader);
+        }
+    }
+
+    private void loadSegments() throws IOException {
+
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        Map<Resolution, TreeMap<Long, File>> segmentFiles = new EnumMap<Resolution, TreeMap<Long, File>>(Resolution.class);
+        for (File file : files) {
+            Matcher matcher = SEGMENT_FILE_NAME_PATTERN.matcher(file.getName());
+            if (matcher.matches()) {
+                Resolution resolution;
+                try {
+                    resolution = Resolution.fromName(matcher.group(1));
+                } catch (IllegalArgumentException iae) {
+                    continue;
+                }
+                TreeMap<Long, File> resolutionFiles = segmentFiles.get(resolution);
+                if (resolutionFiles == null) {
+                    resolutionFiles = new TreeMap<Long, File>();
+                    segmentFiles.put(resolution, resolutionFiles);
+                }
+                resolutionFiles.put(Long.parseLong(matcher.group(2)), file);
+            }
+        }
+
+        for (Map.Entry<Resolution, TreeMap<Long, File>> resolutionFiles : segmentFiles.entrySet()) {
+            Tier tier = tiers.get(resolutionFiles.getKey());
+            for (Map.Entry<Long, File> segmentFile : resolutionFiles.getValue().entrySet()) {
+                try {
+                    tier.segments.add(new MetricsSegment(segmentFile.getValue(), segmentCapacity));
+                } catch (IOException ioe) {
+                    log.warn("Skipping local monitoring store segment '" + segmentFile.getValue() + "'", ioe);
+                    continue;
+                }
+                tier.nextSegmentNumber = segmentFile.getKey() + 1;
+            }
+        }
+    }
+
+    private static String toFolderName( String host ) {
+
+        String folderName = StringUtils.isNullOrEmpty(host)
+                                                            ? ""
+                                                            : host.replaceAll("[^\\w.\\-]", "_");
+        if (folderName.replace(".", "").isEmpty()) {
+            // do not go out of the stores folder
+            throw new IllegalArgumentException("Invalid monitored host '" + host + "'");
+        }
+        return folderName;
+    }
+
+    /**
+     * The segments of one resolution
+     */
+    private class Tier {
+
+        private final Resolution            resolution;
+        private final List<MetricsSegment>  segments    = new ArrayList<MetricsSegment>();
+        private long                        nextSegmentNumber;
+
+        // the intervals of the next resolution which are aggregated from this one, by statistic id
+        private final Map<Integer, Bucket>  openBuckets = new HashMap<Integer, Bucket>();
+
+        Tier( Resolution resolution ) {
+
+            this.resolution = resolution;
+        }
+
+        MetricsSegment getCurrentSegment() throws IOException {
+
+            if (segments.isEmpty()) {
+                return rollSegment();
+            }
+            return segments.get(segments.size() - 1);
+        }
+
+        MetricsSegment rollSegment() throws IOException {
+
+            if (!segments.isEmpty()) {
+                segments.get(segments.size() - 1).close();
+            }
+
+            File file = new File(folder, String.format("%s-%010d%s", resolution.getName(), nextSegmentNumber++,
+                                                       SEGMENT_FILE_EXTENSION));
+            MetricsSegment segment = new MetricsSegment(file, segmentCapacity);
+            segments.add(segment);
+
+            while (maxSegments > 0 && segments.size() > maxSegments) {
+                MetricsSegment oldestSegment = segments.remove(0);
+                if (!oldestSegment.getFile().delete()) {
+                    log.warn("Could not delete old local monitoring store segment '" + oldestSegment.getFile()
+                             + "'");
+                }
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * One aggregation interval of a statistic
+     */
+    private static class Bucket {
+
+        private final long start;
+        private final int  statisticId;
+
+        private float      min   = Float.MAX_VALUE;
+        private float      max   = -Float.MAX_VALUE;
+        private double     sum;
+        private int        count;
+
+        Bucket( long start, int statisticId ) {
+
+            this.start = start;
+            this.statisticId = statisticId;
+        }
+
+        void add( MetricRecord record ) {
+
+            min = Math.min(min, record.getMin());
+            max = Math.max(max, record.getMax());
+            sum += (double) record.getAvg() * record.getCount();
+            count += record.getCount();
+        }
+
+        MetricRecord toRecord() {
+
+            return new MetricRecord(start, statisticId, min, max, (float) (sum / count), count);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.localstore;
+
+/**
+ * One record from the {@link LocalMetricsStore}.
+ * <p>
+ * For the {@link Resolution#RAW} resolution the min, max and average values are the polled value
+ * and the count is 1. For the other resolutions the record describes all values
+ * polled in the interval starting at the record timestamp.
+ * </p>
+ */
+public class MetricRecord {
+
+    private final long  timestamp;
+    private final int   statisticId;
+    private final float min;
+    private final float max;
+    private final float avg;
+    private final int   count;
+
+    public MetricRecord( long timestamp, int statisticId, float min, float max, float avg, int count ) {
+
+        this.timestamp = timestamp;
+        this.statisticId = statisticId;
+        this.min = min;
+        this.max = max;
+        this.avg = avg;
+        this.count = count;
+    }
+
+    public long getTimestamp() {
+
+        return timestamp;
+    }
+
+    public int getStatisticId() {
+
+        return statisticId;
+    }
+
+    public float getMin() {
+
+        return min;
+    }
+
+    public float getMax() {
+
+        return max;
+    }
+
+    public float getAvg() {
+
+        return avg;
+    }
+
+    public int getCount() {
+
+        return count;
+    }
+
+    @Override
+    public String toString() {
+
+        return "statistic " + statisticId + " at " + timestamp + ": min=" + min + ", max=" + max + ", avg=" + avg
+               + ", count=" + count;
+    }
+}
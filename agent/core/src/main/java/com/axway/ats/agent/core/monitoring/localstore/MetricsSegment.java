@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.localstore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * An append-only file with fixed size records.
+ * <p>
+ * The file has a fixed size which is allocated when it is created. Only the segment
+ * which is currently written is memory mapped, the closed segments are read with plain file reads,
+ * so they can be deleted at any time.
+ * </p>
+ * <pre>
+ * header: int magic, int version, int records count, int record size, long min timestamp, long max timestamp
+ * record: long timestamp, int statistic id, float min, float max, float avg, int count
+ * </pre>
+ */
+class MetricsSegment {
+
+    // 'ATSS'
+    static final int         MAGIC                  = 0x41545353;
+    static final int         VERSION                = 1;
+
+    static final int         HEADER_SIZE            = 32;
+    static final int         RECORD_SIZE            = 28;
+
+    private static final int RECORDS_COUNT_POSITION = 8;
+    private static final int MIN_TIMESTAMP_POSITION = 16;
+    private static final int MAX_TIMESTAMP_POSITION = 24;
+
+    private final File       file;
+    private final int        capacity;
+
+    // not null while the segment is open for writing
+    private MappedByteBuffer buffer;
+
+    private int              recordsCount;
+    private long             minTimestamp           = Long.MAX_VALUE;
+    private long             maxTimestamp           = Long.MIN_VALUE;
+
+    /**
+     * Create a new segment or load the header of an existing one
+     *
+     * @param file the segment file
+     * @param capacity the maximum number of records, used when creating a new segment
+     * @throws IOException
+     */
+    MetricsSegment( File file, int capacity ) throws IOException {
+
+        this.file = file;
+
+        if (file.exists()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                raf.getChannel().read(header, 0);
+                header.flip();
+                if (header.remaining() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                    throw new IOException("'" + file + "' is not a metrics segment file");
+                }
+                if (header.getInt(12) != RECORD_SIZE) {
+                    throw new IOException("'" + file + "' has records with unsupported size "
+                                          + header.getInt(12));
+                }
+                this.recordsCount = header.getInt(RECORDS_COUNT_POSITION);
+                this.minTimestamp = header.getLong(MIN_TIMESTAMP_POSITION);
+                this.maxTimestamp = header.getLong(MAX_TIMESTAMP_POSITION);
+                this.capacity = (int) ( (raf.length() - HEADER_SIZE) / RECORD_SIZE);
+            }
+        } else {
+            this.capacity = capacity;
+            map();
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(12, RECORD_SIZE);
+            writeHeader();
+        }
+    }
+
+    /**
+     * Append one record
+     *
+     * @return false if the segment is full
+     * @throws IOException
+     */
+    boolean append( long timestamp, int statisticId, float min, float max, float avg,
+                    int count ) throws IOException {
+
+        if (recordsCount >= capacity) {
+            return false;
+        }
+        if (buffer == null) {
+            map();
+        }
+
+        int position = HEADER_SIZE + recordsCount * RECORD_SIZE;
+        buffer.putLong(position, timestamp);
+        buffer.putInt(position + 8, statisticId);
+        buffer.putFloat(position + 12, min);
+        buffer.putFloat(position + 16, max);
+        buffer.putFloat(position + 20, avg);
+        buffer.putInt(position + 24, count);
+
+        recordsCount++;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        // the header is updated after the record, so a crash of the agent never exposes a partially written record
+        writeHeader();
+
+        return true;
+    }
+
+    /**
+     * Add all records matching the query
+     *
+     * @param statisticId the statistic id or a negative number for all statistics
+     * @param fromTimestamp start timestamp, inclusive
+     * @param toTimestamp end timestamp, inclusive
+     * @param records where to add the found records
+     * @throws IOException
+     */
+    void read( int statisticId, long fromTimestamp, long toTimestamp,
+               List<MetricRecord> records ) throws IOException {
+
+        if (recordsCount == 0 || maxTimestamp < fromTimestamp || minTimestamp > toTimestamp) {
+            return;
+        }
+
+        ByteBuffer data;
+        if (buffer != null) {
+            data = buffer.duplicate();
+        } else {
+            data = ByteBuffer.allocate(HEADER_SIZE + recordsCount * RECORD_SIZE);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                FileChannel channel = raf.getChannel();
+                while (data.hasRemaining() && channel.read(data, data.position()) > 0) {
+                    // keep reading
+                }
+            }
+        }
+
+        for (int i = 0; i < recordsCount; i++) {
+            int position = HEADER_SIZE + i * RECORD_SIZE;
+            long timestamp = data.getLong(position);
+            if (timestamp < fromTimestamp || timestamp > toTimestamp) {
+                continue;
+            }
+            int id = data.getInt(position + 8);
+            if (statisticId >= 0 && id != statisticId) {
+                continue;
+            }
+            records.add(new MetricRecord(timestamp,
+                                         id,
+                                         data.getFloat(position + 12),
+                                         data.getFloat(position + 16),
+                                         data.getFloat(position + 20),
+                                         data.getInt(position + 24)));
+        }
+    }
+
+    /**
+     * Write the changes to the disk and drop the reference to the mapped memory.
+     * There is no public API for unmapping a file, so the memory is released when the buffer is garbage collected.
+     */
+    void close() {
+
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+    }
+
+    boolean isFull() {
+
+        return recordsCount >= capacity;
+    }
+
+    File getFile() {
+
+        return file;
+    }
+
+    int getRecordsCount() {
+
+        return recordsCount;
+    }
+
+    long getMinTimestamp() {
+
+        return minTimestamp;
+    }
+
+    long getMaxTimestamp() {
+
+        return maxTimestamp;
+    }
+
+    private void map() throws IOException {
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+            raf.setLength(size);
+            // the mapping stays valid after the channel is closed
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private void writeHeader() {
+
+        buffer.putInt(RECORDS_COUNT_POSITION, recordsCount);
+        buffer.putLong(MIN_TIMESTAMP_POSITION, minTimestamp);
+        buffer.putLong(MAX_TIMESTAMP_POSITION, maxTimestamp);
+    }
+}
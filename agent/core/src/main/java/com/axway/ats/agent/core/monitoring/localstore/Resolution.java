@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.localstore;
+
+/**
+ * The resolutions kept in the {@link LocalMetricsStore}.
+ * Each one, except {@link #RAW}, is an aggregation of the previous one.
+ */
+public enum Resolution {
+
+    /** The values as they are polled */
+    RAW("raw", 0),
+    SECOND("1s", 1000),
+    TEN_SECONDS("10s", 10 * 1000),
+    MINUTE("1m", 60 * 1000);
+
+    private final String name;
+    private final long   bucketLength;
+
+    private Resolution( String name, long bucketLength ) {
+
+        this.name = name;
+        this.bucketLength = bucketLength;
+    }
+
+    /**
+     * @return the short name of this resolution, used for naming the segment files
+     */
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * @return the length of an aggregation interval in milliseconds, 0 for {@link #RAW}
+     */
+    public long getBucketLength() {
+
+        return bucketLength;
+    }
+
+    /**
+     * @return the next coarser resolution or null if this is the coarsest one
+     */
+    public Resolution getNext() {
+
+        int nextIndex = ordinal() + 1;
+        if (nextIndex < values().length) {
+            return values()[nextIndex];
+        }
+        return null;
+    }
+
+    /**
+     * @param name a resolution name like '10s' or the enum constant name like 'TEN_SECONDS'
+     * @return the resolution with this name
+     */
+    public static Resolution fromName( String name ) {
+
+        for (Resolution resolution : values()) {
+            if (resolution.name.equalsIgnoreCase(name) || resolution.name().equalsIgnoreCase(name)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown resolution '" + name + "'. Use one of raw, 1s, 10s or 1m");
+    }
+}
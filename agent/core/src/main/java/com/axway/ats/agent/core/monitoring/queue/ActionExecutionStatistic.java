@@ -16,24 +16,87 @@
 package com.axway.ats.agent.core.monitoring.queue;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * Keeps info about one action execution results
+ * 
+ * Besides the number of passed and failed executions, it keeps the response times of
+ * the passed executions as the non empty buckets of a {@link CheckpointHistogram}, so the
+ * response time percentiles are still correct after merging the results from many agents.
  */
 public class ActionExecutionStatistic implements Serializable {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID      = 1L;
 
     private String            actionName;
 
-    private int               numberPassed     = 0;
-    private int               numberFailed     = 0;
+    private int               numberPassed          = 0;
+    private int               numberFailed          = 0;
+
+    // the response times of the passed executions, in milliseconds
+    private long              responseTimesCount    = 0;
+    private long              responseTimesSum      = 0;
+    private long              minResponseTime       = 0;
+    private long              maxResponseTime       = 0;
+    // the non empty histogram buckets sorted by their index
+    private int[]             responseTimeBuckets   = new int[0];
+    private long[]            responseTimeCounts    = new long[0];
+
+    // the time of the first and the last execution, used to calculate the throughput
+    private long              firstExecutionTime    = 0;
+    private long              lastExecutionTime     = 0;
 
     public ActionExecutionStatistic( String actionName ) {
 
         this.actionName = actionName;
     }
 
+    /**
+     * Create a snapshot of the live statistics of an action
+     * 
+     * @param actionName the action name
+     * @param numberPassed number of passed executions
+     * @param numberFailed number of failed executions
+     * @param responseTimes the response times of the passed executions
+     * @param firstExecutionTime the time of the first execution
+     * @param lastExecutionTime the time of the last execution
+     */
+    ActionExecutionStatistic( String actionName, long numberPassed, long numberFailed,
+                              CheckpointHistogram responseTimes, long firstExecutionTime,
+                              long lastExecutionTime ) {
+
+        this.actionName = actionName;
+        this.numberPassed = (int) numberPassed;
+        this.numberFailed = (int) numberFailed;
+        this.firstExecutionTime = firstExecutionTime;
+        this.lastExecutionTime = lastExecutionTime;
+
+        int nonEmptyBuckets = 0;
+        for (int i = 0; i < CheckpointHistogram.getBucketsCount(); i++) {
+            if (responseTimes.getCountInBucket(i) > 0) {
+                nonEmptyBuckets++;
+            }
+        }
+
+        // values may be recorded meanwhile, so we count again what we really take
+        this.responseTimeBuckets = new int[nonEmptyBuckets];
+        this.responseTimeCounts = new long[nonEmptyBuckets];
+        int bucket = 0;
+        for (int i = 0; i < CheckpointHistogram.getBucketsCount() && bucket < nonEmptyBuckets; i++) {
+            long count = responseTimes.getCountInBucket(i);
+            if (count > 0) {
+                this.responseTimeBuckets[bucket] = i;
+                this.responseTimeCounts[bucket] = count;
+                this.responseTimesCount += count;
+                bucket++;
+            }
+        }
+        this.responseTimesSum = responseTimes.getSum();
+        this.minResponseTime = responseTimes.getMin();
+        this.maxResponseTime = responseTimes.getMax();
+    }
+
     public String getActionName() {
 
         return actionName;
@@ -49,6 +112,76 @@ public int getNumberFailed() {
         return numberFailed;
     }
 
+    /**
+     * @return the min response time of the passed executions in milliseconds
+     */
+    public long getMinResponseTime() {
+
+        return minResponseTime;
+    }
+
+    /**
+     * @return the max response time of the passed executions in milliseconds
+     */
+    public long getMaxResponseTime() {
+
+        return maxResponseTime;
+    }
+
+    /**
+     * @return the average response time of the passed executions in milliseconds
+     */
+    public double getAverageResponseTime() {
+
+        return responseTimesCount == 0
+                                       ? 0
+                                       : (double) responseTimesSum / responseTimesCount;
+    }
+
+    /**
+     * Get the response time below which the given percentage of the passed executions fall
+     * 
+     * @param percentile number between 0 and 100
+     * @return the response time in milliseconds, or 0 if there are no passed executions
+     */
+    public long getResponseTimePercentile( double percentile ) {
+
+        if (responseTimesCount == 0 || responseTimeBuckets == null) {
+            return 0;
+        }
+
+        long countAtPercentile = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100
+                                                  * responseTimesCount);
+        if (countAtPercentile < 1) {
+            countAtPercentile = 1;
+        }
+
+        long runningCount = 0;
+        for (int i = 0; i < responseTimeBuckets.length; i++) {
+            runningCount += responseTimeCounts[i];
+            if (runningCount >= countAtPercentile) {
+                long value = CheckpointHistogram.getHighestValueInBucket(responseTimeBuckets[i]);
+                return Math.max(Math.min(value, maxResponseTime), minResponseTime);
+            }
+        }
+
+        return maxResponseTime;
+    }
+
+    /**
+     * @return the number of executions per second
+     */
+    public double getThroughput() {
+
+        long duration = lastExecutionTime - firstExecutionTime;
+        if (duration <= 0) {
+            // all executions are in the same millisecond or this info is not available
+            duration = 1;
+        }
+
+        return (numberPassed + numberFailed) * 1000.0 / duration;
+    }
+
     /**
      * Registers the action execution result.
      * 
@@ -80,5 +213,57 @@ public void merge(
 
         this.numberPassed += that.numberPassed;
         this.numberFailed += that.numberFailed;
+
+        if (that.firstExecutionTime > 0
+            && (this.firstExecutionTime == 0 || that.firstExecutionTime < this.firstExecutionTime)) {
+            this.firstExecutionTime = that.firstExecutionTime;
+        }
+        this.lastExecutionTime = Math.max(this.lastExecutionTime, that.lastExecutionTime);
+
+        if (that.responseTimesCount == 0 || that.responseTimeBuckets == null) {
+            return;
+        }
+        if (this.responseTimesCount == 0 || this.responseTimeBuckets == null) {
+            this.minResponseTime = that.minResponseTime;
+            this.maxResponseTime = that.maxResponseTime;
+        } else {
+            this.minResponseTime = Math.min(this.minResponseTime, that.minResponseTime);
+            this.maxResponseTime = Math.max(this.maxResponseTime, that.maxResponseTime);
+        }
+        this.responseTimesCount += that.responseTimesCount;
+        this.responseTimesSum += that.responseTimesSum;
+        mergeBuckets(that.responseTimeBuckets, that.responseTimeCounts);
+    }
+
+    private void mergeBuckets( int[] thatBuckets, long[] thatCounts ) {
+
+        int[] thisBuckets = responseTimeBuckets == null
+                                                        ? new int[0]
+                                                        : responseTimeBuckets;
+        long[] thisCounts = responseTimeCounts == null
+                                                       ? new long[0]
+                                                       : responseTimeCounts;
+
+        // both arrays are sorted, so we merge them as sorted lists
+        int[] mergedBuckets = new int[thisBuckets.length + thatBuckets.length];
+        long[] mergedCounts = new long[mergedBuckets.length];
+        int i = 0, j = 0, merged = 0;
+        while (i < thisBuckets.length || j < thatBuckets.length) {
+            if (j == thatBuckets.length || (i < thisBuckets.length && thisBuckets[i] < thatBuckets[j])) {
+                mergedBuckets[merged] = thisBuckets[i];
+                mergedCounts[merged] = thisCounts[i++];
+            } else if (i == thisBuckets.length || thatBuckets[j] < thisBuckets[i]) {
+                mergedBuckets[merged] = thatBuckets[j];
+                mergedCounts[merged] = thatCounts[j++];
+            } else {
+                // same bucket
+                mergedBuckets[merged] = thisBuckets[i];
+                mergedCounts[merged] = thisCounts[i++] + thatCounts[j++];
+            }
+            merged++;
+        }
+
+        this.responseTimeBuckets = Arrays.copyOf(mergedBuckets, merged);
+        this.responseTimeCounts = Arrays.copyOf(mergedCounts, merged);
     }
 }
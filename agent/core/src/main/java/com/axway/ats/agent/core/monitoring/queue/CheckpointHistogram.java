@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non negative values (for example response times in milliseconds).
+ * <p>
+ * It uses the bucketing scheme of the HDR histograms - values below 128 have their own bucket,
+ * bigger values are put in one of 64 sub-buckets per power of 2. So the memory is fixed
+ * and the error of the returned percentiles is less than 1.6%, for any range of values.
+ * </p>
+ * Many threads can record values at the same time. The count and the sum are striped,
+ * so the threads do not compete for them.
+ */
+public class CheckpointHistogram {
+
+    // the number of sub-buckets per power of 2 is 2^SUB_BUCKET_BITS
+    private static final int  SUB_BUCKET_BITS  = 6;
+    private static final int  SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // values below this limit have their own bucket
+    private static final long EXACT_LIMIT      = 2 * SUB_BUCKET_COUNT;
+    private static final int  BUCKETS_COUNT    = (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + (int) EXACT_LIMIT;
+
+    private final AtomicLongArray counts           = new AtomicLongArray(BUCKETS_COUNT);
+    private final LongAdder       totalCount       = new LongAdder();
+    private final LongAdder       sum              = new LongAdder();
+    private final AtomicLong      min              = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong      max              = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record a value
+     *
+     * @param value the value, negative values are recorded as 0
+     */
+    public void record( long value ) {
+
+        if (value < 0) {
+            value = 0;
+        }
+
+        counts.incrementAndGet(getBucketIndex(value));
+        sum.add(value);
+        totalCount.increment();
+
+        long currentMin = min.get();
+        while (value < currentMin && !min.compareAndSet(currentMin, value)) {
+            currentMin = min.get();
+        }
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+
+        return totalCount.sum();
+    }
+
+    /**
+     * @return the sum of all recorded values
+     */
+    public long getSum() {
+
+        return sum.sum();
+    }
+
+    /**
+     * @return the smallest recorded value or 0 if nothing is recorded
+     */
+    public long getMin() {
+
+        long value = min.get();
+        return value == Long.MAX_VALUE
+                                       ? 0
+                                       : value;
+    }
+
+    /**
+     * @return the biggest recorded value or 0 if nothing is recorded
+     */
+    public long getMax() {
+
+        long value = max.get();
+        return value == Long.MIN_VALUE
+                                       ? 0
+                                       : value;
+    }
+
+    /**
+     * @return the average of the recorded values or 0 if nothing is recorded
+     */
+    public double getMean() {
+
+        long count = totalCount.sum();
+        return count == 0
+                          ? 0
+                          : (double) sum.sum() / count;
+    }
+
+    /**
+     * Get the value below which the given percentage of the recorded values fall
+     *
+     * @param percentile number between 0 and 100
+     * @return the percentile value or 0 if nothing is recorded
+     */
+    public long getValueAtPercentile( double percentile ) {
+
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+
+        long countAtPercentile = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count);
+        if (countAtPercentile < 1) {
+            countAtPercentile = 1;
+        }
+
+        long runningCount = 0;
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            runningCount += counts.get(i);
+            if (runningCount >= countAtPercentile) {
+                // do not go out of the really recorded values
+                return Math.max(Math.min(getHighestValueInBucket(i), getMax()), getMin());
+            }
+        }
+
+        // values were recorded while we were iterating
+        return getMax();
+    }
+
+    /**
+     * @param index the bucket index
+     * @return the number of values recorded in this bucket
+     */
+    long getCountInBucket( int index ) {
+
+        return counts.get(index);
+    }
+
+    static int getBucketsCount() {
+
+        return BUCKETS_COUNT;
+    }
+
+    static int getBucketIndex( long value ) {
+
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+
+        // how much to shift the value, so its highest bits fit in [SUB_BUCKET_COUNT, 2*SUB_BUCKET_COUNT)
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long getHighestValueInBucket( int index ) {
+
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index - shift * SUB_BUCKET_COUNT;
+        long highestValue = ( (subBucket + 1) << shift) - 1;
+        return highestValue < 0
+                                ? Long.MAX_VALUE // the last bucket
+                                : highestValue;
+    }
+}
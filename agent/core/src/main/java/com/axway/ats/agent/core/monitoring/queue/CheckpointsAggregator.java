@@ -0,0 +1,328 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.queue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.log.AtsDbLogger;
+import com.axway.ats.log.autodb.entities.CheckpointSummary;
+import com.axway.ats.log.model.CheckpointLogLevel;
+import com.axway.ats.log.model.CheckpointResult;
+
+/**
+ * Aggregates in memory the checkpoints of all threads of a queue. Used when the checkpoint log level is
+ * {@link CheckpointLogLevel#AGGREGATED}.
+ * <p>
+ * Instead of sending a DB event for each checkpoint, the queue threads record the checkpoint here.
+ * Once in a while (see {@link AtsSystemProperties#AGENT__CHECKPOINTS_AGGREGATION_FLUSH_INTERVAL}) and when the
+ * last queue thread ends, the values collected since the last flush are added to the checkpoint summaries in the DB.
+ * At the end the response time percentiles of each checkpoint are logged as a message, as the DB keeps
+ * min/avg/max values only.
+ * </p>
+ */
+public class CheckpointsAggregator {
+
+    private static final double[]                                 PERCENTILES      = { 50, 90, 99, 99.9 };
+    private static final String[]                                 PERCENTILE_NAMES = { "p50", "p90", "p99", "p99.9" };
+
+    // { caller + queue name -> aggregator }
+    private static final Map<String, CheckpointsAggregator>       aggregators      = new HashMap<String, CheckpointsAggregator>();
+
+    private final String                                          key;
+    private final String                                          queueName;
+    // number of queue threads using this instance
+    private int                                                   numberTasks;
+
+    private final long                                            flushIntervalMs;
+    private final AtomicLong                                      nextFlushTime;
+    private final Object                                          flushLock        = new Object();
+
+    private final int                                             sampleEvery;
+    private final AtomicLong                                      checkpointsCount = new AtomicLong();
+
+    // { checkpoint name -> its statistics }
+    private final ConcurrentHashMap<String, CheckpointStatistics> checkpoints      = new ConcurrentHashMap<String, CheckpointStatistics>();
+
+    CheckpointsAggregator( String key, String queueName, long flushIntervalMs, int sampleEvery ) {
+
+        this.key = key;
+        this.queueName = queueName;
+        this.flushIntervalMs = flushIntervalMs;
+        this.nextFlushTime = new AtomicLong(System.currentTimeMillis() + flushIntervalMs);
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Called when a queue thread starts running. Each call must be followed by a call to
+     * {@link #taskFinished(AtsDbLogger)}
+     *
+     * @param caller the remote caller
+     * @param queueName the queue name
+     * @return the aggregator for this queue
+     */
+    public static synchronized CheckpointsAggregator registerTask( String caller, String queueName ) {
+
+        String key = caller + ":" + queueName;
+        CheckpointsAggregator aggregator = aggregators.get(key);
+        if (aggregator == null) {
+            int flushInterval = AtsSystemProperties.getPropertyAsNumber(AtsSystemProperties.AGENT__CHECKPOINTS_AGGREGATION_FLUSH_INTERVAL,
+                                                                        10);
+            int sampleEvery = AtsSystemProperties.getPropertyAsNumber(AtsSystemProperties.AGENT__CHECKPOINTS_AGGREGATION_SAMPLE_EVERY,
+                                                                      0);
+            aggregator = new CheckpointsAggregator(key, queueName,
+                                                   TimeUnit.SECONDS.toMillis(Math.max(flushInterval, 1)),
+                                                   sampleEvery);
+            aggregators.put(key, aggregator);
+        }
+        aggregator.numberTasks++;
+
+        return aggregator;
+    }
+
+    /**
+     * Called when a queue thread ends. When this is the last thread of the queue, all collected
+     * data is sent to the DB.
+     *
+     * @param log the logger of the ending thread
+     */
+    public void taskFinished( AtsDbLogger log ) {
+
+        boolean isLastTask;
+        synchronized (CheckpointsAggregator.class) {
+            isLastTask = --numberTasks == 0;
+            if (isLastTask) {
+                aggregators.remove(key);
+            }
+        }
+
+        if (isLastTask) {
+            flush(log);
+            logPercentiles(log);
+        }
+    }
+
+    /**
+     * Tells whether this checkpoint must be logged as a separate DB row
+     * instead of being aggregated
+     *
+     * @return true once every N-th call as configured by
+     * {@link AtsSystemProperties#AGENT__CHECKPOINTS_AGGREGATION_SAMPLE_EVERY}
+     */
+    public boolean isSampled() {
+
+        return sampleEvery > 0 && checkpointsCount.incrementAndGet() % sampleEvery == 0;
+    }
+
+    /**
+     * Record a checkpoint
+     *
+     * @param name checkpoint name
+     * @param responseTime response time in milliseconds
+     * @param transferSize transfer size
+     * @param transferUnit transfer unit, may be empty
+     * @param result the checkpoint result
+     */
+    public void addCheckpoint( String name, long responseTime, long transferSize, String transferUnit,
+                               CheckpointResult result ) {
+
+        CheckpointStatistics statistics = checkpoints.get(name);
+        if (statistics == null) {
+            statistics = new CheckpointStatistics(name, transferUnit);
+            CheckpointStatistics previous = checkpoints.putIfAbsent(name, statistics);
+            if (previous != null) {
+                statistics = previous;
+            }
+        }
+
+        statistics.record(responseTime, transferSize, result);
+    }
+
+    /**
+     * Send the collected data to the DB if the flush interval has passed.
+     * Only one of the calling threads does the flush.
+     *
+     * @param log the logger of the calling thread
+     */
+    public void flushIfNeeded( AtsDbLogger log ) {
+
+        long now = System.currentTimeMillis();
+        long flushTime = nextFlushTime.get();
+        if (now >= flushTime && nextFlushTime.compareAndSet(flushTime, now + flushIntervalMs)) {
+            flush(log);
+        }
+    }
+
+    private void flush( AtsDbLogger log ) {
+
+        synchronized (flushLock) {
+            for (CheckpointStatistics statistics : checkpoints.values()) {
+                CheckpointSummary summary = statistics.getNotFlushedSummary();
+                if (summary != null) {
+                    log.updateCheckpointSummary(summary);
+                }
+            }
+        }
+    }
+
+    private void logPercentiles( AtsDbLogger log ) {
+
+        for (String message : getPercentileMessages()) {
+            log.info(message);
+        }
+    }
+
+    /**
+     * @return one message with the response time percentiles of each checkpoint with passed values
+     */
+    List<String> getPercentileMessages() {
+
+        List<String> messages = new ArrayList<String>();
+        for (CheckpointStatistics statistics : checkpoints.values()) {
+            CheckpointHistogram histogram = statistics.responseTimes;
+            if (histogram.getCount() > 0) {
+                StringBuilder message = new StringBuilder();
+                message.append("Response times of checkpoint '")
+                       .append(statistics.name)
+                       .append("' in queue '")
+                       .append(queueName)
+                       .append("': ")
+                       .append(histogram.getCount())
+                       .append(" passed, min ")
+                       .append(histogram.getMin())
+                       .append(" ms, avg ")
+                       .append(String.format("%.2f", histogram.getMean()))
+                       .append(" ms");
+                for (int i = 0; i < PERCENTILES.length; i++) {
+                    message.append(", ")
+                           .append(PERCENTILE_NAMES[i])
+                           .append(" ")
+                           .append(histogram.getValueAtPercentile(PERCENTILES[i]))
+                           .append(" ms");
+                }
+                message.append(", max ").append(histogram.getMax()).append(" ms");
+                messages.add(message.toString());
+            }
+        }
+
+        return messages;
+    }
+
+    CheckpointStatistics getCheckpointStatistics( String name ) {
+
+        return checkpoints.get(name);
+    }
+
+    /**
+     * The collected values of one checkpoint
+     */
+    static class CheckpointStatistics {
+
+        private final String              name;
+        private final String              transferUnit;
+
+        // response times of the passed checkpoints
+        private final CheckpointHistogram responseTimes    = new CheckpointHistogram();
+        private final AtomicLong          numFailed        = new AtomicLong();
+
+        // transfer rates are kept in units per 1000 seconds, so we do not lose precision with the long values
+        private final AtomicLong          transferRatesSum = new AtomicLong();
+        private final AtomicLong          minTransferRate  = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong          maxTransferRate  = new AtomicLong(Long.MIN_VALUE);
+
+        // the values already sent to the DB. Changed under the flush lock only
+        private long                      flushedPassed;
+        private long                      flushedFailed;
+        private long                      flushedResponseTimesSum;
+        private long                      flushedTransferRatesSum;
+
+        CheckpointStatistics( String name, String transferUnit ) {
+
+            this.name = name;
+            this.transferUnit = transferUnit;
+        }
+
+        void record( long responseTime, long transferSize, CheckpointResult result ) {
+
+            if (result == CheckpointResult.PASSED) {
+                responseTimes.record(responseTime);
+
+                long transferRate = responseTime > 0
+                                                     ? transferSize * 1000 * 1000 / responseTime
+                                                     : 0;
+                transferRatesSum.addAndGet(transferRate);
+                long currentMin = minTransferRate.get();
+                while (transferRate < currentMin && !minTransferRate.compareAndSet(currentMin, transferRate)) {
+                    currentMin = minTransferRate.get();
+                }
+                long currentMax = maxTransferRate.get();
+                while (transferRate > currentMax && !maxTransferRate.compareAndSet(currentMax, transferRate)) {
+                    currentMax = maxTransferRate.get();
+                }
+            } else {
+                numFailed.incrementAndGet();
+            }
+        }
+
+        /**
+         * @return the values collected since the last call or null if there are no new values
+         */
+        CheckpointSummary getNotFlushedSummary() {
+
+            // values recorded meanwhile may be split between two flushes, this slightly moves the averages only
+            long responseTimesSum = responseTimes.getSum();
+            long transferRatesSumValue = transferRatesSum.get();
+            long passed = responseTimes.getCount();
+            long failed = numFailed.get();
+
+            long newPassed = passed - flushedPassed;
+            long newFailed = failed - flushedFailed;
+            if (newPassed == 0 && newFailed == 0) {
+                return null;
+            }
+
+            CheckpointSummary summary = new CheckpointSummary();
+            summary.name = name;
+            summary.transferRateUnit = transferUnit;
+            summary.numPassed = (int) newPassed;
+            summary.numFailed = (int) newFailed;
+            summary.numTotal = summary.numPassed + summary.numFailed;
+            if (newPassed > 0) {
+                // the summary min and max are merged with the ones in the DB, so we can pass the values since the start
+                summary.minResponseTime = (int) responseTimes.getMin();
+                summary.maxResponseTime = (int) responseTimes.getMax();
+                summary.avgResponseTime = (double) (responseTimesSum - flushedResponseTimesSum) / newPassed;
+
+                summary.minTransferRate = minTransferRate.get() / 1000.0;
+                summary.maxTransferRate = maxTransferRate.get() / 1000.0;
+                summary.avgTransferRate = (transferRatesSumValue - flushedTransferRatesSum) / 1000.0 / newPassed;
+            }
+
+            flushedPassed = passed;
+            flushedFailed = failed;
+            flushedResponseTimesSum = responseTimesSum;
+            flushedTransferRatesSum = transferRatesSumValue;
+
+            return summary;
+        }
+    }
+}
@@ -16,22 +16,27 @@
 package com.axway.ats.agent.core.monitoring.queue;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.axway.ats.agent.core.exceptions.AgentException;
 
 /**
  * Singleton keeping info about the action execution results for each queue 
  * running on some agent
+ * 
+ * All load threads register their results here, so no global lock is used.
+ * The counters are striped and the results are merged only when they are requested.
  */
 public class QueueExecutionStatistics {
 
-    private Map<String, Map<String, ActionExecutionStatistic>> actionsPerQueue = new HashMap<String, Map<String, ActionExecutionStatistic>>();
+    private ConcurrentMap<String, ConcurrentMap<String, ActionCounters>> actionsPerQueue = new ConcurrentHashMap<String, ConcurrentMap<String, ActionCounters>>();
 
-    private static final QueueExecutionStatistics              instance;
+    private static final QueueExecutionStatistics                        instance;
 
     static {
         instance = new QueueExecutionStatistics();
@@ -50,15 +55,9 @@ public static QueueExecutionStatistics getInstance() {
     public void initActionExecutionResults(
                                             String queueName ) throws AgentException {
 
-        Map<String, ActionExecutionStatistic> thisQueueStatics = actionsPerQueue.get(queueName);
-        if (thisQueueStatics != null) {
-            // there is already information about queue with same name, maybe this is another run of same test
-            // cleanup this info
-            thisQueueStatics.clear();
-        } else {
-            // unknown queue
-            actionsPerQueue.put(queueName, new HashMap<String, ActionExecutionStatistic>());
-        }
+        // if there is already information about queue with same name, maybe this is another run of same test,
+        // so we cleanup this info
+        actionsPerQueue.put(queueName, new ConcurrentHashMap<String, ActionCounters>());
     }
 
     /**
@@ -70,9 +69,12 @@ public void initActionExecutionResults(
     public List<ActionExecutionStatistic> getActionExecutionResults(
                                                                      String queueName ) throws AgentException {
 
-        Collection<ActionExecutionStatistic> thisQueueStatics = actionsPerQueue.get(queueName).values();
+        List<ActionExecutionStatistic> thisQueueStatistics = new ArrayList<ActionExecutionStatistic>();
+        for (ActionCounters actionCounters : actionsPerQueue.get(queueName).values()) {
+            thisQueueStatistics.add(actionCounters.getSnapshot());
+        }
 
-        return new ArrayList<ActionExecutionStatistic>(thisQueueStatics);
+        return thisQueueStatistics;
     }
 
     /**
@@ -82,23 +84,91 @@ public List<ActionExecutionStatistic> getActionExecutionResults(
      * @param actionName
      * @param passed
      */
-    synchronized public void registerActionExecutionResult(
-                                                            String queueName,
-                                                            String actionName,
-                                                            boolean passed ) {
+    public void registerActionExecutionResult(
+                                               String queueName,
+                                               String actionName,
+                                               boolean passed ) {
+
+        getActionCounters(queueName, actionName).register(passed, -1);
+    }
+
+    /**
+     * Called by any thread right after a successful execution of an action
+     * 
+     * @param queueName
+     * @param actionName
+     * @param responseTime the action response time in milliseconds
+     */
+    public void registerActionExecutionResult(
+                                               String queueName,
+                                               String actionName,
+                                               long responseTime ) {
+
+        getActionCounters(queueName, actionName).register(true, responseTime);
+    }
+
+    private ActionCounters getActionCounters( String queueName, String actionName ) {
 
         // find the queue, we know it is available as the initialize method was already called
-        Map<String, ActionExecutionStatistic> thisQueueStatics = actionsPerQueue.get(queueName);
+        ConcurrentMap<String, ActionCounters> thisQueueStatistics = actionsPerQueue.get(queueName);
 
         // find the action
-        ActionExecutionStatistic thisActionStatistic = thisQueueStatics.get(actionName);
-        if (thisActionStatistic == null) {
+        ActionCounters actionCounters = thisQueueStatistics.get(actionName);
+        if (actionCounters == null) {
             // new action
-            thisActionStatistic = new ActionExecutionStatistic(actionName);
-            thisQueueStatics.put(actionName, thisActionStatistic);
+            actionCounters = new ActionCounters(actionName);
+            ActionCounters existingCounters = thisQueueStatistics.putIfAbsent(actionName, actionCounters);
+            if (existingCounters != null) {
+                actionCounters = existingCounters;
+            }
         }
 
-        // register the action execution result
-        thisActionStatistic.registerExecutionResult(passed);
+        return actionCounters;
+    }
+
+    /**
+     * The live statistics of one action
+     */
+    static class ActionCounters {
+
+        private final String              actionName;
+
+        private final LongAdder           numberPassed       = new LongAdder();
+        private final LongAdder           numberFailed       = new LongAdder();
+        private final CheckpointHistogram responseTimes      = new CheckpointHistogram();
+
+        // the start of the first execution and the end of the last one
+        private final AtomicLong          firstExecutionTime = new AtomicLong();
+        private final LongAccumulator     lastExecutionTime  = new LongAccumulator(Math::max, 0);
+
+        ActionCounters( String actionName ) {
+
+            this.actionName = actionName;
+        }
+
+        void register( boolean passed, long responseTime ) {
+
+            long now = System.currentTimeMillis();
+            if (firstExecutionTime.get() == 0) {
+                firstExecutionTime.compareAndSet(0, now - Math.max(responseTime, 0));
+            }
+            lastExecutionTime.accumulate(now);
+
+            if (passed) {
+                numberPassed.increment();
+                if (responseTime >= 0) {
+                    responseTimes.record(responseTime);
+                }
+            } else {
+                numberFailed.increment();
+            }
+        }
+
+        ActionExecutionStatistic getSnapshot() {
+
+            return new ActionExecutionStatistic(actionName, numberPassed.sum(), numberFailed.sum(),
+                                                responseTimes, firstExecutionTime.get(),
+                                                lastExecutionTime.get());
+        }
     }
 }
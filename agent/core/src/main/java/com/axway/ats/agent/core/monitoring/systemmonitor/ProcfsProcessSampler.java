@@ -0,0 +1,369 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.systemmonitor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.core.utils.IoUtils;
+
+/**
+ * Reads the process information directly from the Linux /proc file system.
+ * <p>
+ * The <i>stat</i> and <i>statm</i> files of a process are read only once per poll, no matter how many readings
+ * are taken for this process. Call {@link #startNewPoll()} before each poll to forget the previous values.
+ * </p>
+ * <p>
+ * The values are in the same units as the ones returned by the monitoring providers -
+ * CPU times are in milliseconds and memory sizes are in bytes.
+ * </p>
+ * This class is not thread safe, it is expected to be used by the monitoring thread only.
+ */
+class ProcfsProcessSampler {
+
+    private static final Logger                log                    = Logger.getLogger(ProcfsProcessSampler.class);
+
+    /*
+     * The CPU times in /proc/[pid]/stat are in clock ticks(USER_HZ).
+     * This is 100 on all Linux platforms we can run on, it can not be read without a native call.
+     */
+    static final long                          CLOCK_TICKS_PER_SECOND = 100;
+
+    private static final long                  DEFAULT_PAGE_SIZE      = 4096;
+
+    private final File                         procFolder;
+    private final long                         pageSize;
+
+    // the values of the current poll
+    private final Map<Long, ProcessSample>     samples                = new HashMap<Long, ProcessSample>();
+
+    // buffer for reading the small /proc files
+    private final byte[]                       readBuffer             = new byte[8192];
+
+    ProcfsProcessSampler() {
+
+        this(new File("/proc"));
+    }
+
+    ProcfsProcessSampler( File procFolder ) {
+
+        this.procFolder = procFolder;
+        this.pageSize = readPageSize();
+    }
+
+    /**
+     * @return whether the /proc file system provides the files we need
+     */
+    static boolean isSupported( File procFolder ) {
+
+        File selfFolder = new File(procFolder, "self");
+        return new File(selfFolder, "stat").canRead() && new File(selfFolder, "statm").canRead();
+    }
+
+    /**
+     * Forget the values from the previous poll
+     */
+    void startNewPoll() {
+
+        samples.clear();
+    }
+
+    /**
+     * @return the IDs of all running processes
+     */
+    long[] getProcList() {
+
+        String[] fileNames = procFolder.list();
+        if (fileNames == null) {
+            return new long[0];
+        }
+
+        long[] pids = new long[fileNames.length];
+        int pidsCount = 0;
+        for (String fileName : fileNames) {
+            if (isNumber(fileName)) {
+                pids[pidsCount++] = Long.parseLong(fileName);
+            }
+        }
+
+        long[] result = new long[pidsCount];
+        System.arraycopy(pids, 0, result, 0, pidsCount);
+        return result;
+    }
+
+    /**
+     * @param pid the process ID
+     * @return the process command line arguments or null if they can not be read
+     */
+    String[] getProcArgs( long pid ) {
+
+        String cmdline = readFile(pid, "cmdline");
+        if (cmdline == null) {
+            return null;
+        }
+
+        // the arguments are separated by '\0'
+        List<String> args = new ArrayList<String>();
+        int argStart = 0;
+        for (int i = 0; i < cmdline.length(); i++) {
+            if (cmdline.charAt(i) == '\0') {
+                args.add(cmdline.substring(argStart, i));
+                argStart = i + 1;
+            }
+        }
+        if (argStart < cmdline.length()) {
+            args.add(cmdline.substring(argStart));
+        }
+        return args.toArray(new String[args.size()]);
+    }
+
+    /**
+     * Get the process information for the current poll.
+     * The /proc files are read on the first call for this process only.
+     *
+     * @param pid the process ID
+     * @return the process information or null if it can not be read, for example the process is not alive
+     */
+    ProcessSample getSample( long pid ) {
+
+        ProcessSample sample = samples.get(pid);
+        if (sample == null && !samples.containsKey(pid)) {
+            sample = readSample(pid);
+            // remember the failures too, so we do not try again during this poll
+            samples.put(pid, sample);
+        }
+        return sample;
+    }
+
+    private ProcessSample readSample( long pid ) {
+
+        String stat = readFile(pid, "stat");
+        String statm = readFile(pid, "statm");
+        if (stat == null || statm == null) {
+            return null;
+        }
+
+        try {
+            return parse(stat, statm, pageSize);
+        } catch (RuntimeException e) {
+            log.warn("Unable to parse the /proc information of process " + pid, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parse the content of /proc/[pid]/stat and /proc/[pid]/statm
+     *
+     * @param stat the stat file content
+     * @param statm the statm file content
+     * @param pageSize the memory page size in bytes
+     * @return the parsed values
+     */
+    static ProcessSample parse( String stat, String statm, long pageSize ) {
+
+        // the process name is in brackets and may contain spaces and brackets, so skip it
+        int nameEnd = stat.lastIndexOf(')');
+        if (nameEnd < 0) {
+            throw new IllegalArgumentException("Unexpected /proc/[pid]/stat format: " + stat);
+        }
+        // the first field after the name is field number 3 (the process state)
+        String[] statFields = stat.substring(nameEnd + 2).trim().split(" ");
+        String[] statmFields = statm.trim().split(" ");
+
+        ProcessSample sample = new ProcessSample();
+        sample.minorFaults = Long.parseLong(statFields[10 - 3]);
+        sample.majorFaults = Long.parseLong(statFields[12 - 3]);
+        sample.cpuUser = ticksToMillis(Long.parseLong(statFields[14 - 3]));
+        sample.cpuKernel = ticksToMillis(Long.parseLong(statFields[15 - 3]));
+        sample.virtualMemory = Long.parseLong(statFields[23 - 3]);
+
+        sample.residentMemory = Long.parseLong(statmFields[1]) * pageSize;
+        sample.sharedMemory = Long.parseLong(statmFields[2]) * pageSize;
+
+        return sample;
+    }
+
+    private static long ticksToMillis( long ticks ) {
+
+        return ticks * 1000 / CLOCK_TICKS_PER_SECOND;
+    }
+
+    private long readPageSize() {
+
+        // the statm values are in pages, find the page size as it is not the same on all platforms
+        // the first mapping is enough, the whole file is large
+        String smaps = readFile(new File(new File(procFolder, "self"), "smaps"), readBuffer.length);
+        if (smaps != null) {
+            int index = smaps.indexOf("KernelPageSize:");
+            if (index > -1) {
+                int lineEnd = smaps.indexOf('\n', index);
+                String value = smaps.substring(index + "KernelPageSize:".length(),
+                                               lineEnd > -1
+                                                            ? lineEnd
+                                                            : smaps.length())
+                                    .replace("kB", "")
+                                    .trim();
+                try {
+                    return Long.parseLong(value) * 1024;
+                } catch (NumberFormatException e) {
+                    log.warn("Unable to parse the memory page size '" + value + "', we will use "
+                             + DEFAULT_PAGE_SIZE + " bytes");
+                }
+            }
+        }
+        return DEFAULT_PAGE_SIZE;
+    }
+
+    private String readFile( long pid, String fileName ) {
+
+        return readFile(new File(new File(procFolder, String.valueOf(pid)), fileName));
+    }
+
+    private String readFile( File file ) {
+
+        return readFile(file, Integer.MAX_VALUE);
+    }
+
+    private String readFile( File file, int maxBytes ) {
+
+        InputStream is = null;
+        try {
+            is = new FileInputStream(file);
+
+            // the files we read usually fit in the buffer, but the command line may be longer
+            ByteArrayOutputStream content = null;
+            int totalBytes = 0;
+            int bufferBytes = 0;
+            int readBytes;
+            while (totalBytes < maxBytes
+                   && (readBytes = is.read(readBuffer, bufferBytes, readBuffer.length - bufferBytes)) > 0) {
+                bufferBytes += readBytes;
+                totalBytes += readBytes;
+                if (bufferBytes == readBuffer.length && totalBytes < maxBytes) {
+                    if (content == null) {
+                        content = new ByteArrayOutputStream();
+                    }
+                    content.write(readBuffer, 0, bufferBytes);
+                    bufferBytes = 0;
+                }
+            }
+
+            if (content == null) {
+                return new String(readBuffer, 0, bufferBytes, StandardCharsets.UTF_8);
+            }
+            content.write(readBuffer, 0, bufferBytes);
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // the process is not alive or we are not allowed to read its information
+            return null;
+        } finally {
+            IoUtils.closeStream(is);
+        }
+    }
+
+    private static boolean isNumber( String value ) {
+
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The information about a process at the moment of the poll
+     */
+    static class ProcessSample {
+
+        private long cpuUser;
+        private long cpuKernel;
+        private long minorFaults;
+        private long majorFaults;
+        private long virtualMemory;
+        private long residentMemory;
+        private long sharedMemory;
+
+        /**
+         * @return milliseconds spent in user mode
+         */
+        long getCpuUser() {
+
+            return cpuUser;
+        }
+
+        /**
+         * @return milliseconds spent in kernel mode
+         */
+        long getCpuKernel() {
+
+            return cpuKernel;
+        }
+
+        /**
+         * @return milliseconds spent in all modes
+         */
+        long getCpuTotal() {
+
+            return cpuUser + cpuKernel;
+        }
+
+        /**
+         * @return number of minor and major page faults
+         */
+        long getMemoryPageFaults() {
+
+            return minorFaults + majorFaults;
+        }
+
+        /**
+         * @return the virtual memory size in bytes
+         */
+        long getVirtualMemory() {
+
+            return virtualMemory;
+        }
+
+        /**
+         * @return the resident memory size in bytes
+         */
+        long getResidentMemory() {
+
+            return residentMemory;
+        }
+
+        /**
+         * @return the shared memory size in bytes
+         */
+        long getSharedMemory() {
+
+            return sharedMemory;
+        }
+    }
+}
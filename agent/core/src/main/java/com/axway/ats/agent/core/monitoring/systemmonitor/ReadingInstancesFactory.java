@@ -15,6 +15,7 @@
  */
 package com.axway.ats.agent.core.monitoring.systemmonitor;
 
+import java.io.File;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,12 +29,14 @@
 
 import org.apache.log4j.Logger;
 
+import com.axway.ats.agent.core.monitoring.systemmonitor.ProcfsProcessSampler.ProcessSample;
 import com.axway.ats.agent.core.monitoring.systemmonitor.systeminformation.INetworkInterfaceStat;
 import com.axway.ats.agent.core.monitoring.systemmonitor.systeminformation.ISystemInformation;
 import com.axway.ats.agent.core.monitoring.systemmonitor.systeminformation.exceptions.SystemInformationException;
 import com.axway.ats.common.performance.monitor.beans.ParentProcessReadingBean;
 import com.axway.ats.common.performance.monitor.beans.ReadingBean;
 import com.axway.ats.common.system.OperatingSystemType;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
 import com.axway.ats.core.monitoring.SystemMonitorDefinitions;
 import com.axway.ats.core.monitoring.UnsupportedReadingException;
 import com.axway.ats.core.utils.StringUtils;
@@ -64,6 +67,13 @@ public class ReadingInstancesFactory {
     // we must not assign again index 2, it must be index 3
     private static Map<String, Integer>                   matchedProcessesIndexes;
 
+    // Map<Process ID, start command> of the processes which did not match any pattern.
+    // We do not check them again, unless their start command changes
+    private static Map<Long, String>                      notMatchedProcesses;
+
+    // reads the process information from /proc on Linux, it is null on other systems
+    private static ProcfsProcessSampler                   procfsSampler;
+
     public static void init(
                              ISystemInformation systemInfo,
                              int pollingInterval ) throws UnsupportedReadingException, SystemInformationException {
@@ -82,6 +92,19 @@ public static void init(
         matchedProcessesIds = new HashSet<Long>();
         matchedProcessesIndexes = new HashMap<String, Integer>();
         processesReadingInstanceIdentifiers = new HashSet<String>();
+        notMatchedProcesses = new HashMap<Long, String>();
+
+        procfsSampler = null;
+        if (OperatingSystemType.getCurrentOsType() == OperatingSystemType.LINUX
+            && AtsSystemProperties.getPropertyAsBoolean(AtsSystemProperties.SYSTEM_MONITOR_USE_PROCFS_SAMPLER,
+                                                        AtsSystemProperties.SYSTEM_MONITOR_USE_PROCFS_SAMPLER_DEFAULT)) {
+            if (ProcfsProcessSampler.isSupported(new File("/proc"))) {
+                procfsSampler = new ProcfsProcessSampler();
+                log.info("The process readings will be taken from /proc");
+            } else {
+                log.warn("The /proc file system can not be read, the process readings will be taken from the monitoring provider");
+            }
+        }
 
         // On Solaris it takes a significant amount of time (around 1 minute) until Sigar iterates the
         // system processes for first time. We do it here, so the real polls are quick
@@ -230,6 +253,11 @@ public static List<ReadingInstance> createOrUpdateDynamicReadingInstances(
                                                                                List<ReadingInstance> currentReadingInstances ) throws UnsupportedReadingException,
                                                                                                                                SystemInformationException {
 
+        // this is the beginning of a new poll, the process information will be read again
+        if (procfsSampler != null) {
+            procfsSampler.startNewPoll();
+        }
+
         // update the list of matching processes now, this must be done as quickly as possible
         // as it happens prior to each polling
         currentReadingInstances = updateProcessesMatchingMap(systemInfo,
@@ -1358,7 +1386,7 @@ private static List<ReadingInstance> getProcessCpuUsageRunningUser(
                         public void init() throws SystemInformationException {
 
                             this.lastLongValue = fixLongValue(fixOverflow(getName(),
-                                                                          systemInfo.getProcessCpuTimeRunningUser(processInfo.getPid()),
+                                                                          readProcessCpuTimeRunningUser(systemInfo, processInfo.getPid()),
                                                                           ReadingInstance.CPU_PROCESS_OVERFLOW_VALUE));
                         }
 
@@ -1366,7 +1394,7 @@ public void init() throws SystemInformationException {
                         public float poll() throws SystemInformationException {
 
                             long userTime = fixLongValue(fixOverflow(getName(),
-                                                                     systemInfo.getProcessCpuTimeRunningUser(processInfo.getPid()),
+                                                                     readProcessCpuTimeRunningUser(systemInfo, processInfo.getPid()),
                                                                      ReadingInstance.CPU_PROCESS_OVERFLOW_VALUE));
                             double deltaUserTime;
                             if (userTime > 0) {
@@ -1443,7 +1471,7 @@ private static List<ReadingInstance> getProcessCpuUsageRunningKernel(
                         public void init() throws SystemInformationException {
 
                             this.lastLongValue = fixLongValue(fixOverflow(getName(),
-                                                                          systemInfo.getProcessCpuTimeRunningKernel(processInfo.getPid()),
+                                                                          readProcessCpuTimeRunningKernel(systemInfo, processInfo.getPid()),
                                                                           ReadingInstance.CPU_PROCESS_OVERFLOW_VALUE));
                         }
 
@@ -1451,7 +1479,7 @@ public void init() throws SystemInformationException {
                         public float poll() throws SystemInformationException {
 
                             long kernelTime = fixLongValue(fixOverflow(getName(),
-                                                                       systemInfo.getProcessCpuTimeRunningKernel(processInfo.getPid()),
+                                                                       readProcessCpuTimeRunningKernel(systemInfo, processInfo.getPid()),
                                                                        ReadingInstance.CPU_PROCESS_OVERFLOW_VALUE));
                             double deltaKernelTime;
                             if (kernelTime > 0) {
@@ -1529,7 +1557,7 @@ private static List<ReadingInstance> getProcessCpuUsageRunningTotal(
                         public void init() throws SystemInformationException {
 
                             this.lastLongValue = fixLongValue(fixOverflow(getName(),
-                                                                          systemInfo.getProcessCpuTimeRunningTotal(processInfo.getPid()),
+                                                                          readProcessCpuTimeRunningTotal(systemInfo, processInfo.getPid()),
                                                                           ReadingInstance.CPU_PROCESS_OVERFLOW_VALUE));
                         }
 
@@ -1537,7 +1565,7 @@ public void init() throws SystemInformationException {
                         public float poll() throws SystemInformationException {
 
                             long totalTime = fixLongValue(fixOverflow(getName(),
-                                                                      systemInfo.getProcessCpuTimeRunningTotal(processInfo.getPid()),
+                                                                      readProcessCpuTimeRunningTotal(systemInfo, processInfo.getPid()),
                                                                       ReadingInstance.CPU_PROCESS_OVERFLOW_VALUE));
                             double deltaTotalTime;
                             if (totalTime > 0) {
@@ -1619,7 +1647,7 @@ public void init() throws SystemInformationException {
                         @Override
                         public float poll() throws SystemInformationException {
 
-                            float result = toFloatWith2DecimalDigits(systemInfo.getProcessVirtualMemory(processInfo.getPid()));
+                            float result = toFloatWith2DecimalDigits(readProcessVirtualMemory(systemInfo, processInfo.getPid()));
 
                             addValueToParentProcess(result);
                             return result;
@@ -1677,7 +1705,7 @@ public void init() throws SystemInformationException {
                         @Override
                         public float poll() throws SystemInformationException {
 
-                            float result = toFloatWith2DecimalDigits(systemInfo.getProcessResidentMemory(processInfo.getPid()));
+                            float result = toFloatWith2DecimalDigits(readProcessResidentMemory(systemInfo, processInfo.getPid()));
                             addValueToParentProcess(result);
                             return result;
                         }
@@ -1734,7 +1762,7 @@ public void init() throws SystemInformationException {
                         @Override
                         public float poll() throws SystemInformationException {
 
-                            float result = toFloatWith2DecimalDigits(systemInfo.getProcessSharedMemory(processInfo.getPid()));
+                            float result = toFloatWith2DecimalDigits(readProcessSharedMemory(systemInfo, processInfo.getPid()));
                             addValueToParentProcess(result);
                             return result;
                         }
@@ -1786,7 +1814,7 @@ private static List<ReadingInstance> getProcessMemoryPageFaults(
                         public void init() throws SystemInformationException {
 
                             this.lastLongValue = fixLongValue(fixOverflow(getName(),
-                                                                          systemInfo.getProcessMemoryPageFaults(processInfo.getPid()),
+                                                                          readProcessMemoryPageFaults(systemInfo, processInfo.getPid()),
                                                                           ReadingInstance.MEMORYPAGEFAULTS_PROCESS_OVERFLOW_VALUE));
                         }
 
@@ -1794,7 +1822,7 @@ public void init() throws SystemInformationException {
                         public float poll() throws SystemInformationException {
 
                             long memoryPageFaults = fixLongValue(fixOverflow(getName(),
-                                                                             systemInfo.getProcessMemoryPageFaults(processInfo.getPid()),
+                                                                             readProcessMemoryPageFaults(systemInfo, processInfo.getPid()),
                                                                              ReadingInstance.MEMORYPAGEFAULTS_PROCESS_OVERFLOW_VALUE));
                             double deltaMemoryPageFaults;
                             if (memoryPageFaults != -1) {
@@ -1856,8 +1884,14 @@ private static List<ReadingInstance> updateProcessesMatchingMap(
         // at the end only processes that are not alive will be in this list
         Set<Long> finishedProcessesIds = new HashSet<Long>(matchedProcessesIds);
 
+        // at the end only not matched processes that are still alive will be in this map
+        Map<Long, String> stillNotMatchedProcesses = new HashMap<Long, String>();
+
         // iterate all system processes and remember the ones we want to monitor
-        for (long pid : systemInfo.getProcList()) {
+        long[] pids = procfsSampler != null
+                                            ? procfsSampler.getProcList()
+                                            : systemInfo.getProcList();
+        for (long pid : pids) {
             // check if we know this process from a previous poll, we do not want to add it again
             if (!matchedProcessesIds.contains(pid)) {
 
@@ -1865,6 +1899,12 @@ private static List<ReadingInstance> updateProcessesMatchingMap(
                 String processStartCommand = constructProcessStartCommand(systemInfo, pid);
                 if (processStartCommand != null && !processStartCommand.isEmpty()) {
 
+                    // do not check again a process which did not match in a previous poll
+                    if (processStartCommand.equals(notMatchedProcesses.get(pid))) {
+                        stillNotMatchedProcesses.put(pid, processStartCommand);
+                        continue;
+                    }
+
                     String processUsername = null;
 
                     // check this process against all patterns
@@ -1913,6 +1953,10 @@ private static List<ReadingInstance> updateProcessesMatchingMap(
                             }
                         }
                     }
+
+                    if (!matchedProcessesIds.contains(pid)) {
+                        stillNotMatchedProcesses.put(pid, processStartCommand);
+                    }
                 }
             } else {
                 // the process is still alive
@@ -1920,6 +1964,8 @@ private static List<ReadingInstance> updateProcessesMatchingMap(
             }
         }
 
+        notMatchedProcesses = stillNotMatchedProcesses;
+
         // check if some processes have died, we do not want to monitor them anymore
         for (Long finishedProcessId : finishedProcessesIds) {
 
@@ -1996,7 +2042,9 @@ private static String constructProcessStartCommand(
 
         StringBuilder startCommand = new StringBuilder();
         try {
-            String[] processArgs = systemInfo.getProcArgs(pid);
+            String[] processArgs = procfsSampler != null
+                                                         ? procfsSampler.getProcArgs(pid)
+                                                         : systemInfo.getProcArgs(pid);
             if (processArgs != null) {
                 for (String arg : processArgs) {
                     startCommand.append(arg);
@@ -2009,6 +2057,89 @@ private static String constructProcessStartCommand(
             return null;
         }
     }
+
+    /*
+     * The following methods return the process information from /proc if possible,
+     * otherwise they ask the monitoring provider
+     */
+    private static long readProcessCpuTimeRunningUser(
+                                                       ISystemInformation systemInfo,
+                                                       long pid ) {
+
+        ProcessSample sample = getProcessSample(pid);
+        return sample != null
+                              ? sample.getCpuUser()
+                              : systemInfo.getProcessCpuTimeRunningUser(pid);
+    }
+
+    private static long readProcessCpuTimeRunningKernel(
+                                                         ISystemInformation systemInfo,
+                                                         long pid ) {
+
+        ProcessSample sample = getProcessSample(pid);
+        return sample != null
+                              ? sample.getCpuKernel()
+                              : systemInfo.getProcessCpuTimeRunningKernel(pid);
+    }
+
+    private static long readProcessCpuTimeRunningTotal(
+                                                        ISystemInformation systemInfo,
+                                                        long pid ) {
+
+        ProcessSample sample = getProcessSample(pid);
+        return sample != null
+                              ? sample.getCpuTotal()
+                              : systemInfo.getProcessCpuTimeRunningTotal(pid);
+    }
+
+    private static double readProcessVirtualMemory(
+                                                    ISystemInformation systemInfo,
+                                                    long pid ) {
+
+        ProcessSample sample = getProcessSample(pid);
+        return sample != null
+                              ? sample.getVirtualMemory()
+                              : systemInfo.getProcessVirtualMemory(pid);
+    }
+
+    private static double readProcessResidentMemory(
+                                                     ISystemInformation systemInfo,
+                                                     long pid ) {
+
+        ProcessSample sample = getProcessSample(pid);
+        return sample != null
+                              ? sample.getResidentMemory()
+                              : systemInfo.getProcessResidentMemory(pid);
+    }
+
+    private static double readProcessSharedMemory(
+                                                   ISystemInformation systemInfo,
+                                                   long pid ) {
+
+        ProcessSample sample = getProcessSample(pid);
+        return sample != null
+                              ? sample.getSharedMemory()
+                              : systemInfo.getProcessSharedMemory(pid);
+    }
+
+    private static long readProcessMemoryPageFaults(
+                                                     ISystemInformation systemInfo,
+                                                     long pid ) {
+
+        ProcessSample sample = getProcessSample(pid);
+        return sample != null
+                              ? sample.getMemoryPageFaults()
+                              : systemInfo.getProcessMemoryPageFaults(pid);
+    }
+
+    private static ProcessSample getProcessSample(
+                                                   long pid ) {
+
+        if (procfsSampler == null) {
+            return null;
+        }
+        return procfsSampler.getSample(pid);
+    }
 }
 
 class MatchedProcess {
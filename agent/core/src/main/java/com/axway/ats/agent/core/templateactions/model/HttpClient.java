@@ -49,6 +49,7 @@
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
@@ -85,9 +86,16 @@ public class HttpClient {
 
     private static final int    MAX_PARAMETERIZED_RESOURCE_FILE_SIZE    = 1024 * 1024;
 
+    // max number of response body bytes to read, when the body is not needed, so the connection can be reused
+    private static final int    MAX_DISCARDED_RESPONSE_BYTES            = CHUNK_LENGTH;
+
     private static String       proxyHost;
     private static int          proxyPort;
     static SSLContext           sslContext                              = null;                                                           // reuse sslContext instead of setting it for each request. This should share connections
+    // the keep-alive connections are cached per socket factory and SSLContext.getSocketFactory() returns a new one
+    // on each call, so all requests must use the same factory in order to reuse the HTTPS connections
+    static SSLSocketFactory     sslSocketFactory                        = null;
+    static HostnameVerifier     hostnameVerifier                        = new DefaultHostnameVerifier();
 
     static {
         parseSystemProperties();
@@ -114,6 +122,7 @@ private static void initSSL() throws RuntimeException /* GeneralSecurityExceptio
         try {
             sslContext = SSLContext.getInstance("TLS");
             sslContext.init(null, new TrustManager[]{ new DefaultTrustManager() }, null);
+            sslSocketFactory = sslContext.getSocketFactory();
         } catch (GeneralSecurityException e) {
             throw new RuntimeException("Error setting trust-all trust manager", e);
         }
@@ -140,8 +149,8 @@ public HttpClient( String httpUrl, String httpMethod, List<ActionHeader> httpHea
             }
             if (httpUrl.toLowerCase().startsWith("https")) {
                 // SSL context is initialized one-time
-                ((HttpsURLConnection) urlConnection).setSSLSocketFactory(sslContext.getSocketFactory());
-                ((HttpsURLConnection) urlConnection).setHostnameVerifier(new DefaultHostnameVerifier());
+                ((HttpsURLConnection) urlConnection).setSSLSocketFactory(sslSocketFactory);
+                ((HttpsURLConnection) urlConnection).setHostnameVerifier(hostnameVerifier);
 
             }
 
@@ -345,30 +354,20 @@ public byte[] readWholeBodyBytes() throws IOException {
                 is = urlConnection.getInputStream();
             }
 
-            bytesBuffer = new BufferedInputStream(is);
-            builder = new ByteArrayOutputStream();
+            bytesBuffer = new BufferedInputStream(is, CHUNK_LENGTH);
+            int contentLength = urlConnection.getContentLength();
+            builder = new ByteArrayOutputStream(contentLength > 0
+                                                                  ? contentLength
+                                                                  : CHUNK_LENGTH);
 
             /*
              * Here we read all the content body to byte buffer, because we propose that
              *  this is relatively short body, so it is not an issue to load it into the memory
              */
-            int byteRead;
-            int available;
-            byte[] buff;
-            for (;;) {
-                available = bytesBuffer.available();
-                if (available > 0) {
-
-                    buff = new byte[available];
-                    bytesBuffer.read(buff, 0, available);
-                    builder.write(buff);
-                } else if ( (byteRead = bytesBuffer.read()) != -1) {
-
-                    builder.write(byteRead);
-                } else { // EOF
-
-                    break;
-                }
+            byte[] buff = new byte[CHUNK_LENGTH];
+            int bytesRead;
+            while ( (bytesRead = bytesBuffer.read(buff, 0, buff.length)) != -1) {
+                builder.write(buff, 0, bytesRead);
             }
         } finally {
             IoUtils.closeStream(bytesBuffer); // closes also underlying InputStream
@@ -408,6 +407,44 @@ public byte[] getResponseBodyBytes() {
         return responseBodyBytes;
     }
 
+    /**
+     * Read and drop the response body, which is not needed. This way the connection goes back
+     * to the keep-alive cache and can be reused by the next request to the same host.
+     * A connection with a too big response body is closed instead.
+     */
+    public void discardResponseBody() {
+
+        InputStream is = null;
+        try {
+            if (urlConnection.getResponseCode() >= HTTP_MIN_RESPONSE_CODE_FOR_ERROR_STREAM) {
+                is = urlConnection.getErrorStream();
+            } else {
+                is = urlConnection.getInputStream();
+            }
+            if (is == null) {
+                return;
+            }
+
+            byte[] buffer = new byte[CHUNK_LENGTH];
+            int discardedBytes = 0;
+            int bytesRead;
+            while ( (bytesRead = is.read(buffer, 0, buffer.length)) != -1) {
+                discardedBytes += bytesRead;
+                if (discardedBytes > MAX_DISCARDED_RESPONSE_BYTES) {
+                    // cheaper to open a new connection than to read the whole body
+                    urlConnection.disconnect();
+                    return;
+                }
+            }
+        } catch (IOException ioe) {
+            log.debug("Error reading the response body of " + urlConnection.getURL()
+                      + ", the connection will not be reused", ioe);
+            urlConnection.disconnect();
+        } finally {
+            IoUtils.closeStream(is);
+        }
+    }
+
     private static void parseSystemProperties() {
 
         String prop = AtsSystemProperties.getPropertyAsString(AtsSystemProperties.AGENT__TEMPLATE_ACTIONS_PROXY_PROPERTY);
@@ -508,11 +545,11 @@ private Element saveResourceFile( Document dom, String resourceFileExtension, St
 
             stopWatch.step8_stopInterimTimeAndStartReceivingResponseData();
             httpResponseCode = urlConnection.getResponseCode();
-            // TODO: consume response via getErrorStream() in this case (status code > 400))
             if (httpResponseCode == HttpURLConnection.HTTP_UNAUTHORIZED) {
                 log.info("HTTP response code: 401 Unauthorized. File " + resourceFileName
                          + " will not be saved.");
                 stopWatch.step9_endReceivingResponseData();
+                discardResponseBody();
                 return null;
             }
             boolean saveBodyForUseOrLogging = saveRespBodyBytesForFileStore;
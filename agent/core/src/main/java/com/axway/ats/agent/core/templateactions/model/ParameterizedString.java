@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.templateactions.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.agent.core.context.ThreadContext;
+import com.axway.ats.agent.core.templateactions.exceptions.XmlUtilitiesException;
+
+/**
+ * A string with user parameters in the form ${user_param_name}.
+ * <p>
+ * It is split into text and parameter tokens once, so applying the current parameter values
+ * is a single pass over the tokens, no matter how many parameters are set in the {@link ThreadContext}.
+ * Instances are immutable and can be shared between the threads.
+ * </p>
+ */
+public final class ParameterizedString {
+
+    private static final Logger log = Logger.getLogger(ParameterizedString.class);
+
+    // the text between the parameters, there is always one more text token than parameters
+    private final String[]      textTokens;
+    private final String[]      parameterNames;
+
+    private final int           textLength;
+
+    private ParameterizedString( String[] textTokens, String[] parameterNames ) {
+
+        this.textTokens = textTokens;
+        this.parameterNames = parameterNames;
+
+        int length = 0;
+        for (String textToken : textTokens) {
+            length += textToken.length();
+        }
+        this.textLength = length;
+    }
+
+    /**
+     * Split the provided string into text and parameter tokens
+     *
+     * @param template the string which may contain user parameters
+     * @return the tokenized string
+     */
+    public static ParameterizedString compile( String template ) {
+
+        List<String> textTokens = new ArrayList<String>();
+        List<String> parameterNames = new ArrayList<String>();
+
+        int textStartIndex = 0;
+        int paramStartIndex;
+        while ( (paramStartIndex = template.indexOf("${", textStartIndex)) > -1) {
+
+            int paramEndIndex = template.indexOf('}', paramStartIndex + 2);
+            if (paramEndIndex < 0) {
+                break;
+            }
+            textTokens.add(template.substring(textStartIndex, paramStartIndex));
+            parameterNames.add(template.substring(paramStartIndex + 2, paramEndIndex));
+            textStartIndex = paramEndIndex + 1;
+        }
+        textTokens.add(template.substring(textStartIndex));
+
+        return new ParameterizedString(textTokens.toArray(new String[textTokens.size()]),
+                                       parameterNames.toArray(new String[parameterNames.size()]));
+    }
+
+    /**
+     * @return whether there is at least one parameter
+     */
+    public boolean hasParameters() {
+
+        return parameterNames.length > 0;
+    }
+
+    /**
+     * Replace the parameters with their current values from the {@link ThreadContext}.
+     * When the value is a {@link Queue}, each occurrence of the parameter takes the next value from it.
+     * Parameters without a value are left as they are.
+     *
+     * @return the string with applied parameter values
+     * @throws XmlUtilitiesException if there are not enough values in a values queue
+     */
+    public String apply() throws XmlUtilitiesException {
+
+        if (parameterNames.length == 0) {
+            return textTokens[0];
+        }
+
+        StringBuilder sb = new StringBuilder(textLength + parameterNames.length * 16);
+        for (int i = 0; i < parameterNames.length; i++) {
+            sb.append(textTokens[i]);
+
+            String paramName = parameterNames[i];
+            Object paramValue = ThreadContext.getAttribute(paramName);
+            if (paramValue instanceof Queue<?>) {
+
+                // replace this occurrence of the parameter and remove its value from the Queue
+                Object value = ((Queue<?>) paramValue).poll();
+                if (value == null) {
+
+                    throw new XmlUtilitiesException("The number of parameters ${" + paramName
+                                                    + "} is more than the number of provided values for them.");
+                }
+                sb.append(value.toString());
+            } else if (paramValue != null) {
+
+                sb.append(paramValue.toString());
+            } else {
+
+                if (!paramName.startsWith("=")) {
+                    // TODO - change to warn after detailed review. Currently it seems this method is applied before new parameters extraction
+                    log.info("Currently there is no value to replace parameter ${" + paramName
+                             + "}. Increase HttpClient's logging severity to 'TRACE' in order to see the current request data.");
+                }
+                sb.append("${").append(paramName).append('}');
+            }
+        }
+        sb.append(textTokens[parameterNames.length]);
+
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder(textLength + parameterNames.length * 16);
+        for (int i = 0; i < parameterNames.length; i++) {
+            sb.append(textTokens[i]).append("${").append(parameterNames[i]).append('}');
+        }
+        return sb.append(textTokens[parameterNames.length]).toString();
+    }
+}
@@ -22,9 +22,10 @@
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.axway.ats.agent.core.templateactions.exceptions.XmlReaderException;
 import com.axway.ats.agent.core.templateactions.exceptions.XmlUtilitiesException;
@@ -43,7 +44,11 @@ public class XmlReader {
 
     private List<ActionObject>                     actionNodes;
 
-    private static Map<String, List<ActionObject>> actionNodesMap          = new HashMap<String, List<ActionObject>>();
+    /*
+     * The parsed actions of each XML file. They do not change after they are loaded,
+     * so all threads running the same actions share them.
+     */
+    private static Map<String, List<ActionObject>> actionNodesMap          = new ConcurrentHashMap<String, List<ActionObject>>();
 
     private int                                    iActionNodes;
 
@@ -111,7 +116,14 @@ public boolean hasParamsInRequestResourceFile() {
 
     private void loadXmlFile() throws XmlReaderException, XmlUtilitiesException {
 
-        //FIXME: performance: different actionsXml files could be loaded concurrently but extensive synchronization is needed
+        iActionNodes = -1;
+
+        // the common case - the file is already loaded, no locking is needed
+        actionNodes = actionNodesMap.get(actionsXml);
+        if (actionNodes != null) {
+            return;
+        }
+
         synchronized (actionNodesMap) {
 
             if (!actionNodesMap.containsKey(actionsXml)) {
@@ -205,6 +217,7 @@ private void loadXmlFile() throws XmlReaderException, XmlUtilitiesException {
                             }
                         }
                     }
+                    actionNodes = Collections.unmodifiableList(actionNodes);
                     actionNodesMap.put(actionsXml, actionNodes);
 
                 } catch (Exception e) {
@@ -218,7 +231,6 @@ private void loadXmlFile() throws XmlReaderException, XmlUtilitiesException {
 
                 actionNodes = actionNodesMap.get(actionsXml);
             }
-            iActionNodes = -1;
         }
     }
 
@@ -30,20 +30,20 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.regex.Matcher;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.apache.log4j.Logger;
@@ -74,18 +74,28 @@
  */
 public class XmlUtilities {
 
-    private static final Logger   log                              = Logger.getLogger(XmlUtilities.class);
+    private static final Logger                                    log                              = Logger.getLogger(XmlUtilities.class);
 
-    public static final int       MAX_RESPONSE_BODY_BYTES_TO_PRINT = 512 * 1024;
+    public static final int                                        MAX_RESPONSE_BODY_BYTES_TO_PRINT = 512 * 1024;
 
     /*
      * Content-Type prefixes of the printable contents
      */
-    private static final String[] PRINTABLE_CONTENT_TYPES          = new String[]{ "text/", "application/xml",
-                                                                                   "application/xhtml+xml", };
+    private static final String[]                                  PRINTABLE_CONTENT_TYPES          = new String[]{ "text/", "application/xml",
+                                                                                                                    "application/xhtml+xml", };
 
-    private boolean               matchFilesBySize;
-    private boolean               matchFilesByContent;
+    // max number of compiled XPath expressions kept per thread
+    private static final int                                       MAX_CACHED_XPATH_EXPRESSIONS     = 1000;
+
+    /*
+     * The XML parsers and the XPath expressions are not thread safe, but they are expensive
+     * to create for each action step, so each thread keeps its own instances
+     */
+    private static final ThreadLocal<DocumentBuilder>              documentBuilder                  = new ThreadLocal<DocumentBuilder>();
+    private static final ThreadLocal<Map<String, XPathExpression>> xpathExpressions                 = new ThreadLocal<Map<String, XPathExpression>>();
+
+    private boolean                                                matchFilesBySize;
+    private boolean                                                matchFilesByContent;
 
     public XmlUtilities() {
 
@@ -165,55 +175,7 @@ public String applyUserParametersInCookieHeader( String cookiesToModify ) {
      */
     public static String applyUserParameters( String stringToModify ) throws XmlUtilitiesException {
 
-        StringBuilder sb = new StringBuilder(stringToModify);
-
-        int paramStartIndex = -1;
-        for (String key : ThreadContext.getAttributeNames()) {
-
-            String paramName = "${" + key + "}";
-            paramStartIndex = sb.indexOf(paramName);
-            if (paramStartIndex > -1) {
-
-                Object paramValue = ThreadContext.getAttribute(key);
-                if (paramValue instanceof Queue<?>) {
-
-                    Queue<?> valuesQueue = (Queue<?>) paramValue;
-                    while ( (paramStartIndex = sb.indexOf(paramName, paramStartIndex)) > -1) {
-
-                        // replace the first occurrence of the parameter and remove its value from the Queue
-                        Object value = valuesQueue.poll();
-                        if (value == null) {
-
-                            throw new XmlUtilitiesException("The number of parameters " + paramName
-                                                            + " is more than the number of provided values for them.");
-                        }
-                        sb.replace(paramStartIndex, paramStartIndex + paramName.length(), value.toString());
-                    }
-
-                } else {
-
-                    while ( (paramStartIndex = sb.indexOf(paramName, paramStartIndex)) > -1) {
-
-                        sb.replace(paramStartIndex, paramStartIndex + paramName.length(),
-                                   paramValue.toString());
-                    }
-                }
-            }
-        }
-
-        while ( (paramStartIndex = sb.indexOf("${", paramStartIndex)) > -1) {
-
-            if (sb.indexOf("}", paramStartIndex) > -1 && sb.charAt(paramStartIndex + 2) != '=') {
-
-                // TODO - change to warn after detailed review. Currently it seems this method is applied before new parameters extraction
-                log.info("Currently there is no value to replace parameter "
-                         + sb.substring(paramStartIndex, sb.indexOf("}", paramStartIndex) + 1)
-                         + ". Increase HttpClient's logging severity to 'TRACE' in order to see the current request data.");
-            }
-            paramStartIndex++;
-        }
-
-        return sb.toString();
+        return ParameterizedString.compile(stringToModify).apply();
     }
 
     /**
@@ -372,9 +334,7 @@ public String xmlNodeToString( Node node ) throws XmlUtilitiesException {
     public static Document stringToXmlDocumentObj( String xmlString ) throws XmlUtilitiesException {
 
         try {
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            DocumentBuilder db = dbf.newDocumentBuilder();
-            return db.parse(new ByteArrayInputStream(xmlString.getBytes()));
+            return getDocumentBuilder().parse(new ByteArrayInputStream(xmlString.getBytes()));
         } catch (Exception e) {
             throw new XmlUtilitiesException("Error transforming String to XML document", e);
         }
@@ -412,9 +372,7 @@ public static Node[] getChildrenNodes( Node parentNode, String childrenName ) {
     public ActionParser readActionResponse( HttpClient httpClient, String actionsXml, int actionNum,
                                             boolean saveResponseBodyBytes ) throws Exception {
 
-        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-        DocumentBuilder db = dbf.newDocumentBuilder();
-        Document dom = db.newDocument();
+        Document dom = getDocumentBuilder().newDocument();
 
         Node httpActions = dom.createElement(TOKEN_HTTP_ACTIONS);
         dom.appendChild(httpActions);
@@ -449,6 +407,10 @@ public ActionParser readActionResponse( HttpClient httpClient, String actionsXml
                     contentLength = Integer.parseInt( ((Element) resourceFileNode).getAttribute("size"));
                 }
             }
+        } else if (httpClient.getUrlConnection().getDoInput()) {
+
+            // the body of the redirect is not needed, but it must be read in order to reuse the connection
+            httpClient.discardResponseBody();
         }
 
         // add headers
@@ -481,6 +443,13 @@ public ActionParser readActionResponse( HttpClient httpClient, String actionsXml
 
         Node[] actualHeaderNodes = getChildrenNodes(actualHttpResponse.getActionNodeWithoutBody(),
                                                     TOKEN_HTTP_HEADER);
+        // read the actual headers once, instead of once per header matcher
+        String[] actualHeaderNames = new String[actualHeaderNodes.length];
+        String[] actualHeaderValues = new String[actualHeaderNodes.length];
+        for (int i = 0; i < actualHeaderNodes.length; i++) {
+            actualHeaderNames[i] = getNodeAttribute(actualHeaderNodes[i], TOKEN_HEADER_NAME_ATTRIBUTE);
+            actualHeaderValues[i] = getNodeAttribute(actualHeaderNodes[i], TOKEN_HEADER_VALUE_ATTRIBUTE);
+        }
 
         // Collect all header matchers from the XML file and the test code.
         // We keep them in a map, so if same header is specified in the XML and the test, the one coming
@@ -512,15 +481,12 @@ public ActionParser readActionResponse( HttpClient httpClient, String actionsXml
         boolean[] processedHeaderNodes = new boolean[actualHeaderNodes.length];
         for (HeaderMatcher headerMatcher : headerMatchersMap.values()) {
             for (int i = 0; i < actualHeaderNodes.length; i++) {
-                String actualHeaderName = getNodeAttribute(actualHeaderNodes[i],
-                                                           TOKEN_HEADER_NAME_ATTRIBUTE);
-                if (actualHeaderName.equals(headerMatcher.getHeaderName())) {
+                if (actualHeaderNames[i].equals(headerMatcher.getHeaderName())) {
                     // mark the header node as processed
                     processedHeaderNodes[i] = true;
 
                     // try to match this header
-                    String actualHeaderValue = getNodeAttribute(actualHeaderNodes[i],
-                                                                TOKEN_HEADER_VALUE_ATTRIBUTE);
+                    String actualHeaderValue = actualHeaderValues[i];
                     if (!headerMatcher.performMatch(null, actualHeaderValue)) {
                         // header did not match
                         String causeMsg = "Did not match header value '" + actualHeaderValue + "' for "
@@ -681,9 +647,7 @@ private void verifyResponseFile( ActionResponseObject expectedHttpResponseNode,
      */
     private static String[] getByXpath( Node node, String expression ) throws Exception {
 
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
-        XPathExpression xPathExpression = xPath.compile(expression);
+        XPathExpression xPathExpression = getXpathExpression(expression);
 
         NodeList nlist = (NodeList) xPathExpression.evaluate(node, XPathConstants.NODESET);
 
@@ -696,6 +660,48 @@ private static String[] getByXpath( Node node, String expression ) throws Except
         return values.toArray(new String[values.size()]);
     }
 
+    /**
+     * @param expression XPath expression
+     * @return the compiled expression, it is compiled once per thread
+     * @throws XPathExpressionException
+     */
+    private static XPathExpression getXpathExpression( String expression ) throws XPathExpressionException {
+
+        Map<String, XPathExpression> threadExpressions = xpathExpressions.get();
+        if (threadExpressions == null) {
+            threadExpressions = new HashMap<String, XPathExpression>();
+            xpathExpressions.set(threadExpressions);
+        }
+
+        XPathExpression xPathExpression = threadExpressions.get(expression);
+        if (xPathExpression == null) {
+            if (threadExpressions.size() >= MAX_CACHED_XPATH_EXPRESSIONS) {
+                // the expressions come from the templates, so this happens only with generated expressions
+                threadExpressions.clear();
+            }
+            xPathExpression = XPathFactory.newInstance().newXPath().compile(expression);
+            threadExpressions.put(expression, xPathExpression);
+        }
+        return xPathExpression;
+    }
+
+    /**
+     * @return a document builder for the current thread
+     * @throws ParserConfigurationException
+     */
+    private static DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+
+        DocumentBuilder db = documentBuilder.get();
+        if (db == null) {
+            db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            documentBuilder.set(db);
+        } else {
+            // clear the state left from the previous parsing
+            db.reset();
+        }
+        return db;
+    }
+
     /**
      * Log the response body content. This method is used for error logging or traces.
      *
@@ -40,6 +40,8 @@ public class XPathBodyMatcher extends ResponseMatcher {
     private int                       maxValue;
     // used for LIST mode
     private String[]                  listValues;
+    // used for REGEX mode
+    private Pattern                   regexPattern;
 
     public XPathBodyMatcher( String xpath,
                              String valueToMatch,
@@ -76,6 +78,10 @@ public XPathBodyMatcher( String xpath,
         if (matchMode == TemplateBodyNodeMatchMode.LIST) {
             listValues = valueToMatch.split(",");
         }
+
+        if (matchMode == TemplateBodyNodeMatchMode.REGEX) {
+            regexPattern = Pattern.compile(valueToMatch);
+        }
     }
 
     @Override
@@ -124,7 +130,7 @@ public boolean performMatch(
                         }
                         break;
                     case REGEX:
-                        actualResult = Pattern.compile(valueToMatch).matcher(actualValue).find();
+                        actualResult = regexPattern.matcher(actualValue).find();
                         break;
                     case EXTRACT:
                         actualResult = extractUserParameter("response body", valueToMatch, actualValue);
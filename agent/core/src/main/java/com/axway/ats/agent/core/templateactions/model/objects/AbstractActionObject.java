@@ -30,6 +30,7 @@
 import com.axway.ats.agent.core.templateactions.exceptions.InvalidMatcherException;
 import com.axway.ats.agent.core.templateactions.exceptions.XmlReaderException;
 import com.axway.ats.agent.core.templateactions.exceptions.XmlUtilitiesException;
+import com.axway.ats.agent.core.templateactions.model.ParameterizedString;
 import com.axway.ats.agent.core.templateactions.model.XmlUtilities;
 import com.axway.ats.agent.core.templateactions.model.matchers.HeaderMatcher;
 import com.axway.ats.agent.core.templateactions.model.matchers.XPathBodyMatcher;
@@ -49,6 +50,9 @@ public abstract class AbstractActionObject {
 
     protected List<ActionHeader>   httpHeaders = new ArrayList<ActionHeader>();
 
+    // the header values split into text and parameters, so they are parsed once and not for each request
+    private ParameterizedString[]  httpHeaderValues;
+
     private String                 resourceFile;
 
     private String                 resourceFileSize;
@@ -74,18 +78,27 @@ public AbstractActionObject( String actionsXml, ActionParser actionParser ) thro
 
         resolveHttpHeaders(actionParser.getActionNodeWithoutBody());
         resolveResourceFile(actionParser.getActionNodeWithoutBody());
+
+        httpHeaderValues = new ParameterizedString[httpHeaders.size()];
+        for (int i = 0; i < httpHeaderValues.length; i++) {
+            String headerValue = httpHeaders.get(i).getHeaderValue();
+            if (headerValue != null) {
+                httpHeaderValues[i] = ParameterizedString.compile(headerValue);
+            }
+        }
     }
 
     public List<ActionHeader> getHttpHeaders() throws XmlUtilitiesException {
 
-        List<ActionHeader> httpHeadersWithAppliedUserParameters = new ArrayList<ActionHeader>();
-        for (ActionHeader header : httpHeaders) {
+        List<ActionHeader> httpHeadersWithAppliedUserParameters = new ArrayList<ActionHeader>(httpHeaders.size());
+        for (int i = 0; i < httpHeaders.size(); i++) {
 
+            ActionHeader header = httpHeaders.get(i);
             String newHeaderValue = null;
             if (header.getHeaderName().equalsIgnoreCase(HeaderMatcher.COOKIE_HEADER_NAME)) {
                 newHeaderValue = xmlUtilities.applyUserParametersInCookieHeader(header.getHeaderValue());
-            } else {
-                newHeaderValue = XmlUtilities.applyUserParameters(header.getHeaderValue());
+            } else if (httpHeaderValues[i] != null) {
+                newHeaderValue = httpHeaderValues[i].apply();
             }
             httpHeadersWithAppliedUserParameters.add(new ActionHeader(header.getHeaderName(),
                                                                       newHeaderValue));
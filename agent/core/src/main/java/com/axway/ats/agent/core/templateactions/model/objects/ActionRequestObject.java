@@ -26,6 +26,7 @@
 import com.axway.ats.agent.core.templateactions.exceptions.InvalidMatcherException;
 import com.axway.ats.agent.core.templateactions.exceptions.XmlReaderException;
 import com.axway.ats.agent.core.templateactions.exceptions.XmlUtilitiesException;
+import com.axway.ats.agent.core.templateactions.model.ParameterizedString;
 import com.axway.ats.agent.core.templateactions.model.XmlUtilities;
 import com.axway.ats.agent.core.templateactions.model.matchers.HeaderMatcher;
 
@@ -35,9 +36,9 @@
  */
 public class ActionRequestObject extends AbstractActionObject {
 
-    private String httpUrl;
+    private ParameterizedString httpUrl;
 
-    private String httpMethod;
+    private String              httpMethod;
 
     public ActionRequestObject( String actionsXml, ActionParser action ) throws XmlReaderException,
                                                                          XmlUtilitiesException,
@@ -71,7 +72,7 @@ protected void resolveHttpHeaders( Node actionRequest ) throws XmlReaderExceptio
 
     public String getHttpUrl() throws XmlUtilitiesException {
 
-        return XmlUtilities.applyUserParameters(httpUrl);
+        return httpUrl.apply();
     }
 
     public String getHttpMethod() {
@@ -85,7 +86,7 @@ private void resolveHttpUrl( Node actionRequest ) throws XmlReaderException {
         if (httpUrlNode == null) {
             throw new XmlReaderException(actionsXmlName, "No " + TOKEN_HTTP_REQUEST_URL + " node");
         } else {
-            httpUrl = httpUrlNode.getTextContent();
+            httpUrl = ParameterizedString.compile(httpUrlNode.getTextContent());
         }
     }
 
@@ -34,15 +34,20 @@
 import com.axway.ats.agent.core.exceptions.NoSuchActionException;
 import com.axway.ats.agent.core.exceptions.NoSuchComponentException;
 import com.axway.ats.agent.core.monitoring.UserActionsMonitoringAgent;
+import com.axway.ats.agent.core.monitoring.queue.CheckpointsAggregator;
 import com.axway.ats.agent.core.monitoring.queue.QueueExecutionStatistics;
 import com.axway.ats.agent.core.templateactions.CompositeResult;
+import com.axway.ats.agent.core.threading.data.AbstractParameterDataProvider;
 import com.axway.ats.agent.core.threading.data.ParameterDataProvider;
+import com.axway.ats.agent.core.threading.data.config.ParameterProviderLevel;
 import com.axway.ats.agent.core.threading.data.config.UsernameDataConfig;
 import com.axway.ats.agent.core.threading.listeners.ActionTaskListener;
 import com.axway.ats.common.systemproperties.AtsSystemProperties;
 import com.axway.ats.core.threads.ThreadsPerCaller;
 import com.axway.ats.log.AtsDbLogger;
 import com.axway.ats.log.appenders.PassiveDbAppender;
+import com.axway.ats.log.autodb.io.SQLServerDbWriteAccess;
+import com.axway.ats.log.model.CheckpointLogLevel;
 import com.axway.ats.log.model.CheckpointResult;
 
 /**
@@ -69,6 +74,17 @@ public abstract class AbstractActionTask implements Runnable {
     protected List<ParameterDataProvider> dataProviders;
     protected List<Object>                actionClassInstances;
 
+    /*
+     * The data providers are shared by all threads of the queue.
+     * A lock on all of them is needed only when values must be generated for all providers at once,
+     * so they stay aligned (e.g. the N-th value of one list goes together with the N-th value of another list),
+     * or when some provider is not thread safe. In all other cases values are generated without locking.
+     */
+    private boolean                       lockDataProviders;
+    // the first iteration of a thread may need the lock, even if the next ones do not
+    private boolean                       lockDataProvidersOnFirstIteration;
+    private boolean                       isFirstArgumentsGeneration       = true;
+
     //listeners
     protected List<ActionTaskListener>    listeners;
 
@@ -90,6 +106,9 @@ public abstract class AbstractActionTask implements Runnable {
     //remember if we are logging some events in batch mode
     private boolean                       isLoggingInBatchMode;
 
+    // not null when the checkpoints are aggregated in memory instead of sending an event for each of them
+    private CheckpointsAggregator         checkpointsAggregator;
+
     // manager watching for too long iterations
     protected IterationTimeoutManager     itManager;
 
@@ -156,6 +175,7 @@ public AbstractActionTask( String caller, String queueName, ThreadsManager threa
         }
 
         this.dataProviders = dataProviders;
+        checkDataProvidersLocking();
         this.listeners = listeners;
         this.actionClassInstances = new ArrayList<Object>();
 
@@ -235,6 +255,11 @@ public final void run() {
         ThreadsPerCaller.registerThread(caller);
 
         try {
+            // register here and not when creating the task, as the aggregator is released when the task finishes
+            if (SQLServerDbWriteAccess.getCheckpointLogLevel() == CheckpointLogLevel.AGGREGATED) {
+                this.checkpointsAggregator = CheckpointsAggregator.registerTask(caller, queueName);
+            }
+
             // set TemplateActionsResponseVerificationConfigurator to the ThreadContext (it is per Actions Queue)
             TemplateActionsResponseVerificationConfigurator templateConfigurator = TemplateActionsResponseVerificationConfigurator.getInstance(this.queueName);
             if (templateConfigurator != null) {
@@ -358,9 +383,11 @@ protected final void invokeActions() throws InterruptedException {
 
                 // start a checkpoint
                 userActionsMonitoringAgent.actionStarted(actionName);
+                boolean aggregateCheckpoint = false;
                 if (registerActionExecution) {
                     actionStartTimestamp = System.currentTimeMillis();
-                    if (logCheckpoints && !isLoggingInBatchMode) {
+                    aggregateCheckpoint = checkpointsAggregator != null && !checkpointsAggregator.isSampled();
+                    if (logCheckpoints && !isLoggingInBatchMode && !aggregateCheckpoint) {
                         log.startCheckpoint(checkpointName, transferUnit, actionStartTimestamp);
                     }
                 }
@@ -373,7 +400,10 @@ protected final void invokeActions() throws InterruptedException {
                     // the action failed - end the checkpoint
                     if (registerActionExecution) {
                         if (logCheckpoints) {
-                            if (isLoggingInBatchMode) {
+                            if (aggregateCheckpoint) {
+                                checkpointsAggregator.addCheckpoint(checkpointName, 0, 0, transferUnit,
+                                                                    CheckpointResult.FAILED);
+                            } else if (isLoggingInBatchMode) {
                                 log.insertCheckpoint(checkpointName, actionStartTimestamp, 0, 0,
                                                      transferUnit, CheckpointResult.FAILED);
                             } else {
@@ -384,7 +414,7 @@ protected final void invokeActions() throws InterruptedException {
                         QueueExecutionStatistics.getInstance().registerActionExecutionResult(queueName,
                                                                                              actionName,
                                                                                              false);
-                        log.insertCheckpoint(ATS_ACTION__QUEUE_EXECUTION_TIME, queueDuration, CheckpointResult.FAILED);
+                        insertCheckpoint(ATS_ACTION__QUEUE_EXECUTION_TIME, queueDuration, CheckpointResult.FAILED);
                     }
                     // re-throw the exception
                     throw e;
@@ -403,7 +433,10 @@ protected final void invokeActions() throws InterruptedException {
                     }
 
                     if (logCheckpoints) {
-                        if (isLoggingInBatchMode) {
+                        if (aggregateCheckpoint) {
+                            checkpointsAggregator.addCheckpoint(checkpointName, responseTimeMs, transferSize,
+                                                                transferUnit, CheckpointResult.PASSED);
+                        } else if (isLoggingInBatchMode) {
                             log.insertCheckpoint(checkpointName, actionStartTimestamp, responseTimeMs,
                                                  transferSize, transferUnit, CheckpointResult.PASSED);
                         } else {
@@ -422,8 +455,10 @@ protected final void invokeActions() throws InterruptedException {
                         queueDuration += responseTimeMs;
                     }
 
-                    QueueExecutionStatistics.getInstance().registerActionExecutionResult(queueName,
-                                                                                         actionName, true);
+                    QueueExecutionStatistics.getInstance()
+                                            .registerActionExecutionResult(queueName, actionName,
+                                                                           actionEndTimestamp
+                                                                                       - actionStartTimestamp);
                 }
             } // end cycling all actions in this iteration
 
@@ -457,7 +492,28 @@ protected final void invokeActions() throws InterruptedException {
             }
         }
 
-        log.insertCheckpoint(ATS_ACTION__QUEUE_EXECUTION_TIME, queueDuration, CheckpointResult.PASSED);
+        insertCheckpoint(ATS_ACTION__QUEUE_EXECUTION_TIME, queueDuration, CheckpointResult.PASSED);
+
+        if (checkpointsAggregator != null) {
+            checkpointsAggregator.flushIfNeeded(log);
+        }
+    }
+
+    /**
+     * Insert a checkpoint with known response time, or aggregate it in memory
+     * when this is the checkpoint log level
+     *
+     * @param name the checkpoint name
+     * @param responseTime the response time
+     * @param result the checkpoint result
+     */
+    private void insertCheckpoint( String name, long responseTime, CheckpointResult result ) {
+
+        if (checkpointsAggregator != null && !checkpointsAggregator.isSampled()) {
+            checkpointsAggregator.addCheckpoint(name, responseTime, 0, "", result);
+        } else {
+            log.insertCheckpoint(name, responseTime, result);
+        }
     }
 
     /**
@@ -486,8 +542,7 @@ protected boolean sleepBetweenIterations( long endTimestamp ) throws Interrupted
         if (System.currentTimeMillis() + nextInterval < endTimestamp) {
             Thread.sleep(nextInterval);
             if (intervalTimeGenerator != null) {
-                log.insertCheckpoint("[Time between queue executions]", nextInterval,
-                                     CheckpointResult.PASSED);
+                insertCheckpoint("[Time between queue executions]", nextInterval, CheckpointResult.PASSED);
             }
             return true;
         } else {
@@ -517,7 +572,7 @@ protected void sleepBetweenIterations() throws InterruptedException {
 
         Thread.sleep(nextInterval);
         if (intervalTimeGenerator != null) {
-            log.insertCheckpoint("[Time between queue executions]", nextInterval, CheckpointResult.PASSED);
+            insertCheckpoint("[Time between queue executions]", nextInterval, CheckpointResult.PASSED);
         }
     }
 
@@ -580,9 +635,20 @@ protected final void generateInputArguments() {
             // We store all values from all data providers.
             List<ArgumentValue> argumentValues = new ArrayList<ArgumentValue>();
 
-            // Generate the new input arguments - all arguments should be
-            // generated at the same time, so other threads do not interfere.
-            synchronized (dataProviders) {
+            boolean lock = isFirstArgumentsGeneration
+                                                      ? lockDataProvidersOnFirstIteration
+                                                      : lockDataProviders;
+            isFirstArgumentsGeneration = false;
+
+            if (lock) {
+                // Generate the new input arguments - all arguments should be
+                // generated at the same time, so other threads do not interfere.
+                synchronized (dataProviders) {
+                    for (ParameterDataProvider dataProvider : dataProviders) {
+                        argumentValues.add(dataProvider.getValue(argumentValues));
+                    }
+                }
+            } else {
                 for (ParameterDataProvider dataProvider : dataProviders) {
                     argumentValues.add(dataProvider.getValue(argumentValues));
                 }
@@ -595,6 +661,41 @@ protected final void generateInputArguments() {
         }
     }
 
+    /**
+     * Find out when the data providers must be locked while generating the input arguments.
+     * <ul>
+     * <li>providers which are not thread safe always need the lock</li>
+     * <li>PER_INVOCATION providers move their shared cursor on each iteration, so when there are more than one
+     * of them they are locked on each iteration in order to keep their values aligned</li>
+     * <li>PER_THREAD_STATIC providers move their shared cursor on the first iteration of each thread only</li>
+     * <li>PER_THREAD providers use the per-thread slots only, so they never need the lock</li>
+     * </ul>
+     */
+    private void checkDataProvidersLocking() {
+
+        int perInvocationProviders = 0;
+        int perThreadStaticProviders = 0;
+        boolean hasNotThreadSafeProviders = false;
+        for (ParameterDataProvider dataProvider : dataProviders) {
+            if (! (dataProvider instanceof AbstractParameterDataProvider)
+                || ! ((AbstractParameterDataProvider) dataProvider).isThreadSafe()) {
+                hasNotThreadSafeProviders = true;
+                continue;
+            }
+
+            ParameterProviderLevel level = ((AbstractParameterDataProvider) dataProvider).getParameterProviderLevel();
+            if (level == ParameterProviderLevel.PER_INVOCATION) {
+                perInvocationProviders++;
+            } else if (level == ParameterProviderLevel.PER_THREAD_STATIC) {
+                perThreadStaticProviders++;
+            }
+        }
+
+        lockDataProviders = hasNotThreadSafeProviders || perInvocationProviders > 1;
+        lockDataProvidersOnFirstIteration = lockDataProviders
+                                            || perInvocationProviders + perThreadStaticProviders > 1;
+    }
+
     /**
      *  Call the onStart handler for all listeners
      */
@@ -618,6 +719,12 @@ protected final void onPause() {
      */
     private final void onFinish( Throwable throwable ) {
 
+        if (checkpointsAggregator != null) {
+            // send the aggregated checkpoints before telling the queue this thread is over
+            checkpointsAggregator.taskFinished(log);
+            checkpointsAggregator = null;
+        }
+
         for (ActionTaskListener listener : listeners) {
             listener.onFinish(throwable);
         }
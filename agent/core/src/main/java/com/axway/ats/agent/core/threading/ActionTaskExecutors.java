@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.threading;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Creates the executors which run the action tasks of a load queue.
+ * 
+ * By default each task runs on a platform thread. When virtual threads are requested and the JVM
+ * supports them (Java 21 or newer), each task runs on its own virtual thread.
+ * As this code is compiled for older Java versions, the virtual threads API is accessed by reflection.
+ */
+final class ActionTaskExecutors {
+
+    private static final Logger        log                 = Logger.getLogger(ActionTaskExecutors.class);
+
+    // used to give unique names to the virtual threads, as the threads are registered by name
+    private static final AtomicInteger executorsCounter    = new AtomicInteger();
+
+    // the virtual threads API, all are null when it is not supported by the JVM
+    private static final Method        ofVirtualMethod;
+    private static final Method        builderNameMethod;
+    private static final Method        builderFactoryMethod;
+    private static final Method        newThreadPerTaskExecutorMethod;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor",
+                                                                 ThreadFactory.class);
+        } catch (Exception e) {
+            // virtual threads are not supported by this JVM
+            ofVirtual = null;
+        }
+
+        ofVirtualMethod = ofVirtual;
+        builderNameMethod = builderName;
+        builderFactoryMethod = builderFactory;
+        newThreadPerTaskExecutorMethod = newThreadPerTaskExecutor;
+    }
+
+    private ActionTaskExecutors() {
+
+    }
+
+    /**
+     * @return whether the current JVM supports virtual threads
+     */
+    static boolean isVirtualThreadsSupported() {
+
+        return ofVirtualMethod != null;
+    }
+
+    /**
+     * Create an executor for the tasks of a load queue
+     * 
+     * @param queueName the name of the load queue
+     * @param useVirtualThreads whether to run each task on a virtual thread
+     * @return the executor
+     */
+    static ExecutorService newExecutor( String queueName, boolean useVirtualThreads ) {
+
+        if (useVirtualThreads) {
+            if (isVirtualThreadsSupported()) {
+                try {
+                    return newVirtualThreadsExecutor();
+                } catch (Exception e) {
+                    log.warn("Could not create virtual threads for load queue '" + queueName
+                             + "'. Platform threads will be used instead", e);
+                }
+            } else {
+                log.warn("Virtual threads are requested for load queue '" + queueName
+                         + "', but they are not supported by this JVM. Platform threads will be used instead");
+            }
+        }
+
+        //create the executor - terminate threads when finished
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+        executor.setKeepAliveTime(0, TimeUnit.SECONDS);
+        return executor;
+    }
+
+    private static ExecutorService newVirtualThreadsExecutor() throws Exception {
+
+        Object builder = ofVirtualMethod.invoke(null);
+        builder = builderNameMethod.invoke(builder,
+                                           "pool-" + executorsCounter.incrementAndGet() + "-vthread-", 1L);
+        ThreadFactory threadFactory = (ThreadFactory) builderFactoryMethod.invoke(builder);
+
+        return (ExecutorService) newThreadPerTaskExecutorMethod.invoke(null, threadFactory);
+    }
+}
@@ -79,6 +79,7 @@ public static final QueueLoader createLoadQueue( String queueName,
             rampUpPattern.setMinIntervalBetweenIterations(allAtOncePattern.getMinIntervalBetweenIterations());
             rampUpPattern.setMaxIntervalBetweenIterations(allAtOncePattern.getMaxIntervalBetweenIterations());
             rampUpPattern.setIterationTimeout(allAtOncePattern.getIterationTimeout());
+            rampUpPattern.setUseVirtualThreads(allAtOncePattern.isUseVirtualThreads());
 
             return new RampUpQueueLoader(queueName, actionRequests, rampUpPattern, allAtOncePattern,
                                          parameterDataProviders, listeners);
@@ -94,6 +95,7 @@ public static final QueueLoader createLoadQueue( String queueName,
             rampUpPattern.setMinIntervalBetweenIterations(allAtOncePattern.getMinIntervalBetweenIterations());
             rampUpPattern.setMaxIntervalBetweenIterations(allAtOncePattern.getMaxIntervalBetweenIterations());
             rampUpPattern.setIterationTimeout(threadingPattern.getIterationTimeout());
+            rampUpPattern.setUseVirtualThreads(allAtOncePattern.isUseVirtualThreads());
 
             return new RampUpQueueLoader(queueName, actionRequests, rampUpPattern, allAtOncePattern,
                                          parameterDataProviders, listeners);
@@ -19,10 +19,8 @@
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import com.axway.ats.agent.core.action.ActionRequest;
 import com.axway.ats.agent.core.exceptions.ActionExecutionException;
@@ -35,6 +33,7 @@
 import com.axway.ats.agent.core.threading.exceptions.ThreadingPatternNotSupportedException;
 import com.axway.ats.agent.core.threading.listeners.ActionTaskListener;
 import com.axway.ats.agent.core.threading.listeners.QueueLoaderListener;
+import com.axway.ats.agent.core.threading.patterns.ThreadingPattern;
 import com.axway.ats.agent.core.threading.patterns.model.ExecutionPattern;
 import com.axway.ats.agent.core.threading.patterns.model.RampUpStartPattern;
 
@@ -128,9 +127,10 @@ public class RampUpQueueLoader extends AbstractQueueLoader {
                                                 + " - it has already been scheduled");
         }
 
-        //create the executor - terminate threads when finished
-        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
-        executor.setKeepAliveTime(0, TimeUnit.SECONDS);
+        //create the executor - on platform or virtual threads
+        boolean useVirtualThreads = startPattern instanceof ThreadingPattern
+                                    && ((ThreadingPattern) startPattern).isUseVirtualThreads();
+        ExecutorService executor = ActionTaskExecutors.newExecutor(queueName, useVirtualThreads);
 
         ExecutorCompletionService<Object> executionService = new ExecutorCompletionService<Object>(executor);
 
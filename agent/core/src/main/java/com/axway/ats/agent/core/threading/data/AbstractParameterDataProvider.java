@@ -15,8 +15,9 @@
  */
 package com.axway.ats.agent.core.threading.data;
 
-import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.axway.ats.agent.core.action.ArgumentValue;
 import com.axway.ats.agent.core.threading.data.config.ParameterProviderLevel;
@@ -24,33 +25,39 @@
 
 /**
  * Abstract class to be extended by all implementations of ParameterDataProvider.
- * This class is responsible for handling when the generation of new values happens
+ * This class is responsible for handling when the generation of new values happens.
+ * <p>
+ * Many threads ask for values at the same time, so the built-in providers keep
+ * their shared position in atomic cursors and the position of each thread in
+ * its own slot of the per-thread maps. This way generating a value never takes a lock.
+ * </p>
  */
 public abstract class AbstractParameterDataProvider implements ParameterDataProvider {
 
-    protected String                 parameterName;
-    protected Class<?>               dataProviderInstance;
-    protected ParameterProviderLevel parameterProviderLevel;
+    protected String                                 parameterName;
+    protected Class<?>                               dataProviderInstance;
+    protected ParameterProviderLevel                 parameterProviderLevel;
 
-    // can be used when need to keep indexes in order to distribute next parameter values 
-    protected HashMap<Long, Integer> perThreadIndexes;
+    // can be used when need to keep indexes in order to distribute next parameter values,
+    // each thread reads and writes its own entry only
+    protected final ConcurrentHashMap<Long, Integer> perThreadIndexes;
     // can be used when need to keep some special object in order to distribute next parameter values
-    protected HashMap<Long, Object>  perThreadObjects;
+    protected final ConcurrentHashMap<Long, Object>  perThreadObjects;
 
     public AbstractParameterDataProvider( String parameterName,
                                           ParameterProviderLevel parameterProviderLevel ) {
 
         this.parameterName = parameterName;
         this.parameterProviderLevel = parameterProviderLevel;
-        this.perThreadIndexes = new HashMap<>();
-        this.perThreadObjects = new HashMap<>();
+        this.perThreadIndexes = new ConcurrentHashMap<>();
+        this.perThreadObjects = new ConcurrentHashMap<>();
     }
 
     @Override
     public final void initialize() throws ParameterDataProviderInitalizationException {
 
-        this.perThreadIndexes = new HashMap<>();
-        this.perThreadObjects = new HashMap<>();
+        this.perThreadIndexes.clear();
+        this.perThreadObjects.clear();
 
         doInitialize();
     }
@@ -92,6 +99,70 @@ public Class<?> getDataConfiguratorClass() {
         return this.dataProviderInstance;
     }
 
+    /**
+     * @return the level at which new values are generated
+     */
+    public ParameterProviderLevel getParameterProviderLevel() {
+
+        return this.parameterProviderLevel;
+    }
+
+    /**
+     * Tells whether this provider can be asked for values by many threads at the same time.
+     * <p>
+     * The providers which are not thread safe are called while holding a lock on all providers
+     * of the queue. Custom providers are treated as not thread safe unless they override this method.
+     * </p>
+     *
+     * @return <code>true</code> if the provider does not need external synchronization
+     */
+    public boolean isThreadSafe() {
+
+        return false;
+    }
+
+    /**
+     * Take the current value of a cursor which cycles in the [start, end] range and move the cursor
+     * to the next value. When the end of the range is passed, the cursor goes back to the range start.
+     *
+     * @param cursor the cursor shared between the threads
+     * @param start the range start
+     * @param end the range end
+     * @return the value the cursor was pointing to
+     */
+    static int nextCyclicValue( AtomicInteger cursor, int start, int end ) {
+
+        while (true) {
+            int current = cursor.get();
+            int value = (current > end || current < start)
+                                                           ? start
+                                                           : current;
+            // do not use 'value + 1' when the end is Integer.MAX_VALUE
+            int next = (value >= end)
+                                      ? start
+                                      : value + 1;
+            if (cursor.compareAndSet(current, next)) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Get the current value of a cursor which cycles in the [start, end] range, without moving the cursor
+     *
+     * @param cursor the cursor shared between the threads
+     * @param start the range start
+     * @param end the range end
+     * @return the value the cursor is pointing to
+     */
+    static int currentCyclicValue( AtomicInteger cursor, int start, int end ) {
+
+        int current = cursor.get();
+        return (current > end || current < start)
+                                                  ? start
+                                                  : current;
+    }
+
     /**
      * Do any specific initialization
      */
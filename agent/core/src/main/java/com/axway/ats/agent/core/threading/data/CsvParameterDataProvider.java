@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.threading.data;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.axway.ats.agent.core.action.ArgumentValue;
+import com.axway.ats.agent.core.threading.data.config.CsvDataConfig;
+import com.axway.ats.agent.core.threading.data.config.ParameterProviderLevel;
+import com.axway.ats.agent.core.threading.exceptions.ParameterDataProviderInitalizationException;
+
+/**
+ * Provides values from the rows of a CSV file. The file is memory-mapped, so
+ * only the offsets of its rows are kept in memory.
+ */
+public class CsvParameterDataProvider extends AbstractParameterDataProvider {
+
+    private final String        filePath;
+    private final int           columnIndex;
+    private final char          delimiter;
+    private final int           firstRow;
+    private final int           rowsStep;
+
+    private MemoryMappedRows    rows;
+    private int                 rowsCount;
+    private final AtomicInteger currentIndex;
+
+    /**
+     * Constructor - to be used only by the factory
+     *
+     * @param parameterName the parameter name
+     * @param filePath the CSV file
+     * @param columnIndex the column to take the value from, or {@link CsvDataConfig#WHOLE_ROW}
+     * @param delimiter the columns delimiter
+     * @param skipFirstRow whether to skip the header
+     * @param rowsOffset the index of the first used row(not counting the header)
+     * @param rowsStep the difference between the indexes of two consecutive used rows
+     * @param parameterProviderLevel the provider level
+     */
+    CsvParameterDataProvider( String parameterName,
+                              String filePath,
+                              int columnIndex,
+                              char delimiter,
+                              boolean skipFirstRow,
+                              int rowsOffset,
+                              int rowsStep,
+                              ParameterProviderLevel parameterProviderLevel ) {
+
+        super(parameterName, parameterProviderLevel);
+
+        this.filePath = filePath;
+        this.columnIndex = columnIndex;
+        this.delimiter = delimiter;
+        this.firstRow = (skipFirstRow
+                                      ? 1
+                                      : 0)
+                        + rowsOffset;
+        this.rowsStep = rowsStep;
+        this.currentIndex = new AtomicInteger(0);
+    }
+
+    @Override
+    protected void doInitialize() throws ParameterDataProviderInitalizationException {
+
+        if (rows == null) {
+            try {
+                rows = MemoryMappedRows.map(filePath);
+            } catch (IOException ioe) {
+                throw new ParameterDataProviderInitalizationException("Could not read data file '" + filePath
+                                                                      + "' for parameter '" + parameterName
+                                                                      + "'", ioe);
+            }
+
+            int availableRows = rows.getRowsCount() - firstRow;
+            rowsCount = (availableRows <= 0)
+                                             ? 0
+                                             : (availableRows + rowsStep - 1) / rowsStep;
+            if (rowsCount == 0) {
+                throw new ParameterDataProviderInitalizationException("There are no data rows in file '"
+                                                                      + filePath + "' for parameter '"
+                                                                      + parameterName + "'");
+            }
+        }
+
+        currentIndex.set(0);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+
+        return true;
+    }
+
+    @Override
+    protected ArgumentValue generateNewValuePerInvocation(
+                                                           List<ArgumentValue> alreadyResolvedValues ) {
+
+        return new ArgumentValue(parameterName,
+                                 getValue(nextCyclicValue(currentIndex, 0, rowsCount - 1)));
+    }
+
+    @Override
+    protected ArgumentValue generateNewValuePerThread(
+                                                       long currentThreadId,
+                                                       List<ArgumentValue> alreadyResolvedValues ) {
+
+        Integer valueIndexPerThread = perThreadIndexes.get(currentThreadId);
+        if (valueIndexPerThread == null) {
+            valueIndexPerThread = currentCyclicValue(currentIndex, 0, rowsCount - 1);
+        } else if (valueIndexPerThread >= rowsCount - 1) {
+            valueIndexPerThread = 0;
+        } else {
+            valueIndexPerThread++;
+        }
+        perThreadIndexes.put(currentThreadId, valueIndexPerThread);
+        return new ArgumentValue(parameterName, getValue(valueIndexPerThread));
+    }
+
+    @Override
+    protected ArgumentValue generateNewValuePerThreadStatic(
+                                                             long currentThreadId,
+                                                             List<ArgumentValue> alreadyResolvedValues ) {
+
+        Integer valueIndexPerThread = perThreadIndexes.get(currentThreadId);
+        if (valueIndexPerThread == null) {
+            valueIndexPerThread = nextCyclicValue(currentIndex, 0, rowsCount - 1);
+            perThreadIndexes.put(currentThreadId, valueIndexPerThread);
+        }
+        return new ArgumentValue(parameterName, getValue(valueIndexPerThread));
+    }
+
+    /**
+     * @return the number of rows this provider takes values from
+     */
+    int getRowsCount() {
+
+        return rowsCount;
+    }
+
+    private String getValue( int valueIndex ) {
+
+        int rowIndex = (int) (firstRow + (long) valueIndex * rowsStep);
+        String row = rows.getRow(rowIndex);
+        if (columnIndex == CsvDataConfig.WHOLE_ROW) {
+            return row;
+        }
+
+        String value = getColumn(row, delimiter, columnIndex);
+        if (value == null) {
+            throw new RuntimeException("Row " + (rowIndex + 1) + " of data file '" + filePath
+                                       + "' does not have a column with index " + columnIndex + ": " + row);
+        }
+        return value;
+    }
+
+    /**
+     * Get a column from a CSV row. Values may be enclosed in double quotes,
+     * in this case they may contain the delimiter and a double quote is escaped with another double quote.
+     *
+     * @param row the row
+     * @param delimiter the columns delimiter
+     * @param columnIndex the zero based column index
+     * @return the column value or null if there is no such column
+     */
+    static String getColumn( String row, char delimiter, int columnIndex ) {
+
+        StringBuilder value = new StringBuilder();
+        int currentColumn = 0;
+        boolean inQuotes = false;
+        for (int i = 0; i < row.length(); i++) {
+            char ch = row.charAt(i);
+            if (inQuotes) {
+                if (ch == '"') {
+                    if (i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                        // escaped double quote
+                        i++;
+                    } else {
+                        inQuotes = false;
+                        continue;
+                    }
+                }
+            } else if (ch == '"') {
+                inQuotes = true;
+                continue;
+            } else if (ch == delimiter) {
+                if (currentColumn == columnIndex) {
+                    return value.toString();
+                }
+                currentColumn++;
+                continue;
+            }
+
+            if (currentColumn == columnIndex) {
+                value.append(ch);
+            }
+        }
+
+        return (currentColumn == columnIndex)
+                                              ? value.toString()
+                                              : null;
+    }
+}
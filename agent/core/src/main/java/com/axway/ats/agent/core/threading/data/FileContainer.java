@@ -17,11 +17,11 @@
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,23 +30,24 @@
 
 public class FileContainer implements Serializable {
 
-    private static final long    serialVersionUID  = 1L;
+    private static final long                      serialVersionUID  = 1L;
 
-    private static final Pattern PARAMETER_PATTERN = Pattern.compile("\\$\\{([\\d\\w]+)\\}");
+    private static final Pattern                   PARAMETER_PATTERN = Pattern.compile("\\$\\{([\\d\\w]+)\\}");
 
-    private String               folderName;
+    private String                                 folderName;
 
-    private int                  percentage;
+    private int                                    percentage;
 
-    private String               pattern;
+    private String                                 pattern;
 
-    private Set<String>          patternParameters;
+    private Set<String>                            patternParameters;
 
-    private List<String>         fileList          = new ArrayList<String>();
+    private List<String>                           fileList          = new ArrayList<String>();
 
-    private Map<Long, Integer>   threadIndexes     = new HashMap<Long, Integer>();
+    // each thread reads and writes its own entry only
+    private final ConcurrentHashMap<Long, Integer> threadIndexes     = new ConcurrentHashMap<Long, Integer>();
 
-    private int                  currentIndex      = 0;
+    private final AtomicInteger                    currentIndex      = new AtomicInteger(0);
 
     /**
      *
@@ -121,13 +122,11 @@ public String getFileName( List<ArgumentValue> previousValues ) {
      */
     private int getNextFileIndex( Long currentThreadId, Boolean isStaticValue ) {
 
+        int lastIndex = fileList.size() - 1;
         if (currentThreadId == null) {
             // PER_INVOCATION
             // return current global (folder) index
-            if (currentIndex >= fileList.size()) {
-                currentIndex = 0;
-            }
-            return currentIndex++;
+            return AbstractParameterDataProvider.nextCyclicValue(currentIndex, 0, lastIndex);
         }
 
         // return the file index for the current thread
@@ -137,17 +136,14 @@ private int getNextFileIndex( Long currentThreadId, Boolean isStaticValue ) {
                 return index;
             } else {
                 // first run for THREAD_STATIC
-                if (currentIndex >= fileList.size()) {
-                    currentIndex = 0;
-                }
-                index = currentIndex++;
+                index = AbstractParameterDataProvider.nextCyclicValue(currentIndex, 0, lastIndex);
             }
         } else {
             // isStaticValue = false, THREADED parameter level
             if (index != null) {
                 index++;
             } else {
-                index = currentIndex;
+                index = AbstractParameterDataProvider.currentCyclicValue(currentIndex, 0, lastIndex);
             }
         }
 
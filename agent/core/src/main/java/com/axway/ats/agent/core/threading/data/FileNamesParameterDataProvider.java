@@ -20,6 +20,7 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import com.axway.ats.agent.core.action.ArgumentValue;
@@ -37,7 +38,7 @@ public class FileNamesParameterDataProvider extends AbstractParameterDataProvide
     private final boolean       recursiveSearch;
     private final boolean       returnFullPath;
     private int                 containersCount;
-    private int                 currentFileContainerIndex;
+    private final AtomicInteger currentFileContainerIndex;
 
     FileNamesParameterDataProvider( String parameterName,
                                     List<FileContainer> fileContainers,
@@ -50,6 +51,7 @@ public class FileNamesParameterDataProvider extends AbstractParameterDataProvide
         this.fileContainers = fileContainers;
         this.recursiveSearch = recursiveSearch;
         this.returnFullPath = returnFullPath;
+        this.currentFileContainerIndex = new AtomicInteger(0);
     }
 
     @Override
@@ -64,19 +66,23 @@ protected void doInitialize() throws ParameterDataProviderInitalizationException
         }
 
         containersCount = containersArray.size();
-        currentFileContainerIndex = 0;
+        currentFileContainerIndex.set(0);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+
+        return true;
     }
 
     @Override
     protected ArgumentValue generateNewValuePerInvocation(
                                                            List<ArgumentValue> alreadyResolvedValues ) {
 
-        if (currentFileContainerIndex >= containersCount) {
-            currentFileContainerIndex = 0;
-        }
-
         return new ArgumentValue(parameterName,
-                                 containersArray.get(currentFileContainerIndex++)
+                                 containersArray.get(nextCyclicValue(currentFileContainerIndex,
+                                                                     0,
+                                                                     containersCount - 1))
                                                 .getFileName(alreadyResolvedValues));
     }
 
@@ -91,7 +97,7 @@ protected ArgumentValue generateNewValuePerThread(
         } else {
 
             // we have a new thread started
-            valueIndexPerThread = currentFileContainerIndex;
+            valueIndexPerThread = currentCyclicValue(currentFileContainerIndex, 0, containersCount - 1);
         }
         if (valueIndexPerThread >= containersCount) {
             valueIndexPerThread = 0;
@@ -118,13 +124,7 @@ protected ArgumentValue generateNewValuePerThreadStatic(
                                                                  alreadyResolvedValues));
         }
         // we have a new thread started
-        if (currentFileContainerIndex >= containersCount) {
-            currentFileContainerIndex = 0;
-        }
-        valueIndexPerThread = currentFileContainerIndex++;
-        if (valueIndexPerThread >= containersCount) {
-            valueIndexPerThread = 0;
-        }
+        valueIndexPerThread = nextCyclicValue(currentFileContainerIndex, 0, containersCount - 1);
         perThreadIndexes.put(currentThreadId, valueIndexPerThread);
         return new ArgumentValue(parameterName,
                                  containersArray.get(valueIndexPerThread)
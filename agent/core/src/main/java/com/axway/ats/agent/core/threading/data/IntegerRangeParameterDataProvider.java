@@ -16,6 +16,7 @@
 package com.axway.ats.agent.core.threading.data;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.axway.ats.agent.core.action.ArgumentValue;
 import com.axway.ats.agent.core.threading.data.config.ParameterProviderLevel;
@@ -23,9 +24,9 @@
 
 public class IntegerRangeParameterDataProvider extends AbstractParameterDataProvider {
 
-    private int rangeStart;
-    private int rangeEnd;
-    private int currentValue;
+    private int                 rangeStart;
+    private int                 rangeEnd;
+    private final AtomicInteger currentValue;
 
     /**
      * Constructor - to be used only by the factory
@@ -44,24 +45,26 @@ public class IntegerRangeParameterDataProvider extends AbstractParameterDataProv
 
         this.rangeStart = rangeStart;
         this.rangeEnd = rangeEnd;
-        this.currentValue = rangeStart;
+        this.currentValue = new AtomicInteger(rangeStart);
     }
 
     @Override
     protected void doInitialize() throws ParameterDataProviderInitalizationException {
 
-        this.currentValue = rangeStart;
+        this.currentValue.set(rangeStart);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+
+        return true;
     }
 
     @Override
     protected ArgumentValue generateNewValuePerInvocation(
                                                            List<ArgumentValue> alreadyResolvedValues ) {
 
-        if (currentValue > rangeEnd) {
-            currentValue = rangeStart;
-        }
-
-        return new ArgumentValue(parameterName, currentValue++);
+        return new ArgumentValue(parameterName, nextCyclicValue(currentValue, rangeStart, rangeEnd));
     }
 
     @Override
@@ -70,14 +73,12 @@ protected ArgumentValue generateNewValuePerThread(
                                                        List<ArgumentValue> alreadyResolvedValues ) {
 
         Integer valueIndexPerThread = perThreadIndexes.get(currentThreadId);
-        if (valueIndexPerThread != null) {
-
-            valueIndexPerThread++;
-        } else {
-            valueIndexPerThread = currentValue;
-        }
-        if (valueIndexPerThread > rangeEnd) {
+        if (valueIndexPerThread == null) {
+            valueIndexPerThread = currentCyclicValue(currentValue, rangeStart, rangeEnd);
+        } else if (valueIndexPerThread >= rangeEnd) {
             valueIndexPerThread = rangeStart;
+        } else {
+            valueIndexPerThread++;
         }
         perThreadIndexes.put(currentThreadId, valueIndexPerThread);
         return new ArgumentValue(parameterName, valueIndexPerThread);
@@ -92,13 +93,7 @@ protected ArgumentValue generateNewValuePerThreadStatic(
         if (valueIndexPerThread != null) {
             return new ArgumentValue(parameterName, valueIndexPerThread);
         }
-        if (currentValue > rangeEnd) {
-            currentValue = rangeStart;
-        }
-        valueIndexPerThread = currentValue++;
-        if (valueIndexPerThread > rangeEnd) {
-            valueIndexPerThread = rangeStart;
-        }
+        valueIndexPerThread = nextCyclicValue(currentValue, rangeStart, rangeEnd);
         perThreadIndexes.put(currentThreadId, valueIndexPerThread);
         return new ArgumentValue(parameterName, valueIndexPerThread);
     }
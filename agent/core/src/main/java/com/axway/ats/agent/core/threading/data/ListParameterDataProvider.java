@@ -16,6 +16,7 @@
 package com.axway.ats.agent.core.threading.data;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.axway.ats.agent.core.action.ArgumentValue;
 import com.axway.ats.agent.core.threading.data.config.ParameterProviderLevel;
@@ -26,9 +27,9 @@
  */
 public class ListParameterDataProvider extends AbstractParameterDataProvider {
 
-    private final List<?> values;
-    private final int     valuesSize;
-    private int           currentIndex;
+    private final List<?>       values;
+    private final int           valuesSize;
+    private final AtomicInteger currentIndex;
 
     ListParameterDataProvider( String parameterName,
                                List<?> values,
@@ -38,7 +39,7 @@ public class ListParameterDataProvider extends AbstractParameterDataProvider {
 
         this.values = values;
         this.valuesSize = values.size();
-        this.currentIndex = 0;
+        this.currentIndex = new AtomicInteger(0);
     }
 
     ListParameterDataProvider( String parameterName,
@@ -50,25 +51,28 @@ public class ListParameterDataProvider extends AbstractParameterDataProvider {
 
         this.values = values;
         this.valuesSize = values.size();
-        this.currentIndex = 0;
+        this.currentIndex = new AtomicInteger(0);
         this.dataProviderInstance = dataProviderInstance;
     }
 
     @Override
     protected void doInitialize() throws ParameterDataProviderInitalizationException {
 
-        currentIndex = 0;
+        currentIndex.set(0);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+
+        return true;
     }
 
     @Override
     protected ArgumentValue generateNewValuePerInvocation(
                                                            List<ArgumentValue> alreadyResolvedValues ) {
 
-        if (currentIndex >= valuesSize) {
-            currentIndex = 0;
-        }
-
-        return new ArgumentValue(parameterName, values.get(currentIndex++));
+        return new ArgumentValue(parameterName,
+                                 values.get(nextCyclicValue(currentIndex, 0, valuesSize - 1)));
     }
 
     @Override
@@ -81,7 +85,7 @@ protected ArgumentValue generateNewValuePerThread(
 
             valueIndexPerThread++;
         } else {
-            valueIndexPerThread = currentIndex;
+            valueIndexPerThread = currentCyclicValue(currentIndex, 0, valuesSize - 1);
         }
         if (valueIndexPerThread >= valuesSize) {
             valueIndexPerThread = 0;
@@ -99,13 +103,7 @@ protected ArgumentValue generateNewValuePerThreadStatic(
         if (valueIndexPerThread != null) {
             return new ArgumentValue(parameterName, values.get(valueIndexPerThread));
         }
-        if (currentIndex >= valuesSize) {
-            currentIndex = 0;
-        }
-        valueIndexPerThread = currentIndex++;
-        if (valueIndexPerThread >= valuesSize) {
-            valueIndexPerThread = 0;
-        }
+        valueIndexPerThread = nextCyclicValue(currentIndex, 0, valuesSize - 1);
         perThreadIndexes.put(currentThreadId, valueIndexPerThread);
         return new ArgumentValue(parameterName, values.get(valueIndexPerThread));
     }
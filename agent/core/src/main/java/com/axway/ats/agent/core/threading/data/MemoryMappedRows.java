@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.threading.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only access to the rows of a CSV file, without loading the file in memory.
+ * <p>
+ * The file is memory-mapped and only the offsets of the rows are kept in memory(8 bytes per row),
+ * the row content is read from the mapped file when needed. Empty rows are skipped.
+ * Rows may be read by many threads at the same time.
+ * </p>
+ * <p>
+ * A line terminator inside a value enclosed in double quotes does not end the row. The quotes are
+ * matched the same way as in {@link CsvParameterDataProvider#getColumn(String, char, int)},
+ * so a double quote without a pair makes the rest of the file a single row.
+ * </p>
+ */
+final class MemoryMappedRows {
+
+    // a single mapped buffer cannot be larger than 2GB, so bigger files are mapped in a few segments
+    private static final int         SEGMENT_SHIFT = 30;
+    private static final long        SEGMENT_SIZE  = 1L << SEGMENT_SHIFT;
+    private static final long        SEGMENT_MASK  = SEGMENT_SIZE - 1;
+
+    private final String             filePath;
+    private final long               fileSize;
+    private final MappedByteBuffer[] segments;
+
+    // the offset of the first byte of each row
+    private long[]                   rowStarts;
+    private int                      rowsCount;
+
+    private MemoryMappedRows( String filePath, long fileSize, MappedByteBuffer[] segments ) {
+
+        this.filePath = filePath;
+        this.fileSize = fileSize;
+        this.segments = segments;
+    }
+
+    /**
+     * Map a file and find where its rows start
+     *
+     * @param filePath the file path
+     * @return the mapped rows
+     * @throws IOException if the file cannot be read
+     */
+    static MemoryMappedRows map( String filePath ) throws IOException {
+
+        File file = new File(filePath);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ( (fileSize + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long segmentStart = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                          segmentStart,
+                                          Math.min(SEGMENT_SIZE, fileSize - segmentStart));
+            }
+
+            // the mapping stays valid after the channel is closed
+            MemoryMappedRows rows = new MemoryMappedRows(filePath, fileSize, segments);
+            rows.indexRows();
+            return rows;
+        }
+    }
+
+    /**
+     * @return the number of not empty rows
+     */
+    int getRowsCount() {
+
+        return rowsCount;
+    }
+
+    /**
+     * @return the path of the mapped file
+     */
+    String getFilePath() {
+
+        return filePath;
+    }
+
+    /**
+     * Read a row
+     *
+     * @param rowIndex the zero based row index
+     * @return the row content without the line terminator
+     */
+    String getRow( int rowIndex ) {
+
+        if (rowIndex < 0 || rowIndex >= rowsCount) {
+            throw new IndexOutOfBoundsException("Row index " + rowIndex + " is out of the range [0, "
+                                                + rowsCount + ") for file '" + filePath + "'");
+        }
+
+        long start = rowStarts[rowIndex];
+        long end = start;
+        boolean inQuotes = false;
+        for (; end < fileSize; end++) {
+            byte b = byteAt(end);
+            if (b == '"') {
+                // an escaped double quote switches the state twice
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                break;
+            }
+        }
+        if (end > start && byteAt(end - 1) == '\r') {
+            end--;
+        }
+
+        byte[] rowBytes = new byte[(int) (end - start)];
+        for (int i = 0; i < rowBytes.length; i++) {
+            rowBytes[i] = byteAt(start + i);
+        }
+        return new String(rowBytes, StandardCharsets.UTF_8);
+    }
+
+    private void indexRows() {
+
+        long[] starts = new long[1024];
+        int count = 0;
+
+        long position = 0;
+        // skip the UTF-8 byte order mark
+        if (fileSize >= 3 && byteAt(0) == (byte) 0xEF && byteAt(1) == (byte) 0xBB && byteAt(2) == (byte) 0xBF) {
+            position = 3;
+        }
+
+        boolean isRowStart = true;
+        boolean inQuotes = false;
+        for (; position < fileSize; position++) {
+            byte b = byteAt(position);
+            if (b == '\n') {
+                if (!inQuotes) {
+                    isRowStart = true;
+                }
+                continue;
+            }
+            if (isRowStart && b != '\r') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = position;
+                isRowStart = false;
+            }
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            }
+        }
+
+        this.rowStarts = Arrays.copyOf(starts, count);
+        this.rowsCount = count;
+    }
+
+    private byte byteAt( long position ) {
+
+        return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+    }
+}
@@ -18,6 +18,7 @@
 import java.lang.reflect.Constructor;
 import java.util.Map;
 
+import com.axway.ats.agent.core.threading.data.config.CsvDataConfig;
 import com.axway.ats.agent.core.threading.data.config.CustomParameterDataConfig;
 import com.axway.ats.agent.core.threading.data.config.FileNamesDataConfig;
 import com.axway.ats.agent.core.threading.data.config.ListDataConfig;
@@ -80,6 +81,17 @@ public static ParameterDataProvider createDataProvider(
                                                                   listDataConfig.getValues(),
                                                                   listDataConfig.getParameterProviderLevel());
 
+        } else if (parameterConfigClass == CsvDataConfig.class) {
+            CsvDataConfig csvDataConfig = (CsvDataConfig) parameterConfig;
+            parameterDataProvider = new CsvParameterDataProvider(csvDataConfig.getParameterName(),
+                                                                 csvDataConfig.getFilePath(),
+                                                                 csvDataConfig.getColumnIndex(),
+                                                                 csvDataConfig.getDelimiter(),
+                                                                 csvDataConfig.getSkipFirstRow(),
+                                                                 csvDataConfig.getRowsOffset(),
+                                                                 csvDataConfig.getRowsStep(),
+                                                                 csvDataConfig.getParameterProviderLevel());
+
         } else if (parameterConfigClass == FileNamesDataConfig.class) {
             FileNamesDataConfig fileNamesDataConfig = (FileNamesDataConfig) parameterConfig;
             parameterDataProvider = new FileNamesParameterDataProvider(fileNamesDataConfig.getParameterName(),
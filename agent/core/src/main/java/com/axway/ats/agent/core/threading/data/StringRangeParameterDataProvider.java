@@ -16,6 +16,7 @@
 package com.axway.ats.agent.core.threading.data;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.axway.ats.agent.core.action.ArgumentValue;
 import com.axway.ats.agent.core.threading.data.config.ParameterProviderLevel;
@@ -28,7 +29,7 @@ public class StringRangeParameterDataProvider extends AbstractParameterDataProvi
     private String              staticValue;
     private int                 rangeStart;
     private int                 rangeEnd;
-    private int                 currentValue;
+    private final AtomicInteger currentValue;
 
     /**
      * Constructor - to be used only by the factory
@@ -49,7 +50,7 @@ public class StringRangeParameterDataProvider extends AbstractParameterDataProvi
         this.staticValue = staticValue;
         this.rangeStart = rangeStart;
         this.rangeEnd = rangeEnd;
-        this.currentValue = rangeStart;
+        this.currentValue = new AtomicInteger(rangeStart);
     }
 
     /**
@@ -73,27 +74,31 @@ public class StringRangeParameterDataProvider extends AbstractParameterDataProvi
         this.staticValue = staticValue;
         this.rangeStart = rangeStart;
         this.rangeEnd = rangeEnd;
-        this.currentValue = rangeStart;
+        this.currentValue = new AtomicInteger(rangeStart);
         this.dataProviderInstance = dataConfiguratorClass;
     }
 
     @Override
     protected void doInitialize() throws ParameterDataProviderInitalizationException {
 
-        this.currentValue = rangeStart;
+        this.currentValue.set(rangeStart);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+
+        return true;
     }
 
     @Override
     protected ArgumentValue generateNewValuePerInvocation(
                                                            List<ArgumentValue> alreadyResolvedValues ) {
 
-        if (currentValue > rangeEnd) {
-            currentValue = rangeStart;
-        }
-
         return new ArgumentValue(parameterName,
                                  staticValue.replaceAll(REPLACEMENT_REGEX,
-                                                        Integer.toString(currentValue++)));
+                                                        Integer.toString(nextCyclicValue(currentValue,
+                                                                                         rangeStart,
+                                                                                         rangeEnd))));
     }
 
     @Override
@@ -102,13 +107,12 @@ protected ArgumentValue generateNewValuePerThread(
                                                        List<ArgumentValue> alreadyResolvedValues ) {
 
         Integer valueIndexPerThread = perThreadIndexes.get(currentThreadId);
-        if (valueIndexPerThread != null) {
-            valueIndexPerThread++;
-        } else {
-            valueIndexPerThread = currentValue;
-        }
-        if (valueIndexPerThread > rangeEnd) {
+        if (valueIndexPerThread == null) {
+            valueIndexPerThread = currentCyclicValue(currentValue, rangeStart, rangeEnd);
+        } else if (valueIndexPerThread >= rangeEnd) {
             valueIndexPerThread = rangeStart;
+        } else {
+            valueIndexPerThread++;
         }
         perThreadIndexes.put(currentThreadId, valueIndexPerThread);
         return new ArgumentValue(parameterName,
@@ -127,13 +131,7 @@ protected ArgumentValue generateNewValuePerThreadStatic(
                                      staticValue.replaceAll(REPLACEMENT_REGEX,
                                                             Integer.toString(valueIndexPerThread)));
         }
-        if (currentValue > rangeEnd) {
-            currentValue = rangeStart;
-        }
-        valueIndexPerThread = currentValue++;
-        if (valueIndexPerThread > rangeEnd) {
-            valueIndexPerThread = rangeStart;
-        }
+        valueIndexPerThread = nextCyclicValue(currentValue, rangeStart, rangeEnd);
         perThreadIndexes.put(currentThreadId, valueIndexPerThread);
         return new ArgumentValue(parameterName,
                                  staticValue.replaceAll(REPLACEMENT_REGEX,
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.threading.data.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class for generating input data from the rows of a CSV file.
+ * <p>
+ * The file is not loaded in memory, it is memory-mapped on the agent and only the offsets
+ * of its rows are kept, so it may contain millions of rows. This makes it a good choice
+ * when {@link ListDataConfig} would need too much memory.
+ * </p>
+ * <p>
+ * Note that the file is read on the agent side, so it must be present at the same path on all agents.
+ * When the queue is distributed between a few agents, each agent uses a different subset of the rows.
+ * </p>
+ */
+@SuppressWarnings( "serial")
+public class CsvDataConfig extends AbstractParameterDataConfig {
+
+    /**
+     * The column index which means "use the whole row"
+     */
+    public static final int   WHOLE_ROW         = -1;
+
+    private static final char DEFAULT_DELIMITER = ',';
+
+    private String            filePath;
+    private int               columnIndex;
+    private char              delimiter;
+    private boolean           skipFirstRow;
+
+    // used when distributing the rows between agents, this agent uses rows number 'rowsOffset + N * rowsStep'
+    private int               rowsOffset;
+    private int               rowsStep;
+
+    /**
+     * Constructor - each thread will receive the next row of the file.
+     * The whole row is passed as a parameter value.
+     *
+     * @param parameterName the name of the parameter to generate data for
+     * @param filePath the path to the CSV file on the agent
+     */
+    public CsvDataConfig( String parameterName, String filePath ) {
+
+        this(parameterName, filePath, WHOLE_ROW, ParameterProviderLevel.PER_THREAD_STATIC);
+    }
+
+    /**
+     * Constructor - each thread will receive a value from the next row of the file
+     *
+     * @param parameterName the name of the parameter to generate data for
+     * @param filePath the path to the CSV file on the agent
+     * @param columnIndex the zero based index of the column to take the value from,
+     * use {@link #WHOLE_ROW} for the whole row
+     */
+    public CsvDataConfig( String parameterName, String filePath, int columnIndex ) {
+
+        this(parameterName, filePath, columnIndex, ParameterProviderLevel.PER_THREAD_STATIC);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param parameterName the name of the parameter to generate data for
+     * @param filePath the path to the CSV file on the agent
+     * @param columnIndex the zero based index of the column to take the value from,
+     * use {@link #WHOLE_ROW} for the whole row
+     * @param parameterProviderLevel the level at which to generate values - it can be
+     * per thread or per invocation
+     */
+    public CsvDataConfig( String parameterName, String filePath, int columnIndex,
+                          ParameterProviderLevel parameterProviderLevel ) {
+
+        super(parameterName, parameterProviderLevel);
+
+        this.filePath = filePath;
+        this.columnIndex = columnIndex;
+        this.delimiter = DEFAULT_DELIMITER;
+        this.rowsOffset = 0;
+        this.rowsStep = 1;
+    }
+
+    /**
+     * @return the path to the CSV file on the agent
+     */
+    public String getFilePath() {
+
+        return filePath;
+    }
+
+    /**
+     * @return the zero based index of the column to take the value from,
+     * {@link #WHOLE_ROW} means the whole row
+     */
+    public int getColumnIndex() {
+
+        return columnIndex;
+    }
+
+    /**
+     * @return the columns delimiter
+     */
+    public char getDelimiter() {
+
+        return delimiter;
+    }
+
+    /**
+     * Set the columns delimiter. The default one is ','
+     *
+     * @param delimiter the columns delimiter
+     */
+    public void setDelimiter( char delimiter ) {
+
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * @return whether the first row(the header) is skipped
+     */
+    public boolean getSkipFirstRow() {
+
+        return skipFirstRow;
+    }
+
+    /**
+     * Skip the first row of the file, use it when the file starts with a header
+     *
+     * @param skipFirstRow whether to skip the first row
+     */
+    public void setSkipFirstRow( boolean skipFirstRow ) {
+
+        this.skipFirstRow = skipFirstRow;
+    }
+
+    /**
+     * @return the index of the first row used by this agent
+     */
+    public int getRowsOffset() {
+
+        return rowsOffset;
+    }
+
+    /**
+     * @return the difference between the indexes of two consecutive rows used by this agent
+     */
+    public int getRowsStep() {
+
+        return rowsStep;
+    }
+
+    @Override
+    List<ParameterDataConfig> distribute( int agents ) {
+
+        // the number of rows is not known on this side,
+        // so the agents take the rows in turn
+        List<ParameterDataConfig> distributedParameterProviders = new ArrayList<ParameterDataConfig>();
+        for (int i = 0; i < agents; i++) {
+            CsvDataConfig agentConfig = new CsvDataConfig(this.parameterName,
+                                                          this.filePath,
+                                                          this.columnIndex,
+                                                          this.parameterProviderLevel);
+            agentConfig.delimiter = this.delimiter;
+            agentConfig.skipFirstRow = this.skipFirstRow;
+            agentConfig.rowsOffset = this.rowsOffset + i * this.rowsStep;
+            agentConfig.rowsStep = this.rowsStep * agents;
+            distributedParameterProviders.add(agentConfig);
+        }
+        return distributedParameterProviders;
+    }
+}
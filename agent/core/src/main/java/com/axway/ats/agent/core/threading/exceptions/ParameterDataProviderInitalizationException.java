@@ -27,4 +27,10 @@ public ParameterDataProviderInitalizationException( String message ) {
 
         super(message);
     }
+
+    public ParameterDataProviderInitalizationException( String message,
+                                                        Throwable cause ) {
+
+        super(message, cause);
+    }
 }
@@ -116,6 +116,9 @@ public String getPatternDescription() {
         if (iterationTimeout > 0) {
             description += ", " + iterationTimeout + " secs iteration timeout";
         }
+        if (useVirtualThreads) {
+            description += ", running on virtual threads";
+        }
         if (useSynchronizedIterations) {
             description += ", running synchronized iterations";
         }
@@ -138,6 +141,7 @@ private AllAtOncePattern newInstance( int calculatedThreadCount, int calculatedE
         pattern.timeFrame = this.timeFrame;
         pattern.executionsPerTimeFrame = calculatedExecutionsPerTimeFrame;
         pattern.iterationTimeout = this.iterationTimeout;
+        pattern.useVirtualThreads = this.useVirtualThreads;
         return pattern;
     }
 
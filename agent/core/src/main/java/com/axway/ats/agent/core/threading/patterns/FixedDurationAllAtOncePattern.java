@@ -120,6 +120,9 @@ public String getPatternDescription() {
         if (iterationTimeout > 0) {
             description += ", " + iterationTimeout + " secs iteration timeout";
         }
+        if (useVirtualThreads) {
+            description += ", running on virtual threads";
+        }
         if (useSynchronizedIterations) {
             description += ", running synchronized iterations";
         }
@@ -144,6 +147,7 @@ private FixedDurationAllAtOncePattern newInstance( int calculatedThreadCount,
         pattern.timeFrame = this.timeFrame;
         pattern.executionsPerTimeFrame = calculatedExecutionsPerTimeFrame;
         pattern.iterationTimeout = this.iterationTimeout;
+        pattern.useVirtualThreads = this.useVirtualThreads;
         return pattern;
     }
 
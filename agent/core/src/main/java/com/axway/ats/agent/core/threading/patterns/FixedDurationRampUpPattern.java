@@ -153,6 +153,9 @@ public String getPatternDescription() {
         if (iterationTimeout > 0) {
             description += ", " + iterationTimeout + " secs iteration timeout";
         }
+        if (useVirtualThreads) {
+            description += ", running on virtual threads";
+        }
         if (queuePassRateInPercents > 0) {
             description += ", pass if " + queuePassRateInPercents + "% of the iterations pass";
         }
@@ -173,6 +176,7 @@ private FixedDurationRampUpPattern newInstance( int calculatedThreadCount,
         pattern.timeFrame = this.timeFrame;
         pattern.executionsPerTimeFrame = this.executionsPerTimeFrame;
         pattern.iterationTimeout = this.iterationTimeout;
+        pattern.useVirtualThreads = this.useVirtualThreads;
         return pattern;
     }
 
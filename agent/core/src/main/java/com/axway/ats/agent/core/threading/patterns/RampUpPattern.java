@@ -153,6 +153,9 @@ public String getPatternDescription() {
         if (iterationTimeout > 0) {
             description += ", " + iterationTimeout + " secs iteration timeout";
         }
+        if (useVirtualThreads) {
+            description += ", running on virtual threads";
+        }
         if (queuePassRateInPercents > 0) {
             description += ", pass if " + queuePassRateInPercents + "% of the iterations pass";
         }
@@ -169,6 +172,7 @@ private RampUpPattern newInstance( int calculatedThreadCount, int calculatedThre
         pattern.timeFrame = this.timeFrame;
         pattern.executionsPerTimeFrame = this.executionsPerTimeFrame;
         pattern.iterationTimeout = this.iterationTimeout;
+        pattern.useVirtualThreads = this.useVirtualThreads;
         return pattern;
     }
 
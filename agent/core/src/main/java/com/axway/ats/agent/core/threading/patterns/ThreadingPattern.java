@@ -35,6 +35,8 @@ public abstract class ThreadingPattern implements StartPattern, Serializable {
 
     protected boolean             useSynchronizedIterations;
 
+    protected boolean             useVirtualThreads;
+
     protected long                intervalBetweenIterations    = 0;
     protected long                minIntervalBetweenIterations = -1;
     protected long                maxIntervalBetweenIterations = -1;
@@ -248,4 +250,27 @@ public boolean isUseSynchronizedIterations() {
 
         return useSynchronizedIterations;
     }
+
+    /**
+     * Run each thread of this pattern on a virtual thread instead of a platform thread.<br><br>
+     * 
+     * Virtual threads are much cheaper than the platform threads, so a single agent can simulate many
+     * thousands of users which spend most of their time waiting for I/O (HTTP, SFTP, mail etc.).
+     * The pacing (intervals between iterations, execution speed) is the same as with platform threads.<br><br>
+     * 
+     * It works only when the agent runs on a JVM which supports virtual threads (Java 21 or newer),
+     * otherwise a warning is logged and platform threads are used.
+     * 
+     * @param useVirtualThreads whether to use virtual threads
+     */
+    @PublicAtsApi
+    public void setUseVirtualThreads( boolean useVirtualThreads ) {
+
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    public boolean isUseVirtualThreads() {
+
+        return useVirtualThreads;
+    }
 }
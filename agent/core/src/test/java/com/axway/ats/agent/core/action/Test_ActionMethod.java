@@ -16,6 +16,7 @@
 package com.axway.ats.agent.core.action;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -25,8 +26,12 @@
 import com.axway.ats.agent.core.Component;
 import com.axway.ats.agent.core.ComponentActionMap;
 import com.axway.ats.agent.core.ComponentRepository;
+import com.axway.ats.agent.core.exceptions.ActionExecutionException;
 import com.axway.ats.agent.core.exceptions.AgentException;
+import com.axway.ats.agent.core.exceptions.InternalComponentException;
 import com.axway.ats.agent.core.exceptions.NoCompatibleMethodFoundException;
+import com.axway.ats.agent.core.model.Action;
+import com.axway.ats.agent.core.model.Parameter;
 
 public class Test_ActionMethod extends BaseTest {
 
@@ -99,4 +104,81 @@ public void executeActionIncompatibleArgsZeroArgs() throws Exception {
                                                                  "action 1",
                                                                  new Object[]{} ) );
     }
+
+    @Test
+    public void invokeWithExactArgumentTypes() throws Exception {
+
+        ActionMethod actionMethod = actionMethod( "sum", int.class, Long.class );
+
+        assertEquals( 5L, actionMethod.invoke( new InvocationActions(), new Object[]{ 2, 3L }, false ) );
+        // the second time the cached method handle is used
+        assertEquals( 7L, actionMethod.invoke( new InvocationActions(), new Object[]{ 3, 4L }, false ) );
+    }
+
+    @Test
+    public void invokeWithWideningConversion() throws Exception {
+
+        ActionMethod actionMethod = actionMethod( "multiply", long.class, double.class );
+
+        assertEquals( 6.0, actionMethod.invoke( new InvocationActions(), new Object[]{ 2, 3.0f }, false ) );
+    }
+
+    @Test
+    public void invokeStaticAndVoidActions() throws Exception {
+
+        assertEquals( "static", actionMethod( "staticAction" ).invoke( null, new Object[0], false ) );
+        assertNull( actionMethod( "voidAction" ).invoke( new InvocationActions(), new Object[0], false ) );
+    }
+
+    @Test(expected = InternalComponentException.class)
+    public void invokeFailingAction() throws Exception {
+
+        actionMethod( "failingAction", String.class ).invoke( new InvocationActions(),
+                                                               new Object[]{ "some message" }, false );
+    }
+
+    @Test(expected = ActionExecutionException.class)
+    public void invokeWithIllegalArguments() throws Exception {
+
+        actionMethod( "sum", int.class, Long.class ).invoke( new InvocationActions(),
+                                                              new Object[]{ null, 3L }, false );
+    }
+
+    private static ActionMethod actionMethod( String methodName, Class<?>... parameterTypes ) throws Exception {
+
+        return new ActionMethod( "Component", methodName,
+                                 InvocationActions.class.getMethod( methodName, parameterTypes ), null );
+    }
+
+    public static class InvocationActions {
+
+        @Action(name = "sum")
+        public long sum( @Parameter(name = "a") int a, @Parameter(name = "b") Long b ) {
+
+            return a + b;
+        }
+
+        @Action(name = "multiply")
+        public double multiply( @Parameter(name = "a") long a, @Parameter(name = "b") double b ) {
+
+            return a * b;
+        }
+
+        @Action(name = "staticAction")
+        public static String staticAction() {
+
+            return "static";
+        }
+
+        @Action(name = "voidAction")
+        public void voidAction() {
+
+        }
+
+        @Action(name = "failingAction")
+        public void failingAction( @Parameter(name = "message") String message ) {
+
+            throw new IllegalArgumentException( message );
+        }
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.axway.ats.agent.core.action.ActionMethod;
+import com.axway.ats.agent.core.model.Action;
+import com.axway.ats.agent.core.model.Parameter;
+
+/**
+ * Measures the framework overhead of invoking a no-op action. It compares plain reflection, as it was
+ * done before, the bare method handle bound by {@link ActionMethod} and the whole {@link ActionMethod}
+ * invocation, which also checks the arguments before using the method handle.
+ * <p>
+ * This is not a unit test, run it with the <code>main</code> method from the test classpath.
+ * </p>
+ */
+@State( Scope.Thread)
+@BenchmarkMode( Mode.AverageTime)
+@OutputTimeUnit( TimeUnit.NANOSECONDS)
+@Warmup( iterations = 3, time = 2)
+@Measurement( iterations = 5, time = 2)
+@Fork( 1)
+public class ActionInvocationBenchmark {
+
+    private NoOpActions  actionClassInstance;
+    private Method       method;
+    private MethodHandle methodHandle;
+    private ActionMethod actionMethod;
+    private Object[]     arguments;
+
+    public static class NoOpActions {
+
+        @Action( name = "no op")
+        public int noOp( @Parameter( name = "number") int number, @Parameter( name = "text") String text ) {
+
+            return number;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+
+        // do not measure the logging of each action execution
+        Logger.getLogger(ActionMethod.class).setLevel(Level.WARN);
+
+        actionClassInstance = new NoOpActions();
+        method = NoOpActions.class.getMethod("noOp", int.class, String.class);
+        methodHandle = MethodHandles.lookup()
+                                    .unreflect(method)
+                                    .asSpreader(Object[].class, 2)
+                                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        actionMethod = new ActionMethod("benchmark", "no op", method, NoOpActions.class);
+        arguments = new Object[]{ 1, "text" };
+    }
+
+    @Benchmark
+    public Object reflective() throws Exception {
+
+        return method.invoke(actionClassInstance, arguments);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Throwable {
+
+        return (Object) methodHandle.invokeExact((Object) actionClassInstance, arguments);
+    }
+
+    @Benchmark
+    public Object actionMethod() throws Exception {
+
+        return actionMethod.invoke(actionClassInstance, arguments, false);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(ActionInvocationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.axway.ats.agent.core.threading.ThreadsManager;
+
+/**
+ * Measures the iteration start skew of {@link ThreadsManager} - the time from the START
+ * of an iteration by the main thread until the last worker thread is running.
+ * <p>
+ * The benchmark score is the time until all workers are released, the <code>skewMicros</code>
+ * counter is the average time between the first and the last started worker.
+ * </p>
+ * <p>
+ * This is not a unit test, run it with the <code>main</code> method from the test classpath.
+ * </p>
+ */
+@State( Scope.Benchmark)
+@BenchmarkMode( Mode.AverageTime)
+@OutputTimeUnit( TimeUnit.MICROSECONDS)
+@Warmup( iterations = 3, time = 2)
+@Measurement( iterations = 5, time = 2)
+@Fork( 1)
+public class ThreadsManagerBenchmark {
+
+    @Param( { "200", "2000" })
+    public int                  numberOfThreads;
+
+    private ThreadsManager      threadsManager;
+    private List<Thread>        workers;
+    private volatile boolean    stopWorkers;
+
+    // number of workers started in the current iteration
+    private final AtomicInteger startedWorkers = new AtomicInteger();
+    // the start time of the first and the last worker in the current iteration
+    private final AtomicLong    firstStartTime = new AtomicLong();
+    private final AtomicLong    lastStartTime  = new AtomicLong();
+
+    @State( Scope.Thread)
+    @AuxCounters( AuxCounters.Type.EVENTS)
+    public static class SkewCounters {
+
+        private long totalSkewNanos;
+        private long iterations;
+
+        /**
+         * @return the average time between the first and the last started worker
+         */
+        public double skewMicros() {
+
+            return iterations == 0
+                                   ? 0
+                                   : totalSkewNanos / 1000.0 / iterations;
+        }
+
+        @Setup( Level.Iteration)
+        public void reset() {
+
+            totalSkewNanos = 0;
+            iterations = 0;
+        }
+    }
+
+    @Setup( Level.Trial)
+    public void setUp() {
+
+        threadsManager = new ThreadsManager();
+        stopWorkers = false;
+        workers = new ArrayList<Thread>(numberOfThreads);
+        for (int i = 0; i < numberOfThreads; i++) {
+            Thread worker = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    while (true) {
+                        threadsManager.waitForStart();
+                        if (stopWorkers) {
+                            return;
+                        }
+
+                        long now = System.nanoTime();
+                        firstStartTime.compareAndSet(0, now);
+                        lastStartTime.accumulateAndGet(now, Math::max);
+                        startedWorkers.incrementAndGet();
+                    }
+                }
+            }, "worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @TearDown( Level.Trial)
+    public void tearDown() throws InterruptedException {
+
+        stopWorkers = true;
+        threadsManager.start();
+        for (Thread worker : workers) {
+            worker.join(10000);
+        }
+    }
+
+    @Benchmark
+    public int startIteration( SkewCounters counters ) {
+
+        startedWorkers.set(0);
+        firstStartTime.set(0);
+
+        threadsManager.start();
+        while (startedWorkers.get() < numberOfThreads) {
+            Thread.yield();
+        }
+
+        counters.totalSkewNanos += lastStartTime.get() - firstStartTime.get();
+        counters.iterations++;
+        return startedWorkers.get();
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(ThreadsManagerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.agents;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.axway.ats.agent.core.BaseTest;
+import com.axway.ats.common.performance.monitor.beans.ReadingBean;
+
+public class Test_SystemStatisticsBuffer extends BaseTest {
+
+    @Test
+    public void keepManyPolls() {
+
+        // start with small capacity, so the buffer must grow
+        SystemStatisticsBuffer buffer = new SystemStatisticsBuffer(1, 950, 7950);
+        assertNull(buffer.drain());
+
+        assertEquals(2, buffer.add(1000000, readings(1, "10.5", 2, "20.0")));
+        // statistic 2 is not available, statistic 3 is new
+        assertEquals(2, buffer.add(1001000, readings(1, "11.5", 3, "30.25")));
+        assertEquals(3, buffer.add(1002000, readings(1, "12.5", 2, "22.0", 3, "32.0")));
+        assertEquals(3, buffer.getRowsCount());
+        assertEquals(1000000, buffer.getFirstTimestamp());
+
+        SystemStatisticsBuffer.Rows rows = buffer.drain();
+        assertArrayEquals(new long[]{ 1000000, 1001000, 1002000 }, rows.getTimestamps());
+        assertArrayEquals(new String[]{ "1_2", "1_3", "1_2_3" }, rows.getStatisticIds());
+        assertArrayEquals(new String[]{ "10.5_20.0", "11.5_30.25", "12.5_22.0_32.0" }, rows.getStatisticValues());
+
+        // the buffer is empty now
+        assertEquals(0, buffer.getRowsCount());
+        assertNull(buffer.drain());
+
+        buffer.add(2000000, readings(5, "1.0"));
+        rows = buffer.drain();
+        assertArrayEquals(new long[]{ 2000000 }, rows.getTimestamps());
+        assertArrayEquals(new String[]{ "5" }, rows.getStatisticIds());
+    }
+
+    @Test
+    public void splitLongRows() {
+
+        SystemStatisticsBuffer buffer = new SystemStatisticsBuffer(10, 4, 100);
+        buffer.add(1000, readings(11, "1.0", 22, "2.0", 33, "3.0"));
+
+        SystemStatisticsBuffer.Rows rows = buffer.drain();
+        assertArrayEquals(new long[]{ 1000, 1000 }, rows.getTimestamps());
+        assertArrayEquals(new String[]{ "11_22", "33" }, rows.getStatisticIds());
+        assertArrayEquals(new String[]{ "1.0_2.0", "3.0" }, rows.getStatisticValues());
+    }
+
+    @Test
+    public void skipNullValues() {
+
+        SystemStatisticsBuffer buffer = new SystemStatisticsBuffer(10, 950, 7950);
+        assertEquals(2, buffer.add(1000, readings(1, null, 2, "abc", 3, "3.0")));
+
+        // the other values are sent as polled, the same way as when they are not buffered
+        SystemStatisticsBuffer.Rows rows = buffer.drain();
+        assertArrayEquals(new String[]{ "2_3" }, rows.getStatisticIds());
+        assertArrayEquals(new String[]{ "abc_3.0" }, rows.getStatisticValues());
+    }
+
+    @Test
+    public void keepValuesAsPolled() {
+
+        SystemStatisticsBuffer buffer = new SystemStatisticsBuffer(10, 950, 7950);
+        // these would lose precision or would be written in exponent notation if kept as floats
+        buffer.add(1000, readings(1, "123456789.123", 2, "0.0001", 3, "12345678"));
+
+        SystemStatisticsBuffer.Rows rows = buffer.drain();
+        assertArrayEquals(new String[]{ "123456789.123_0.0001_12345678" }, rows.getStatisticValues());
+    }
+
+    private List<ReadingBean> readings( Object... idsAndValues ) {
+
+        List<ReadingBean> readings = new ArrayList<ReadingBean>();
+        for (int i = 0; i < idsAndValues.length; i += 2) {
+            ReadingBean reading = new ReadingBean();
+            reading.setDbId((Integer) idsAndValues[i]);
+            reading.setValue((String) idsAndValues[i + 1]);
+            readings.add(reading);
+        }
+        return readings;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.jvmmonitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.agent.core.BaseTest;
+import com.axway.ats.core.monitoring.MonitorConfigurationException;
+
+public class Test_MBeanWrapper extends BaseTest {
+
+    // the number of remote calls per method name
+    private Map<String, Integer> calls;
+
+    private MBeanWrapper         mbeanWrapper;
+
+    @Before
+    public void before() {
+
+        calls = new HashMap<String, Integer>();
+
+        MBeanServerConnection countingConnection = (MBeanServerConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                                                                  new Class<?>[]{ MBeanServerConnection.class },
+                                                                                                  new CountingHandler());
+        mbeanWrapper = new MBeanWrapper(countingConnection);
+    }
+
+    @Test
+    public void oneCallPerMBeanAndPoll() throws Exception {
+
+        ObjectName threading = mbeanWrapper.getObjectName("java.lang:type=Threading");
+
+        // first poll - we learn which attributes are needed
+        mbeanWrapper.startNewPoll();
+        assertTrue(((Integer) mbeanWrapper.getMBeanAttribute(threading, "ThreadCount")) > 0);
+        assertTrue(((Integer) mbeanWrapper.getMBeanAttribute(threading, "DaemonThreadCount")) >= 0);
+        assertEquals(2, getCalls("getAttributes"));
+
+        // next polls - all attributes are fetched together
+        for (int i = 0; i < 3; i++) {
+            mbeanWrapper.startNewPoll();
+            mbeanWrapper.getMBeanAttribute(threading, "ThreadCount");
+            mbeanWrapper.getMBeanAttribute(threading, "DaemonThreadCount");
+        }
+        assertEquals(2 + 3, getCalls("getAttributes"));
+        assertEquals(0, getCalls("getAttribute"));
+        assertEquals(0, getCalls("getMBeanInfo"));
+    }
+
+    @Test( expected = MonitorConfigurationException.class)
+    public void notExistingAttribute() throws Exception {
+
+        ObjectName memory = mbeanWrapper.getObjectName("java.lang:type=Memory");
+
+        mbeanWrapper.startNewPoll();
+        mbeanWrapper.getMBeanAttribute(memory, "NotExistingAttribute");
+    }
+
+    private int getCalls( String methodName ) {
+
+        Integer count = calls.get(methodName);
+        return count == null
+                             ? 0
+                             : count;
+    }
+
+    /**
+     * Counts the calls and passes them to the platform MBean server
+     */
+    private class CountingHandler implements InvocationHandler {
+
+        private final MBeanServerConnection platformServer = ManagementFactory.getPlatformMBeanServer();
+
+        @Override
+        public Object invoke( Object proxy, Method method, Object[] args ) throws Throwable {
+
+            calls.put(method.getName(), getCalls(method.getName()) + 1);
+            try {
+                return method.invoke(platformServer, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.localstore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.agent.core.BaseTest;
+import com.axway.ats.common.performance.monitor.beans.ReadingBean;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+
+public class Test_LocalMetricsStore extends BaseTest {
+
+    // a timestamp at the start of a minute
+    private static final long START = 60000L * 20000;
+
+    private File              storeFolder;
+
+    @Before
+    public void before() throws IOException {
+
+        storeFolder = Files.createTempDirectory("ats_metrics_store").toFile();
+    }
+
+    @After
+    public void after() {
+
+        System.clearProperty(AtsSystemProperties.AGENT__MONITOR_LOCAL_STORE_FOLDER);
+        delete(storeFolder);
+    }
+
+    @Test
+    public void downsample() throws IOException {
+
+        LocalMetricsStore store = new LocalMetricsStore(storeFolder, 1000, 0);
+        // 25 seconds with 2 values per second
+        for (int i = 0; i < 50; i++) {
+            store.add(START + i * 500, 0, i);
+        }
+
+        assertEquals(50, store.query(0, START, START + 60000, Resolution.RAW).size());
+        assertEquals(0, store.query(1, START, START + 60000, Resolution.RAW).size());
+
+        // the last second and the last 10 seconds are not finished yet
+        List<MetricRecord> seconds = store.query(0, START, START + 60000, Resolution.SECOND);
+        assertEquals(24, seconds.size());
+        assertRecord(seconds.get(3), START + 3000, 6, 7, 6.5f, 2);
+
+        List<MetricRecord> tenSeconds = store.query(0, START, START + 60000, Resolution.TEN_SECONDS);
+        assertEquals(2, tenSeconds.size());
+        assertRecord(tenSeconds.get(0), START, 0, 19, 9.5f, 20);
+        assertRecord(tenSeconds.get(1), START + 10000, 20, 39, 29.5f, 20);
+        assertEquals(0, store.query(0, START, START + 60000, Resolution.MINUTE).size());
+
+        // closing writes all unfinished intervals
+        store.close();
+        assertEquals(25, store.query(0, START, START + 60000, Resolution.SECOND).size());
+        assertEquals(3, store.query(0, START, START + 60000, Resolution.TEN_SECONDS).size());
+        List<MetricRecord> minutes = store.query(0, START, START + 60000, Resolution.MINUTE);
+        assertEquals(1, minutes.size());
+        assertRecord(minutes.get(0), START, 0, 49, 24.5f, 50);
+
+        // time range
+        assertEquals(10, store.query(0, START + 1000, START + 5999, Resolution.RAW).size());
+    }
+
+    @Test
+    public void rollSegments() throws IOException {
+
+        LocalMetricsStore store = new LocalMetricsStore(storeFolder, 4, 2);
+        for (int i = 0; i < 10; i++) {
+            store.add(START + i * 100, 0, i);
+        }
+
+        // the first segment is deleted
+        assertEquals(2, storeFolder.list(new FilenameFilter() {
+
+            @Override
+            public boolean accept( File dir, String name ) {
+
+                return name.startsWith("raw-");
+            }
+        }).length);
+
+        List<MetricRecord> records = store.query(-1, START, START + 1000, Resolution.RAW);
+        assertEquals(6, records.size());
+        assertEquals(START + 400, records.get(0).getTimestamp());
+        assertEquals(START + 900, records.get(5).getTimestamp());
+        store.close();
+    }
+
+    @Test
+    public void reopen() throws IOException {
+
+        LocalMetricsStore store = new LocalMetricsStore(storeFolder, 1000, 0);
+        assertEquals(2, store.add(START, readings("CPU usage", "%", "12.5", "Free memory", "MB", "1024")));
+        // not numeric values are skipped
+        assertEquals(1, store.add(START + 1000, readings("CPU usage", "%", "13.5", "Free memory", "MB", "n/a")));
+        store.close();
+
+        store = new LocalMetricsStore(storeFolder, 1000, 0);
+        Map<Integer, String[]> statistics = store.getStatistics();
+        assertEquals(2, statistics.size());
+        assertArrayEquals(new String[]{ "CPU usage", "%" }, statistics.get(0));
+        assertArrayEquals(new String[]{ "Free memory", "MB" }, statistics.get(1));
+
+        // the known statistics keep their ids
+        store.add(START + 2000, readings("Free memory", "MB", "2048"));
+        List<MetricRecord> records = store.query(1, START, START + 2000, Resolution.RAW);
+        assertEquals(2, records.size());
+        assertEquals(2048, records.get(1).getAvg(), 0);
+
+        assertEquals(2, store.query(0, START, START + 2000, Resolution.SECOND).size());
+        store.close();
+    }
+
+    @Test
+    public void pickResolution() {
+
+        assertEquals(Resolution.RAW, LocalMetricsStore.pickResolution(START, START + 60 * 1000));
+        assertEquals(Resolution.SECOND, LocalMetricsStore.pickResolution(START, START + 3600 * 1000));
+        assertEquals(Resolution.TEN_SECONDS, LocalMetricsStore.pickResolution(START, START + 10 * 3600 * 1000));
+        assertEquals(Resolution.MINUTE, LocalMetricsStore.pickResolution(START, START + 10 * 24 * 3600 * 1000L));
+    }
+
+    @Test
+    public void shareStore() throws IOException {
+
+        System.setProperty(AtsSystemProperties.AGENT__MONITOR_LOCAL_STORE_FOLDER, storeFolder.getPath());
+
+        LocalMetricsStore store1 = LocalMetricsStore.acquireStore("host1");
+        LocalMetricsStore store2 = LocalMetricsStore.acquireStore("host1");
+        assertSame(store1, store2);
+        store1.add(START, 0, 1);
+        store1.add(START + 500, 0, 2);
+
+        // the store is still used, so the unfinished second is not written
+        store1.release();
+        assertEquals(0, store2.query(0, START, START + 1000, Resolution.SECOND).size());
+
+        // released by all users, so the store is closed
+        store2.release();
+        LocalMetricsStore store3 = LocalMetricsStore.acquireExistingStore("host1");
+        assertNotSame(store1, store3);
+        assertEquals(1, store3.query(0, START, START + 1000, Resolution.SECOND).size());
+        store3.release();
+
+        // no store is created for a host without results
+        assertNull(LocalMetricsStore.acquireExistingStore("host2"));
+        assertFalse(new File(storeFolder, "host2").exists());
+    }
+
+    @Test
+    public void closeAllStores() throws IOException {
+
+        System.setProperty(AtsSystemProperties.AGENT__MONITOR_LOCAL_STORE_FOLDER, storeFolder.getPath());
+
+        LocalMetricsStore store1 = LocalMetricsStore.acquireStore("host1");
+        store1.add(START, 0, 1);
+        store1.add(START + 500, 0, 2);
+
+        // the agent is shut down while the store is still used
+        LocalMetricsStore.closeAll();
+        LocalMetricsStore store2 = LocalMetricsStore.acquireExistingStore("host1");
+        assertNotSame(store1, store2);
+        assertEquals(1, store2.query(0, START, START + 1000, Resolution.SECOND).size());
+
+        // the late release of the closed store does not close the new one
+        store1.release();
+        assertSame(store2, LocalMetricsStore.acquireExistingStore("host1"));
+        store2.release();
+        store2.release();
+    }
+
+    @Test( expected = IllegalArgumentException.class)
+    public void invalidHost() throws IOException {
+
+        System.setProperty(AtsSystemProperties.AGENT__MONITOR_LOCAL_STORE_FOLDER, storeFolder.getPath());
+
+        LocalMetricsStore.acquireExistingStore("..");
+    }
+
+    private static void assertRecord( MetricRecord record, long timestamp, float min, float max, float avg,
+                                      int count ) {
+
+        assertEquals(timestamp, record.getTimestamp());
+        assertEquals(min, record.getMin(), 0);
+        assertEquals(max, record.getMax(), 0);
+        assertEquals(avg, record.getAvg(), 0.0001);
+        assertEquals(count, record.getCount());
+    }
+
+    private static List<ReadingBean> readings( String... nameUnitValue ) {
+
+        List<ReadingBean> readings = new ArrayList<ReadingBean>();
+        for (int i = 0; i < nameUnitValue.length; i += 3) {
+            ReadingBean reading = new ReadingBean("monitor", nameUnitValue[i], nameUnitValue[i + 1]);
+            reading.setValue(nameUnitValue[i + 2]);
+            readings.add(reading);
+        }
+        return readings;
+    }
+
+    private static void delete( File file ) {
+
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.axway.ats.agent.core.BaseTest;
+import com.axway.ats.log.autodb.entities.CheckpointSummary;
+import com.axway.ats.log.model.CheckpointResult;
+
+public class Test_CheckpointsAggregator extends BaseTest {
+
+    @Test
+    public void histogramBuckets() {
+
+        // each value is in a bucket which can return it with less than 1.6% error
+        for (long value = 0; value < 10000000; value = value * 2 + 7) {
+            long bucketValue = CheckpointHistogram.getHighestValueInBucket(CheckpointHistogram.getBucketIndex(value));
+            assertTrue(bucketValue >= value);
+            assertTrue(bucketValue - value <= value / 64);
+        }
+        assertEquals(Long.MAX_VALUE,
+                     CheckpointHistogram.getHighestValueInBucket(CheckpointHistogram.getBucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void histogramPercentiles() {
+
+        CheckpointHistogram histogram = new CheckpointHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+
+        assertEquals(500, histogram.getValueAtPercentile(50), 500 / 64);
+        assertEquals(990, histogram.getValueAtPercentile(99), 990 / 64);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void summaryContainsOnlyTheNewValues() {
+
+        CheckpointsAggregator aggregator = new CheckpointsAggregator("caller:queue", "queue", 1000, 0);
+        assertFalse(aggregator.isSampled());
+
+        aggregator.addCheckpoint("action", 10, 1000, "KB", CheckpointResult.PASSED);
+        aggregator.addCheckpoint("action", 30, 3000, "KB", CheckpointResult.PASSED);
+        aggregator.addCheckpoint("action", 0, 0, "KB", CheckpointResult.FAILED);
+
+        CheckpointSummary summary = aggregator.getCheckpointStatistics("action").getNotFlushedSummary();
+        assertEquals("action", summary.name);
+        assertEquals("KB", summary.transferRateUnit);
+        assertEquals(2, summary.numPassed);
+        assertEquals(1, summary.numFailed);
+        assertEquals(10, summary.minResponseTime);
+        assertEquals(30, summary.maxResponseTime);
+        assertEquals(20, summary.avgResponseTime, 0.001);
+        assertEquals(100000, summary.avgTransferRate, 0.001);
+
+        // nothing new
+        assertNull(aggregator.getCheckpointStatistics("action").getNotFlushedSummary());
+
+        aggregator.addCheckpoint("action", 50, 0, "KB", CheckpointResult.PASSED);
+        summary = aggregator.getCheckpointStatistics("action").getNotFlushedSummary();
+        assertEquals(1, summary.numPassed);
+        assertEquals(0, summary.numFailed);
+        assertEquals(50, summary.avgResponseTime, 0.001);
+        assertEquals(50, summary.maxResponseTime);
+    }
+
+    @Test
+    public void sampling() {
+
+        CheckpointsAggregator aggregator = new CheckpointsAggregator("caller:queue", "queue", 1000, 3);
+
+        int sampled = 0;
+        for (int i = 0; i < 30; i++) {
+            if (aggregator.isSampled()) {
+                sampled++;
+            }
+        }
+        assertEquals(10, sampled);
+    }
+
+    @Test
+    public void aggregatorIsReleasedByTheLastTask() {
+
+        CheckpointsAggregator first = CheckpointsAggregator.registerTask("caller", "releasedQueue");
+        CheckpointsAggregator second = CheckpointsAggregator.registerTask("caller", "releasedQueue");
+        assertSame(first, second);
+
+        first.taskFinished(null);
+        assertSame(first, CheckpointsAggregator.registerTask("caller", "releasedQueue"));
+
+        first.taskFinished(null);
+        first.taskFinished(null);
+        // a new run of the queue starts with a new aggregator
+        CheckpointsAggregator third = CheckpointsAggregator.registerTask("caller", "releasedQueue");
+        assertNotSame(first, third);
+        third.taskFinished(null);
+    }
+
+    @Test
+    public void percentileMessages() {
+
+        CheckpointsAggregator aggregator = new CheckpointsAggregator("caller:queue", "queue", 1000, 0);
+        for (int i = 1; i <= 100; i++) {
+            aggregator.addCheckpoint("action", i, 0, "", CheckpointResult.PASSED);
+        }
+        // no message for checkpoints without passed values
+        aggregator.addCheckpoint("failing action", 0, 0, "", CheckpointResult.FAILED);
+
+        List<String> messages = aggregator.getPercentileMessages();
+        assertEquals(1, messages.size());
+        assertEquals("Response times of checkpoint 'action' in queue 'queue': 100 passed, min 1 ms, avg "
+                     + String.format("%.2f", 50.5) + " ms, p50 50 ms, p90 90 ms, p99 99 ms, p99.9 100 ms, max 100 ms",
+                     messages.get(0));
+    }
+}
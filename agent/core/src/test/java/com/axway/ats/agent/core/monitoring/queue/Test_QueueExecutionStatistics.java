@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.queue;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.axway.ats.agent.core.BaseTest;
+
+public class Test_QueueExecutionStatistics extends BaseTest {
+
+    @Test
+    public void registerFromManyThreads() throws Exception {
+
+        final String queueName = "registerFromManyThreads";
+        final int threadsCount = 8;
+        final int executionsPerThread = 10000;
+
+        final QueueExecutionStatistics statistics = QueueExecutionStatistics.getInstance();
+        statistics.initActionExecutionResults(queueName);
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < threadsCount; i++) {
+            Thread thread = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    for (int j = 0; j < executionsPerThread; j++) {
+                        if (j % 10 == 0) {
+                            statistics.registerActionExecutionResult(queueName, "action", false);
+                        } else {
+                            statistics.registerActionExecutionResult(queueName, "action", j % 100);
+                        }
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<ActionExecutionStatistic> results = statistics.getActionExecutionResults(queueName);
+        assertEquals(1, results.size());
+
+        ActionExecutionStatistic result = results.get(0);
+        assertEquals("action", result.getActionName());
+        assertEquals(threadsCount * executionsPerThread / 10, result.getNumberFailed());
+        assertEquals(threadsCount * executionsPerThread * 9 / 10, result.getNumberPassed());
+        assertEquals(1, result.getMinResponseTime());
+        assertEquals(99, result.getMaxResponseTime());
+        assertEquals(50, result.getAverageResponseTime(), 0.001);
+        assertEquals(99, result.getResponseTimePercentile(100));
+
+        // a new run of a queue with same name starts from scratch
+        statistics.initActionExecutionResults(queueName);
+        assertEquals(0, statistics.getActionExecutionResults(queueName).size());
+    }
+
+    @Test
+    public void mergeResultsFromManyAgents() throws Exception {
+
+        CheckpointHistogram firstAgentTimes = new CheckpointHistogram();
+        CheckpointHistogram secondAgentTimes = new CheckpointHistogram();
+        for (int i = 1; i <= 100; i++) {
+            if (i % 2 == 0) {
+                firstAgentTimes.record(i);
+            } else {
+                secondAgentTimes.record(i);
+            }
+        }
+
+        ActionExecutionStatistic firstAgentResult = new ActionExecutionStatistic("action", 50, 1,
+                                                                                  firstAgentTimes, 1000, 3000);
+        ActionExecutionStatistic secondAgentResult = new ActionExecutionStatistic("action", 50, 3,
+                                                                                  secondAgentTimes, 2000,
+                                                                                  6000);
+        firstAgentResult.merge(secondAgentResult);
+
+        assertEquals(100, firstAgentResult.getNumberPassed());
+        assertEquals(4, firstAgentResult.getNumberFailed());
+        assertEquals(1, firstAgentResult.getMinResponseTime());
+        assertEquals(100, firstAgentResult.getMaxResponseTime());
+        assertEquals(50.5, firstAgentResult.getAverageResponseTime(), 0.001);
+        assertEquals(50, firstAgentResult.getResponseTimePercentile(50));
+        assertEquals(90, firstAgentResult.getResponseTimePercentile(90));
+        // 104 executions in 5 seconds
+        assertEquals(20.8, firstAgentResult.getThroughput(), 0.001);
+
+        // results without response times do not change the merged response times
+        firstAgentResult.merge(new ActionExecutionStatistic("action"));
+        assertEquals(100, firstAgentResult.getMaxResponseTime());
+        assertEquals(50, firstAgentResult.getResponseTimePercentile(50));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.monitoring.systemmonitor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.agent.core.BaseTest;
+import com.axway.ats.agent.core.monitoring.systemmonitor.ProcfsProcessSampler.ProcessSample;
+
+public class Test_ProcfsProcessSampler extends BaseTest {
+
+    // process name with spaces and brackets, then user time 250 ticks, kernel time 50 ticks
+    private static final String STAT  = "123 (my (java) app) S 1 123 123 0 -1 4194560 1000 0 20 0 250 50 0 0 20 0 "
+                                        + "30 0 5000 2097152 400 18446744073709551615 1 1 0 0 0 0 0 0 0 0 0 0 17 0 0 0 0 0 0";
+    // size resident shared text lib data dt
+    private static final String STATM = "512 400 100 10 0 200 0\n";
+
+    private File                procFolder;
+
+    @Before
+    public void before() throws IOException {
+
+        procFolder = Files.createTempDirectory("ats_procfs").toFile();
+
+        writeFile("self/stat", STAT);
+        writeFile("self/statm", STATM);
+        writeFile("self/smaps", "00400000-00401000 r-xp 00000000 08:01 1 /bin/app\n"
+                                + "Size:                  4 kB\nKernelPageSize:        8 kB\nMMUPageSize:           8 kB\n");
+
+        writeFile("123/stat", STAT);
+        writeFile("123/statm", STATM);
+        writeFile("123/cmdline", "java\0-Xmx1g\0-jar\0app.jar\0");
+    }
+
+    @After
+    public void after() {
+
+        delete(procFolder);
+    }
+
+    @Test
+    public void parse() {
+
+        ProcessSample sample = ProcfsProcessSampler.parse(STAT, STATM, 4096);
+
+        assertEquals(2500, sample.getCpuUser());
+        assertEquals(500, sample.getCpuKernel());
+        assertEquals(3000, sample.getCpuTotal());
+        assertEquals(1020, sample.getMemoryPageFaults());
+        assertEquals(2097152, sample.getVirtualMemory());
+        assertEquals(400 * 4096, sample.getResidentMemory());
+        assertEquals(100 * 4096, sample.getSharedMemory());
+    }
+
+    @Test
+    public void listProcessesAndArguments() {
+
+        ProcfsProcessSampler sampler = new ProcfsProcessSampler(procFolder);
+
+        // 'self' is not a process ID
+        long[] pids = sampler.getProcList();
+        assertEquals("[123]", Arrays.toString(pids));
+
+        assertArrayEquals(new String[]{ "java", "-Xmx1g", "-jar", "app.jar" }, sampler.getProcArgs(123));
+        assertNull(sampler.getProcArgs(456));
+    }
+
+    @Test
+    public void readOncePerPoll() throws IOException {
+
+        ProcfsProcessSampler sampler = new ProcfsProcessSampler(procFolder);
+
+        ProcessSample sample = sampler.getSample(123);
+        // the page size is taken from the smaps file
+        assertEquals(400 * 8192, sample.getResidentMemory());
+
+        // the files are not read again during the same poll
+        writeFile("123/stat", STAT.replace(" 250 50 ", " 350 50 "));
+        assertSame(sample, sampler.getSample(123));
+
+        sampler.startNewPoll();
+        assertEquals(3500, sampler.getSample(123).getCpuUser());
+
+        // not existing process
+        assertNull(sampler.getSample(456));
+    }
+
+    private void writeFile( String path, String content ) throws IOException {
+
+        File file = new File(procFolder, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void delete( File file ) {
+
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
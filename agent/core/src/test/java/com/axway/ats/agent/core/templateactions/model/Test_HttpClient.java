@@ -17,9 +17,12 @@
 
 import static com.axway.ats.common.agent.templateactions.TemplateActionsXmlDefinitions.TOKEN_HTTP_RESPONSE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -204,6 +207,57 @@ public void testHeaders() throws Exception {
         verifyResponseMatch( expectedResponseBody, actualResponseBody, "response body", "response bodies" );
     }
 
+    @Test
+    public void discardResponseBody() throws Exception {
+
+        DiscardedBodyConnection connection = new DiscardedBodyConnection( 200, 1000 );
+        getHttpClient( connection ).discardResponseBody();
+
+        // the whole body is read, so the connection can be reused
+        assertEquals( 0, connection.body.available() );
+        assertTrue( connection.body.isClosed );
+        assertFalse( connection.isDisconnected );
+    }
+
+    @Test
+    public void discardResponseBodyOfErrorResponse() throws Exception {
+
+        DiscardedBodyConnection connection = new DiscardedBodyConnection( 401, 1000 );
+        getHttpClient( connection ).discardResponseBody();
+
+        assertTrue( connection.isErrorStreamUsed );
+        assertEquals( 0, connection.body.available() );
+        assertTrue( connection.body.isClosed );
+        assertFalse( connection.isDisconnected );
+    }
+
+    @Test
+    public void discardTooBigResponseBody() throws Exception {
+
+        DiscardedBodyConnection connection = new DiscardedBodyConnection( 200, 1024 * 1024 );
+        getHttpClient( connection ).discardResponseBody();
+
+        // the rest of the body is not read, the connection is closed instead
+        assertTrue( connection.body.available() > 0 );
+        assertTrue( connection.body.isClosed );
+        assertTrue( connection.isDisconnected );
+    }
+
+    @Test
+    public void redirectResponseBodyIsDrained() throws Exception {
+
+        DiscardedBodyConnection connection = new DiscardedBodyConnection( 302, 100 );
+        HttpClient client = getHttpClient( connection );
+
+        new XmlUtilities().readActionResponse( client, getDownloadsFolder() + "redirect.xml", 1, false );
+
+        // the body is not kept, but it is read in order to reuse the connection
+        assertEquals( null, client.getResponseBodyBytes() );
+        assertEquals( 0, connection.body.available() );
+        assertTrue( connection.body.isClosed );
+        assertFalse( connection.isDisconnected );
+    }
+
     private void httpMessage( String contentType, String contentEncoding,
                               String downloadFileExtension ) throws Exception {
 
@@ -259,4 +313,63 @@ private void verifyDownloadedFileMatch( String expectedFile, String actualFile )
             log.info( "Matched actual '" + actualFile + "' and expected '" + expectedFile + "' files" );
         }
     }
+
+    /**
+     * A connection which tracks how its response body is consumed
+     */
+    private static class DiscardedBodyConnection extends MockHttpURLConnection {
+
+        private final int         fakeResponseCode;
+        private final TrackedBody body;
+        private boolean           isErrorStreamUsed;
+        private boolean           isDisconnected;
+
+        DiscardedBodyConnection( int responseCode, int bodySize ) {
+
+            this.fakeResponseCode = responseCode;
+            this.body = new TrackedBody( new byte[bodySize] );
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+
+            return fakeResponseCode;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+
+            return body;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+
+            isErrorStreamUsed = true;
+            return body;
+        }
+
+        @Override
+        public void disconnect() {
+
+            isDisconnected = true;
+        }
+    }
+
+    private static class TrackedBody extends ByteArrayInputStream {
+
+        private boolean isClosed;
+
+        TrackedBody( byte[] bytes ) {
+
+            super( bytes );
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            isClosed = true;
+            super.close();
+        }
+    }
 }
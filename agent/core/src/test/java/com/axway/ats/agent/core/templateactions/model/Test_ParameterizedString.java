@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.templateactions.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.axway.ats.agent.core.context.ThreadContext;
+import com.axway.ats.agent.core.templateactions.TemplateActionsBaseTest;
+
+public class Test_ParameterizedString extends TemplateActionsBaseTest {
+
+    @After
+    public void afterMethod() {
+
+        ThreadContext.clear();
+    }
+
+    @Test
+    public void noParameters() throws Exception {
+
+        ParameterizedString string = ParameterizedString.compile( "http://127.0.0.1/test/${value" );
+
+        assertFalse( string.hasParameters() );
+        assertEquals( "http://127.0.0.1/test/${value", string.apply() );
+    }
+
+    @Test
+    public void applyParametersManyTimes() throws Exception {
+
+        ParameterizedString string = ParameterizedString.compile( "${host}:${port}/${value}/${=extracted}/${missing}" );
+        assertTrue( string.hasParameters() );
+        assertEquals( "${host}:${port}/${value}/${=extracted}/${missing}", string.toString() );
+
+        ThreadContext.setAttribute( "host", "127.0.0.1" );
+        ThreadContext.setAttribute( "port", 8080 );
+        ThreadContext.setAttribute( "value", new LinkedList<String>( Arrays.asList( "1", "2" ) ) );
+
+        // the values which are not set are left as they are
+        assertEquals( "127.0.0.1:8080/1/${=extracted}/${missing}", string.apply() );
+
+        ThreadContext.setAttribute( "port", 8081 );
+        assertEquals( "127.0.0.1:8081/2/${=extracted}/${missing}", string.apply() );
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.threading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.axway.ats.agent.core.BaseTest;
+
+public class Test_ActionTaskExecutors extends BaseTest {
+
+    @Test
+    public void platformThreads() throws Exception {
+
+        ExecutorService executor = ActionTaskExecutors.newExecutor( "test", false );
+        try {
+            assertTrue( executor instanceof ThreadPoolExecutor );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void virtualThreadsHaveUniqueNames() throws Exception {
+
+        ExecutorService firstExecutor = ActionTaskExecutors.newExecutor( "test", true );
+        ExecutorService secondExecutor = ActionTaskExecutors.newExecutor( "test", true );
+        try {
+            // when virtual threads are not supported, we fall back to platform threads
+            assertEquals( !ActionTaskExecutors.isVirtualThreadsSupported(),
+                          firstExecutor instanceof ThreadPoolExecutor );
+
+            // the threads are registered by name, so the names must not repeat across the executors
+            Set<String> threadNames = new HashSet<String>();
+            for( ExecutorService executor : new ExecutorService[]{ firstExecutor, secondExecutor } ) {
+                for( int i = 0; i < 3; i++ ) {
+                    Future<String> threadName = executor.submit( new Callable<String>() {
+
+                        @Override
+                        public String call() {
+
+                            return Thread.currentThread().getName();
+                        }
+                    } );
+                    String name = threadName.get( 10, TimeUnit.SECONDS );
+                    assertFalse( name.isEmpty() );
+                    if( ActionTaskExecutors.isVirtualThreadsSupported() ) {
+                        assertTrue( threadNames.add( name ) );
+                    }
+                }
+            }
+        } finally {
+            firstExecutor.shutdown();
+            secondExecutor.shutdown();
+        }
+    }
+}
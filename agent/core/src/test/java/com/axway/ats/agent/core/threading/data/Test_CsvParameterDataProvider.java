@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.core.threading.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.agent.core.BaseTest;
+import com.axway.ats.agent.core.action.ArgumentValue;
+import com.axway.ats.agent.core.exceptions.AgentException;
+import com.axway.ats.agent.core.threading.data.config.CsvDataConfig;
+import com.axway.ats.agent.core.threading.data.config.ParameterProviderLevel;
+import com.axway.ats.agent.core.threading.exceptions.ParameterDataProviderInitalizationException;
+
+public class Test_CsvParameterDataProvider extends BaseTest {
+
+    private File csvFile;
+
+    @Before
+    public void before() throws IOException {
+
+        csvFile = File.createTempFile("ats_data_", ".csv");
+        String content = "username,password,comment\r\n"
+                         + "user1,pass1,simple\r\n"
+                         + "\r\n"
+                         + "user2,pass2,\"quoted, with \"\"delimiter\"\"\"\r\n"
+                         + "user3,pass3,last row without line terminator";
+        Files.write(csvFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void after() {
+
+        csvFile.delete();
+    }
+
+    @Test
+    public void perInvocationGeneration() throws AgentException {
+
+        CsvParameterDataProvider dataProvider = createProvider(0, ParameterProviderLevel.PER_INVOCATION);
+        assertEquals(3, dataProvider.getRowsCount());
+
+        for (int i = 0; i < 2; i++) {
+            // after the last row we go back to the first one
+            assertEquals("user1", getValue(dataProvider));
+            assertEquals("user2", getValue(dataProvider));
+            assertEquals("user3", getValue(dataProvider));
+        }
+    }
+
+    @Test
+    public void perThreadStaticGeneration() throws AgentException {
+
+        CsvParameterDataProvider dataProvider = createProvider(2, ParameterProviderLevel.PER_THREAD_STATIC);
+
+        ArgumentValue generatedValue = dataProvider.getValue(new ArrayList<ArgumentValue>());
+        assertEquals("param1", generatedValue.getName());
+        assertEquals("simple", generatedValue.getValue());
+
+        //make sure only one instance per thread is returned
+        assertEquals("simple", getValue(dataProvider));
+    }
+
+    @Test
+    public void wholeRowAndQuotedValues() throws AgentException {
+
+        CsvParameterDataProvider dataProvider = createProvider(CsvDataConfig.WHOLE_ROW,
+                                                               ParameterProviderLevel.PER_INVOCATION);
+        assertEquals("user1,pass1,simple", getValue(dataProvider));
+
+        dataProvider = createProvider(2, ParameterProviderLevel.PER_INVOCATION);
+        assertEquals("simple", getValue(dataProvider));
+        assertEquals("quoted, with \"delimiter\"", getValue(dataProvider));
+        assertEquals("last row without line terminator", getValue(dataProvider));
+    }
+
+    @Test
+    public void lineTerminatorsInQuotedValues() throws AgentException, IOException {
+
+        String content = "username,comment\r\n"
+                         + "user1,\"first line\r\nsecond line\"\r\n"
+                         + "user2,\"with \"\"quotes\"\"\n\"\n"
+                         + "user3,simple\n";
+        Files.write(csvFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+        CsvParameterDataProvider dataProvider = createProvider(1, ParameterProviderLevel.PER_INVOCATION);
+        assertEquals(3, dataProvider.getRowsCount());
+        assertEquals("first line\r\nsecond line", getValue(dataProvider));
+        assertEquals("with \"quotes\"\n", getValue(dataProvider));
+        assertEquals("simple", getValue(dataProvider));
+
+        dataProvider = createProvider(0, ParameterProviderLevel.PER_INVOCATION);
+        assertEquals("user1", getValue(dataProvider));
+        assertEquals("user2", getValue(dataProvider));
+        assertEquals("user3", getValue(dataProvider));
+    }
+
+    @Test
+    public void distributedRows() throws AgentException {
+
+        // the second of two agents
+        CsvParameterDataProvider dataProvider = new CsvParameterDataProvider("param1",
+                                                                             csvFile.getPath(),
+                                                                             0,
+                                                                             ',',
+                                                                             true,
+                                                                             1,
+                                                                             2,
+                                                                             ParameterProviderLevel.PER_INVOCATION);
+        dataProvider.initialize();
+
+        assertEquals(1, dataProvider.getRowsCount());
+        assertEquals("user2", getValue(dataProvider));
+        assertEquals("user2", getValue(dataProvider));
+    }
+
+    @Test( expected = ParameterDataProviderInitalizationException.class)
+    public void missingFile() throws AgentException {
+
+        csvFile.delete();
+        createProvider(0, ParameterProviderLevel.PER_INVOCATION);
+    }
+
+    @Test
+    public void getColumn() {
+
+        assertEquals("a", CsvParameterDataProvider.getColumn("a;b;;d", ';', 0));
+        assertEquals("b", CsvParameterDataProvider.getColumn("a;b;;d", ';', 1));
+        assertEquals("", CsvParameterDataProvider.getColumn("a;b;;d", ';', 2));
+        assertEquals("d", CsvParameterDataProvider.getColumn("a;b;;d", ';', 3));
+        assertNull(CsvParameterDataProvider.getColumn("a;b;;d", ';', 4));
+        assertEquals("b;c", CsvParameterDataProvider.getColumn("a;\"b;c\"", ';', 1));
+    }
+
+    private CsvParameterDataProvider createProvider( int columnIndex,
+                                                     ParameterProviderLevel level ) throws AgentException {
+
+        CsvParameterDataProvider dataProvider = new CsvParameterDataProvider("param1",
+                                                                             csvFile.getPath(),
+                                                                             columnIndex,
+                                                                             ',',
+                                                                             true,
+                                                                             0,
+                                                                             1,
+                                                                             level);
+        dataProvider.initialize();
+        return dataProvider;
+    }
+
+    private String getValue( CsvParameterDataProvider dataProvider ) {
+
+        return (String) dataProvider.getValue(new ArrayList<ArgumentValue>()).getValue();
+    }
+}
@@ -19,6 +19,7 @@
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.junit.Test;
 
@@ -73,6 +74,49 @@ public void perInvocationGeneration() {
         assertEquals( "value11", generatedValue.getValue() );
     }
 
+    @Test
+    public void perInvocationGenerationFromManyThreads() throws InterruptedException {
+
+        final int valuesCount = 10;
+        final int threadsCount = 8;
+        final int invocationsPerThread = 1000;
+
+        List<Integer> values = new ArrayList<Integer>();
+        for( int i = 0; i < valuesCount; i++ ) {
+            values.add( i );
+        }
+
+        final ListParameterDataProvider dataProvider = new ListParameterDataProvider( "param1",
+                                                                                      values,
+                                                                                      ParameterProviderLevel.PER_INVOCATION );
+        final AtomicIntegerArray usages = new AtomicIntegerArray( valuesCount );
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for( int i = 0; i < threadsCount; i++ ) {
+            Thread thread = new Thread( new Runnable() {
+
+                @Override
+                public void run() {
+
+                    for( int j = 0; j < invocationsPerThread; j++ ) {
+                        usages.incrementAndGet( ( Integer ) dataProvider.getValue( new ArrayList<ArgumentValue>() )
+                                                                        .getValue() );
+                    }
+                }
+            } );
+            threads.add( thread );
+            thread.start();
+        }
+        for( Thread thread : threads ) {
+            thread.join();
+        }
+
+        // no value is lost or given twice without locking the provider
+        for( int i = 0; i < valuesCount; i++ ) {
+            assertEquals( threadsCount * invocationsPerThread / valuesCount, usages.get( i ) );
+        }
+    }
+
     @Test
     public void whenRangeEndIsReachedProviderGoesBackToRangeStart() {
 
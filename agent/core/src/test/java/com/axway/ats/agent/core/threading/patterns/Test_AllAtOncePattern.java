@@ -145,6 +145,21 @@ public void distributeSeveralHostsUneven() {
         }
     }
 
+    @Test
+    public void distributeKeepsVirtualThreads() {
+
+        AllAtOncePattern pattern = new AllAtOncePattern( 100, true, 20, 500 );
+        pattern.setUseVirtualThreads( true );
+        List<ThreadingPattern> distributedPatterns = pattern.distribute( 3 );
+
+        assertEquals( 3, distributedPatterns.size() );
+        for( ThreadingPattern currentPattern : distributedPatterns ) {
+            assertTrue( currentPattern.isUseVirtualThreads() );
+            assertEquals( "All at once - <number_threads> threads, 20 iterations with 500 ms interval, running on virtual threads",
+                          currentPattern.getPatternDescription() );
+        }
+    }
+
     @Test
     public void distributeOneHost() {
 
@@ -426,6 +426,16 @@ private LoadQueueResult getQueueResult( float queuePassRate,
         int minNumberPassed = Integer.MAX_VALUE; // tells us the number of passed queue iterations
         for (ActionExecutionStatistic statistic : summedQueueStatistics.values()) {
 
+            log.info("Action '" + statistic.getActionName() + "' of queue '" + queueName + "': "
+                     + statistic.getNumberPassed() + " passed, " + statistic.getNumberFailed()
+                     + " failed, " + String.format("%.2f", statistic.getThroughput())
+                     + " executions/sec, response time min/avg/max " + statistic.getMinResponseTime()
+                     + "/" + String.format("%.2f", statistic.getAverageResponseTime()) + "/"
+                     + statistic.getMaxResponseTime() + " ms, 50/90/99 percentiles "
+                     + statistic.getResponseTimePercentile(50) + "/"
+                     + statistic.getResponseTimePercentile(90) + "/"
+                     + statistic.getResponseTimePercentile(99) + " ms");
+
             int executions = statistic.getNumberPassed() + statistic.getNumberFailed();
             if (maxNumberExecutions < executions) {
                 maxNumberExecutions = executions;
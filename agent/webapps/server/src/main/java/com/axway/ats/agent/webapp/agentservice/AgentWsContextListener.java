@@ -29,6 +29,7 @@
 import com.axway.ats.agent.core.configuration.Configurator;
 import com.axway.ats.agent.core.configuration.TemplateActionsConfigurator;
 import com.axway.ats.agent.core.exceptions.AgentException;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
 import com.axway.ats.core.utils.ClasspathUtils;
 
 /**
@@ -37,7 +38,9 @@
  */
 public class AgentWsContextListener implements ServletContextListener {
 
-    private static final Logger log = Logger.getLogger(AgentWsContextListener.class);
+    private static final Logger log                              = Logger.getLogger(AgentWsContextListener.class);
+
+    private static final int    DEFAULT_MAX_CONNECTIONS_PER_HOST = 100;
 
     /*
      * (non-Javadoc)
@@ -58,6 +61,8 @@ public void contextInitialized( ServletContextEvent servletEvent ) {
             // do not rethrow exception as this will stop deployment on incompliant servers like JBoss
         }
 
+        configureHttpKeepAliveConnections();
+
         // create the default web service configurator
         String pathToConfigFile = servletContext.getRealPath("/WEB-INF");
         AgentConfigurator defaultConfigurator = new AgentConfigurator(pathToConfigFile);
@@ -75,6 +80,24 @@ public void contextInitialized( ServletContextEvent servletEvent ) {
         }
     }
 
+    /**
+     * Set the max number of idle keep-alive connections per host used by the template actions.
+     * The standard 'http.maxConnections' Java property applies to the whole JVM and is read only once,
+     * when the first HTTP connection is made, so it must be set here at Agent start.
+     * A value already given by the user is not changed.
+     */
+    private void configureHttpKeepAliveConnections() {
+
+        String maxConnections = System.getProperty("http.maxConnections");
+        if (maxConnections == null) {
+            // the JDK keeps only 5 idle connections per host by default, which is too few for many virtual users
+            maxConnections = String.valueOf(AtsSystemProperties.getPropertyAsNumber(AtsSystemProperties.AGENT__TEMPLATE_ACTIONS_MAX_CONNECTIONS_PER_HOST,
+                                                                                    DEFAULT_MAX_CONNECTIONS_PER_HOST));
+            System.setProperty("http.maxConnections", maxConnections);
+        }
+        log.info("Up to " + maxConnections + " idle HTTP connections per host will be kept for reuse");
+    }
+
     /*
      * (non-Javadoc)
      *
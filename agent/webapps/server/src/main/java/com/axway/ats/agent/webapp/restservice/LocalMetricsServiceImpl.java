@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.agent.webapp.restservice;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import com.axway.ats.agent.core.monitoring.localstore.LocalMetricsStore;
+import com.axway.ats.agent.core.monitoring.localstore.MetricRecord;
+import com.axway.ats.agent.core.monitoring.localstore.Resolution;
+import com.axway.ats.agent.webapp.restservice.model.pojo.ErrorPojo;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.core.utils.HostUtils;
+import com.axway.ats.core.utils.StringUtils;
+
+/**
+ * Range queries over the system monitoring results kept on the agent.
+ * The local store is enabled by the {@link AtsSystemProperties#AGENT__MONITOR_LOCAL_STORE_FOLDER} property.
+ */
+@Path( "localMetrics")
+public class LocalMetricsServiceImpl extends BaseRestServiceImpl {
+
+    /**
+     * @param host the monitored host, the agent host by default
+     * @return the known statistics with their local ids
+     */
+    @GET
+    @Path( "statistics")
+    @Produces( MediaType.APPLICATION_JSON)
+    public Response getStatistics(
+                                   @QueryParam( "host") String host ) {
+
+        try {
+            Map<Integer, String[]> statistics;
+            LocalMetricsStore store = getStore(host);
+            try {
+                statistics = store.getStatistics();
+            } finally {
+                store.release();
+            }
+
+            StringBuilder json = new StringBuilder("{\"statistics\":[");
+            String delimiter = "";
+            for (Map.Entry<Integer, String[]> statistic : statistics.entrySet()) {
+                json.append(delimiter)
+                    .append("{\"id\":")
+                    .append(statistic.getKey())
+                    .append(",\"name\":")
+                    .append(toJsonString(statistic.getValue()[0]))
+                    .append(",\"unit\":")
+                    .append(toJsonString(statistic.getValue()[1]))
+                    .append("}");
+                delimiter = ",";
+            }
+            json.append("]}");
+
+            return Response.ok(json.toString()).build();
+        } catch (Exception e) {
+            return Response.serverError().entity(new ErrorPojo(e)).build();
+        }
+    }
+
+    /**
+     * @param host the monitored host, the agent host by default
+     * @param statisticId the local statistic id, all statistics are returned when not set
+     * @param fromTimestamp start timestamp, inclusive
+     * @param toTimestamp end timestamp, inclusive, the current time by default
+     * @param resolution one of raw, 1s, 10s or 1m. When not set, it is chosen according to the time range
+     * @return the found records ordered by timestamp
+     */
+    @GET
+    @Path( "query")
+    @Produces( MediaType.APPLICATION_JSON)
+    public Response query(
+                           @QueryParam( "host") String host,
+                           @QueryParam( "statisticId") Integer statisticId,
+                           @QueryParam( "from") long fromTimestamp,
+                           @QueryParam( "to") Long toTimestamp,
+                           @QueryParam( "resolution") String resolution ) {
+
+        try {
+            if (toTimestamp == null) {
+                toTimestamp = System.currentTimeMillis();
+            }
+            Resolution queryResolution = StringUtils.isNullOrEmpty(resolution)
+                                                                               ? LocalMetricsStore.pickResolution(fromTimestamp,
+                                                                                                                  toTimestamp)
+                                                                               : Resolution.fromName(resolution);
+
+            List<MetricRecord> records;
+            LocalMetricsStore store = getStore(host);
+            try {
+                records = store.query(statisticId == null
+                                                          ? -1
+                                                          : statisticId,
+                                      fromTimestamp, toTimestamp, queryResolution);
+            } finally {
+                store.release();
+            }
+
+            StringBuilder json = new StringBuilder(64 + records.size() * 96);
+            json.append("{\"resolution\":\"").append(queryResolution.getName()).append("\",\"records\":[");
+            String delimiter = "";
+            for (MetricRecord record : records) {
+                json.append(delimiter)
+                    .append("{\"timestamp\":")
+                    .append(record.getTimestamp())
+                    .append(",\"statisticId\":")
+                    .append(record.getStatisticId())
+                    .append(",\"min\":")
+                    .append(record.getMin())
+                    .append(",\"max\":")
+                    .append(record.getMax())
+                    .append(",\"avg\":")
+                    .append(record.getAvg())
+                    .append(",\"count\":")
+                    .append(record.getCount())
+                    .append("}");
+                delimiter = ",";
+            }
+            json.append("]}");
+
+            return Response.ok(json.toString()).build();
+        } catch (Exception e) {
+            return Response.serverError().entity(new ErrorPojo(e)).build();
+        }
+    }
+
+    private LocalMetricsStore getStore(
+                                        String host ) throws Exception {
+
+        if (StringUtils.isNullOrEmpty(host)) {
+            host = HostUtils.getLocalHostIP();
+        }
+
+        // only the hosts with monitoring results are looked up, no store is created for an unknown host
+        LocalMetricsStore store = LocalMetricsStore.acquireExistingStore(host);
+        if (store == null) {
+            throw new IllegalArgumentException("There are no local monitoring results for host '" + host + "'");
+        }
+        return store;
+    }
+
+    private String toJsonString(
+                                 String value ) {
+
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder json = new StringBuilder(value.length() + 2);
+        json.append('"');
+        for (char ch : value.toCharArray()) {
+            switch (ch) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        json.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        json.append(ch);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
@@ -95,6 +95,8 @@ public String getMessage() {
 
             addInfoAboutRowsInOneSnapshotOnly(msg, equality, firstSnapshot, secondSnapshot);
 
+            addInfoAboutTablesWithDifferentContent(msg, equality);
+
             msg.append("\n");
             return msg.toString();
         }
@@ -115,6 +117,18 @@ private void addInfoAboutTablesInOneSnapshotOnly( StringBuilder msg, DatabaseEqu
         }
     }
 
+    private void addInfoAboutTablesWithDifferentContent( StringBuilder msg, DatabaseEqualityState equality ) {
+
+        List<String> tables = equality.getTablesWithDifferentContent();
+        if (tables.size() > 0) {
+            msg.append("\nTables with different content(the different rows are not known, as the content is saved as fingerprints):");
+            for (String table : tables) {
+                msg.append("\n\t");
+                msg.append(table);
+            }
+        }
+    }
+
     private void addInfoAboutDifferentPrimaryKeys( StringBuilder msg, DatabaseEqualityState equality,
                                                    String firstSnapshot, String secondSnapshot ) {
 
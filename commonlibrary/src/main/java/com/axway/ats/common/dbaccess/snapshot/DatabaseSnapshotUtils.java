@@ -54,6 +54,11 @@ public class DatabaseSnapshotUtils {
 
     public static final String            NODE_ROW                   = "row";
 
+    public static final String            NODE_FINGERPRINT           = "fingerprint";
+    public static final String            ATTR_FINGERPRINT_ROWS      = "rows";
+    public static final String            ATTR_FINGERPRINT_HASH      = "hash";
+    public static final String            ATTR_FINGERPRINT_KEY       = "key";
+
     public static String dateToString(
                                        long timeInMillis ) {
 
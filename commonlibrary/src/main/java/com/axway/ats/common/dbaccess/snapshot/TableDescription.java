@@ -20,6 +20,7 @@
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -154,6 +155,42 @@ public void compare( TableDescription that, List<String> thisValuesList, List<St
                          int thisNumberOfRows, int thatNumberOfRows, IndexMatcher nameComparator,
                          DatabaseEqualityState equality ) {
 
+        Iterator<String> thisSortedValues = null;
+        if (thisValuesList != null) {
+            List<String> sortedValues = new ArrayList<String>(thisValuesList);
+            Collections.sort(sortedValues);
+            thisSortedValues = sortedValues.iterator();
+        }
+        Iterator<String> thatSortedValues = null;
+        if (thatValuesList != null) {
+            List<String> sortedValues = new ArrayList<String>(thatValuesList);
+            Collections.sort(sortedValues);
+            thatSortedValues = sortedValues.iterator();
+        }
+
+        compare(that, thisSortedValues, thatSortedValues, thisNumberOfRows, thatNumberOfRows, nameComparator,
+                equality);
+    }
+
+    /**
+     * Compares two instances of this table.
+     * <p>
+     * The table rows are compared with a merge join, so they must come in natural(lexicographic) order
+     * and are read only once. This way the rows do not need to be kept in memory.
+     * </p>
+     * 
+     * @param that THAT instance
+     * @param thisSortedValues the sorted values in THIS instance
+     * @param thatSortedValues the sorted values in THAT instance
+     * @param thisNumberOfRows the number of rows in THIS instance or -1 if not known. When known, it is used
+     * instead of the number of the given values, as these may be a part of the table rows only
+     * @param thatNumberOfRows the number of rows in THAT instance or -1 if not known
+     * @param equality
+     */
+    public void compare( TableDescription that, Iterator<String> thisSortedValues,
+                         Iterator<String> thatSortedValues, int thisNumberOfRows, int thatNumberOfRows,
+                         IndexMatcher nameComparator, DatabaseEqualityState equality ) {
+
         boolean tablesAreSame = true;
 
         // check primary key column
@@ -171,28 +208,48 @@ public void compare( TableDescription that, List<String> thisValuesList, List<St
 
         // check the table content only if columns are same or the value lists are not initialized
         if (sameColumnNames) {
-            if (thisValuesList != null && thatValuesList != null) {
+            if (thisSortedValues != null && thatSortedValues != null) {
+
+                int thisSize = 0;
+                int thatSize = 0;
+
+                // walk both sorted sequences at the same time,
+                // a row present on one side only is reported as unexpected difference
+                String thisRow = next(thisSortedValues);
+                String thatRow = next(thatSortedValues);
+                while (thisRow != null || thatRow != null) {
+                    int compareResult;
+                    if (thisRow == null) {
+                        compareResult = 1;
+                    } else if (thatRow == null) {
+                        compareResult = -1;
+                    } else {
+                        compareResult = thisRow.compareTo(thatRow);
+                    }
 
-                // check the table size
-                if (thisValuesList.size() != thatValuesList.size()) {
-                    tablesAreSame = false;
-                    equality.addDifferentNumberOfRows(this.snapshotName, that.snapshotName,
-                                                      thisValuesList.size(), thatValuesList.size(), name);
+                    if (compareResult == 0) {
+                        thisSize++;
+                        thatSize++;
+                        thisRow = next(thisSortedValues);
+                        thatRow = next(thatSortedValues);
+                    } else if (compareResult < 0) {
+                        tablesAreSame = false;
+                        equality.addRowPresentInOneSnapshotOnly(this.snapshotName, name, thisRow);
+                        thisSize++;
+                        thisRow = next(thisSortedValues);
+                    } else {
+                        tablesAreSame = false;
+                        equality.addRowPresentInOneSnapshotOnly(that.snapshotName, name, thatRow);
+                        thatSize++;
+                        thatRow = next(thatSortedValues);
+                    }
                 }
 
-                // check the table content
-                removeSameRows(thisValuesList, thatValuesList);
-                removeSameRows(thatValuesList, thisValuesList);
-
-                // now if there are left rows, we report them as unexpected
-                // differences
-                for (String row : thisValuesList) {
-                    tablesAreSame = false;
-                    equality.addRowPresentInOneSnapshotOnly(this.snapshotName, name, row);
-                }
-                for (String row : thatValuesList) {
+                // check the table size, unless the real number of rows is given
+                if (thisNumberOfRows == -1 && thisSize != thatSize) {
                     tablesAreSame = false;
-                    equality.addRowPresentInOneSnapshotOnly(that.snapshotName, name, row);
+                    equality.addDifferentNumberOfRows(this.snapshotName, that.snapshotName, thisSize, thatSize,
+                                                      name);
                 }
             }
         } else {
@@ -212,22 +269,12 @@ public void compare( TableDescription that, List<String> thisValuesList, List<St
         }
     }
 
-    private void removeSameRows( List<String> someRows, List<String> otherRows ) {
-
-        Iterator<String> someIt = someRows.iterator();
-        while (someIt.hasNext()) {
-            String someRow = someIt.next();
+    private String next( Iterator<String> values ) {
 
-            Iterator<String> otherIt = otherRows.iterator();
-            while (otherIt.hasNext()) {
-                String otherRow = otherIt.next();
-                if (someRow.equals(otherRow)) {
-                    someIt.remove();
-                    otherIt.remove();
-                    break;
-                }
-            }
+        if (values.hasNext()) {
+            return values.next();
         }
+        return null;
     }
 
     private boolean checkColumns( TableDescription that, DatabaseEqualityState equality ) {
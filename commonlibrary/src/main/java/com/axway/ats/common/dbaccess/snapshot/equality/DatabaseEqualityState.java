@@ -18,7 +18,9 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
 import com.axway.ats.common.PublicAtsApi;
 
@@ -52,6 +54,10 @@ public class DatabaseEqualityState {
     // <snapshot <table, <indexes> >> we are using TreeMap in order to use save order regardless of the JDK
     private Map<String, Map<String, List<String>>> indexPresentInOneSnapshotOnly  = new TreeMap<>();
 
+    // tables which content is different, but the different rows are not known
+    // as at least one of the snapshots keeps content fingerprints only
+    private Set<String>                            tablesWithDifferentContent     = new TreeSet<>();
+
     public DatabaseEqualityState( String firstSnapshotName, String secondSnapshotName ) {
 
         this.firstSnapshotName = firstSnapshotName;
@@ -84,7 +90,8 @@ public boolean hasDifferences() {
 
         return tablePresentInOneSnapshotOnly.size() > 0 || differentPrimaryKeys.size() > 0
                || differentNumberOfRows.size() > 0 || rowPresentInOneSnapshotOnly.size() > 0
-               || columnPresentInOneSnapshotOnly.size() > 0 || indexPresentInOneSnapshotOnly.size() > 0;
+               || columnPresentInOneSnapshotOnly.size() > 0 || indexPresentInOneSnapshotOnly.size() > 0
+               || tablesWithDifferentContent.size() > 0;
     }
 
     /**
@@ -436,6 +443,23 @@ public void addRowPresentInOneSnapshotOnly( String snapshotName, String table, S
         rowsPerTable.add(rowValues);
     }
 
+    /**
+     * Get list of tables with different content, when the different rows are not known.<br>
+     * This happens when a snapshot is loaded from a file which keeps content fingerprints instead of table rows.
+     * 
+     * @return tables with different content
+     */
+    @PublicAtsApi
+    public List<String> getTablesWithDifferentContent() {
+
+        return new ArrayList<>(tablesWithDifferentContent);
+    }
+
+    public void addTableWithDifferentContent( String table ) {
+
+        tablesWithDifferentContent.add(table);
+    }
+
     public void clearDifferentNumberOfRowsForTable( String tableName ) {
 
         // check if the table have different rows
@@ -478,6 +502,59 @@ public void clearRowsPresentedInOneSnapshotOnly( String tableName ) {
         }
     }
 
+    /**
+     * Add all differences found in another equality state, for example when some tables
+     * are compared in parallel, each one into its own equality state.
+     * 
+     * @param that the other equality state
+     */
+    public void merge( DatabaseEqualityState that ) {
+
+        for (Map.Entry<String, List<String>> entry : that.tablePresentInOneSnapshotOnly.entrySet()) {
+            for (String table : entry.getValue()) {
+                addTablePresentInOneSnapshotOnly(entry.getKey(), table);
+            }
+        }
+        mergeValuesPerTable(differentPrimaryKeys, that.differentPrimaryKeys);
+        mergeValuesPerTable(differentNumberOfRows, that.differentNumberOfRows);
+        mergeEntitiesPerTable(rowPresentInOneSnapshotOnly, that.rowPresentInOneSnapshotOnly);
+        mergeEntitiesPerTable(columnPresentInOneSnapshotOnly, that.columnPresentInOneSnapshotOnly);
+        mergeEntitiesPerTable(indexPresentInOneSnapshotOnly, that.indexPresentInOneSnapshotOnly);
+        tablesWithDifferentContent.addAll(that.tablesWithDifferentContent);
+    }
+
+    private <T> void mergeValuesPerTable( Map<String, Map<String, T>> these, Map<String, Map<String, T>> those ) {
+
+        for (Map.Entry<String, Map<String, T>> entry : those.entrySet()) {
+            Map<String, T> valuesPerTable = these.get(entry.getKey());
+            if (valuesPerTable == null) {
+                valuesPerTable = new TreeMap<>();
+                these.put(entry.getKey(), valuesPerTable);
+            }
+            valuesPerTable.putAll(entry.getValue());
+        }
+    }
+
+    private void mergeEntitiesPerTable( Map<String, Map<String, List<String>>> these,
+                                        Map<String, Map<String, List<String>>> those ) {
+
+        for (Map.Entry<String, Map<String, List<String>>> entry : those.entrySet()) {
+            Map<String, List<String>> entitiesPerTable = these.get(entry.getKey());
+            if (entitiesPerTable == null) {
+                entitiesPerTable = new TreeMap<>();
+                these.put(entry.getKey(), entitiesPerTable);
+            }
+            for (Map.Entry<String, List<String>> tableEntry : entry.getValue().entrySet()) {
+                List<String> entities = entitiesPerTable.get(tableEntry.getKey());
+                if (entities == null) {
+                    entities = new ArrayList<>();
+                    entitiesPerTable.put(tableEntry.getKey(), entities);
+                }
+                entities.addAll(tableEntry.getValue());
+            }
+        }
+    }
+
     private List<String> breakIntoTables( Map<String, Map<String, List<String>>> entities, String snapshot ) {
 
         List<String> tables = new ArrayList<>();
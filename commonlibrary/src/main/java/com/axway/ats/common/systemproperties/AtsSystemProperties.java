@@ -31,6 +31,19 @@ public class AtsSystemProperties {
     public static final String ACTION__PROCESS_OUTPUT_POLL_INTERVAL                              = "ats.action.process.output.polling.interval";
     public static final int    ACTION__PROCESS_OUTPUT_POLL_INTERVAL_DEFAULT                      = 500;                                                            // ms
 
+    /** How many rows of a table are kept in memory when taking a database snapshot, the rest are spilled to temporary files */
+    @PublicAtsApi
+    public static final String ACTION__DB_SNAPSHOT_MAX_ROWS_IN_MEMORY                            = "ats.action.db.snapshot.max.rows.in.memory";
+    public static final int    ACTION__DB_SNAPSHOT_MAX_ROWS_IN_MEMORY_DEFAULT                    = 100000;
+    /** How many rows are fetched from the database at once when taking a database snapshot */
+    @PublicAtsApi
+    public static final String ACTION__DB_SNAPSHOT_FETCH_SIZE                                    = "ats.action.db.snapshot.fetch.size";
+    public static final int    ACTION__DB_SNAPSHOT_FETCH_SIZE_DEFAULT                            = 1000;
+    /** How many tables are processed at the same time when taking or comparing database snapshots */
+    @PublicAtsApi
+    public static final String ACTION__DB_SNAPSHOT_PARALLELISM                                   = "ats.action.db.snapshot.parallelism";
+    public static final int    ACTION__DB_SNAPSHOT_PARALLELISM_DEFAULT                           = 1;
+
     // Agent properties
     @PublicAtsApi
     public static final String DEFAULT_AGENT_PORT_KEY                                            = "ats.agent.default.port";
@@ -42,6 +55,23 @@ public class AtsSystemProperties {
     public static final String AGENT__MONITOR_POLL_INTERVAL                                      = "ats.agent.monitor.poll.interval";
     @PublicAtsApi
     public static final String AGENT__MONITOR_INITIAL_POLL_DELAY                                 = "ats.agent.monitor.initial.poll.delay";
+    /** How often (in seconds) the system monitoring results are sent to the log DB.<br>
+     * The results of all polls in between are kept on the agent and are sent together.
+     * Default value is 0, meaning the results are sent after each poll
+     * */
+    @PublicAtsApi
+    public static final String AGENT__MONITOR_FLUSH_INTERVAL                                     = "ats.agent.monitor.flush.interval";
+    /** Folder where the agent keeps a local copy of all system monitoring results, together with
+     * their 1 second, 10 seconds and 1 minute aggregations.<br>
+     * These results can be queried through the agent REST API. Not set by default, meaning the results are not stored locally
+     * */
+    @PublicAtsApi
+    public static final String AGENT__MONITOR_LOCAL_STORE_FOLDER                                 = "ats.agent.monitor.local.store.folder";
+    /** Maximum number of segment files kept for each resolution in the local monitoring store.
+     * The oldest segment is deleted when a new one is created */
+    @PublicAtsApi
+    public static final String AGENT__MONITOR_LOCAL_STORE_MAX_SEGMENTS                           = "ats.agent.monitor.local.store.max.segments";
+    public static final int    AGENT__MONITOR_LOCAL_STORE_MAX_SEGMENTS_DEFAULT                   = 256;
     @PublicAtsApi
     public static final String AGENT__COMPONENTS_FOLDER                                          = "ats.agent.components.folder";
 
@@ -51,6 +81,27 @@ public class AtsSystemProperties {
     public static final String AGENT__TEMPLATE_ACTIONS_FOLDER                                    = "ats.agent.template.actions.folder";
     public static final String AGENT__TEMPLATE_ACTIONS_MATCH_FILES_BY_SIZE                       = "ats.agent.template.actions.match.files.by.size";
     public static final String AGENT__TEMPLATE_ACTIONS_MATCH_FILES_BY_CONTENT                    = "ats.agent.template.actions.match.files.by.content";
+    /**
+     * Max number of idle keep-alive connections kept for each target host of the template actions.
+     * It is applied once, when the Agent web application starts, as the value of the standard
+     * 'http.maxConnections' Java property, so it affects all HTTP connections of the Agent JVM.
+     * Not applied when 'http.maxConnections' is already set. Default is 100
+     */
+    @PublicAtsApi
+    public static final String AGENT__TEMPLATE_ACTIONS_MAX_CONNECTIONS_PER_HOST                  = "ats.agent.template.actions.max.connections.per.host";
+
+    /** Used when the checkpoint log level is AGGREGATED.<br>
+     * How often (in seconds) the aggregated checkpoint summaries are sent to the log DB.
+     * They are always sent when the queue threads end.
+     * Default value is 10
+     * */
+    @PublicAtsApi
+    public static final String AGENT__CHECKPOINTS_AGGREGATION_FLUSH_INTERVAL                     = "ats.agent.checkpoints.aggregation.flush.interval";
+    /** Used when the checkpoint log level is AGGREGATED.<br>
+     * Every N-th checkpoint is still logged as a separate DB row. Default value is 0, meaning no rows are logged
+     * */
+    @PublicAtsApi
+    public static final String AGENT__CHECKPOINTS_AGGREGATION_SAMPLE_EVERY                       = "ats.agent.checkpoints.aggregation.sample.every";
 
     // Log properties
     @PublicAtsApi
@@ -81,6 +132,55 @@ public class AtsSystemProperties {
     @PublicAtsApi
     public static final String LOG__MAX_CACHE_EVENTS_FLUSH_TIMEOUT                               = "ats.log.db.max.cache.events.flush.timeout";
 
+    /** The type of the queue between the logging threads and the DB logging thread(s).<br>
+     * Supported values are "array"(the default) and "mpsc" - a lock-free ring buffer which is preferable
+     * when many threads are logging at the same time, for example on an ATS Agent running load queues
+     * */
+    @PublicAtsApi
+    public static final String LOG__EVENTS_QUEUE_TYPE                                            = "ats.log.events.queue.type";
+
+    /** What to do when the events queue is full. Supported values are:
+     * <ul>
+     * <li>FAIL - throw an exception in the thread that logs. This is the default</li>
+     * <li>BLOCK - the thread that logs waits until there is room in the queue</li>
+     * <li>DROP_BY_LEVEL - drop regular messages with level not higher than
+     * {@link AtsSystemProperties#LOG__EVENTS_QUEUE_DROP_LEVEL}, block for all other events</li>
+     * </ul>
+     * */
+    @PublicAtsApi
+    public static final String LOG__EVENTS_QUEUE_OVERFLOW_POLICY                                 = "ats.log.events.queue.overflow.policy";
+
+    /** The highest level of messages that can be dropped when the events queue is full
+     * and the overflow policy is DROP_BY_LEVEL. Default value is INFO
+     * */
+    @PublicAtsApi
+    public static final String LOG__EVENTS_QUEUE_DROP_LEVEL                                      = "ats.log.events.queue.drop.level";
+
+    /** Number of threads sending events to the log DB on the ATS Agent side.<br>
+     * Each thread uses its own DB connection. Events logged by one thread are always processed in order.
+     * Default value is 1
+     * */
+    @PublicAtsApi
+    public static final String LOG__EVENTS_PROCESSING_THREADS                                    = "ats.log.events.processing.threads";
+
+    // RBV properties
+    /** When set to true, RBV watches the local file system folders for changes, instead of listing
+     * their whole content on each poll. Used on Linux only. Default value is false
+     * */
+    @PublicAtsApi
+    public static final String RBV__FILESYSTEM_WATCH_CHANGES                                     = "ats.rbv.filesystem.watch.changes";
+    /** Number of threads shared by all RBV monitors for polling their storages.
+     * Default value is twice the number of processors, but not less than 4
+     * */
+    @PublicAtsApi
+    public static final String RBV__MONITOR_THREADS                                              = "ats.rbv.monitor.threads";
+    /** Minimum number of meta data entries which are evaluated against the RBV rules in parallel.
+     * Default value is 1000, use 0 to always evaluate in the polling thread
+     * */
+    @PublicAtsApi
+    public static final String RBV__PARALLEL_EVALUATION_THRESHOLD                                = "ats.rbv.parallel.evaluation.threshold";
+    public static final int    RBV__PARALLEL_EVALUATION_THRESHOLD_DEFAULT                        = 1000;
+
     // TestHarness properties
     // Run name for JUnit executions
     @PublicAtsApi
@@ -98,6 +198,22 @@ public class AtsSystemProperties {
     // Java secure channel verbose mode
     @PublicAtsApi
     public static final String CORE__JSCH_VERBOSE_MODE                                           = "ats.core.ssh.verbose.mode";
+    /** Number of parallel streams(TCP connections) used when copying a directory between the
+     * Test Executor and an ATS Agent. Default value is 1, which sends all files over a single stream
+     * */
+    @PublicAtsApi
+    public static final String CORE__FILE_TRANSFER_STREAMS                                       = "ats.core.file.transfer.streams";
+    public static final int    CORE__FILE_TRANSFER_STREAMS_DEFAULT                               = 1;
+    /** When set to true, copying a directory between the Test Executor and an ATS Agent skips the files
+     * which already exist on the target with the same size and modification time. Default value is false
+     * */
+    @PublicAtsApi
+    public static final String CORE__FILE_TRANSFER_SKIP_UNCHANGED_FILES                          = "ats.core.file.transfer.skip.unchanged.files";
+    /** When set to true together with {@link #CORE__FILE_TRANSFER_SKIP_UNCHANGED_FILES}, the files with
+     * the same size and modification time are also compared by their MD5 sum. Default value is false
+     * */
+    @PublicAtsApi
+    public static final String CORE__FILE_TRANSFER_VERIFY_UNCHANGED_FILES_HASH                   = "ats.core.file.transfer.verify.unchanged.files.hash";
 
     /**
      * Toggle whether to log all of the client's (SystemMonitor) requests from the test executor to the monitoring service (ATS Agent)
@@ -131,7 +247,15 @@ public class AtsSystemProperties {
      * 
      * */
     public static final String SYSTEM_MONITORING_PROVIDER                                        = "ats.system.monitoring.provider";
-    
+
+    /**
+     * Toggle whether on Linux the process readings are taken directly from /proc with a single read per process and poll,
+     * instead of asking the monitoring provider for each reading.<br/>
+     * Default value is <strong>true</strong>
+     * */
+    public static final String SYSTEM_MONITOR_USE_PROCFS_SAMPLER                                 = "ats.system.monitor.use.procfs.sampler";
+    public static final boolean SYSTEM_MONITOR_USE_PROCFS_SAMPLER_DEFAULT                        = true;
+
     /**
      * Toggle whether an exception will be thrown if the ATS Framework version is not the same as the Log DB or any of the agents/loaders that are used.<br/>
      * Default value is <strong>false</strong>, which will just log a WARN message.
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.common.dbaccess.snapshot;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.axway.ats.common.dbaccess.snapshot.equality.DatabaseEqualityState;
+
+public class Test_TableDescription {
+
+    @Test
+    public void differentNumberOfRowsInAllRows() {
+
+        RowsCountingEqualityState equality = new RowsCountingEqualityState();
+        getTable("snapshot1").compare(getTable("snapshot2"), Arrays.asList("id=1", "id=2", "id=3"),
+                                      Arrays.asList("id=1", "id=2"), -1, -1, new DefaultIndexMatcher(),
+                                      equality);
+
+        assertEquals(Arrays.asList("3:2"), equality.differentNumberOfRows);
+        assertEquals(Integer.valueOf(3), equality.getDifferentNumberOfRows("snapshot1", "table1"));
+    }
+
+    @Test
+    public void differentNumberOfRowsInSomeChunks() {
+
+        // only the rows of the different chunks are given, but the real number of rows is known
+        RowsCountingEqualityState equality = new RowsCountingEqualityState();
+        getTable("snapshot1").compare(getTable("snapshot2"), Arrays.asList("id=5", "id=6"),
+                                      Arrays.asList("id=5"), 11, 10, new DefaultIndexMatcher(), equality);
+
+        assertEquals(Arrays.asList("11:10"), equality.differentNumberOfRows);
+        assertEquals(Arrays.asList("id=6"),
+                     equality.getRowsPresentInOneSnapshotOnlyAsStrings("snapshot1", "table1"));
+    }
+
+    private TableDescription getTable( String snapshotName ) {
+
+        TableDescription table = new TableDescription();
+        table.setSnapshotName(snapshotName);
+        table.setName("table1");
+        table.setPrimaryKeyColumn("id");
+        table.setColumnDescriptions(Arrays.asList("name=id, type=int"));
+        table.setIndexes(new HashMap<String, String>());
+        return table;
+    }
+
+    /**
+     * Remembers each reported difference in the number of rows
+     */
+    private static class RowsCountingEqualityState extends DatabaseEqualityState {
+
+        private final List<String> differentNumberOfRows = new ArrayList<String>();
+
+        RowsCountingEqualityState() {
+
+            super("snapshot1", "snapshot2");
+        }
+
+        @Override
+        public void addDifferentNumberOfRows( String firstSnapshotName, String secondSnapshotName,
+                                              int firstNumberOfRows, int secondNumberOfRows, String table ) {
+
+            differentNumberOfRows.add(firstNumberOfRows + ":" + secondNumberOfRows);
+            super.addDifferentNumberOfRows(firstSnapshotName, secondSnapshotName, firstNumberOfRows,
+                                           secondNumberOfRows, table);
+        }
+    }
+
+    private static class DefaultIndexMatcher implements IndexMatcher {
+
+        @Override
+        public boolean isSame( String table, String firstName, String secondName ) {
+
+            return firstName.equals(secondName);
+        }
+
+        @Override
+        public boolean isSame( String table, Properties firstProperties, Properties secondProperties ) {
+
+            return true;
+        }
+    }
+}
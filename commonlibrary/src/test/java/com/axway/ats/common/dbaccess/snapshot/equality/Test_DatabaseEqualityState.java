@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.common.dbaccess.snapshot.equality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class Test_DatabaseEqualityState {
+
+    @Test
+    public void mergeTableStates() {
+
+        DatabaseEqualityState equality = new DatabaseEqualityState("snapshot1", "snapshot2");
+        equality.addTablePresentInOneSnapshotOnly("snapshot1", "table0");
+
+        DatabaseEqualityState table1Equality = new DatabaseEqualityState("snapshot1", "snapshot2");
+        table1Equality.addRowPresentInOneSnapshotOnly("snapshot1", "table1", "id=1");
+        table1Equality.addRowPresentInOneSnapshotOnly("snapshot1", "table1", "id=2");
+        table1Equality.addDifferentNumberOfRows("snapshot1", "snapshot2", 3, 1, "table1");
+
+        DatabaseEqualityState table2Equality = new DatabaseEqualityState("snapshot1", "snapshot2");
+        table2Equality.addColumnPresentInOneSnapshotOnly("snapshot2", "table2", "name=col1");
+        table2Equality.addDifferentPrimaryKeys("snapshot1", "snapshot2", "id", "uid", "table2");
+
+        DatabaseEqualityState table3Equality = new DatabaseEqualityState("snapshot1", "snapshot2");
+        assertFalse(table3Equality.hasDifferences());
+
+        equality.merge(table1Equality);
+        equality.merge(table2Equality);
+        equality.merge(table3Equality);
+
+        assertTrue(equality.hasDifferences());
+        assertEquals(Arrays.asList("table0"), equality.getTablesPresentInOneSnapshotOnly("snapshot1"));
+        assertEquals(Arrays.asList("id=1", "id=2"),
+                     equality.getRowsPresentInOneSnapshotOnlyAsStrings("snapshot1", "table1"));
+        assertEquals(Integer.valueOf(3), equality.getDifferentNumberOfRows("snapshot1", "table1"));
+        assertEquals(Integer.valueOf(1), equality.getDifferentNumberOfRows("snapshot2", "table1"));
+        assertEquals(Arrays.asList("table2"), equality.getTablesWithColumnsPresentInOneSnapshotOnly("snapshot2"));
+        assertEquals("uid", equality.getDifferentPrimaryKeys("snapshot2", "table2"));
+    }
+}
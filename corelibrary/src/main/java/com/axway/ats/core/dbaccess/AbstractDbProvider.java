@@ -35,6 +35,13 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.apache.log4j.Logger;
 
@@ -137,72 +144,58 @@ public DbRecordValuesList[] select( com.axway.ats.common.dbaccess.DbQuery dbQuer
     public DbRecordValuesList[] select( com.axway.ats.common.dbaccess.DbQuery dbQuery,
                                         DbReturnModes dbReturnMode ) throws DbException {
 
-        connection = ConnectionPool.getConnection(dbConnection);
+        final ArrayList<DbRecordValuesList> dbRecords = new ArrayList<DbRecordValuesList>();
+        select(dbQuery, dbReturnMode, 0, new Consumer<DbRecordValuesList>() {
+
+            @Override
+            public void accept( DbRecordValuesList recordList ) {
+
+                dbRecords.add(recordList);
+            }
+        });
+
+        return dbRecords.toArray(new DbRecordValuesList[]{});
+    }
+
+    public int select( com.axway.ats.common.dbaccess.DbQuery dbQuery, DbReturnModes dbReturnMode,
+                       int fetchSize, Consumer<DbRecordValuesList> rowHandler ) throws DbException {
+
+        // use a local connection, so more than one thread can select through this provider
+        Connection connection = ConnectionPool.getConnection(dbConnection);
 
         final String errMsg = "Error running or parsing result of sql query '" + dbQuery.getQuery() + "'";
 
-        ArrayList<DbRecordValuesList> dbRecords = new ArrayList<DbRecordValuesList>();
         log.debug(dbQuery.getQuery()); // debug current query
-        try (PreparedStatement st = prepareStatement(connection, dbQuery.getQuery(),
-                                                     dbQuery.getArguments());
-                ResultSet res = st.executeQuery()) {
-
-            ResultSetMetaData rsmd = res.getMetaData();
-
-            int numberOfColumns = rsmd.getColumnCount();
-            int currentRow = 0;
-            while (res.next()) {
-                currentRow++;
-                DbRecordValuesList recordList = new DbRecordValuesList();
-
-                for (int i = 1; i <= numberOfColumns; i++) {
-                    String tableName = rsmd.getTableName(i);
-                    String columnName = rsmd.getColumnName(i);
-                    DbColumn dbColumn = new DbColumn(tableName, columnName);
-                    dbColumn.setColumnType(rsmd.getColumnTypeName(i));
-
-                    DbRecordValue recordValue = null;
-
-                    //get the columns in the appropriate type
-                    try {
-                        //get the columns in the appropriate type
-                        switch (dbReturnMode) {
-                            case OBJECT:
-                                recordValue = parseDbRecordAsObject(dbColumn, res, i);
-                                break;
-
-                            case INPUT_STREAM:
-                                recordValue = parseDbRecordAsInputStream(dbColumn, res, i);
-                                break;
-
-                            case STRING:
-                            case ESCAPED_STRING:
-                                recordValue = parseDbRecordAsString(dbColumn, res, i);
-                                break;
-
-                            default:
-                                throw new DbException("Getting the values as " + dbReturnMode.name()
-                                                      + " is not supported. Table '"
-                                                      + dbColumn.getTableName() + "', column '"
-                                                      + dbColumn.getColumnName() + "'");
-                        }
-                    } finally {
-                        if (recordValue == null) {
-                            // help locate error case when we have exception from the underlying calls in try block
-                            log.error("Error getting value for table '" + tableName + "', row number "
-                                      + currentRow + ",column " + i + ",named '" + columnName + "'");
-                        } else {
-                            // Trace. This could produce huge data so using lowest possible severity.
-                            if (log.isTraceEnabled()) {
-                                log.trace("Value for column " + i + ",named '" + columnName + "' is '"
-                                          + recordValue.getValue() + "'");
-                            }
-                        }
-                    }
-                    recordList.add(recordValue);
+        int currentRow = 0;
+        Boolean initialAutoCommit = null;
+        try {
+            if (fetchSize > 0 && connection.getAutoCommit()) {
+                // some drivers(like PostgreSQL) use a cursor for the fetch size only inside a transaction
+                initialAutoCommit = Boolean.TRUE;
+                connection.setAutoCommit(false);
+            }
+
+            try (PreparedStatement st = prepareStatement(connection, dbQuery.getQuery(),
+                                                         dbQuery.getArguments())) {
+                if (fetchSize > 0) {
+                    st.setFetchSize(fetchSize);
                 }
 
-                dbRecords.add(recordList);
+                try (ResultSet res = st.executeQuery()) {
+                    ResultSetMetaData rsmd = res.getMetaData();
+
+                    int numberOfColumns = rsmd.getColumnCount();
+                    DbColumn[] dbColumns = new DbColumn[numberOfColumns];
+                    for (int i = 1; i <= numberOfColumns; i++) {
+                        dbColumns[i - 1] = new DbColumn(rsmd.getTableName(i), rsmd.getColumnName(i));
+                        dbColumns[i - 1].setColumnType(rsmd.getColumnTypeName(i));
+                    }
+
+                    while (res.next()) {
+                        currentRow++;
+                        rowHandler.accept(parseDbRecord(res, dbColumns, dbReturnMode, currentRow));
+                    }
+                }
             }
             if (log.isDebugEnabled()) {
                 log.debug("Select statement returned " + currentRow + " rows");
@@ -212,10 +205,68 @@ public DbRecordValuesList[] select( com.axway.ats.common.dbaccess.DbQuery dbQuer
         } catch (IOException ioe) {
             throw new DbException(errMsg, ioe);
         } finally {
+            if (initialAutoCommit != null) {
+                try {
+                    // we only read, so just end the transaction before returning the connection to the pool
+                    connection.rollback();
+                    connection.setAutoCommit(initialAutoCommit);
+                } catch (SQLException e) {
+                    log.warn("Unable to restore the auto commit mode of the connection", e);
+                }
+            }
             DbUtils.closeConnection(connection);
         }
 
-        return dbRecords.toArray(new DbRecordValuesList[]{});
+        return currentRow;
+    }
+
+    private DbRecordValuesList parseDbRecord( ResultSet res, DbColumn[] dbColumns, DbReturnModes dbReturnMode,
+                                              int currentRow ) throws IOException, SQLException {
+
+        DbRecordValuesList recordList = new DbRecordValuesList();
+        for (int i = 1; i <= dbColumns.length; i++) {
+            DbColumn dbColumn = dbColumns[i - 1];
+
+            DbRecordValue recordValue = null;
+            try {
+                //get the columns in the appropriate type
+                switch (dbReturnMode) {
+                    case OBJECT:
+                        recordValue = parseDbRecordAsObject(dbColumn, res, i);
+                        break;
+
+                    case INPUT_STREAM:
+                        recordValue = parseDbRecordAsInputStream(dbColumn, res, i);
+                        break;
+
+                    case STRING:
+                    case ESCAPED_STRING:
+                        recordValue = parseDbRecordAsString(dbColumn, res, i);
+                        break;
+
+                    default:
+                        throw new DbException("Getting the values as " + dbReturnMode.name()
+                                              + " is not supported. Table '"
+                                              + dbColumn.getTableName() + "', column '"
+                                              + dbColumn.getColumnName() + "'");
+                }
+            } finally {
+                if (recordValue == null) {
+                    // help locate error case when we have exception from the underlying calls in try block
+                    log.error("Error getting value for table '" + dbColumn.getTableName() + "', row number "
+                              + currentRow + ",column " + i + ",named '" + dbColumn.getColumnName() + "'");
+                } else {
+                    // Trace. This could produce huge data so using lowest possible severity.
+                    if (log.isTraceEnabled()) {
+                        log.trace("Value for column " + i + ",named '" + dbColumn.getColumnName() + "' is '"
+                                  + recordValue.getValue() + "'");
+                    }
+                }
+            }
+            recordList.add(recordValue);
+        }
+
+        return recordList;
     }
 
     protected DbRecordValue parseDbRecordAsObject( DbColumn dbColumn, ResultSet res,
@@ -353,7 +404,7 @@ public int insertRow( String tableName, Map<String, String> columns ) throws DbE
     public int executeUpdate( String query ) throws DbException {
 
         log.debug("Run SQL query: '" + query + "'");
-        connection = ConnectionPool.getConnection(dbConnection);
+        Connection connection = ConnectionPool.getConnection(dbConnection);
         int rowsUpdated = 0;
         PreparedStatement stmnt = null;
         try {
@@ -733,25 +784,39 @@ protected void logDebugInfoForDBValue( Object value, int index,
     @Override
     public List<TableDescription> getTableDescriptions( List<String> tablesToSkip ) {
 
-        Connection connection = ConnectionPool.getConnection(dbConnection);
+        return getTableDescriptions(tablesToSkip, 1);
+    }
 
-        List<TableDescription> tables = new ArrayList<TableDescription>();
+    /**
+     * The tables are listed first, then they are described by up to <code>parallelism</code> threads,
+     * each one using its own connection from the pool.
+     *
+     * @param tablesToSkip list of some tables we are not interested in
+     * @param parallelism maximum number of threads to use
+     * @return description about all important tables, in the order they are returned by the database
+     */
+    @Override
+    public List<TableDescription> getTableDescriptions( List<String> tablesToSkip, int parallelism ) {
 
         if (tablesToSkip == null) {
             tablesToSkip = new ArrayList<>();
         }
-        try {
-            DatabaseMetaData databaseMetaData = connection.getMetaData();
 
-            // ORACLE -> The USER NAME is the TABLE SCHEMA
-            String schemaPattern = (this instanceof OracleDbProvider
-                                                                     ? dbConnection.getUser()
-                                                                     : null);
+        // ORACLE -> The USER NAME is the TABLE SCHEMA
+        String schemaPattern = (this instanceof OracleDbProvider
+                                                                 ? dbConnection.getUser()
+                                                                 : null);
+
+        // MySQL/MariaDB -> The DB NAME is the TABLE SCHEMA
+        schemaPattern = (this instanceof MysqlDbProvider || this instanceof MariaDbDbProvider
+                                                         ? dbConnection.getDb()
+                                                         : schemaPattern);
 
-            // MySQL/MariaDB -> The DB NAME is the TABLE SCHEMA
-            schemaPattern = (this instanceof MysqlDbProvider || this instanceof MariaDbDbProvider
-                                                             ? dbConnection.getDb()
-                                                             : schemaPattern);
+        final List<TableDescription> tables = new ArrayList<TableDescription>();
+
+        Connection connection = ConnectionPool.getConnection(dbConnection);
+        try {
+            DatabaseMetaData databaseMetaData = connection.getMetaData();
 
             ResultSet tablesResultSet = databaseMetaData.getTables(null, schemaPattern, null,
                                                                    new String[]{ "TABLE" });
@@ -775,30 +840,90 @@ public List<TableDescription> getTableDescriptions( List<String> tablesToSkip )
                     continue;
                 }
 
-                log.debug("Extracting description about '" + tableName + "' table");
-
                 TableDescription table = new TableDescription();
                 table.setName(tableName);
                 table.setSchema(tablesResultSet.getString("TABLE_SCHEM"));
-
-                table.setPrimaryKeyColumn(extractPrimaryKeyColumn(tableName, databaseMetaData,
-                                                                  schemaPattern));
-                table.setIndexes(extractTableIndexes(tableName, databaseMetaData,
-                                                     connection.getCatalog()));
-
-                List<String> columnDescriptions = new ArrayList<>();
-                extractTableColumns(tableName, databaseMetaData, schemaPattern, columnDescriptions);
-                table.setColumnDescriptions(columnDescriptions);
-
                 tables.add(table);
             }
+            tablesResultSet.close();
+
+            if (parallelism <= 1 || tables.size() < 2) {
+                for (TableDescription table : tables) {
+                    describeTable(table, databaseMetaData, connection.getCatalog(), schemaPattern);
+                }
+                return tables;
+            }
         } catch (SQLException sqle) {
             throw new DbException("Error extracting DB schema information", sqle);
+        } finally {
+            DbUtils.closeConnection(connection);
+        }
+
+        // describe the tables in parallel, each thread takes the next table which is not described yet
+        final String finalSchemaPattern = schemaPattern;
+        final AtomicInteger nextTableIndex = new AtomicInteger();
+        int numberOfThreads = Math.min(parallelism, tables.size());
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int i = 0; i < numberOfThreads; i++) {
+                results.add(executor.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws SQLException {
+
+                        Connection connection = ConnectionPool.getConnection(dbConnection);
+                        try {
+                            DatabaseMetaData databaseMetaData = connection.getMetaData();
+                            String catalog = connection.getCatalog();
+
+                            int tableIndex;
+                            while ( (tableIndex = nextTableIndex.getAndIncrement()) < tables.size()) {
+                                describeTable(tables.get(tableIndex), databaseMetaData, catalog,
+                                              finalSchemaPattern);
+                            }
+                        } finally {
+                            DbUtils.closeConnection(connection);
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new DbException("Interrupted while extracting DB schema information", ie);
+        } catch (ExecutionException ee) {
+            // the other threads do not need to describe more tables
+            nextTableIndex.set(tables.size());
+            if (ee.getCause() instanceof DbException) {
+                throw (DbException) ee.getCause();
+            }
+            throw new DbException("Error extracting DB schema information", ee.getCause());
+        } finally {
+            executor.shutdownNow();
         }
 
         return tables;
     }
 
+    private void describeTable( TableDescription table, DatabaseMetaData databaseMetaData, String catalog,
+                                String schemaPattern ) throws SQLException {
+
+        String tableName = table.getName();
+        log.debug("Extracting description about '" + tableName + "' table");
+
+        table.setPrimaryKeyColumn(extractPrimaryKeyColumn(tableName, databaseMetaData, schemaPattern));
+        table.setIndexes(extractTableIndexes(tableName, databaseMetaData, catalog));
+
+        List<String> columnDescriptions = new ArrayList<>();
+        extractTableColumns(tableName, databaseMetaData, schemaPattern, columnDescriptions);
+        table.setColumnDescriptions(columnDescriptions);
+    }
+
     /**
      * Each provider can put restrictions on the types of tables to be processed
      *
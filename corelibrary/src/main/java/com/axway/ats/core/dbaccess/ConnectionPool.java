@@ -52,21 +52,24 @@ private ConnectionPool() {
      * @return a JDBC Connection
      * @throws DbException on error
      */
-    public static synchronized Connection getConnection(
-                                                         DbConnection dbConnection ) throws DbException {
+    public static Connection getConnection(
+                                            DbConnection dbConnection ) throws DbException {
 
         // create the connection identifier
         String connectionDescription = dbConnection.getConnHash();
         DataSource dataSource;
 
-        if (dataSourceMap.containsKey(connectionDescription)) {
-            // use the cached connection
-            dataSource = dataSourceMap.get(connectionDescription);
-        } else {
-            dataSource = dbConnection.getDataSource();
-            dataSourceMap.put(connectionDescription, dataSource);
+        synchronized (ConnectionPool.class) {
+            if (dataSourceMap.containsKey(connectionDescription)) {
+                // use the cached connection
+                dataSource = dataSourceMap.get(connectionDescription);
+            } else {
+                dataSource = dbConnection.getDataSource();
+                dataSourceMap.put(connectionDescription, dataSource);
+            }
         }
 
+        // the data source is thread safe, so threads using different connections do not wait for each other here
         try {
             Connection newConnection;
             if (dataSource instanceof BasicDataSource) {
@@ -20,6 +20,7 @@
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.axway.ats.common.dbaccess.snapshot.TableDescription;
 import com.axway.ats.core.dbaccess.exceptions.DbException;
@@ -44,6 +45,17 @@ public interface DbProvider {
      */
     public List<TableDescription> getTableDescriptions( List<String> tablesToSkip );
 
+    /**
+     * @param tablesToSkip list of some tables we are not interested in
+     * @param parallelism maximum number of threads(and DB connections) used for describing the tables.
+     *                    The default implementation does not use more than one thread.
+     * @return description about all important tables
+     */
+    public default List<TableDescription> getTableDescriptions( List<String> tablesToSkip, int parallelism ) {
+
+        return getTableDescriptions(tablesToSkip);
+    }
+
     /**
      * Get the JDBC database metadata.</p> 
      * <b>Note:</b> The connection is not closed as it must remain open while reading the metadata.
@@ -110,6 +122,36 @@ public DbRecordValuesList[] select(
                                         com.axway.ats.common.dbaccess.DbQuery dbQuery,
                                         DbReturnModes dbReturnMode ) throws DbException;
 
+    /**
+     * Execute the select query and pass the returned rows one by one to the row handler,
+     * instead of keeping all of them in memory.
+     * <p>
+     * The rows are read from a forward-only result set. The default implementation
+     * runs {@link #select(com.axway.ats.common.dbaccess.DbQuery, DbReturnModes)}
+     * and passes the already loaded rows.
+     * </p>
+     *
+     * @param dbQuery the select query to execute
+     * @param dbReturnMode the type in which to return the values
+     * @param fetchSize hint for the JDBC driver how many rows to get from the database at once,
+     *                  pass 0 to use the driver's default
+     * @param rowHandler the handler called for each row
+     * @return the number of rows returned
+     * @throws DbException
+     */
+    public default int select(
+                               com.axway.ats.common.dbaccess.DbQuery dbQuery,
+                               DbReturnModes dbReturnMode,
+                               int fetchSize,
+                               Consumer<DbRecordValuesList> rowHandler ) throws DbException {
+
+        DbRecordValuesList[] rows = select(dbQuery, dbReturnMode);
+        for (DbRecordValuesList row : rows) {
+            rowHandler.accept(row);
+        }
+        return rows.length;
+    }
+
     //******************************************************************************
 
     /**
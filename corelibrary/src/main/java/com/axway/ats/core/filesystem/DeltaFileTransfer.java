@@ -0,0 +1,535 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.common.filesystem.FileSystemOperationException;
+import com.axway.ats.core.utils.IoUtils;
+
+/**
+ * Sends a file by transferring only the parts which the receiving side does not have yet,
+ * in the way rsync does it:
+ * <ol>
+ * <li>the sending side tells the size of the file</li>
+ * <li>the receiving side splits its existing copy of the file in blocks and returns a weak rolling checksum and
+ * a strong MD5 checksum for each block</li>
+ * <li>the sending side rolls the weak checksum over its file, byte by byte, and for each match of the weak checksum
+ * it checks the strong one. Then it sends a reference for the matching blocks and the content of the not matching
+ * bytes</li>
+ * <li>the receiving side builds the new file in a temporary file, from the referenced blocks of its old copy and the
+ * received bytes. The SHA-256 sum of the result must be same as the one of the sent file, only then the temporary
+ * file replaces the old copy</li>
+ * </ol>
+ */
+class DeltaFileTransfer {
+
+    private static final Logger log                   = Logger.getLogger(DeltaFileTransfer.class);
+
+    // the block size is about the square root of the file size, but within these limits
+    static final int            MIN_BLOCK_SIZE        = 2 * 1024;
+    static final int            MAX_BLOCK_SIZE        = 128 * 1024;
+
+    private static final String BLOCK_HASH_ALGORITHM  = "MD5";
+    private static final String FILE_HASH_ALGORITHM   = "SHA-256";
+
+    // instructions sent to the receiving side
+    private static final byte   END_INSTRUCTION       = 0;
+    private static final byte   COPY_INSTRUCTION      = 1;
+    private static final byte   DATA_INSTRUCTION      = 2;
+
+    private static final String TEMPORARY_FILE_SUFFIX = ".ats_delta";
+
+    private DeltaFileTransfer() {
+
+    }
+
+    /**
+     * Send a file
+     *
+     * @param file the source file
+     * @param toFileName the target file name
+     * @param output the socket output
+     * @param input the socket input
+     * @param failOnError whether to fail if the file changes its size while sending it
+     * @return the number of sent file content bytes
+     * @throws IOException on network or file read error
+     */
+    static long sendFile( File file, String toFileName, DataOutputStream output, DataInputStream input,
+                          boolean failOnError ) throws IOException {
+
+        long fileSize = file.length();
+
+        writeString(output, LocalFileSystemOperations.DELTA_SOCKET_COMMAND);
+        writeString(output, toFileName);
+        output.writeLong(fileSize);
+        output.flush();
+
+        // the checksums of the blocks which the receiving side already has
+        int blockSize = input.readInt();
+        int blocksCount = input.readInt();
+        Map<Integer, List<Block>> blocks = new HashMap<Integer, List<Block>>(Math.max(16, blocksCount * 2));
+        for (int i = 0; i < blocksCount; i++) {
+            Block block = new Block(i, input.readInt(), new byte[16]);
+            input.readFully(block.strongChecksum);
+            List<Block> sameWeakChecksum = blocks.get(block.weakChecksum);
+            if (sameWeakChecksum == null) {
+                sameWeakChecksum = new ArrayList<Block>(1);
+                blocks.put(block.weakChecksum, sameWeakChecksum);
+            }
+            sameWeakChecksum.add(block);
+        }
+
+        InputStream fileInput = new FileInputStream(file);
+        try {
+            DeltaSender sender = new DeltaSender(file, fileSize, blockSize, blocks, fileInput, output,
+                                                 failOnError);
+            sender.send();
+
+            log.info("File '" + file + "' sent as " + sender.reusedBlocks + " blocks of " + blockSize
+                     + " bytes, which the receiving side already has, and " + sender.sentBytes
+                     + " new bytes, out of " + fileSize + " bytes in total");
+            return sender.sentBytes;
+        } finally {
+            IoUtils.closeStream(fileInput);
+        }
+    }
+
+    /**
+     * Receive a file
+     *
+     * @param socket the socket
+     * @param input the socket input, the command and the file name are already read
+     * @param fileName the target file name
+     * @param progress the transfer counters
+     * @throws IOException on network or file write error or if the resulting file is not same as the sent one
+     */
+    static void receiveFile( Socket socket, DataInputStream input, String fileName,
+                             FileTransferProgress progress ) throws IOException {
+
+        long fileSize = input.readLong();
+
+        File file = new File(fileName);
+        File parentDir = file.getAbsoluteFile().getParentFile();
+        if (!parentDir.exists() && !parentDir.mkdirs() && !parentDir.isDirectory()) {
+            throw new IOException("Could not create parent directories of file '" + file + "'");
+        }
+
+        // no need of a block bigger than the target file
+        long oldFileSize = file.isFile()
+                                         ? file.length()
+                                         : 0;
+        int blockSize = getBlockSize(Math.max(oldFileSize, fileSize));
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(),
+                                                                                LocalFileSystemOperations.FILE_TRANSFER_BUFFER_SIZE));
+        sendChecksums(file, oldFileSize, blockSize, output);
+
+        log.debug("Receiving file: " + fileName + " with size: " + fileSize + " bytes, using " + blockSize
+                  + " bytes blocks of the existing " + oldFileSize + " bytes file");
+
+        File temporaryFile = new File(parentDir, file.getName() + TEMPORARY_FILE_SUFFIX);
+        RandomAccessFile oldFile = null;
+        DataOutputStream fileOutput = null;
+        boolean isFileReady = false;
+        try {
+            if (oldFileSize > 0) {
+                oldFile = new RandomAccessFile(file, "r");
+            }
+            fileOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath()),
+                                                                       LocalFileSystemOperations.FILE_TRANSFER_BUFFER_SIZE));
+            MessageDigest fileDigest = getMessageDigest(FILE_HASH_ALGORITHM);
+            byte[] buffer = new byte[Math.max(blockSize, LocalFileSystemOperations.READ_BUFFER_SIZE)];
+
+            long writtenBytes = 0;
+            byte instruction;
+            while ( (instruction = input.readByte()) != END_INSTRUCTION) {
+                int length;
+                if (instruction == COPY_INSTRUCTION) {
+                    int blockIndex = input.readInt();
+                    long position = (long) blockIndex * blockSize;
+                    if (oldFile == null || blockIndex < 0 || position + blockSize > oldFileSize) {
+                        throw new IOException("Illegal block " + blockIndex + " requested for file '" + file
+                                              + "'");
+                    }
+                    oldFile.seek(position);
+                    oldFile.readFully(buffer, 0, blockSize);
+                    length = blockSize;
+                } else if (instruction == DATA_INSTRUCTION) {
+                    length = input.readInt();
+                    if (length < 0 || length > buffer.length) {
+                        throw new IOException("Illegal data length " + length + " for file '" + file + "'");
+                    }
+                    input.readFully(buffer, 0, length);
+                    progress.addTransferredBytes(length);
+                } else {
+                    throw new IOException("Unknown delta file transfer instruction " + instruction);
+                }
+                fileOutput.write(buffer, 0, length);
+                fileDigest.update(buffer, 0, length);
+                writtenBytes += length;
+            }
+
+            byte[] expectedHash = new byte[fileDigest.getDigestLength()];
+            input.readFully(expectedHash);
+            fileOutput.close();
+
+            if (writtenBytes != fileSize) {
+                throw new IOException("The size of the received file '" + file + "' is " + writtenBytes
+                                      + " bytes, but it must be " + fileSize + " bytes");
+            }
+            if (!Arrays.equals(expectedHash, fileDigest.digest())) {
+                throw new IOException("The " + FILE_HASH_ALGORITHM + " sum of the received file '" + file
+                                      + "' is not same as the one of the sent file");
+            }
+            isFileReady = true;
+        } finally {
+            IoUtils.closeStream(fileOutput);
+            IoUtils.closeStream(oldFile, "Error closing descriptor for file " + fileName);
+            if (!isFileReady) {
+                temporaryFile.delete();
+            }
+        }
+
+        if (oldFile != null) {
+            // the target is replaced, so keep its permissions and owner, as they are kept when writing in place
+            copyFileAttributes(file, temporaryFile);
+        }
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        progress.addTransferredFile();
+        progress.finish();
+    }
+
+    private static void copyFileAttributes( File fromFile, File toFile ) throws IOException {
+
+        PosixFileAttributeView toView = Files.getFileAttributeView(toFile.toPath(),
+                                                                   PosixFileAttributeView.class);
+        if (toView == null) {
+            // not a POSIX file system, only the executable flag can be kept
+            toFile.setExecutable(fromFile.canExecute());
+            return;
+        }
+
+        PosixFileAttributes fromAttributes = Files.readAttributes(fromFile.toPath(), PosixFileAttributes.class);
+        try {
+            toView.setOwner(fromAttributes.owner());
+            toView.setGroup(fromAttributes.group());
+        } catch (IOException ioe) {
+            // usually only privileged users can change the owner
+            log.warn("Could not keep the owner of file '" + fromFile + "': " + ioe.getMessage());
+        }
+        toView.setPermissions(fromAttributes.permissions());
+    }
+
+    static int getBlockSize( long fileSize ) {
+
+        // round to whole kilobytes
+        long blockSize = ((long) Math.sqrt(fileSize) + 1023) / 1024 * 1024;
+        return (int) Math.max(MIN_BLOCK_SIZE, Math.min(MAX_BLOCK_SIZE, blockSize));
+    }
+
+    /**
+     * The weak checksum of the rsync algorithm. It can be rolled over the data by adding the
+     * next byte and removing the first one.
+     */
+    static int weakChecksum( byte[] data, int offset, int length ) {
+
+        int a = 0;
+        int b = 0;
+        for (int i = 0; i < length; i++) {
+            int value = data[offset + i] & 0xff;
+            a += value;
+            b += (length - i) * value;
+        }
+        return toWeakChecksum(a, b);
+    }
+
+    private static int toWeakChecksum( int a, int b ) {
+
+        return (a & 0xffff) | (b << 16);
+    }
+
+    private static void sendChecksums( File file, long fileSize, int blockSize,
+                                       DataOutputStream output ) throws IOException {
+
+        // the last incomplete block is not used, it is cheaper to send it than to look for it
+        int blocksCount = (int) (fileSize / blockSize);
+        output.writeInt(blockSize);
+        output.writeInt(blocksCount);
+        if (blocksCount > 0) {
+            MessageDigest blockDigest = getMessageDigest(BLOCK_HASH_ALGORITHM);
+            byte[] block = new byte[blockSize];
+            DataInputStream fileInput = new DataInputStream(new BufferedInputStream(new FileInputStream(file),
+                                                                                    LocalFileSystemOperations.FILE_TRANSFER_BUFFER_SIZE));
+            try {
+                for (int i = 0; i < blocksCount; i++) {
+                    fileInput.readFully(block);
+                    output.writeInt(weakChecksum(block, 0, blockSize));
+                    output.write(blockDigest.digest(block));
+                }
+            } catch (EOFException eofe) {
+                throw new IOException("File '" + file + "' was truncated while reading its blocks", eofe);
+            } finally {
+                IoUtils.closeStream(fileInput);
+            }
+        }
+        output.flush();
+    }
+
+    private static MessageDigest getMessageDigest( String algorithm ) {
+
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new FileSystemOperationException("No " + algorithm + " message digest available", e);
+        }
+    }
+
+    private static void writeString( DataOutputStream output, String value ) throws IOException {
+
+        byte[] bytes = value.getBytes(LocalFileSystemOperations.DEFAULT_CHARSET);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * A block of the file on the receiving side
+     */
+    private static class Block {
+
+        private final int    index;
+        private final int    weakChecksum;
+        private final byte[] strongChecksum;
+
+        Block( int index, int weakChecksum, byte[] strongChecksum ) {
+
+            this.index = index;
+            this.weakChecksum = weakChecksum;
+            this.strongChecksum = strongChecksum;
+        }
+    }
+
+    /**
+     * Rolls the weak checksum over the file and sends the instructions for building it
+     */
+    private static class DeltaSender {
+
+        private final File                      file;
+        private final long                      fileSize;
+        private final int                       blockSize;
+        private final Map<Integer, List<Block>> blocks;
+        private final InputStream               fileInput;
+        private final DataOutputStream          output;
+        private final boolean                   failOnError;
+
+        private final MessageDigest             blockDigest = getMessageDigest(BLOCK_HASH_ALGORITHM);
+        private final MessageDigest             fileDigest  = getMessageDigest(FILE_HASH_ALGORITHM);
+
+        /*
+         * The file content which is still not sent is kept in this buffer:
+         * the not matching bytes are between 'dataStart' and 'position',
+         * the current block candidate starts at 'position' and the read bytes end at 'end'
+         */
+        private final byte[]                    buffer;
+        private int                             dataStart;
+        private int                             position;
+        private int                             end;
+        private long                            readBytes;
+
+        private long                            sentBytes;
+        private long                            reusedBlocks;
+
+        DeltaSender( File file, long fileSize, int blockSize, Map<Integer, List<Block>> blocks,
+                     InputStream fileInput, DataOutputStream output, boolean failOnError ) {
+
+            this.file = file;
+            this.fileSize = fileSize;
+            this.blockSize = blockSize;
+            this.blocks = blocks;
+            this.fileInput = fileInput;
+            this.output = output;
+            this.failOnError = failOnError;
+            this.buffer = new byte[Math.max(4 * blockSize, LocalFileSystemOperations.FILE_TRANSFER_BUFFER_SIZE)];
+        }
+
+        void send() throws IOException {
+
+            int a = 0;
+            int b = 0;
+            boolean isChecksumValid = false;
+            while (true) {
+                // keep a whole block and the next byte for rolling the checksum
+                while (end - position <= blockSize) {
+                    if (!fill()) {
+                        break;
+                    }
+                }
+                if (end - position < blockSize) {
+                    // the rest is less than a block
+                    break;
+                }
+
+                if (!isChecksumValid) {
+                    a = 0;
+                    b = 0;
+                    for (int i = 0; i < blockSize; i++) {
+                        int value = buffer[position + i] & 0xff;
+                        a += value;
+                        b += (blockSize - i) * value;
+                    }
+                    isChecksumValid = true;
+                }
+
+                Block block = findBlock(toWeakChecksum(a, b));
+                if (block != null) {
+                    sendData();
+                    output.writeByte(COPY_INSTRUCTION);
+                    output.writeInt(block.index);
+                    fileDigest.update(buffer, position, blockSize);
+                    position += blockSize;
+                    dataStart = position;
+                    reusedBlocks++;
+                    isChecksumValid = false;
+                } else if (position + blockSize < end) {
+                    // roll to the next byte
+                    int removedValue = buffer[position] & 0xff;
+                    int addedValue = buffer[position + blockSize] & 0xff;
+                    a += addedValue - removedValue;
+                    b += a - blockSize * removedValue;
+                    position++;
+                    if (position - dataStart >= blockSize) {
+                        // do not keep too much data
+                        sendData();
+                    }
+                } else {
+                    // this was the last block of the file
+                    position = end;
+                    break;
+                }
+            }
+
+            position = end;
+            sendData();
+            output.writeByte(END_INSTRUCTION);
+            output.write(fileDigest.digest());
+            output.flush();
+        }
+
+        /**
+         * Read more of the file
+         *
+         * @return whether something was read
+         */
+        private boolean fill() throws IOException {
+
+            if (readBytes >= fileSize) {
+                return false;
+            }
+
+            if (end == buffer.length) {
+                // move the not sent data at the beginning of the buffer
+                System.arraycopy(buffer, dataStart, buffer, 0, end - dataStart);
+                position -= dataStart;
+                end -= dataStart;
+                dataStart = 0;
+            }
+
+            int count = fileInput.read(buffer, end, (int) Math.min(buffer.length - end, fileSize - readBytes));
+            if (count < 0) {
+                // the file is shrinking while we are sending it
+                long missingBytes = fileSize - readBytes;
+                if (failOnError) {
+                    throw new FileSystemOperationException("The size of file \"" + file.getName()
+                                                           + "\" was decreased with " + missingBytes
+                                                           + " bytes! The initial file size was " + fileSize
+                                                           + ". ATS will ignore this error if you set the failOnError flag to false.");
+                }
+                log.warn("File " + file.getPath() + " is getting smaller while copying it. We will append "
+                         + missingBytes + " zero bytes to reach its initial size of " + fileSize + " bytes");
+                count = (int) Math.min(buffer.length - end, missingBytes);
+                Arrays.fill(buffer, end, end + count, (byte) 0);
+            }
+            end += count;
+            readBytes += count;
+
+            if (readBytes == fileSize && failOnError && fileInput.read() > -1) {
+                throw new FileSystemOperationException("The size of file \"" + file.getName()
+                                                       + "\" was increased while sending it! The initial file size was "
+                                                       + fileSize
+                                                       + ". ATS will ignore this error if you set the failOnError flag to false.");
+            }
+            return true;
+        }
+
+        private Block findBlock( int weakChecksum ) {
+
+            List<Block> candidates = blocks.get(weakChecksum);
+            if (candidates == null) {
+                return null;
+            }
+
+            blockDigest.update(buffer, position, blockSize);
+            byte[] strongChecksum = blockDigest.digest();
+            for (Block candidate : candidates) {
+                if (Arrays.equals(strongChecksum, candidate.strongChecksum)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Send the not matching bytes before the current position
+         */
+        private void sendData() throws IOException {
+
+            int length = position - dataStart;
+            while (length > 0) {
+                // the receiving side reads the data in a buffer of a block size
+                int count = Math.min(length, blockSize);
+                output.writeByte(DATA_INSTRUCTION);
+                output.writeInt(count);
+                output.write(buffer, dataStart, count);
+                fileDigest.update(buffer, dataStart, count);
+                dataStart += count;
+                length -= count;
+                sentBytes += count;
+            }
+        }
+    }
+}
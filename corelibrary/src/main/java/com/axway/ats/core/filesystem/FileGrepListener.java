@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+/**
+ * Receives the lines found by a bulk file grep, while the files are still being searched.
+ * <p>
+ * The files are searched in parallel, but the listener is never called concurrently and
+ * the lines of each file come in the order they are in the file.
+ * </p>
+ */
+public interface FileGrepListener {
+
+    /**
+     * @param fileName the file
+     * @param lineNumber the line number, starting from 1
+     * @param line the matching line
+     */
+    void lineMatched( String fileName, long lineNumber, String line );
+}
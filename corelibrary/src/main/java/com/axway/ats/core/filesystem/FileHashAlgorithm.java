@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.axway.ats.common.filesystem.FileSystemOperationException;
+
+/**
+ * The algorithms for computing file hashes
+ */
+public enum FileHashAlgorithm {
+
+    MD5("MD5"),
+
+    SHA_1("SHA-1"),
+
+    SHA_256("SHA-256"),
+
+    SHA_512("SHA-512"),
+
+    /**
+     * The 64 bit xxHash. It is not a cryptographic hash, but it is much faster than the others
+     */
+    XXHASH_64(XxHash64.ALGORITHM);
+
+    private final String algorithmName;
+
+    private FileHashAlgorithm( String algorithmName ) {
+
+        this.algorithmName = algorithmName;
+    }
+
+    /**
+     * @return the standard name of the algorithm
+     */
+    public String getAlgorithmName() {
+
+        return algorithmName;
+    }
+
+    /**
+     * @return a new digest for this algorithm
+     */
+    MessageDigest newDigest() {
+
+        if (this == XXHASH_64) {
+            return new XxHash64();
+        }
+
+        try {
+            return MessageDigest.getInstance(algorithmName);
+        } catch (NoSuchAlgorithmException e) {
+            throw new FileSystemOperationException(algorithmName + " hash cannot be calculated", e);
+        }
+    }
+}
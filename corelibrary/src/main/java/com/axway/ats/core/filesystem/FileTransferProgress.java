@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of a file or directory transfer. They are updated by all streams of the transfer,
+ * so they can be read at any time to see how the transfer goes.
+ */
+public class FileTransferProgress {
+
+    private final long       startTime        = System.currentTimeMillis();
+    private volatile long    endTime          = -1;
+
+    private final AtomicLong transferredFiles = new AtomicLong();
+    private final AtomicLong skippedFiles     = new AtomicLong();
+    private final AtomicLong transferredBytes = new AtomicLong();
+
+    void addTransferredFile() {
+
+        transferredFiles.incrementAndGet();
+    }
+
+    void addSkippedFile() {
+
+        skippedFiles.incrementAndGet();
+    }
+
+    void addTransferredBytes( long bytes ) {
+
+        transferredBytes.addAndGet(bytes);
+    }
+
+    void finish() {
+
+        // keep the time of the first call
+        if (endTime < 0) {
+            endTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return number of files which are completely transferred
+     */
+    public long getTransferredFiles() {
+
+        return transferredFiles.get();
+    }
+
+    /**
+     * @return number of files which were not transferred as they are not changed on the target
+     */
+    public long getSkippedFiles() {
+
+        return skippedFiles.get();
+    }
+
+    /**
+     * @return number of transferred file content bytes
+     */
+    public long getTransferredBytes() {
+
+        return transferredBytes.get();
+    }
+
+    /**
+     * @return the transfer time in milliseconds, up to now if the transfer is not finished yet
+     */
+    public long getElapsedTime() {
+
+        long end = endTime;
+        return ( (end < 0)
+                           ? System.currentTimeMillis()
+                           : end)
+               - startTime;
+    }
+
+    /**
+     * @return the average throughput in bytes per second
+     */
+    public long getThroughput() {
+
+        long elapsedTime = Math.max(1, getElapsedTime());
+        return getTransferredBytes() * 1000 / elapsedTime;
+    }
+
+    @Override
+    public String toString() {
+
+        return getTransferredFiles() + " files(" + getTransferredBytes() + " bytes) transferred, "
+               + getSkippedFiles() + " unchanged files skipped for " + getElapsedTime() + " ms, "
+               + (getThroughput() / 1024) + " KB/s";
+    }
+}
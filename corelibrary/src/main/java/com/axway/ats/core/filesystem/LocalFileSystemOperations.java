@@ -104,6 +104,13 @@ public class LocalFileSystemOperations implements IFileSystemOperations {
     //file transfer socket commands (during file/directory copy)
     static final String FILE_COPY_SOCKET_COMMAND = "file";
     static final String DIR_CREATE_SOCKET_COMMAND = "dir";
+    // parallel directory transfer commands, see ParallelDirectoryTransfer
+    static final String STREAMS_SOCKET_COMMAND = "streams";
+    static final String MANIFEST_SOCKET_COMMAND = "manifest";
+    static final String FILE_WITH_TIME_SOCKET_COMMAND = "mfile";
+    static final String FILE_CHUNK_SOCKET_COMMAND = "chunk";
+    // delta file transfer command, see DeltaFileTransfer
+    static final String DELTA_SOCKET_COMMAND = "delta";
     static final int INTERNAL_SOCKET_PARAMETER_MAX_LENGTH = 1024;                                             // used for file/dir command and  file name length
     //read buffer
     static final int READ_BUFFER_SIZE = 16384;
@@ -525,9 +532,10 @@ public void copyFileFrom(String sourceFileName, String destinationFile, String h
      * @param isRecursive whether to send content recursively or not
      * @param failOnError set to true if you want to be thrown an exception,
      *                    if there is still a process writing in the file that is being copied
+     * @return the transfer counters
      * @throws FileSystemOperationException
      */
-    public void sendDirectoryTo(
+    public FileTransferProgress sendDirectoryTo(
             String fromDirName,
             String toDirName,
             String toHost,
@@ -549,6 +557,22 @@ public void sendDirectoryTo(
         File fromDir = new File(fromDirName);
         checkFileExistence(fromDir);
 
+        int streams = AtsSystemProperties.getPropertyAsNumber(AtsSystemProperties.CORE__FILE_TRANSFER_STREAMS,
+                AtsSystemProperties.CORE__FILE_TRANSFER_STREAMS_DEFAULT);
+        boolean skipUnchangedFiles = AtsSystemProperties.getPropertyAsBoolean(
+                AtsSystemProperties.CORE__FILE_TRANSFER_SKIP_UNCHANGED_FILES, false);
+        FileTransferProgress progress = new FileTransferProgress();
+        if (streams > 1 || skipUnchangedFiles) {
+            try {
+                ParallelDirectoryTransfer.sendDirectory(fromDir, toDirName, toHost, toPort, isRecursive,
+                        failOnError, progress);
+            } catch (IOException ioe) {
+                throw new FileSystemOperationException("Unable to send directory '" + fromDirName + "' to '"
+                        + toDirName + "' on " + toHost + ":" + toPort, ioe);
+            }
+            return progress;
+        }
+
         Socket socket = null;
         OutputStream sos = null;
         try {
@@ -561,7 +585,8 @@ public void sendDirectoryTo(
                     toDirName,
                     sos,
                     isRecursive,
-                    failOnError);
+                    failOnError,
+                    progress);
         } catch (IOException ioe) {
 
             throw new FileSystemOperationException("Unable to send directory '" + fromDirName + "' to '"
@@ -575,7 +600,9 @@ public void sendDirectoryTo(
                     log.error("Could not close the socket", e);
                 }
             }
+            progress.finish();
         }
+        return progress;
     }
 
     /**
@@ -617,6 +644,47 @@ public void sendFileTo(
         }
     }
 
+    /**
+     * Send file contents to another machine, but only the parts which are not already present in the
+     * destination file. The result is verified with its SHA-256 sum on the destination machine.
+     *
+     * @param fromFileName the source file name
+     * @param toFileName   the destination file name (Not a directory)
+     * @param toHost       the destination host address
+     * @param toPort       the destination port
+     * @param failOnError  set to true if you want to be thrown an exception,
+     *                     if there is still a process writing in the file that is being copied
+     * @throws FileSystemOperationException
+     */
+    public void sendFileDeltaTo(
+            String fromFileName,
+            String toFileName,
+            String toHost,
+            int toPort,
+            boolean failOnError) {
+
+        File file = new File(fromFileName);
+        checkFileExistence(file);
+
+        Socket socket = null;
+        try {
+
+            socket = new Socket(toHost, toPort);
+            DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(),
+                    FILE_TRANSFER_BUFFER_SIZE));
+            DataInputStream dis = new DataInputStream(new BufferedInputStream(socket.getInputStream(),
+                    FILE_TRANSFER_BUFFER_SIZE));
+
+            DeltaFileTransfer.sendFile(file, toFileName, dos, dis, failOnError);
+        } catch (IOException ioe) {
+
+            throw new FileSystemOperationException("Unable to send file '" + fromFileName + "' to '"
+                    + toFileName + "' on " + toHost + ":" + toPort, ioe);
+        } finally {
+            IoUtils.closeStream(socket, "Could not close the socket for sending file " + fromFileName);
+        }
+    }
+
     /**
      * Set port range for copy file operations
      *
@@ -719,6 +787,14 @@ public void run() {
                         for (; ; ) {
                             checkParamLengthForSocketTransfer(fdTypeLength, "file type length");
                             String fdType = readString(dis, fdTypeLength); // directory or file
+                            if (fdType.equals(STREAMS_SOCKET_COMMAND)) {
+                                // a directory is sent over parallel streams, they all end here
+                                ParallelDirectoryTransfer.receiveDirectory(server, socket,
+                                        new DataInputStream(new BufferedInputStream(dis,
+                                                FILE_TRANSFER_BUFFER_SIZE)),
+                                        transferStatus.progress);
+                                break;
+                            }
                             int fileNameLength = dis.readInt();
                             checkParamLengthForSocketTransfer(fileNameLength, "file name length");
                             fileName = readString(dis, fileNameLength);
@@ -756,8 +832,18 @@ public void run() {
                                     fos.write(buff, 0, readBytes);
                                     fos.flush();
                                     fileSize -= readBytes;
+                                    transferStatus.progress.addTransferredBytes(readBytes);
                                 }
                                 IoUtils.closeStream(fos);
+                                transferStatus.progress.addTransferredFile();
+                            } else if (fdType.equals(DELTA_SOCKET_COMMAND)) {
+
+                                // only the changed parts of the file are sent, this is the only file on this socket
+                                DeltaFileTransfer.receiveFile(socket,
+                                        new DataInputStream(new BufferedInputStream(dis,
+                                                FILE_TRANSFER_BUFFER_SIZE)),
+                                        fileName, transferStatus.progress);
+                                break;
                             } else if (fdType.equals(DIR_CREATE_SOCKET_COMMAND)) {
 
                                 if (!file.exists()) {
@@ -799,6 +885,8 @@ public void run() {
                                         + fileName);
                         IoUtils.closeStream(server, "Could not close the ServerSocket while trying to transfer "
                                 + "file " + fileName);
+                        // the parallel and delta transfers have already finished their counters
+                        transferStatus.progress.finish();
                         synchronized (transferStatus) {
                             transferStatus.finished = true;
                             transferStatus.notify();
@@ -936,6 +1024,22 @@ public void run() {
         return freePort;
     }
 
+    /**
+     * Get the counters of a file transfer, which is still not completed
+     *
+     * @param port the port returned by {@link #openFileTransferSocket()}
+     * @return the transfer progress or null if there is no such transfer
+     */
+    public FileTransferProgress getFileTransferProgress(
+            int port) {
+
+        FileTransferStatus transferStatus = fileTransferStates.get(port);
+        if (transferStatus == null) {
+            return null;
+        }
+        return transferStatus.progress;
+    }
+
     /**
      * Waits the file transfer on a specific port to complete
      *
@@ -1484,6 +1588,38 @@ public String computeMd5Sum(
         return StringUtils.byteArray2Hex(digest.digest());
     }
 
+    /**
+     * Compute the hashes of many files in parallel. Big files are memory mapped.
+     *
+     * @param fileNames the files
+     * @param algorithm the hash algorithm
+     * @return file name to hex encoded hash, in the order of the given files
+     * @throws FileSystemOperationException
+     */
+    public Map<String, String> computeFileHashes(
+            String[] fileNames,
+            FileHashAlgorithm algorithm) {
+
+        return ParallelFileProcessor.computeHashes(getFiles(fileNames), algorithm);
+    }
+
+    /**
+     * Compute the hashes of all files in a directory in parallel. Big files are memory mapped.
+     *
+     * @param directoryName the directory
+     * @param isRecursive   whether to hash the files in the sub-directories
+     * @param algorithm     the hash algorithm
+     * @return file name to hex encoded hash, the files are sorted by name
+     * @throws FileSystemOperationException
+     */
+    public Map<String, String> computeDirectoryHashes(
+            String directoryName,
+            boolean isRecursive,
+            FileHashAlgorithm algorithm) {
+
+        return ParallelFileProcessor.computeHashes(getDirectoryFiles(directoryName, isRecursive), algorithm);
+    }
+
     @Override
     public void createDirectory(
             String directoryName) {
@@ -1781,6 +1917,106 @@ public String[] fileGrep(
         return matchedLines.toArray(new String[0]);
     }
 
+    /**
+     * Find lines in many files which match given pattern. The files are searched in parallel and
+     * the matching lines are passed to the listener while the search goes on.
+     *
+     * @param fileNames     the files
+     * @param searchPattern pattern to match. <em>Note</em> that patter should match whole line so usually wildcards
+     *                      should be set in front and at the end
+     * @param isSimpleMode  when true we should support * and ? as wildcard characters
+     * @param listener      receives the matching lines
+     * @return the number of matching lines
+     * @throws FileSystemOperationException
+     */
+    public long fileGrep(
+            String[] fileNames,
+            String searchPattern,
+            boolean isSimpleMode,
+            FileGrepListener listener) {
+
+        if (isSimpleMode) {
+            searchPattern = constructRegex(searchPattern);
+        }
+
+        return ParallelFileProcessor.grep(getFiles(fileNames), searchPattern, Charset.defaultCharset(), listener);
+    }
+
+    /**
+     * Find lines in all files of a directory which match given pattern. The files are searched in parallel and
+     * the matching lines are passed to the listener while the search goes on.
+     *
+     * @param directoryName the directory
+     * @param isRecursive   whether to search the files in the sub-directories
+     * @param searchPattern pattern to match. <em>Note</em> that patter should match whole line so usually wildcards
+     *                      should be set in front and at the end
+     * @param isSimpleMode  when true we should support * and ? as wildcard characters
+     * @param listener      receives the matching lines
+     * @return the number of matching lines
+     * @throws FileSystemOperationException
+     */
+    public long directoryGrep(
+            String directoryName,
+            boolean isRecursive,
+            String searchPattern,
+            boolean isSimpleMode,
+            FileGrepListener listener) {
+
+        if (isSimpleMode) {
+            searchPattern = constructRegex(searchPattern);
+        }
+
+        return ParallelFileProcessor.grep(getDirectoryFiles(directoryName, isRecursive), searchPattern,
+                Charset.defaultCharset(), listener);
+    }
+
+    private List<File> getFiles(
+            String[] fileNames) {
+
+        List<File> files = new ArrayList<File>(fileNames.length);
+        for (String fileName : fileNames) {
+            File file = new File(fileName);
+            checkFileExistence(file);
+            files.add(file);
+        }
+        return files;
+    }
+
+    private List<File> getDirectoryFiles(
+            String directoryName,
+            boolean isRecursive) {
+
+        File directory = new File(directoryName);
+        if (!directory.isDirectory()) {
+            throw new FileSystemOperationException("Could not read directory '" + directoryName
+                    + "'. It does not exist or it is not a directory");
+        }
+
+        List<File> files = new ArrayList<File>();
+        addDirectoryFiles(directory, isRecursive, files);
+        return files;
+    }
+
+    private void addDirectoryFiles(
+            File directory,
+            boolean isRecursive,
+            List<File> files) {
+
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+
+        Arrays.sort(children);
+        for (File child : children) {
+            if (child.isFile()) {
+                files.add(child);
+            } else if (isRecursive && child.isDirectory()) {
+                addDirectoryFiles(child, isRecursive, files);
+            }
+        }
+    }
+
     /**
      * <pre>
      * Acquires an exclusive lock on a file
@@ -2312,6 +2548,7 @@ private void checkAttributeOsSupport(
      * @param isRecursive  whether to send files/folders recursively or not
      * @param failOnError  set to true if you want to be thrown an exception,
      *                     if there is still a process writing in the file that is being copied
+     * @param progress     the transfer counters
      * @throws FileDoesNotExistException
      * @throws IOException
      */
@@ -2321,7 +2558,8 @@ private void sendFilesToSocketStream(
             String toDirName,
             OutputStream outputStream,
             boolean isRecursive,
-            boolean failOnError) throws FileDoesNotExistException,
+            boolean failOnError,
+            FileTransferProgress progress) throws FileDoesNotExistException,
             IOException {
 
         if (files != null) {
@@ -2345,6 +2583,10 @@ private void sendFilesToSocketStream(
                 String toFileName = fileName.replace(fromDirName, toDirName);
 
                 sendFileToSocketStream(file, toFileName, outputStream, failOnError);
+                if (file.isFile()) {
+                    progress.addTransferredBytes(file.length());
+                    progress.addTransferredFile();
+                }
                 if (file.isDirectory() && isRecursive) {
                     /* Append slash, so we can concatenate files properly.
                      * Even though, on Windows, we well concatenate slash as well,
@@ -2359,7 +2601,8 @@ private void sendFilesToSocketStream(
                             toFileName,
                             outputStream,
                             isRecursive,
-                            failOnError);
+                            failOnError,
+                            progress);
                 }
             }
         }
@@ -2953,5 +3196,9 @@ class FileTransferStatus {
          * Any exception that might be caught in the file/dir reading thread.
          */
         Exception transferException;
+        /**
+         * The counters of a file or directory transfer, updated by all receiving paths
+         */
+        final FileTransferProgress progress = new FileTransferProgress();
     }
 }
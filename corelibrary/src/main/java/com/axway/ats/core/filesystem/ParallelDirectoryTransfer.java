@@ -0,0 +1,775 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.common.filesystem.FileSystemOperationException;
+import com.axway.ats.common.filesystem.Md5SumMode;
+import com.axway.ats.common.system.OperatingSystemType;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.core.utils.IoUtils;
+
+/**
+ * Transfers a directory tree over a few parallel socket streams.
+ * <p>
+ * All streams connect to the same file transfer port. Each stream starts with a
+ * {@value LocalFileSystemOperations#STREAMS_SOCKET_COMMAND} header, which tells the receiving side
+ * how many streams to expect, then the files are sent as frames:
+ * <ul>
+ * <li>small files are sent as a whole and many of them go through the stream buffer in one network write</li>
+ * <li>big files are split in chunks, which are sent over different streams</li>
+ * <li>when unchanged files are skipped, the first stream starts with a manifest with the size and modification
+ * time(and optionally the MD5 sum) of all files and the receiving side answers which files it needs</li>
+ * </ul>
+ * The receiving side writes the file content with {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}
+ * and sets the modification time of each received file to the one of the source file.
+ * </p>
+ */
+class ParallelDirectoryTransfer {
+
+    private static final Logger              log             = Logger.getLogger(ParallelDirectoryTransfer.class);
+
+    private static final OperatingSystemType OS_TYPE         = OperatingSystemType.getCurrentOsType();
+
+    // files up to this size are copied into the stream buffer together with their frame header
+    static final int                         SMALL_FILE_SIZE = 64 * 1024;
+    // bigger files are split in chunks of this size
+    static final int                         CHUNK_SIZE      = 8 * 1024 * 1024;
+
+    private ParallelDirectoryTransfer() {
+
+    }
+
+    /**
+     * Send a directory
+     *
+     * @param fromDir the source directory
+     * @param toDirName the target directory name
+     * @param toHost the receiving host
+     * @param toPort the receiving port
+     * @param isRecursive whether to send the content of the sub-directories
+     * @param failOnError whether to fail if a file changes its size while sending it
+     * @param progress the transfer counters
+     * @throws IOException on network or file read error
+     */
+    static void sendDirectory( File fromDir, String toDirName, String toHost, int toPort, boolean isRecursive,
+                               boolean failOnError, FileTransferProgress progress ) throws IOException {
+
+        int streamsCount = AtsSystemProperties.getPropertyAsNumber(AtsSystemProperties.CORE__FILE_TRANSFER_STREAMS,
+                                                                   AtsSystemProperties.CORE__FILE_TRANSFER_STREAMS_DEFAULT);
+        boolean skipUnchangedFiles = AtsSystemProperties.getPropertyAsBoolean(AtsSystemProperties.CORE__FILE_TRANSFER_SKIP_UNCHANGED_FILES,
+                                                                              false);
+        boolean verifyHash = AtsSystemProperties.getPropertyAsBoolean(AtsSystemProperties.CORE__FILE_TRANSFER_VERIFY_UNCHANGED_FILES_HASH,
+                                                                      false);
+
+        List<String> directories = new ArrayList<String>();
+        List<SourceFile> files = new ArrayList<SourceFile>();
+        directories.add(toDirName);
+        collectFiles(fromDir, toDirName, isRecursive, directories, files);
+
+        // no need of more streams than the number of files
+        streamsCount = Math.max(1, Math.min(streamsCount, files.size()));
+
+        List<SenderStream> streams = new ArrayList<SenderStream>(streamsCount);
+        try {
+            for (int i = 0; i < streamsCount; i++) {
+                SenderStream stream = new SenderStream(toHost, toPort, failOnError, progress);
+                stream.writeHeader(i, streamsCount);
+                streams.add(stream);
+            }
+
+            if (skipUnchangedFiles) {
+                files = streams.get(0).exchangeManifest(files, verifyHash);
+            }
+
+            // the chunks of the big files go first, so all streams finish at about the same time
+            Queue<Object> frames = new ConcurrentLinkedQueue<Object>();
+            frames.addAll(directories);
+            List<SourceFile> smallFiles = new ArrayList<SourceFile>();
+            for (SourceFile file : files) {
+                if (file.size > SMALL_FILE_SIZE) {
+                    for (long offset = 0; offset < file.size; offset += CHUNK_SIZE) {
+                        frames.add(new FileChunk(file, offset, (int) Math.min(CHUNK_SIZE, file.size - offset)));
+                    }
+                } else {
+                    smallFiles.add(file);
+                }
+            }
+            frames.addAll(smallFiles);
+
+            sendFrames(streams, frames);
+        } finally {
+            for (SenderStream stream : streams) {
+                stream.close();
+            }
+            progress.finish();
+        }
+
+        log.info("Directory '" + fromDir + "' sent over " + streamsCount + " stream(s): " + progress);
+    }
+
+    /**
+     * Receive a directory over the streams of a parallel transfer. This method returns when
+     * all streams are done.
+     *
+     * @param server the server socket all streams connect to
+     * @param firstSocket the first connected stream
+     * @param firstInput the input of the first stream, its header command is already read
+     * @param progress the transfer counters
+     * @throws IOException on network or file write error
+     */
+    static void receiveDirectory( ServerSocket server, Socket firstSocket, DataInputStream firstInput,
+                                  FileTransferProgress progress ) throws IOException {
+
+        int streamsCount = readStreamsHeader(firstInput);
+
+        final ConcurrentHashMap<String, AtomicLong> pendingBytes = new ConcurrentHashMap<String, AtomicLong>();
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+        final List<ReceiverStream> streams = new ArrayList<ReceiverStream>(streamsCount);
+        streams.add(new ReceiverStream(firstSocket, firstInput, pendingBytes, progress));
+        try {
+            for (int i = 1; i < streamsCount; i++) {
+                Socket socket = server.accept();
+                DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream(),
+                                                                                    LocalFileSystemOperations.FILE_TRANSFER_BUFFER_SIZE));
+                // the stream must start with the same header
+                String command = readCommand(input);
+                if (!LocalFileSystemOperations.STREAMS_SOCKET_COMMAND.equals(command)) {
+                    IoUtils.closeStream(socket, "Could not close file transfer socket");
+                    throw new IOException("Unexpected file transfer command '" + command + "', expected '"
+                                          + LocalFileSystemOperations.STREAMS_SOCKET_COMMAND + "'");
+                }
+                readStreamsHeader(input);
+                synchronized (streams) {
+                    streams.add(new ReceiverStream(socket, input, pendingBytes, progress));
+                }
+            }
+
+            List<Thread> threads = new ArrayList<Thread>(streamsCount - 1);
+            for (int i = 1; i < streamsCount; i++) {
+                final ReceiverStream stream = streams.get(i);
+                Thread thread = new Thread(new Runnable() {
+
+                    @Override
+                    public void run() {
+
+                        try {
+                            stream.receive();
+                        } catch (Throwable t) {
+                            if (error.compareAndSet(null, t)) {
+                                // closing the sockets stops the other streams and the sending side
+                                closeReceiverStreams(streams);
+                            }
+                        }
+                    }
+                });
+                thread.setName("ATSFileTransferStream-" + i + "__" + thread.getName());
+                thread.start();
+                threads.add(thread);
+            }
+
+            try {
+                streams.get(0).receive();
+            } catch (Throwable t) {
+                if (error.compareAndSet(null, t)) {
+                    closeReceiverStreams(streams);
+                }
+            }
+
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    error.compareAndSet(null, ie);
+                    break;
+                }
+            }
+        } finally {
+            closeReceiverStreams(streams);
+            progress.finish();
+        }
+
+        Throwable t = error.get();
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        } else if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t != null) {
+            throw new IOException("Error receiving directory", t);
+        }
+
+        // all streams may end at a command boundary while some chunks of a big file never came
+        if (!pendingBytes.isEmpty()) {
+            throw new IOException("The file transfer streams ended before receiving the whole content of files "
+                                  + pendingBytes.keySet());
+        }
+    }
+
+    private static void closeReceiverStreams( List<ReceiverStream> streams ) {
+
+        synchronized (streams) {
+            for (ReceiverStream stream : streams) {
+                stream.close();
+            }
+        }
+    }
+
+    private static void sendFrames( List<SenderStream> streams, final Queue<Object> frames ) throws IOException {
+
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+        List<Thread> threads = new ArrayList<Thread>(streams.size() - 1);
+        for (int i = 1; i < streams.size(); i++) {
+            final SenderStream stream = streams.get(i);
+            Thread thread = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    try {
+                        stream.sendFrames(frames, error);
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                    }
+                }
+            });
+            thread.setName("ATSFileTransferStream-" + i + "__" + thread.getName());
+            thread.start();
+            threads.add(thread);
+        }
+
+        try {
+            streams.get(0).sendFrames(frames, error);
+        } catch (Throwable t) {
+            error.compareAndSet(null, t);
+        }
+
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                error.compareAndSet(null, ie);
+                break;
+            }
+        }
+
+        Throwable t = error.get();
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        } else if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t != null) {
+            throw new IOException("Error sending directory", t);
+        }
+    }
+
+    private static void collectFiles( File dir, String toDirName, boolean isRecursive, List<String> directories,
+                                      List<SourceFile> files ) {
+
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+
+        for (File child : children) {
+            String toFileName = getChildName(toDirName, child.getName());
+            if (child.isDirectory()) {
+                // as with the single stream transfer, the direct sub-directories are created even when not recursive
+                directories.add(toFileName);
+                if (isRecursive) {
+                    collectFiles(child, toFileName, isRecursive, directories, files);
+                }
+            } else {
+                files.add(new SourceFile(child, toFileName));
+            }
+        }
+    }
+
+    private static String getChildName( String dirName, String name ) {
+
+        if (dirName.endsWith("/") || dirName.endsWith("\\")) {
+            return dirName + name;
+        }
+        return dirName + AtsSystemProperties.SYSTEM_FILE_SEPARATOR + name;
+    }
+
+    private static void writeString( DataOutputStream output, String value ) throws IOException {
+
+        byte[] bytes = value.getBytes(LocalFileSystemOperations.DEFAULT_CHARSET);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString( DataInputStream input, String parameterType ) throws IOException {
+
+        int length = input.readInt();
+        if (length < 0 || length > LocalFileSystemOperations.INTERNAL_SOCKET_PARAMETER_MAX_LENGTH) {
+            throw new IOException("Illegal length for " + parameterType + ": " + length + "(max allowed is "
+                                  + LocalFileSystemOperations.INTERNAL_SOCKET_PARAMETER_MAX_LENGTH
+                                  + "); Probably non ATS agent has connected. Closing communication");
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, LocalFileSystemOperations.DEFAULT_CHARSET);
+    }
+
+    private static String readCommand( DataInputStream input ) throws IOException {
+
+        return readString(input, "command");
+    }
+
+    private static int readStreamsHeader( DataInputStream input ) throws IOException {
+
+        // the stream index is not used for now, the streams are equal
+        input.readInt();
+        int streamsCount = input.readInt();
+        if (streamsCount < 1) {
+            throw new IOException("Illegal number of file transfer streams: " + streamsCount);
+        }
+        return streamsCount;
+    }
+
+    /**
+     * Compare the modification times with a precision of a second, as some file systems do not keep the milliseconds
+     */
+    private static boolean isSameModificationTime( long time1, long time2 ) {
+
+        return time1 / 1000 == time2 / 1000;
+    }
+
+    /**
+     * A file to send
+     */
+    private static class SourceFile {
+
+        private final File   file;
+        private final String toFileName;
+        private final long   size;
+        private final long   modificationTime;
+
+        SourceFile( File file, String toFileName ) {
+
+            this.file = file;
+            this.toFileName = toFileName;
+            this.size = file.length();
+            this.modificationTime = file.lastModified();
+        }
+    }
+
+    /**
+     * A part of a big file
+     */
+    private static class FileChunk {
+
+        private final SourceFile file;
+        private final long       offset;
+        private final int        length;
+
+        FileChunk( SourceFile file, long offset, int length ) {
+
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * The sending side of a stream
+     */
+    private static class SenderStream {
+
+        private final SocketChannel        channel;
+        private final DataOutputStream     output;
+        private final boolean              failOnError;
+        private final FileTransferProgress progress;
+
+        SenderStream( String host, int port, boolean failOnError,
+                      FileTransferProgress progress ) throws IOException {
+
+            this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+            this.output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),
+                                                                        LocalFileSystemOperations.FILE_TRANSFER_BUFFER_SIZE));
+            this.failOnError = failOnError;
+            this.progress = progress;
+        }
+
+        void writeHeader( int streamIndex, int streamsCount ) throws IOException {
+
+            writeString(output, LocalFileSystemOperations.STREAMS_SOCKET_COMMAND);
+            output.writeInt(streamIndex);
+            output.writeInt(streamsCount);
+            // the receiving side waits for the headers of all streams before reading any file
+            output.flush();
+        }
+
+        /**
+         * Send the manifest and read which files are needed by the receiving side
+         *
+         * @return the files to send
+         */
+        List<SourceFile> exchangeManifest( List<SourceFile> files, boolean verifyHash ) throws IOException {
+
+            LocalFileSystemOperations localFileSystemOperations = new LocalFileSystemOperations();
+
+            writeString(output, LocalFileSystemOperations.MANIFEST_SOCKET_COMMAND);
+            output.writeInt(files.size());
+            for (SourceFile file : files) {
+                writeString(output, file.toFileName);
+                output.writeLong(file.size);
+                output.writeLong(file.modificationTime);
+                writeString(output, verifyHash
+                                               ? localFileSystemOperations.computeMd5Sum(file.file.getPath(),
+                                                                                         Md5SumMode.BINARY)
+                                               : "");
+            }
+            output.flush();
+
+            DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            List<SourceFile> neededFiles = new ArrayList<SourceFile>();
+            for (SourceFile file : files) {
+                if (input.readBoolean()) {
+                    neededFiles.add(file);
+                } else {
+                    progress.addSkippedFile();
+                }
+            }
+            return neededFiles;
+        }
+
+        void sendFrames( Queue<Object> frames, AtomicReference<Throwable> error ) throws IOException {
+
+            byte[] buffer = new byte[SMALL_FILE_SIZE];
+            Object frame;
+            // stop as soon as some stream fails
+            while (error.get() == null && (frame = frames.poll()) != null) {
+                if (frame instanceof String) {
+                    writeString(output, LocalFileSystemOperations.DIR_CREATE_SOCKET_COMMAND);
+                    writeString(output, (String) frame);
+                } else if (frame instanceof SourceFile) {
+                    sendSmallFile((SourceFile) frame, buffer);
+                } else {
+                    sendChunk((FileChunk) frame);
+                }
+            }
+            output.flush();
+        }
+
+        void close() {
+
+            IoUtils.closeStream(output);
+            IoUtils.closeStream(channel, "Could not close file transfer socket");
+        }
+
+        private void sendSmallFile( SourceFile file, byte[] buffer ) throws IOException {
+
+            writeString(output, LocalFileSystemOperations.FILE_WITH_TIME_SOCKET_COMMAND);
+            writeString(output, file.toFileName);
+            output.writeLong(file.size);
+            output.writeLong(file.modificationTime);
+
+            int size = (int) file.size;
+            int readBytes = 0;
+            FileInputStream fis = new FileInputStream(file.file);
+            try {
+                int count;
+                while (readBytes < size && (count = fis.read(buffer, readBytes, size - readBytes)) > -1) {
+                    readBytes += count;
+                }
+                if (readBytes == size && fis.read() > -1) {
+                    checkFileGrowing(file);
+                }
+            } finally {
+                IoUtils.closeStream(fis);
+            }
+
+            output.write(buffer, 0, readBytes);
+            if (readBytes < size) {
+                fillShrunkFile(file, size - readBytes);
+            }
+            progress.addTransferredBytes(size);
+            progress.addTransferredFile();
+        }
+
+        private void sendChunk( FileChunk chunk ) throws IOException {
+
+            SourceFile file = chunk.file;
+            writeString(output, LocalFileSystemOperations.FILE_CHUNK_SOCKET_COMMAND);
+            writeString(output, file.toFileName);
+            output.writeLong(file.size);
+            output.writeLong(file.modificationTime);
+            output.writeLong(chunk.offset);
+            output.writeInt(chunk.length);
+            // the content goes directly from the file to the socket
+            output.flush();
+
+            long sentBytes = 0;
+            FileInputStream fis = new FileInputStream(file.file);
+            try {
+                FileChannel fileChannel = fis.getChannel();
+                while (sentBytes < chunk.length) {
+                    long count = fileChannel.transferTo(chunk.offset + sentBytes, chunk.length - sentBytes,
+                                                        channel);
+                    if (count <= 0 && chunk.offset + sentBytes >= fileChannel.size()) {
+                        // end of file
+                        break;
+                    }
+                    sentBytes += count;
+                }
+                if (chunk.offset + chunk.length == file.size && fileChannel.size() > file.size) {
+                    checkFileGrowing(file);
+                }
+            } finally {
+                IoUtils.closeStream(fis);
+            }
+
+            if (sentBytes < chunk.length) {
+                fillShrunkFile(file, chunk.length - sentBytes);
+            }
+            progress.addTransferredBytes(chunk.length);
+            if (chunk.offset + chunk.length == file.size) {
+                progress.addTransferredFile();
+            }
+        }
+
+        private void checkFileGrowing( SourceFile file ) {
+
+            if (failOnError) {
+                throw new FileSystemOperationException("The size of file \"" + file.file.getName()
+                                                       + "\" was increased while sending it! The initial file size was "
+                                                       + file.size
+                                                       + ". ATS will ignore this error if you set the failOnError flag to false.");
+            }
+            // we send as many bytes as we told the receiving side
+        }
+
+        private void fillShrunkFile( SourceFile file, long missingBytes ) throws IOException {
+
+            if (failOnError) {
+                throw new FileSystemOperationException("The size of file \"" + file.file.getName()
+                                                       + "\" was decreased with " + missingBytes
+                                                       + " bytes! The initial file size was " + file.size
+                                                       + ". ATS will ignore this error if you set the failOnError flag to false.");
+            }
+            // we already told the receiving side how many bytes to expect
+            log.warn("File " + file.file.getPath() + " is getting smaller while copying it. We will append "
+                     + missingBytes + " zero bytes to reach its initial size of " + file.size + " bytes");
+            while (missingBytes-- > 0) {
+                output.write(0);
+            }
+        }
+    }
+
+    /**
+     * The receiving side of a stream
+     */
+    private static class ReceiverStream {
+
+        private final Socket                                socket;
+        private final DataInputStream                       input;
+        private final ReadableByteChannel                   inputChannel;
+        // the bytes still not received for each big file
+        private final ConcurrentHashMap<String, AtomicLong> pendingBytes;
+        private final FileTransferProgress                  progress;
+
+        ReceiverStream( Socket socket, DataInputStream input, ConcurrentHashMap<String, AtomicLong> pendingBytes,
+                        FileTransferProgress progress ) {
+
+            this.socket = socket;
+            this.input = input;
+            this.inputChannel = Channels.newChannel(input);
+            this.pendingBytes = pendingBytes;
+            this.progress = progress;
+        }
+
+        void receive() throws IOException {
+
+            while (true) {
+                String command;
+                try {
+                    command = readCommand(input);
+                } catch (EOFException eofe) {
+                    // this is the end of the stream
+                    return;
+                }
+
+                if (LocalFileSystemOperations.DIR_CREATE_SOCKET_COMMAND.equals(command)) {
+                    createDirectory(new File(readFileName()));
+                } else if (LocalFileSystemOperations.FILE_WITH_TIME_SOCKET_COMMAND.equals(command)) {
+                    String fileName = readFileName();
+                    long fileSize = input.readLong();
+                    long modificationTime = input.readLong();
+                    receiveFile(fileName, fileSize, modificationTime, 0, fileSize);
+                } else if (LocalFileSystemOperations.FILE_CHUNK_SOCKET_COMMAND.equals(command)) {
+                    String fileName = readFileName();
+                    long fileSize = input.readLong();
+                    long modificationTime = input.readLong();
+                    long offset = input.readLong();
+                    int length = input.readInt();
+                    receiveFile(fileName, fileSize, modificationTime, offset, length);
+                } else if (LocalFileSystemOperations.MANIFEST_SOCKET_COMMAND.equals(command)) {
+                    answerManifest();
+                } else {
+                    throw new IOException("Unknown file transfer command '" + command + "'");
+                }
+            }
+        }
+
+        void close() {
+
+            IoUtils.closeStream(input);
+            IoUtils.closeStream(socket, "Could not close file transfer socket");
+        }
+
+        private String readFileName() throws IOException {
+
+            // switch file separators according to the current OS
+            return IoUtils.normalizeFilePath(readString(input, "file name"), OS_TYPE);
+        }
+
+        private void answerManifest() throws IOException {
+
+            LocalFileSystemOperations localFileSystemOperations = new LocalFileSystemOperations();
+
+            // the sending side reads the answers after it writes the whole manifest,
+            // so do not write any answer before reading the whole manifest
+            int filesCount = input.readInt();
+            boolean[] neededFiles = new boolean[filesCount];
+            for (int i = 0; i < filesCount; i++) {
+                File file = new File(readFileName());
+                long fileSize = input.readLong();
+                long modificationTime = input.readLong();
+                String md5 = readString(input, "MD5 sum");
+
+                boolean isUnchanged = file.isFile() && file.length() == fileSize
+                                      && isSameModificationTime(file.lastModified(), modificationTime)
+                                      && (md5.isEmpty()
+                                          || md5.equals(localFileSystemOperations.computeMd5Sum(file.getPath(),
+                                                                                                Md5SumMode.BINARY)));
+                if (isUnchanged) {
+                    progress.addSkippedFile();
+                }
+                neededFiles[i] = !isUnchanged;
+            }
+
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            for (boolean isNeeded : neededFiles) {
+                output.writeBoolean(isNeeded);
+            }
+            output.flush();
+        }
+
+        private void receiveFile( String fileName, long fileSize, long modificationTime, long offset,
+                                  long length ) throws IOException {
+
+            if (log.isDebugEnabled()) {
+                log.debug("Receiving " + length + " bytes at position " + offset + " of file: " + fileName
+                          + " with size: " + fileSize + " bytes");
+            }
+
+            File file = new File(fileName);
+            createDirectory(file.getParentFile());
+
+            boolean isWholeFile = offset == 0 && length == fileSize;
+            AtomicLong fileBytes = null;
+            if (!isWholeFile) {
+                fileBytes = pendingBytes.get(fileName);
+                if (fileBytes == null) {
+                    AtomicLong newFileBytes = new AtomicLong(fileSize);
+                    fileBytes = pendingBytes.putIfAbsent(fileName, newFileBytes);
+                    if (fileBytes == null) {
+                        fileBytes = newFileBytes;
+                    }
+                }
+            }
+
+            RandomAccessFile randomAccessFile;
+            try {
+                randomAccessFile = new RandomAccessFile(file, "rw");
+            } catch (IOException e) {
+                throw new IOException("Could not create destination file '" + file + "'", e);
+            }
+            try {
+                // cut an older longer file and make room for chunks which come before the previous ones
+                if (randomAccessFile.length() != fileSize) {
+                    randomAccessFile.setLength(fileSize);
+                }
+
+                FileChannel fileChannel = randomAccessFile.getChannel();
+                long position = offset;
+                long remaining = length;
+                while (remaining > 0) {
+                    long count = fileChannel.transferFrom(inputChannel, position, remaining);
+                    if (count <= 0) {
+                        throw new EOFException("The file transfer stream ended while receiving file '" + fileName
+                                               + "'");
+                    }
+                    position += count;
+                    remaining -= count;
+                }
+            } finally {
+                IoUtils.closeStream(randomAccessFile, "Error closing descriptor for file " + fileName);
+            }
+
+            progress.addTransferredBytes(length);
+            if (isWholeFile || fileBytes.addAndGet(-length) == 0) {
+                if (!isWholeFile) {
+                    pendingBytes.remove(fileName);
+                }
+                if (!file.setLastModified(modificationTime)) {
+                    log.warn("Could not set the modification time of file '" + fileName + "'");
+                }
+                progress.addTransferredFile();
+            }
+        }
+
+        private void createDirectory( File directory ) throws IOException {
+
+            // another stream may be creating the same directory
+            if (directory != null && !directory.exists() && !directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException("Could not create all directories for path '" + directory + "'");
+            }
+        }
+    }
+}
@@ -0,0 +1,551 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import com.axway.ats.common.filesystem.FileSystemOperationException;
+import com.axway.ats.common.system.OperatingSystemType;
+import com.axway.ats.core.utils.IoUtils;
+import com.axway.ats.core.utils.StringUtils;
+
+/**
+ * Hashes and greps many files in parallel, one file per thread.
+ * <p>
+ * Big files are memory mapped, so their content is not copied through a stream buffer.
+ * This is not done on Windows, where a mapped file can not be deleted until the mapping is garbage collected.
+ * </p>
+ * <p>
+ * The grep works on the raw bytes of the files. When the regular expression starts with a literal text
+ * (after an optional leading <code>.*</code>), only the lines containing this text are decoded and matched
+ * against the regular expression.
+ * </p>
+ */
+class ParallelFileProcessor {
+
+    // files of this size or bigger are memory mapped
+    static final int             MAP_THRESHOLD     = 1024 * 1024;
+    // the size of the mapped file parts
+    private static final int     MAP_SEGMENT_SIZE  = 256 * 1024 * 1024;
+    // the size of the file parts read in memory, when the file is not mapped
+    private static final int     READ_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final int     READ_BUFFER_SIZE  = 64 * 1024;
+
+    private static final boolean CAN_MAP_FILES     = !OperatingSystemType.getCurrentOsType().isWindows();
+
+    private static final String  REGEX_META_CHARS  = ".[]()*+?{}^$|\\";
+
+    private ParallelFileProcessor() {
+
+    }
+
+    /**
+     * Compute the hashes of some files
+     *
+     * @param files the files
+     * @param algorithm the hash algorithm
+     * @return file path to hex encoded hash, in the order of the files
+     */
+    static Map<String, String> computeHashes( List<File> files, FileHashAlgorithm algorithm ) {
+
+        String[] hashes = new String[files.size()];
+        processInParallel(files, "compute the " + algorithm.getAlgorithmName() + " hash of",
+                          new HashTask(files, algorithm, hashes));
+
+        Map<String, String> result = new LinkedHashMap<String, String>();
+        for (int i = 0; i < hashes.length; i++) {
+            result.put(files.get(i).getPath(), hashes[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Find the lines matching a regular expression in some files
+     *
+     * @param files the files
+     * @param regex the regular expression, it must match the whole line
+     * @param charset the charset of the files
+     * @param listener receives the matching lines
+     * @return the number of matching lines
+     */
+    static long grep( final List<File> files, String regex, final Charset charset,
+                      final FileGrepListener listener ) {
+
+        final Pattern pattern = Pattern.compile(regex);
+        final String literal = getRequiredLiteral(regex);
+        final AtomicLong matchedLines = new AtomicLong();
+        processInParallel(files, "grep", new FileTask() {
+
+            @Override
+            void process( int fileIndex ) throws IOException {
+
+                LineMatcher lineMatcher = new LineMatcher(files.get(fileIndex), pattern, literal, charset,
+                                                          listener);
+                lineMatcher.grep();
+                matchedLines.addAndGet(lineMatcher.matchedLines);
+            }
+        });
+        return matchedLines.get();
+    }
+
+    /**
+     * Find a text which must be present in each line matching the regular expression.
+     * The analysis is simple and conservative: the text is looked for at the beginning of the expression
+     * only, after an optional <code>^</code> and <code>.*</code>.
+     *
+     * @param regex the regular expression
+     * @return the required text or null if there is no such
+     */
+    static String getRequiredLiteral( String regex ) {
+
+        if (regex.indexOf('|') >= 0) {
+            // alternation makes any text optional
+            return null;
+        }
+
+        int index = 0;
+        if (regex.startsWith("^")) {
+            index++;
+        }
+        if (regex.startsWith(".*", index)) {
+            index += 2;
+        }
+
+        StringBuilder literal = new StringBuilder();
+        while (index < regex.length()) {
+            char c = regex.charAt(index);
+            if (c == '\\') {
+                // only escaped punctuation is a plain character, the others are character classes etc.
+                if (index + 1 < regex.length() && REGEX_META_CHARS.indexOf(regex.charAt(index + 1)) >= 0) {
+                    literal.append(regex.charAt(index + 1));
+                    index += 2;
+                } else {
+                    break;
+                }
+            } else if (REGEX_META_CHARS.indexOf(c) >= 0) {
+                break;
+            } else {
+                literal.append(c);
+                index++;
+            }
+
+            if (index < regex.length()) {
+                char next = regex.charAt(index);
+                if (next == '*' || next == '?' || next == '{') {
+                    // the last character may be missing
+                    literal.setLength(literal.length() - 1);
+                    break;
+                } else if (next == '+') {
+                    // the last character is there, but what follows it is not next to it
+                    break;
+                }
+            }
+        }
+
+        return literal.length() > 0
+                                    ? literal.toString()
+                                    : null;
+    }
+
+    /**
+     * Run a task for each file, using as many threads as the processors
+     */
+    private static void processInParallel( final List<File> files, final String operation,
+                                           FileTask taskPrototype ) {
+
+        int numberOfThreads = Math.min(Runtime.getRuntime().availableProcessors(), files.size());
+        if (numberOfThreads == 0) {
+            return;
+        }
+
+        // each thread takes the next file which is not processed yet
+        final AtomicInteger nextFileIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int i = 0; i < numberOfThreads; i++) {
+                final FileTask task = taskPrototype.newInstance();
+                results.add(executor.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() {
+
+                        int fileIndex;
+                        while ( (fileIndex = nextFileIndex.getAndIncrement()) < files.size()) {
+                            try {
+                                task.process(fileIndex);
+                            } catch (IOException ioe) {
+                                throw new FileSystemOperationException("Could not " + operation + " file '"
+                                                                       + files.get(fileIndex) + "'", ioe);
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new FileSystemOperationException("Interrupted while trying to " + operation + " files", ie);
+        } catch (ExecutionException ee) {
+            // the other threads do not need to process more files
+            nextFileIndex.set(files.size());
+            Throwable cause = ee.getCause();
+            if (cause instanceof FileSystemOperationException) {
+                throw (FileSystemOperationException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FileSystemOperationException("Could not " + operation + " files", (Exception) cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Read a part of a file
+     */
+    private static ByteBuffer readSegment( FileChannel channel, long position, int length,
+                                           boolean isMapped ) throws IOException {
+
+        if (isMapped) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+
+        ByteBuffer segment = ByteBuffer.allocate(length);
+        while (segment.hasRemaining()) {
+            if (channel.read(segment, position + segment.position()) < 0) {
+                break;
+            }
+        }
+        segment.flip();
+        return segment;
+    }
+
+    /**
+     * Processes files one by one in a thread
+     */
+    private static abstract class FileTask {
+
+        /**
+         * @return a task for a new thread, it is same as this one if the task keeps no state
+         */
+        FileTask newInstance() {
+
+            return this;
+        }
+
+        abstract void process( int fileIndex ) throws IOException;
+    }
+
+    /**
+     * Computes file hashes, each thread has its own digest
+     */
+    private static class HashTask extends FileTask {
+
+        private final List<File>        files;
+        private final FileHashAlgorithm algorithm;
+        private final String[]          hashes;
+
+        private final MessageDigest     digest;
+        private final ByteBuffer        readBuffer;
+
+        HashTask( List<File> files, FileHashAlgorithm algorithm, String[] hashes ) {
+
+            this.files = files;
+            this.algorithm = algorithm;
+            this.hashes = hashes;
+
+            this.digest = algorithm.newDigest();
+            this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        }
+
+        @Override
+        FileTask newInstance() {
+
+            return new HashTask(files, algorithm, hashes);
+        }
+
+        @Override
+        void process( int fileIndex ) throws IOException {
+
+            File file = files.get(fileIndex);
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                if (CAN_MAP_FILES && size >= MAP_THRESHOLD) {
+                    for (long position = 0; position < size; position += MAP_SEGMENT_SIZE) {
+                        digest.update(readSegment(channel, position,
+                                                  (int) Math.min(MAP_SEGMENT_SIZE, size - position), true));
+                    }
+                } else {
+                    readBuffer.clear();
+                    while (channel.read(readBuffer) > -1) {
+                        readBuffer.flip();
+                        digest.update(readBuffer);
+                        readBuffer.clear();
+                    }
+                }
+            } finally {
+                IoUtils.closeStream(channel, "Could not close file " + file);
+            }
+
+            hashes[fileIndex] = StringUtils.byteArray2Hex(digest.digest());
+        }
+    }
+
+    /**
+     * Greps one file
+     */
+    private static class LineMatcher {
+
+        private static final byte      NEW_LINE  = '\n';
+        private static final byte      RETURN    = '\r';
+
+        private final File             file;
+        private final Pattern          pattern;
+        private final String           literal;
+        private final Charset          charset;
+        private final FileGrepListener listener;
+
+        // the required text in the charset of the file
+        private byte[]                 literalBytes;
+        private byte[]                 lineBytes = new byte[256];
+
+        private long                   lineNumber;
+        private long                   matchedLines;
+
+        LineMatcher( File file, Pattern pattern, String literal, Charset charset, FileGrepListener listener ) {
+
+            this.file = file;
+            this.pattern = pattern;
+            this.literal = literal;
+            this.charset = charset;
+            this.listener = listener;
+
+            if (literal != null && charset.newEncoder().canEncode(literal)) {
+                this.literalBytes = literal.getBytes(charset);
+            }
+        }
+
+        void grep() throws IOException {
+
+            if (!isAsciiCompatible(charset)) {
+                // the new lines are not single bytes
+                grepDecodedLines();
+                return;
+            }
+
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                boolean isMapped = CAN_MAP_FILES && size >= MAP_THRESHOLD;
+                int segmentSize = isMapped
+                                           ? MAP_SEGMENT_SIZE
+                                           : READ_SEGMENT_SIZE;
+
+                long position = 0;
+                while (position < size) {
+                    int length = (int) Math.min(segmentSize, size - position);
+                    ByteBuffer segment = readSegment(channel, position, length, isMapped);
+                    if (!segment.hasRemaining()) {
+                        // the file was truncated
+                        break;
+                    }
+                    boolean isLastSegment = segment.limit() < length || position + length == size;
+                    int processedBytes = grepSegment(segment, isLastSegment);
+                    if (processedBytes == 0) {
+                        // a line longer than the segment
+                        if (segmentSize > Integer.MAX_VALUE / 2) {
+                            throw new IOException("Line " + (lineNumber + 1) + " is too long");
+                        }
+                        segmentSize *= 2;
+                    }
+                    position += processedBytes;
+                }
+            } finally {
+                IoUtils.closeStream(channel, "Could not close file " + file);
+            }
+        }
+
+        /**
+         * @return the number of processed bytes, only whole lines are processed
+         */
+        private int grepSegment( ByteBuffer segment, boolean isLastSegment ) {
+
+            int end = isLastSegment
+                                    ? segment.limit()
+                                    : lastIndexOf(segment, NEW_LINE, segment.limit()) + 1;
+
+            int lineStart = 0;
+            if (literalBytes == null) {
+                while (lineStart < end) {
+                    int lineEnd = getLineEnd(segment, lineStart, end);
+                    lineNumber++;
+                    matchLine(segment, lineStart, lineEnd);
+                    lineStart = lineEnd + 1;
+                }
+                return end;
+            }
+
+            // only the lines with the required text are checked
+            int match;
+            while (lineStart < end && (match = indexOf(segment, literalBytes, lineStart, end)) > -1) {
+                while (true) {
+                    int lineEnd = getLineEnd(segment, lineStart, end);
+                    lineNumber++;
+                    if (match < lineEnd) {
+                        matchLine(segment, lineStart, lineEnd);
+                        lineStart = lineEnd + 1;
+                        break;
+                    }
+                    lineStart = lineEnd + 1;
+                }
+            }
+
+            // count the rest of the lines
+            for (int i = lineStart; i < end; i++) {
+                if (segment.get(i) == NEW_LINE) {
+                    lineNumber++;
+                }
+            }
+            if (lineStart < end && segment.get(end - 1) != NEW_LINE) {
+                lineNumber++;
+            }
+            return end;
+        }
+
+        private void matchLine( ByteBuffer segment, int lineStart, int lineEnd ) {
+
+            if (lineEnd > lineStart && segment.get(lineEnd - 1) == RETURN) {
+                lineEnd--;
+            }
+
+            int length = lineEnd - lineStart;
+            if (lineBytes.length < length) {
+                lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+            }
+            ByteBuffer lineBuffer = segment.duplicate();
+            lineBuffer.position(lineStart);
+            lineBuffer.get(lineBytes, 0, length);
+
+            matchLine(new String(lineBytes, 0, length, charset));
+        }
+
+        private void matchLine( String line ) {
+
+            if (pattern.matcher(line).matches()) {
+                matchedLines++;
+                synchronized (listener) {
+                    listener.lineMatched(file.getPath(), lineNumber, line);
+                }
+            }
+        }
+
+        private void grepDecodedLines() throws IOException {
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), charset),
+                                                       READ_BUFFER_SIZE);
+            try {
+                String line;
+                while ( (line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (literal == null || line.contains(literal)) {
+                        matchLine(line);
+                    }
+                }
+            } finally {
+                IoUtils.closeStream(reader);
+            }
+        }
+
+        private static int getLineEnd( ByteBuffer segment, int from, int end ) {
+
+            for (int i = from; i < end; i++) {
+                if (segment.get(i) == NEW_LINE) {
+                    return i;
+                }
+            }
+            return end;
+        }
+
+        private static int lastIndexOf( ByteBuffer segment, byte value, int end ) {
+
+            for (int i = end - 1; i >= 0; i--) {
+                if (segment.get(i) == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static int indexOf( ByteBuffer segment, byte[] value, int from, int end ) {
+
+            byte first = value[0];
+            int lastStart = end - value.length;
+            for (int i = from; i <= lastStart; i++) {
+                if (segment.get(i) == first) {
+                    int j = 1;
+                    while (j < value.length && segment.get(i + j) == value[j]) {
+                        j++;
+                    }
+                    if (j == value.length) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Whether each ASCII character, including the new line, is one byte with the same value
+         */
+        private static boolean isAsciiCompatible( Charset charset ) {
+
+            if (StandardCharsets.UTF_8.equals(charset)) {
+                return true;
+            }
+            return charset.newEncoder().maxBytesPerChar() == 1
+                   && Arrays.equals("\n\r".getBytes(charset), new byte[]{ NEW_LINE, RETURN });
+        }
+    }
+}
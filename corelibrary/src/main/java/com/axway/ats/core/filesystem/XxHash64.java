@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+
+/**
+ * The 64 bit variant of the xxHash non-cryptographic hash algorithm, with seed 0.
+ * <p>
+ * It is a lot faster than MD5 and SHA-256, so it suits well for checking whether files are same,
+ * but not for security purposes. The digest is the 8 bytes hash value in big endian order,
+ * which gives the usual hex representation of the xxHash values.
+ * </p>
+ */
+class XxHash64 extends MessageDigest {
+
+    static final String        ALGORITHM = "XXH64";
+
+    private static final long  PRIME_1   = 0x9E3779B185EBCA87L;
+    private static final long  PRIME_2   = 0xC2B2AE3D27D4EB4FL;
+    private static final long  PRIME_3   = 0x165667B19E3779F9L;
+    private static final long  PRIME_4   = 0x85EBCA77C2B2AE63L;
+    private static final long  PRIME_5   = 0x27D4EB2F165667C5L;
+
+    private static final int   STRIPE    = 32;
+
+    // the bytes which do not fill a whole stripe yet
+    private final ByteBuffer   buffer    = ByteBuffer.allocate(STRIPE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private long               v1;
+    private long               v2;
+    private long               v3;
+    private long               v4;
+    private long               totalLength;
+
+    XxHash64() {
+
+        super(ALGORITHM);
+        engineReset();
+    }
+
+    @Override
+    protected void engineUpdate( byte input ) {
+
+        buffer.put(input);
+        if (!buffer.hasRemaining()) {
+            processBuffer();
+        }
+        totalLength++;
+    }
+
+    @Override
+    protected void engineUpdate( byte[] input, int offset, int length ) {
+
+        engineUpdate(ByteBuffer.wrap(input, offset, length));
+    }
+
+    @Override
+    protected void engineUpdate( ByteBuffer input ) {
+
+        totalLength += input.remaining();
+        ByteOrder originalOrder = input.order();
+        input.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            // complete the previous stripe
+            if (buffer.position() > 0) {
+                while (buffer.hasRemaining() && input.hasRemaining()) {
+                    buffer.put(input.get());
+                }
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                processBuffer();
+            }
+
+            long v1 = this.v1;
+            long v2 = this.v2;
+            long v3 = this.v3;
+            long v4 = this.v4;
+            while (input.remaining() >= STRIPE) {
+                v1 = round(v1, input.getLong());
+                v2 = round(v2, input.getLong());
+                v3 = round(v3, input.getLong());
+                v4 = round(v4, input.getLong());
+            }
+            this.v1 = v1;
+            this.v2 = v2;
+            this.v3 = v3;
+            this.v4 = v4;
+
+            buffer.put(input);
+        } finally {
+            input.order(originalOrder);
+        }
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+
+        long hash;
+        if (totalLength >= STRIPE) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+                   + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = PRIME_5;
+        }
+        hash += totalLength;
+
+        buffer.flip();
+        while (buffer.remaining() >= 8) {
+            hash ^= round(0, buffer.getLong());
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (buffer.remaining() >= 4) {
+            hash ^= (buffer.getInt() & 0xFFFFFFFFL) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+        }
+        while (buffer.hasRemaining()) {
+            hash ^= (buffer.get() & 0xFF) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+
+        engineReset();
+        return ByteBuffer.allocate(8).putLong(hash).array();
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+
+        return 8;
+    }
+
+    @Override
+    protected void engineReset() {
+
+        v1 = PRIME_1 + PRIME_2;
+        v2 = PRIME_2;
+        v3 = 0;
+        v4 = -PRIME_1;
+        totalLength = 0;
+        buffer.clear();
+    }
+
+    private void processBuffer() {
+
+        buffer.flip();
+        v1 = round(v1, buffer.getLong());
+        v2 = round(v2, buffer.getLong());
+        v3 = round(v3, buffer.getLong());
+        v4 = round(v4, buffer.getLong());
+        buffer.clear();
+    }
+
+    private static long round( long accumulator, long input ) {
+
+        accumulator += input * PRIME_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME_1;
+    }
+
+    private static long mergeRound( long accumulator, long value ) {
+
+        accumulator ^= round(0, value);
+        return accumulator * PRIME_1 + PRIME_4;
+    }
+}
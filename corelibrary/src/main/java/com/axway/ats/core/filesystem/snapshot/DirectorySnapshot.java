@@ -16,7 +16,24 @@
 package com.axway.ats.core.filesystem.snapshot;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -24,6 +41,11 @@
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -47,6 +69,7 @@
 import com.axway.ats.core.filesystem.snapshot.types.TextFileSnapshot;
 import com.axway.ats.core.filesystem.snapshot.types.XmlFileSnapshot;
 import com.axway.ats.core.utils.IoUtils;
+import com.axway.ats.core.utils.StringUtils;
 
 public class DirectorySnapshot implements Serializable {
 
@@ -71,6 +94,9 @@ public class DirectorySnapshot implements Serializable {
     // keeps info how equal both directories are 
     private FileSystemEqualityState        equality;
 
+    // digest of all entities in this directory tree, null when it cannot be used for comparing
+    private String                         summary;
+
     DirectorySnapshot( String path,
                        FileSystemEqualityState equality ) {
 
@@ -112,6 +138,11 @@ static DirectorySnapshot fromFile(
 
         DirectorySnapshot dirSnapshot = new DirectorySnapshot(dirPath, equality);
 
+        // its summary, it is missing in snapshots saved by older versions
+        if (dirNode.hasAttribute("summary")) {
+            dirSnapshot.summary = dirNode.getAttribute("summary");
+        }
+
         // its file find rules
         List<Element> fileRuleNodes = SnapshotUtils.getChildrenByTagName(dirNode,
                                                                          LocalFileSystemSnapshot.NODE_FILE_RULE);
@@ -304,58 +335,108 @@ void takeSnapshot( SnapshotConfiguration configuration ) {
         // do some cleanup - in case user call this method more than once
         subdirSnapshots.clear();
         fileSnapshots.clear();
+        summary = null;
 
         if (!new File(this.path).exists()) {
             throw new FileSystemSnapshotException("Directory '" + this.path + "' does not exist");
         }
 
-        // take the snapshot now by traversing all files and sub-directories
-        for (File fsEntity : new File(this.path).listFiles()) {
-            if (!fsEntity.isHidden() || configuration.isSupportHidden()) {
-                if (fsEntity.isDirectory()) {
-                    boolean skipSubDir = false;
-                    // make a directory snapshot
-                    String unixDirName = IoUtils.normalizeUnixDir(fsEntity.getName()); // skipped dirs are also in UnixDir (ends with '/') format
-                    Iterator<Map<String, Boolean>> it = skippedSubDirs.iterator();
-                    while (it.hasNext()) {
-                        // each set entry is a map, that contains exactly one key-value pair
-                        Map<String, Boolean> setEntry = it.next();
-                        String subDirName = setEntry.keySet().iterator().next();
-                        boolean lastTokenIsRegex = setEntry.get(subDirName);
-                        if (lastTokenIsRegex) {
-                            Pattern p = Pattern.compile(subDirName);
-                            Matcher m = p.matcher(unixDirName);
-                            if (m.find()) {
-                                skipSubDir = true;// skip this sub directory
-                                break;
-                            }
-                        } else {
-                            if (subDirName.equals(unixDirName)) {
-                                skipSubDir = true;// skip this sub directory
-                                break;
-                            }
-                        }
-                    }
-                    if (!skipSubDir) {
-                        DirectorySnapshot subdirSnapshot = generateSubDirectorySnapshot(unixDirName, fsEntity);
-                        subdirSnapshot.takeSnapshot(configuration);
-                        subdirSnapshots.put(fsEntity.getName(), subdirSnapshot);
-                    }
-                } else {
-                    // make a file snapshot
-                    FileSnapshot fileSnapshot = generateFileSnapshot(configuration, fsEntity);
-                    if (fileSnapshot != null) { // if the file is not skipped
-                        log.debug("Add " + fileSnapshot.toString());
-                        fileSnapshots.put(fsEntity.getName(), fileSnapshot);
-                    }
+        // the directory tree is walked by the current thread, while the files are processed by the pool threads
+        ExecutorService executor = null;
+        if (configuration.getThreads() > 1) {
+            executor = Executors.newFixedThreadPool(configuration.getThreads());
+        }
+        try {
+            List<PendingFileSnapshot> pendingFileSnapshots = new ArrayList<PendingFileSnapshot>();
+            Files.walkFileTree(Paths.get(this.path), EnumSet.of(FileVisitOption.FOLLOW_LINKS),
+                               Integer.MAX_VALUE,
+                               new SnapshotFileVisitor(configuration, executor, pendingFileSnapshots));
+
+            for (PendingFileSnapshot pendingFileSnapshot : pendingFileSnapshots) {
+                pendingFileSnapshot.addToDirectory();
+            }
+        } catch (IOException ioe) {
+            throw new FileSystemSnapshotException("Error taking snapshot of directory '" + this.path + "'",
+                                                  ioe);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        computeSummary();
+    }
+
+    private boolean isSkippedSubDirectory( String unixDirName ) {
+
+        Iterator<Map<String, Boolean>> it = skippedSubDirs.iterator();
+        while (it.hasNext()) {
+            // each set entry is a map, that contains exactly one key-value pair
+            Map<String, Boolean> setEntry = it.next();
+            String subDirName = setEntry.keySet().iterator().next();
+            boolean lastTokenIsRegex = setEntry.get(subDirName);
+            if (lastTokenIsRegex) {
+                Pattern p = Pattern.compile(subDirName);
+                Matcher m = p.matcher(unixDirName);
+                if (m.find()) {
+                    return true;
                 }
             } else {
-                log.debug("The hidden " + (fsEntity.isDirectory()
-                                                                  ? "directory"
-                                                                  : "file")
-                          + " '" + fsEntity.getAbsolutePath() + "' will not be processed");
+                if (subDirName.equals(unixDirName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculate a summary of this directory and all its sub-directories.
+     * Directories with same summaries are equal, so they are not compared file by file.
+     *
+     * The summary is not calculated when some file is compared by its content
+     * or when its sub-directories do not have a summary.
+     */
+    private void computeSummary() {
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new FileSystemSnapshotException(e);
+        }
+
+        boolean hasSummary = true;
+
+        List<String> fileNames = new ArrayList<String>(fileSnapshots.keySet());
+        Collections.sort(fileNames);
+        for (String fileName : fileNames) {
+            FileSnapshot fileSnapshot = fileSnapshots.get(fileName);
+            if (fileSnapshot.getClass() != FileSnapshot.class) {
+                hasSummary = false;
+                break;
+            }
+            String fileEntry = "file:" + fileName + '\0' + fileSnapshot.getSize() + '\0'
+                               + fileSnapshot.getTimeModified() + '\0' + fileSnapshot.getMd5() + '\0'
+                               + fileSnapshot.getPermissions() + '\n';
+            digest.update(fileEntry.getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<String> subdirNames = new ArrayList<String>(subdirSnapshots.keySet());
+        Collections.sort(subdirNames);
+        for (String subdirName : subdirNames) {
+            DirectorySnapshot subdirSnapshot = subdirSnapshots.get(subdirName);
+            subdirSnapshot.computeSummary();
+            if (subdirSnapshot.summary == null) {
+                hasSummary = false;
             }
+            String dirEntry = "dir:" + subdirName + '\0' + subdirSnapshot.summary + '\n';
+            digest.update(dirEntry.getBytes(StandardCharsets.UTF_8));
         }
+
+        this.summary = hasSummary
+                                  ? StringUtils.byteArray2Hex(digest.digest())
+                                  : null;
     }
 
     private DirectorySnapshot generateSubDirectorySnapshot( String unixDirName, File file ) {
@@ -441,6 +522,11 @@ void compare(
             }
         }
 
+        if (this.summary != null && this.summary.equals(that.summary)) {
+            log.debug("Same directories: " + this.path + " and " + that.path);
+            return;
+        }
+
         // check the files in this directory
         SnapshotUtils.checkFileSnapshots(thisSnapshotName,
                                          this.fileSnapshots,
@@ -462,6 +548,9 @@ void toFile(
 
         // this dir
         dirSnapshotNode.setAttribute("path", this.path);
+        if (this.summary != null) {
+            dirSnapshotNode.setAttribute("summary", this.summary);
+        }
 
         // its file find rules
         for (String fileName : this.matchersContainer.fileAttributesMap.keySet()) {
@@ -538,6 +627,159 @@ public Map<String, List<SkipTextLineMatcher>> getTextLineMatchersPerFile() {
         return this.matchersContainer.getTextLineMatchersMap();
     }
 
+    /**
+     * Walks the directory tree and creates the snapshots of all found entities
+     */
+    private class SnapshotFileVisitor extends SimpleFileVisitor<Path> {
+
+        private final SnapshotConfiguration     configuration;
+        private final ExecutorService           executor;
+        private final List<PendingFileSnapshot> pendingFileSnapshots;
+
+        // the directory currently walked is on top
+        private final Deque<DirectorySnapshot>  dirSnapshotsStack = new ArrayDeque<DirectorySnapshot>();
+
+        SnapshotFileVisitor( SnapshotConfiguration configuration, ExecutorService executor,
+                             List<PendingFileSnapshot> pendingFileSnapshots ) {
+
+            this.configuration = configuration;
+            this.executor = executor;
+            this.pendingFileSnapshots = pendingFileSnapshots;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory( Path dir, BasicFileAttributes attrs ) throws IOException {
+
+            if (dirSnapshotsStack.isEmpty()) {
+                // this is the top level directory
+                dirSnapshotsStack.push(DirectorySnapshot.this);
+                return FileVisitResult.CONTINUE;
+            }
+
+            File dirFile = dir.toFile();
+            if (!isProcessed(dirFile)) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+
+            DirectorySnapshot parentSnapshot = dirSnapshotsStack.peek();
+            String unixDirName = IoUtils.normalizeUnixDir(dirFile.getName()); // skipped dirs are also in UnixDir (ends with '/') format
+            if (parentSnapshot.isSkippedSubDirectory(unixDirName)) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+
+            // make a directory snapshot
+            DirectorySnapshot subdirSnapshot = parentSnapshot.generateSubDirectorySnapshot(unixDirName,
+                                                                                           dirFile);
+            log.debug("Add directory " + subdirSnapshot.path);
+            parentSnapshot.subdirSnapshots.put(dirFile.getName(), subdirSnapshot);
+            dirSnapshotsStack.push(subdirSnapshot);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile( Path file, BasicFileAttributes attrs ) throws IOException {
+
+            File fsEntity = file.toFile();
+            if (isProcessed(fsEntity)) {
+                // make a file snapshot
+                pendingFileSnapshots.add(new PendingFileSnapshot(dirSnapshotsStack.peek(), configuration,
+                                                                 fsEntity, executor));
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed( Path file, IOException exc ) throws IOException {
+
+            if (exc instanceof FileSystemLoopException) {
+                log.warn("The directory '" + file
+                         + "' will not be processed as it is a link to one of its parent directories");
+                return FileVisitResult.CONTINUE;
+            }
+            throw exc;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory( Path dir, IOException exc ) throws IOException {
+
+            if (exc != null) {
+                throw exc;
+            }
+            dirSnapshotsStack.pop();
+            return FileVisitResult.CONTINUE;
+        }
+
+        private boolean isProcessed( File fsEntity ) {
+
+            if (!fsEntity.isHidden() || configuration.isSupportHidden()) {
+                return true;
+            }
+
+            log.debug("The hidden " + (fsEntity.isDirectory()
+                                                              ? "directory"
+                                                              : "file")
+                      + " '" + fsEntity.getAbsolutePath() + "' will not be processed");
+            return false;
+        }
+    }
+
+    /**
+     * A file snapshot which might still be in progress in some pool thread
+     */
+    private static class PendingFileSnapshot {
+
+        private final DirectorySnapshot    dirSnapshot;
+        private final String               fileName;
+
+        private FileSnapshot               fileSnapshot;
+        private Future<FileSnapshot>       futureFileSnapshot;
+
+        PendingFileSnapshot( final DirectorySnapshot dirSnapshot, final SnapshotConfiguration configuration,
+                             final File file, ExecutorService executor ) {
+
+            this.dirSnapshot = dirSnapshot;
+            this.fileName = file.getName();
+
+            if (executor == null) {
+                this.fileSnapshot = dirSnapshot.generateFileSnapshot(configuration, file);
+            } else {
+                this.futureFileSnapshot = executor.submit(new Callable<FileSnapshot>() {
+
+                    @Override
+                    public FileSnapshot call() {
+
+                        return dirSnapshot.generateFileSnapshot(configuration, file);
+                    }
+                });
+            }
+        }
+
+        void addToDirectory() {
+
+            if (futureFileSnapshot != null) {
+                try {
+                    fileSnapshot = futureFileSnapshot.get();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new FileSystemSnapshotException("Interrupted while taking snapshot of directory '"
+                                                          + dirSnapshot.path + "'", ie);
+                } catch (ExecutionException ee) {
+                    if (ee.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) ee.getCause();
+                    }
+                    throw new FileSystemSnapshotException("Error taking snapshot of file '" + fileName
+                                                          + "' in directory '" + dirSnapshot.path + "'",
+                                                          ee.getCause());
+                }
+            }
+
+            if (fileSnapshot != null) { // if the file is not skipped
+                log.debug("Add " + fileSnapshot.toString());
+                dirSnapshot.fileSnapshots.put(fileName, fileSnapshot);
+            }
+        }
+    }
+
     /**
      * This method is good for debug purpose
      */
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.common.filesystem.Md5SumMode;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.core.filesystem.LocalFileSystemOperations;
+import com.axway.ats.core.utils.IoUtils;
+
+/**
+ * Keeps the MD5 sums of already hashed files, so they are not hashed again
+ * by the next snapshot if they are not changed.
+ * <p>
+ * A file is considered not changed when its size, modification time and file key
+ * (the inode on UNIX systems) are the same as when it was hashed.
+ * The cache is persisted in a file, so it is reused between test runs as well.
+ * </p>
+ */
+public class FileHashCache {
+
+    private static final Logger                     log                = Logger.getLogger(FileHashCache.class);
+
+    private static final int                        CACHE_FILE_MAGIC   = 0x41545348;                           // "ATSH"
+    private static final int                        CACHE_FILE_VERSION = 1;
+
+    // when the cache gets bigger, the entries not used in this session are not persisted
+    private static final int                        MAX_ENTRIES        = 1000000;
+
+    private static final String                     DEFAULT_CACHE_FILE = "ats_file_snapshot_hashes.cache";
+
+    // one instance per cache file, so all snapshots in this JVM share it
+    private static final Map<String, FileHashCache> instances          = new HashMap<String, FileHashCache>();
+
+    private final String                            cacheFile;
+
+    // <file path, cache entry>
+    private final Map<String, CacheEntry>           entries            = new ConcurrentHashMap<String, CacheEntry>();
+
+    // number of changes of the entries, compared to the number of changes at the last successful save
+    private final AtomicLong                        modifications      = new AtomicLong();
+    private volatile long                           savedModifications;
+
+    private FileHashCache( String cacheFile ) {
+
+        this.cacheFile = cacheFile;
+        load();
+    }
+
+    /**
+     * @param cacheFile the file the cache is persisted in, if null a file in the user temp directory is used
+     * @return the cache instance for this file
+     */
+    public static synchronized FileHashCache getInstance( String cacheFile ) {
+
+        if (cacheFile == null) {
+            cacheFile = IoUtils.normalizeDirPath(AtsSystemProperties.SYSTEM_USER_TEMP_DIR) + DEFAULT_CACHE_FILE;
+        }
+
+        FileHashCache instance = instances.get(cacheFile);
+        if (instance == null) {
+            instance = new FileHashCache(cacheFile);
+            instances.put(cacheFile, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Get the MD5 sum of a file. It is calculated only if the file is not known
+     * or it is changed since the last calculation.
+     *
+     * @param filePath the file
+     * @return the MD5 sum in binary mode
+     */
+    public String getMd5( String filePath ) {
+
+        BasicFileAttributes attributes = readAttributes(filePath);
+        if (attributes == null) {
+            // let the file system operations report the problem
+            return new LocalFileSystemOperations().computeMd5Sum(filePath, Md5SumMode.BINARY);
+        }
+
+        CacheEntry entry = entries.get(filePath);
+        if (entry != null && entry.isSameFile(attributes)) {
+            entry.isUsed = true;
+            return entry.md5;
+        }
+
+        String md5 = new LocalFileSystemOperations().computeMd5Sum(filePath, Md5SumMode.BINARY);
+
+        // do not remember the result if the file was changed while hashing it
+        BasicFileAttributes attributesAfter = readAttributes(filePath);
+        if (attributesAfter != null && new CacheEntry(attributes, md5).isSameFile(attributesAfter)) {
+            entries.put(filePath, new CacheEntry(attributes, md5));
+            modifications.incrementAndGet();
+        }
+
+        return md5;
+    }
+
+    /**
+     * Persist the cache, if there are new entries since the last save
+     */
+    public synchronized void save() {
+
+        // read it before copying the entries, so changes made while saving are persisted next time
+        long currentModifications = modifications.get();
+        if (currentModifications == savedModifications) {
+            return;
+        }
+
+        if (entries.size() > MAX_ENTRIES) {
+            Iterator<CacheEntry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (!it.next().isUsed) {
+                    it.remove();
+                }
+            }
+        }
+
+        File tempFile = new File(cacheFile + ".tmp");
+        DataOutputStream dos = null;
+        try {
+            dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            IoUtils.writeFileHeader(dos, CACHE_FILE_MAGIC, CACHE_FILE_VERSION);
+
+            // copy the entries, as they might be modified by other snapshots while saving
+            Map<String, CacheEntry> entriesToSave = new HashMap<String, CacheEntry>(entries);
+            dos.writeInt(entriesToSave.size());
+            for (Map.Entry<String, CacheEntry> entry : entriesToSave.entrySet()) {
+                CacheEntry cacheEntry = entry.getValue();
+                dos.writeUTF(entry.getKey());
+                dos.writeLong(cacheEntry.size);
+                dos.writeLong(cacheEntry.timeModified);
+                dos.writeUTF(cacheEntry.fileKey);
+                dos.writeUTF(cacheEntry.md5);
+            }
+            dos.close();
+            dos = null;
+
+            try {
+                Files.move(tempFile.toPath(), Paths.get(cacheFile), StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), Paths.get(cacheFile), StandardCopyOption.REPLACE_EXISTING);
+            }
+            savedModifications = currentModifications;
+            log.debug("Saved " + entriesToSave.size() + " file hashes in " + cacheFile);
+        } catch (IOException ioe) {
+            // the cache is just an optimization, so we do not fail the snapshot
+            log.warn("Could not save the file hash cache in " + cacheFile, ioe);
+            tempFile.delete();
+        } finally {
+            IoUtils.closeStream(dos);
+        }
+    }
+
+    int size() {
+
+        return entries.size();
+    }
+
+    private void load() {
+
+        File file = new File(cacheFile);
+        if (!file.isFile()) {
+            return;
+        }
+
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (!IoUtils.readFileHeader(dis, CACHE_FILE_MAGIC, CACHE_FILE_VERSION)) {
+                log.warn("File " + cacheFile + " is not a valid file hash cache, it will be overwritten");
+                return;
+            }
+
+            int numberOfEntries = dis.readInt();
+            for (int i = 0; i < numberOfEntries; i++) {
+                String filePath = dis.readUTF();
+                long size = dis.readLong();
+                long timeModified = dis.readLong();
+                String fileKey = dis.readUTF();
+                String md5 = dis.readUTF();
+                CacheEntry entry = new CacheEntry(size, timeModified, fileKey, md5);
+                entry.isUsed = false;
+                entries.put(filePath, entry);
+            }
+            log.debug("Loaded " + numberOfEntries + " file hashes from " + cacheFile);
+        } catch (IOException ioe) {
+            log.warn("Could not load the file hash cache from " + cacheFile + ", it will be overwritten", ioe);
+            entries.clear();
+        } finally {
+            IoUtils.closeStream(dis);
+        }
+    }
+
+    private static BasicFileAttributes readAttributes( String filePath ) {
+
+        try {
+            return Files.readAttributes(Paths.get(filePath), BasicFileAttributes.class);
+        } catch (IOException ioe) {
+            return null;
+        }
+    }
+
+    private static class CacheEntry {
+
+        private final long       size;
+        private final long       timeModified;
+        private final String     fileKey;
+        private final String     md5;
+
+        // whether the entry was used in this session
+        private volatile boolean isUsed = true;
+
+        CacheEntry( BasicFileAttributes attributes, String md5 ) {
+
+            this(attributes.size(), IoUtils.getModificationTime(attributes), IoUtils.getFileKey(attributes), md5);
+        }
+
+        CacheEntry( long size, long timeModified, String fileKey, String md5 ) {
+
+            this.size = size;
+            this.timeModified = timeModified;
+            this.fileKey = fileKey;
+            this.md5 = md5;
+        }
+
+        boolean isSameFile( BasicFileAttributes attributes ) {
+
+            return size == attributes.size()
+                   && timeModified == IoUtils.getModificationTime(attributes)
+                   && fileKey.equals(IoUtils.getFileKey(attributes));
+        }
+    }
+}
@@ -550,6 +550,11 @@ public void takeSnapshot() {
             dirSnapshots.get(dirAlias).takeSnapshot(configuration);
         }
 
+        if (configuration.isUseHashCache()) {
+            // remember the new file hashes for the next snapshots
+            FileHashCache.getInstance(configuration.getHashCacheFile()).save();
+        }
+
         log.debug("End taking file system snapshot, snapshot name is " + name);
     }
 
@@ -53,6 +53,14 @@ public class SnapshotConfiguration implements Serializable {
     private boolean           checkTextFilesContent;
     private Set<String>       textFileExtensions;
 
+    // how many threads process the files of a directory tree
+    private int               threads              = 1;
+
+    // whether to reuse the MD5 sums of files not changed since the previous snapshot
+    private boolean           useHashCache;
+    // where the MD5 sums are kept, if null a file in the user temp directory is used
+    private String            hashCacheFile;
+
     public SnapshotConfiguration() {
         // set default values
 
@@ -95,6 +103,10 @@ public SnapshotConfiguration newCopy() {
         copy.checkTextFilesContent = checkTextFilesContent;
         copy.textFileExtensions = textFileExtensions;
 
+        copy.threads = threads;
+        copy.useHashCache = useHashCache;
+        copy.hashCacheFile = hashCacheFile;
+
         return copy;
     }
 
@@ -158,6 +170,48 @@ public void setSupportHidden( boolean supportHidden ) {
         this.supportHidden = supportHidden;
     }
 
+    public int getThreads() {
+
+        return threads;
+    }
+
+    /**
+     * @param threads how many threads process the files of a directory tree,
+     * values less than 2 mean the files are processed by the current thread
+     */
+    public void setThreads( int threads ) {
+
+        this.threads = threads;
+    }
+
+    public boolean isUseHashCache() {
+
+        return useHashCache;
+    }
+
+    /**
+     * @param useHashCache whether to reuse the MD5 sums of the files which size, modification time and
+     * inode are not changed since they were hashed for a previous snapshot
+     */
+    public void setUseHashCache( boolean useHashCache ) {
+
+        this.useHashCache = useHashCache;
+    }
+
+    public String getHashCacheFile() {
+
+        return hashCacheFile;
+    }
+
+    /**
+     * @param hashCacheFile the file where the MD5 sums are kept between snapshots,
+     * if null a file in the user temp directory is used
+     */
+    public void setHashCacheFile( String hashCacheFile ) {
+
+        this.hashCacheFile = hashCacheFile;
+    }
+
     public boolean isCheckPropertiesFilesContent() {
 
         return checkPropertiesFilesContent;
@@ -28,6 +28,7 @@
 import com.axway.ats.common.filesystem.snapshot.equality.FileTrace;
 import com.axway.ats.core.filesystem.LocalFileSystemOperations;
 import com.axway.ats.core.filesystem.exceptions.AttributeNotSupportedException;
+import com.axway.ats.core.filesystem.snapshot.FileHashCache;
 import com.axway.ats.core.filesystem.snapshot.SnapshotConfiguration;
 import com.axway.ats.core.filesystem.snapshot.SnapshotUtils;
 import com.axway.ats.core.filesystem.snapshot.matchers.FindRules;
@@ -70,7 +71,11 @@ public FileSnapshot( SnapshotConfiguration configuration, String path, FindRules
             this.timeModified = fileOps.getFileModificationTime(path);
         }
         if (doWeCheckFileMD5(fileRule)) {
-            this.md5 = fileOps.computeMd5Sum(path, Md5SumMode.BINARY);
+            if (configuration.isUseHashCache()) {
+                this.md5 = FileHashCache.getInstance(configuration.getHashCacheFile()).getMd5(path);
+            } else {
+                this.md5 = fileOps.computeMd5Sum(path, Md5SumMode.BINARY);
+            }
         }
         if (doWeCheckFilePermissions(fileRule)) {
             try {
@@ -145,6 +150,26 @@ public String getPath() {
         return path;
     }
 
+    public long getSize() {
+
+        return size;
+    }
+
+    public long getTimeModified() {
+
+        return timeModified;
+    }
+
+    public String getMd5() {
+
+        return md5;
+    }
+
+    public String getPermissions() {
+
+        return permissions;
+    }
+
     public void compare( FileSnapshot that, FileSystemEqualityState equality, FileTrace fileTrace ) {
 
         boolean checkingContent = this instanceof PropertiesFileSnapshot;
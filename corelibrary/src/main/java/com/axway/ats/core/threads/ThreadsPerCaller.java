@@ -15,16 +15,18 @@
  */
 package com.axway.ats.core.threads;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class keeps track of all the threads, that each caller has triggered.
  * It is used in AgentWsImpl, LocalExecutor and LocalLoadExecutor classes.
+ * 
+ * A load queue may run many thousands of threads, so no global lock is used here.
  */
 public class ThreadsPerCaller {
 
-    private static Map<String, String> threads = new HashMap<String, String>();
+    private static Map<String, String> threads = new ConcurrentHashMap<String, String>();
 
     /**
      * Register this thread for the given caller.
@@ -33,10 +35,15 @@ public class ThreadsPerCaller {
      * 
      * @param caller
      */
-    synchronized public static void registerThread(
-                                                    String caller ) {
+    public static void registerThread(
+                                       String caller ) {
 
-        threads.put(Thread.currentThread().getName(), caller);
+        if (caller == null) {
+            // the concurrent map does not accept null values
+            threads.remove(Thread.currentThread().getName());
+        } else {
+            threads.put(Thread.currentThread().getName(), caller);
+        }
     }
 
     /**
@@ -44,7 +51,7 @@ synchronized public static void registerThread(
      * 
      * Should be called right before existing the thread.
      */
-    synchronized public static void unregisterThread() {
+    public static void unregisterThread() {
 
         threads.remove(Thread.currentThread().getName());
     }
@@ -54,7 +61,7 @@ synchronized public static void unregisterThread() {
      * 
      * @return
      */
-    synchronized public static String getCaller() {
+    public static String getCaller() {
 
         return threads.get(Thread.currentThread().getName());
     }
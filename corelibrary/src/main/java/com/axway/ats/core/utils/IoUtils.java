@@ -19,6 +19,8 @@
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -29,7 +31,9 @@
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.net.URLDecoder;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -578,6 +582,59 @@ public static String getFileChunk(
         return sb.toString();
     }
 
+    /**
+     * Get a text which identifies a file on its file system, like the inode on UNIX systems.
+     * Together with {@link #getModificationTime(BasicFileAttributes)} and the size, it tells whether a file
+     * is still the same without reading its content.
+     *
+     * @param attributes the file attributes
+     * @return the file key or empty string if the file system does not provide file keys
+     */
+    public static String getFileKey( BasicFileAttributes attributes ) {
+
+        Object fileKey = attributes.fileKey();
+        return fileKey == null
+                               ? ""
+                               : fileKey.toString();
+    }
+
+    /**
+     * @param attributes the file attributes
+     * @return the file modification time in nanoseconds, as precise as the file system keeps it
+     */
+    public static long getModificationTime( BasicFileAttributes attributes ) {
+
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Write the header of a binary file - a magic number telling the file type and the format version
+     *
+     * @param output the file output
+     * @param magic the magic number
+     * @param version the format version
+     * @throws IOException
+     */
+    public static void writeFileHeader( DataOutputStream output, int magic, int version ) throws IOException {
+
+        output.writeInt(magic);
+        output.writeInt(version);
+    }
+
+    /**
+     * Read the header written by {@link #writeFileHeader(DataOutputStream, int, int)}
+     *
+     * @param input the file input
+     * @param magic the expected magic number
+     * @param version the expected format version
+     * @return whether the file has the expected type and format version
+     * @throws IOException
+     */
+    public static boolean readFileHeader( DataInputStream input, int magic, int version ) throws IOException {
+
+        return input.readInt() == magic && input.readInt() == version;
+    }
+
     public static String readLineWithEOL(
             RandomAccessFile raf ) throws IOException {
 
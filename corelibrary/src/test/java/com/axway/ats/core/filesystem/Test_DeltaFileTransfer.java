@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.core.BaseTest;
+
+/**
+ * Sends files in delta mode on the local host
+ */
+public class Test_DeltaFileTransfer extends BaseTest {
+
+    private File fromFile;
+    private File toFile;
+
+    @Before
+    public void setUp() throws IOException {
+
+        File tempDir = new File(AtsSystemProperties.SYSTEM_USER_TEMP_DIR);
+        fromFile = File.createTempFile("ats_delta_from", ".bin", tempDir);
+        toFile = new File(tempDir, fromFile.getName().replace("_from", "_to"));
+    }
+
+    @After
+    public void tearDown() {
+
+        fromFile.delete();
+        toFile.delete();
+    }
+
+    @Test
+    public void weakChecksumRolls() {
+
+        byte[] data = randomBytes(100);
+        int blockSize = 16;
+
+        int a = 0;
+        int b = 0;
+        for (int i = 0; i < blockSize; i++) {
+            a += data[i] & 0xff;
+            b += (blockSize - i) * (data[i] & 0xff);
+        }
+        for (int i = 1; i + blockSize <= data.length; i++) {
+            int removedValue = data[i - 1] & 0xff;
+            a += (data[i + blockSize - 1] & 0xff) - removedValue;
+            b += a - blockSize * removedValue;
+            assertEquals(DeltaFileTransfer.weakChecksum(data, i, blockSize), (a & 0xffff) | (b << 16));
+        }
+    }
+
+    @Test
+    public void sendChangedFile() throws Exception {
+
+        byte[] oldContent = randomBytes(1024 * 1024 + 123);
+        Files.write(toFile.toPath(), oldContent);
+
+        // insert some bytes, change some bytes and cut the end
+        byte[] newContent = new byte[oldContent.length - 99500];
+        System.arraycopy(oldContent, 0, newContent, 0, 100000);
+        System.arraycopy(randomBytes(500), 0, newContent, 100000, 500);
+        System.arraycopy(oldContent, 100000, newContent, 100500, 500000);
+        System.arraycopy(oldContent, 700000, newContent, 600500, newContent.length - 600500);
+        Files.write(fromFile.toPath(), newContent);
+
+        long transferredBytes = transfer();
+
+        assertArrayEquals(newContent, Files.readAllBytes(toFile.toPath()));
+        // about 2 blocks around each change and the last incomplete block
+        assertTrue("Too many bytes sent: " + transferredBytes,
+                   transferredBytes < 5 * DeltaFileTransfer.getBlockSize(oldContent.length));
+    }
+
+    @Test
+    public void keepTargetPermissions() throws Exception {
+
+        Assume.assumeNotNull(Files.getFileAttributeView(toFile.toPath().getParent(),
+                                                        PosixFileAttributeView.class));
+
+        Files.write(toFile.toPath(), randomBytes(200000));
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+        Files.setPosixFilePermissions(toFile.toPath(), permissions);
+        Files.write(fromFile.toPath(), randomBytes(250000));
+
+        transfer();
+
+        assertArrayEquals(Files.readAllBytes(fromFile.toPath()), Files.readAllBytes(toFile.toPath()));
+        assertEquals(permissions, Files.getPosixFilePermissions(toFile.toPath()));
+    }
+
+    @Test
+    public void sendNewFile() throws Exception {
+
+        byte[] content = randomBytes(300000);
+        Files.write(fromFile.toPath(), content);
+
+        assertEquals(content.length, transfer());
+        assertArrayEquals(content, Files.readAllBytes(toFile.toPath()));
+    }
+
+    @Test
+    public void sendEmptyFile() throws Exception {
+
+        Files.write(toFile.toPath(), randomBytes(10000));
+
+        assertEquals(0, transfer());
+        assertEquals(0, toFile.length());
+        assertFalse(new File(toFile.getPath() + ".ats_delta").exists());
+    }
+
+    private long transfer() throws Exception {
+
+        LocalFileSystemOperations receiver = new LocalFileSystemOperations();
+        int port = receiver.openFileTransferSocket();
+        FileTransferProgress progress = receiver.getFileTransferProgress(port);
+
+        new LocalFileSystemOperations().sendFileDeltaTo(fromFile.getPath(), toFile.getPath(), "localhost", port,
+                                                        true);
+        receiver.waitForFileTransferCompletion(port);
+        return progress.getTransferredBytes();
+    }
+
+    private static byte[] randomBytes( int size ) {
+
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.core.BaseTest;
+
+/**
+ * Sends directories over parallel streams on the local host
+ */
+public class Test_ParallelDirectoryTransfer extends BaseTest {
+
+    private File                 fromDir;
+    private File                 toDir;
+    private FileTransferProgress receiverProgress;
+
+    @Before
+    public void setUp() throws IOException {
+
+        File tempDir = new File(AtsSystemProperties.SYSTEM_USER_TEMP_DIR);
+        fromDir = Files.createTempDirectory(tempDir.toPath(), "ats_transfer_from").toFile();
+        toDir = new File(tempDir, fromDir.getName().replace("_from", "_to"));
+    }
+
+    @After
+    public void tearDown() {
+
+        System.clearProperty(AtsSystemProperties.CORE__FILE_TRANSFER_STREAMS);
+        System.clearProperty(AtsSystemProperties.CORE__FILE_TRANSFER_SKIP_UNCHANGED_FILES);
+
+        LocalFileSystemOperations localFileSystemOperations = new LocalFileSystemOperations();
+        localFileSystemOperations.deleteDirectory(fromDir.getPath(), true);
+        localFileSystemOperations.deleteDirectory(toDir.getPath(), true);
+    }
+
+    @Test
+    public void sendDirectory() throws Exception {
+
+        System.setProperty(AtsSystemProperties.CORE__FILE_TRANSFER_STREAMS, "3");
+
+        createFile("small1.txt", 100);
+        createFile("empty.txt", 0);
+        createFile("sub1/small2.txt", ParallelDirectoryTransfer.SMALL_FILE_SIZE);
+        createFile("sub1/sub2/medium.bin", ParallelDirectoryTransfer.SMALL_FILE_SIZE + 1);
+        // split in 3 chunks
+        createFile("sub1/big.bin", 2 * ParallelDirectoryTransfer.CHUNK_SIZE + 1000);
+        new File(fromDir, "sub3/emptyDir").mkdirs();
+
+        FileTransferProgress progress = transfer();
+
+        assertEquals(5, progress.getTransferredFiles());
+        assertEquals(100 + 2 * ParallelDirectoryTransfer.SMALL_FILE_SIZE + 1 + 2 * ParallelDirectoryTransfer.CHUNK_SIZE
+                     + 1000, progress.getTransferredBytes());
+        assertSameFile("small1.txt");
+        assertSameFile("empty.txt");
+        assertSameFile("sub1/small2.txt");
+        assertSameFile("sub1/sub2/medium.bin");
+        assertSameFile("sub1/big.bin");
+        assertTrue(new File(toDir, "sub3/emptyDir").isDirectory());
+    }
+
+    @Test
+    public void skipUnchangedFiles() throws Exception {
+
+        System.setProperty(AtsSystemProperties.CORE__FILE_TRANSFER_SKIP_UNCHANGED_FILES, "true");
+
+        File unchanged = createFile("unchanged.txt", 10);
+        File changed = createFile("changed.txt", 10);
+
+        // same size and modification time, but different content
+        File oldUnchanged = new File(toDir, "unchanged.txt");
+        toDir.mkdirs();
+        Files.write(oldUnchanged.toPath(), "0123456789".getBytes());
+        oldUnchanged.setLastModified(unchanged.lastModified());
+        // different modification time
+        File oldChanged = new File(toDir, "changed.txt");
+        Files.write(oldChanged.toPath(), "0123456789".getBytes());
+        oldChanged.setLastModified(changed.lastModified() - 10000);
+
+        FileTransferProgress progress = transfer();
+
+        assertArrayEquals("0123456789".getBytes(), Files.readAllBytes(oldUnchanged.toPath()));
+        assertSameFile("changed.txt");
+        assertEquals(1, progress.getTransferredFiles());
+        assertEquals(1, progress.getSkippedFiles());
+    }
+
+    @Test
+    public void sendDirectoryOverOneStreamByDefault() throws Exception {
+
+        createFile("small1.txt", 100);
+        createFile("sub1/small2.txt", 200);
+
+        FileTransferProgress progress = transfer();
+
+        // the single stream protocol does not keep the modification time
+        for (String name : new String[]{ "small1.txt", "sub1/small2.txt" }) {
+            assertArrayEquals(Files.readAllBytes(new File(fromDir, name).toPath()),
+                              Files.readAllBytes(new File(toDir, name).toPath()));
+        }
+        assertEquals(2, progress.getTransferredFiles());
+        assertEquals(300, progress.getTransferredBytes());
+        // the receiving side counts the same
+        assertEquals(2, receiverProgress.getTransferredFiles());
+        assertEquals(300, receiverProgress.getTransferredBytes());
+    }
+
+    @Test
+    public void failWhenChunksAreMissing() throws Exception {
+
+        LocalFileSystemOperations receiver = new LocalFileSystemOperations();
+        int port = receiver.openFileTransferSocket();
+        String fileName = new File(toDir, "big.bin").getPath();
+
+        // send the first half of a file and end the stream between two commands
+        Socket socket = new Socket("localhost", port);
+        try {
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            writeString(output, LocalFileSystemOperations.STREAMS_SOCKET_COMMAND);
+            output.writeInt(0);
+            output.writeInt(1);
+            writeString(output, LocalFileSystemOperations.FILE_CHUNK_SOCKET_COMMAND);
+            writeString(output, fileName);
+            output.writeLong(20);
+            output.writeLong(System.currentTimeMillis());
+            output.writeLong(0);
+            output.writeInt(10);
+            output.write(new byte[10]);
+            output.flush();
+        } finally {
+            socket.close();
+        }
+
+        try {
+            receiver.waitForFileTransferCompletion(port);
+            fail("The incomplete transfer is not detected");
+        } catch (Exception e) {
+            assertTrue(e.getCause() instanceof IOException);
+            assertTrue(e.getCause().getMessage().contains(fileName));
+        }
+    }
+
+    private FileTransferProgress transfer() throws Exception {
+
+        LocalFileSystemOperations receiver = new LocalFileSystemOperations();
+        int port = receiver.openFileTransferSocket();
+        receiverProgress = receiver.getFileTransferProgress(port);
+
+        FileTransferProgress progress = new LocalFileSystemOperations().sendDirectoryTo(fromDir.getPath(),
+                                                                                        toDir.getPath(),
+                                                                                        "localhost", port, true,
+                                                                                        true);
+        receiver.waitForFileTransferCompletion(port);
+        return progress;
+    }
+
+    private void writeString( DataOutputStream output, String value ) throws IOException {
+
+        byte[] bytes = value.getBytes(LocalFileSystemOperations.DEFAULT_CHARSET);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private File createFile( String name, int size ) throws IOException {
+
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i * 31 + name.length());
+        }
+
+        File file = new File(fromDir, name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content);
+        file.setLastModified(System.currentTimeMillis() - 3600 * 1000);
+        return file;
+    }
+
+    private void assertSameFile( String name ) throws IOException {
+
+        File from = new File(fromDir, name);
+        File to = new File(toDir, name);
+        assertArrayEquals(Files.readAllBytes(from.toPath()), Files.readAllBytes(to.toPath()));
+        assertEquals(from.lastModified() / 1000, to.lastModified() / 1000);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.common.filesystem.Md5SumMode;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.core.BaseTest;
+import com.axway.ats.core.utils.StringUtils;
+
+/**
+ * Bulk hashing and grep of files
+ */
+public class Test_ParallelFileProcessor extends BaseTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory(new File(AtsSystemProperties.SYSTEM_USER_TEMP_DIR).toPath(),
+                                              "ats_bulk")
+                         .toFile();
+    }
+
+    @After
+    public void tearDown() {
+
+        new LocalFileSystemOperations().deleteDirectory(directory.getPath(), true);
+    }
+
+    @Test
+    public void xxHash64() {
+
+        assertEquals("ef46db3751d8e999", xxHash64(""));
+        assertEquals("44bc2cf5ad770999", xxHash64("abc"));
+        assertEquals("fbcea83c8a378bf1", xxHash64("Nobody inspects the spammish repetition"));
+
+        // same hash when the data comes in parts
+        byte[] data = new byte[1000];
+        new Random(1).nextBytes(data);
+        MessageDigest digest = new XxHash64();
+        byte[] wholeHash = digest.digest(data);
+        for (int i = 0; i < data.length;) {
+            int length = Math.min(data.length - i, 1 + i % 37);
+            digest.update(data, i, length);
+            i += length;
+        }
+        assertArrayEquals(wholeHash, digest.digest());
+    }
+
+    @Test
+    public void computeFileHashes() throws Exception {
+
+        File smallFile = createFile("small.bin", 1000);
+        File bigFile = createFile("sub/big.bin", ParallelFileProcessor.MAP_THRESHOLD + 1000);
+
+        LocalFileSystemOperations localFileSystemOperations = new LocalFileSystemOperations();
+        Map<String, String> md5Sums = localFileSystemOperations.computeFileHashes(new String[]{ bigFile.getPath(),
+                                                                                                smallFile.getPath() },
+                                                                                  FileHashAlgorithm.MD5);
+        assertEquals(2, md5Sums.size());
+        assertEquals(localFileSystemOperations.computeMd5Sum(bigFile.getPath(), Md5SumMode.BINARY),
+                     md5Sums.get(bigFile.getPath()));
+        assertEquals(localFileSystemOperations.computeMd5Sum(smallFile.getPath(), Md5SumMode.BINARY),
+                     md5Sums.get(smallFile.getPath()));
+
+        Map<String, String> sha256Sums = localFileSystemOperations.computeDirectoryHashes(directory.getPath(), true,
+                                                                                          FileHashAlgorithm.SHA_256);
+        assertEquals(2, sha256Sums.size());
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        assertEquals(StringUtils.byteArray2Hex(digest.digest(Files.readAllBytes(bigFile.toPath()))),
+                     sha256Sums.get(bigFile.getPath()));
+
+        // not recursive
+        assertEquals(1, localFileSystemOperations.computeDirectoryHashes(directory.getPath(), false,
+                                                                         FileHashAlgorithm.XXHASH_64)
+                                                 .size());
+    }
+
+    @Test
+    public void getRequiredLiteral() {
+
+        assertEquals("ERROR", ParallelFileProcessor.getRequiredLiteral(".*ERROR.*"));
+        assertEquals("ERROR: ", ParallelFileProcessor.getRequiredLiteral("^ERROR: \\d+"));
+        assertEquals("a.b", ParallelFileProcessor.getRequiredLiteral(".*a\\.b.*"));
+        assertEquals("abc", ParallelFileProcessor.getRequiredLiteral("abcd?"));
+        assertEquals("abcd", ParallelFileProcessor.getRequiredLiteral("abcd+e"));
+        assertNull(ParallelFileProcessor.getRequiredLiteral(".*(ERROR|WARN).*"));
+        assertNull(ParallelFileProcessor.getRequiredLiteral("(?i).*error.*"));
+        assertNull(ParallelFileProcessor.getRequiredLiteral("\\d+ ERROR"));
+    }
+
+    @Test
+    public void fileGrep() throws Exception {
+
+        // the big file is memory mapped
+        StringBuilder content = new StringBuilder();
+        int lineNumber = 0;
+        while (content.length() < ParallelFileProcessor.MAP_THRESHOLD * 2) {
+            lineNumber++;
+            content.append("line ").append(lineNumber);
+            if (lineNumber % 1000 == 0) {
+                content.append(" ERROR ").append(lineNumber / 1000);
+            }
+            content.append( (lineNumber % 2 == 0)
+                                                  ? "\r\n"
+                                                  : "\n");
+        }
+        content.append("last line ERROR");
+        File bigFile = new File(directory, "big.log");
+        Files.write(bigFile.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        File smallFile = new File(directory, "small.log");
+        Files.write(smallFile.toPath(), "ERROR 1\nline 2\n\nline 4 ERROR\n".getBytes(StandardCharsets.UTF_8));
+
+        LocalFileSystemOperations localFileSystemOperations = new LocalFileSystemOperations();
+        for (String searchPattern : new String[]{ "*ERROR*", "line *" }) {
+            final List<String> bigFileLines = new ArrayList<String>();
+            final List<String> smallFileLines = new ArrayList<String>();
+            long matchedLines = localFileSystemOperations.directoryGrep(directory.getPath(), false, searchPattern,
+                                                                        true, new FileGrepListener() {
+
+                                                                            @Override
+                                                                            public void lineMatched( String fileName,
+                                                                                                     long lineNumber,
+                                                                                                     String line ) {
+
+                                                                                if (fileName.endsWith("big.log")) {
+                                                                                    bigFileLines.add(lineNumber + ":"
+                                                                                                     + line);
+                                                                                } else {
+                                                                                    smallFileLines.add(lineNumber
+                                                                                                       + ":" + line);
+                                                                                }
+                                                                            }
+                                                                        });
+
+            assertEquals(expectedLines(bigFile, searchPattern), bigFileLines);
+            assertEquals(expectedLines(smallFile, searchPattern), smallFileLines);
+            assertEquals(bigFileLines.size() + smallFileLines.size(), matchedLines);
+        }
+    }
+
+    private List<String> expectedLines( File file, String searchPattern ) throws IOException {
+
+        String regex = searchPattern.replace("*", ".*");
+        List<String> lines = new ArrayList<String>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.matches(regex)) {
+                lines.add(lineNumber + ":" + line);
+            }
+        }
+        return lines;
+    }
+
+    private File createFile( String name, int size ) throws IOException {
+
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        File file = new File(directory, name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    private static String xxHash64( String value ) {
+
+        return StringUtils.byteArray2Hex(new XxHash64().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
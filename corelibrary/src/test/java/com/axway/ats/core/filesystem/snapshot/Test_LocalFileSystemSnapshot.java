@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.core.filesystem.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.common.filesystem.snapshot.FileSystemSnapshotException;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.core.BaseTest;
+import com.axway.ats.core.filesystem.LocalFileSystemOperations;
+
+/**
+ * Taking snapshots in parallel, reusing the file hashes and skipping same directories
+ */
+public class Test_LocalFileSystemSnapshot extends BaseTest {
+
+    private File directory;
+    private File hashCacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory(new File(AtsSystemProperties.SYSTEM_USER_TEMP_DIR).toPath(),
+                                              "ats_snapshot")
+                         .toFile();
+        hashCacheFile = new File(directory.getPath() + "_hashes.cache");
+
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 5; j++) {
+                writeFile("dir" + i + "/sub/file" + j + ".bin", "content " + i + " " + j);
+            }
+            writeFile("dir" + i + "/file.bin", "content " + i);
+        }
+        writeFile("skipped/file.bin", "content");
+    }
+
+    @After
+    public void tearDown() {
+
+        new LocalFileSystemOperations().deleteDirectory(directory.getPath(), true);
+        hashCacheFile.delete();
+    }
+
+    @Test
+    public void parallelSnapshot() throws IOException {
+
+        LocalFileSystemSnapshot snapshot1 = newSnapshot("snap1");
+        LocalFileSystemSnapshot snapshot2 = newSnapshot("snap2");
+        snapshot1.takeSnapshot();
+
+        // changes in skipped directories do not matter
+        writeFile("skipped/file.bin", "new content");
+        writeFile("skipped/new_file.bin", "new content");
+        snapshot2.takeSnapshot();
+        snapshot1.compare(snapshot2);
+
+        writeFile("dir1/sub/file3.bin", "content 1 4");
+        LocalFileSystemSnapshot snapshot3 = newSnapshot("snap3");
+        snapshot3.takeSnapshot();
+        try {
+            snapshot1.compare(snapshot3);
+            fail("The changed file is not found");
+        } catch (FileSystemSnapshotException e) {
+            assertEquals(1, e.getEqualityState().getDifferences().size());
+            assertTrue(e.getMessage().contains("file3.bin"));
+        }
+    }
+
+    @Test
+    public void reuseFileHashes() throws IOException {
+
+        LocalFileSystemSnapshot snapshot1 = newSnapshot("snap1");
+        snapshot1.takeSnapshot();
+
+        assertTrue(hashCacheFile.isFile());
+        assertEquals(18, FileHashCache.getInstance(hashCacheFile.getPath()).size());
+
+        // the content is changed, the hash must be calculated again
+        writeFile("dir2/file.bin", "other content");
+        LocalFileSystemSnapshot snapshot2 = newSnapshot("snap2");
+        snapshot2.takeSnapshot();
+        try {
+            snapshot1.compare(snapshot2);
+            fail("The changed file is not found");
+        } catch (FileSystemSnapshotException e) {
+            assertEquals(1, e.getEqualityState().getDifferences().size());
+        }
+        assertEquals(18, FileHashCache.getInstance(hashCacheFile.getPath()).size());
+    }
+
+    @Test
+    public void compareLoadedSnapshot() throws IOException {
+
+        LocalFileSystemSnapshot snapshot1 = newSnapshot("snap1");
+        snapshot1.takeSnapshot();
+
+        File backupFile = new File(directory.getPath() + "_snapshot.xml");
+        try {
+            snapshot1.toFile(backupFile.getPath());
+
+            LocalFileSystemSnapshot loadedSnapshot = new LocalFileSystemSnapshot("loaded",
+                                                                                 newConfiguration());
+            loadedSnapshot.loadFromFile(backupFile.getPath());
+
+            LocalFileSystemSnapshot snapshot2 = newSnapshot("snap2");
+            snapshot2.takeSnapshot();
+            loadedSnapshot.compare(snapshot2);
+
+            new File(directory, "dir0/sub/file0.bin").delete();
+            LocalFileSystemSnapshot snapshot3 = newSnapshot("snap3");
+            snapshot3.takeSnapshot();
+            try {
+                loadedSnapshot.compare(snapshot3);
+                fail("The deleted file is not found");
+            } catch (FileSystemSnapshotException e) {
+                assertEquals(1, e.getEqualityState().getDifferences().size());
+            }
+        } finally {
+            backupFile.delete();
+        }
+    }
+
+    private LocalFileSystemSnapshot newSnapshot( String name ) {
+
+        LocalFileSystemSnapshot snapshot = new LocalFileSystemSnapshot(name, newConfiguration());
+        snapshot.addDirectory("root", directory.getPath());
+        snapshot.skipDirectory("root", "skipped");
+        return snapshot;
+    }
+
+    private SnapshotConfiguration newConfiguration() {
+
+        SnapshotConfiguration configuration = new SnapshotConfiguration();
+        configuration.setCheckModificationTime(true);
+        configuration.setCheckSize(true);
+        configuration.setCheckMD5(true);
+        configuration.setSupportHidden(true);
+        configuration.setThreads(4);
+        configuration.setUseHashCache(true);
+        configuration.setHashCacheFile(hashCacheFile.getPath());
+        return configuration;
+    }
+
+    private void writeFile( String relativePath, String content ) throws IOException {
+
+        File file = new File(directory, relativePath);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.environment.file;
+
+import com.axway.ats.common.PublicAtsApi;
+
+/**
+ * How the files of a {@link DirectoryEnvironmentUnit} are put in the backup directory
+ */
+@PublicAtsApi
+public enum DirectoryBackupMode {
+
+    /**
+     * The files are copied. This is the default mode.
+     */
+    @PublicAtsApi
+    COPY,
+
+    /**
+     * The files are hard linked, so the backup is almost instant and takes almost no disk space.
+     * Where hard links are not supported (e.g. the backup directory is on another file system),
+     * the files are copied.
+     * <p>
+     * A hard linked file shares its content with the backup, so this mode is safe only when the
+     * files are replaced (deleted and created again) during the tests, not modified in place.
+     * A file modified in place can not be restored and this is reported as an error on restore.
+     * </p>
+     */
+    @PublicAtsApi
+    LINK
+}
@@ -17,7 +17,24 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.log4j.Logger;
@@ -32,6 +49,11 @@
  * Directory environment unit implementation - this environment unit represents
  * a directory on the file system. Backup and restore can be executed for whole files and directories recursively.
  * Any additional actions can be executed after the restore as well
+ * <p>
+ * Next to the backup directory a manifest with the size, modification time and inode of each file is saved.
+ * On restore, only the files which do not match the manifest are restored.
+ * The files are copied or hard linked in the backup directory according to the {@link DirectoryBackupMode}
+ * </p>
  */
 @PublicAtsApi
 public class DirectoryEnvironmentUnit extends EnvironmentUnit {
@@ -43,6 +65,8 @@ public class DirectoryEnvironmentUnit extends EnvironmentUnit {
     private String              backupDirPath;
     private String              backupDirName;
 
+    private DirectoryBackupMode backupMode = DirectoryBackupMode.COPY;
+
     //the environment unit description
     private final String        description;
 
@@ -79,6 +103,21 @@ public DirectoryEnvironmentUnit( String origDirName,
         this.description = "directory " + origDirName;
     }
 
+    /**
+     * @param backupMode how the files are put in the backup directory
+     */
+    @PublicAtsApi
+    public void setBackupMode( DirectoryBackupMode backupMode ) {
+
+        this.backupMode = backupMode;
+    }
+
+    @PublicAtsApi
+    public DirectoryBackupMode getBackupMode() {
+
+        return backupMode;
+    }
+
     @Override
     @PublicAtsApi
     public void backup() throws EnvironmentCleanupException {
@@ -99,34 +138,93 @@ public void backup() throws EnvironmentCleanupException {
         }
     }
 
-    private void backupAllFilesInDirectory(
-                                            File origDir ) throws EnvironmentCleanupException {
+    private void backupAllFilesInDirectory( File origDir ) throws EnvironmentCleanupException {
+
+        final Path origDirPath = origDir.toPath();
+        final Path backupDirPath = Paths.get(getBackupDir());
+        File manifestFile = getManifestFile();
 
-        File[] files = origDir.listFiles();
-        if (files == null) {
-            throw new EnvironmentCleanupException("No such directory '" + origDir + "'.");
+        // the files not changed since the previous backup are not backed up again
+        DirectoryManifest oldManifest = DirectoryManifest.load(manifestFile);
+        if (oldManifest != null && oldManifest.getBackupMode() != backupMode) {
+            oldManifest = null;
         }
-        for (File file : files) {
-            if (file.isDirectory()) {
+        final DirectoryManifest previousManifest = oldManifest;
+        final DirectoryManifest manifest = new DirectoryManifest(backupMode);
+        final int[] counters = new int[3]; // linked, copied, not changed files
 
-                backupAllFilesInDirectory(file);
-            } else {
+        try {
+            FileVisitor<Path> visitor = new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory( Path dir, BasicFileAttributes attrs ) throws IOException {
+
+                    String relativePath = getRelativeDirPath(origDirPath, dir);
+                    manifest.addDirectory(relativePath);
+                    Files.createDirectories(backupDirPath.resolve(relativePath));
+                    return FileVisitResult.CONTINUE;
+                }
 
-                String backupFileName = IoUtils.normalizeFilePath(getFileCanonicalPath(file));
-                // important that case matches incl. drive letter so origDirName and backupDir
-                // should also come after getCanonicalPath() invocation
-                backupFileName = backupFileName.replace(origDirName, getBackupDir());
-                new FileEnvironmentUnit(getFileCanonicalPath(file),
-                                        IoUtils.getFilePath(backupFileName),
-                                        file.getName()).backup();
+                @Override
+                public FileVisitResult visitFile( Path file, BasicFileAttributes attrs ) throws IOException {
+
+                    String relativePath = getRelativeFilePath(origDirPath, file);
+                    Path backupFile = backupDirPath.resolve(relativePath);
+
+                    DirectoryManifest.Entry previousEntry = null;
+                    if (previousManifest != null) {
+                        previousEntry = previousManifest.get(relativePath);
+                    }
+                    if (previousEntry != null && previousEntry.isSameFile(attrs)
+                        && isBackupFileValid(backupFile, previousEntry)) {
+                        manifest.addFile(relativePath, attrs);
+                        counters[2]++;
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    try {
+                        if (putFile(file, backupFile, backupMode)) {
+                            counters[0]++;
+                        } else {
+                            counters[1]++;
+                        }
+                        manifest.addFile(relativePath, attrs);
+                    } catch (AccessDeniedException | NoSuchFileException e) {
+                        log.warn("Cannot backup file: " + file + " Skipping it.", e);
+                        manifest.addSkippedFile(relativePath);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            };
+            Files.walkFileTree(origDirPath, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, visitor);
+
+            // remove the backup files which are not in the original directory anymore
+            if (previousManifest != null) {
+                List<String> removedPaths = new ArrayList<String>();
+                for (String relativePath : previousManifest.getEntries().keySet()) {
+                    if (manifest.get(relativePath) == null) {
+                        removedPaths.add(relativePath);
+                    }
+                }
+                // delete the directory content before the directory itself
+                Collections.reverse(removedPaths);
+                for (String relativePath : removedPaths) {
+                    try {
+                        Files.deleteIfExists(backupDirPath.resolve(relativePath));
+                    } catch (DirectoryNotEmptyException e) {
+                        // there are files not known by the manifest, leave them
+                        log.debug("Backup directory " + e.getFile() + " is not empty, so it is not deleted");
+                    }
+                }
             }
+
+            manifest.save(manifestFile);
+        } catch (IOException ioe) {
+            throw new EnvironmentCleanupException("Could not backup directory " + origDirName, ioe);
         }
-        // if the directory is empty - create the new empty directory in the backup folder
-        if (files.length == 0) {
-            String backupDir = IoUtils.normalizeDirPath(getFileCanonicalPath(origDir))
-                                      .replace(origDirName, getBackupDir());
-            new File(backupDir).mkdirs();
-        }
+
+        log.debug("Backup of " + origDirName + " is done in " + backupDirPath + ". Linked files: "
+                  + counters[0] + ", copied files: " + counters[1] + ", not changed files: " + counters[2]);
     }
 
     private void updateRestoredFlag(
@@ -225,6 +323,13 @@ protected boolean executeRestoreIfNecessary() throws EnvironmentCleanupException
                 }
             }
 
+            DirectoryManifest manifest = DirectoryManifest.load(getManifestFile());
+            if (manifest != null) {
+                // only the files changed since the backup are touched
+                restoreChangedFiles(origDir, manifest);
+                return this.restored;
+            }
+
             Set<String> fileAndDirectoryPaths = getFileAndDirectoryPathsIndex(backupDir);
             restoreAllFilesInDirectory(origDir, fileAndDirectoryPaths);
 
@@ -249,6 +354,184 @@ protected boolean executeRestoreIfNecessary() throws EnvironmentCleanupException
         return this.restored;
     }
 
+    private void restoreChangedFiles( File origDir,
+                                      final DirectoryManifest manifest ) throws EnvironmentCleanupException {
+
+        final Path origDirPath = origDir.toPath();
+        final Path backupDirPath = Paths.get(getBackupDir());
+        final Set<String> foundPaths = new HashSet<String>();
+        final boolean[] isManifestChanged = new boolean[1];
+
+        try {
+            FileVisitor<Path> visitor = new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory( Path dir, BasicFileAttributes attrs ) throws IOException {
+
+                    String relativePath = getRelativeDirPath(origDirPath, dir);
+                    DirectoryManifest.Entry entry = manifest.get(relativePath);
+                    if (entry == null || !entry.isDirectory()) {
+                        // the directory is new
+                        deleteDirectory(dir);
+                        updateRestoredFlag(true);
+                        log.info("Directory " + dir + " is deleted.");
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+
+                    foundPaths.add(relativePath);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile( Path file, BasicFileAttributes attrs ) throws IOException {
+
+                    String relativePath = getRelativeFilePath(origDirPath, file);
+                    DirectoryManifest.Entry entry = manifest.get(relativePath);
+                    if (entry == null || entry.isDirectory()) {
+                        // the file is new and missing from the backup directory => delete it
+                        Files.delete(file);
+                        updateRestoredFlag(true);
+                        log.info("File " + file + " is deleted.");
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    foundPaths.add(relativePath);
+                    if (!entry.isSkippedFile() && !entry.isSameFile(attrs)) {
+                        restoreFile(manifest, relativePath, file, backupDirPath.resolve(relativePath));
+                        isManifestChanged[0] = true;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            };
+            Files.walkFileTree(origDirPath, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, visitor);
+
+            // here we have left only entries which are deleted after the backup. We should restore them
+            // (iterate a copy, as the restored files are updated in the manifest)
+            for (String relativePath : new ArrayList<String>(manifest.getEntries().keySet())) {
+                DirectoryManifest.Entry entry = manifest.get(relativePath);
+                if (foundPaths.contains(relativePath) || entry.isSkippedFile()) {
+                    continue;
+                }
+
+                Path origPath = origDirPath.resolve(relativePath);
+                if (entry.isDirectory()) {
+                    Files.createDirectories(origPath);
+                } else {
+                    restoreFile(manifest, relativePath, origPath, backupDirPath.resolve(relativePath));
+                    isManifestChanged[0] = true;
+                }
+                updateRestoredFlag(true);
+            }
+
+            if (isManifestChanged[0]) {
+                // remember the state of the restored files, so they are not restored again next time
+                manifest.save(getManifestFile());
+            }
+        } catch (IOException ioe) {
+            throw new EnvironmentCleanupException("Could not restore directory " + origDirName, ioe);
+        }
+    }
+
+    private void restoreFile( DirectoryManifest manifest, String relativePath, Path origFile,
+                              Path backupFile ) throws IOException {
+
+        DirectoryManifest.Entry entry = manifest.get(relativePath);
+        if (!isBackupFileValid(backupFile, entry)) {
+            String message = "Backup file " + backupFile + " is missing or it is changed since the backup";
+            if (manifest.getBackupMode() == DirectoryBackupMode.LINK) {
+                message += ". Probably the hard linked file " + origFile + " was modified in place, use "
+                           + DirectoryBackupMode.COPY + " backup mode for this directory";
+            }
+            throw new IOException(message);
+        }
+
+        Files.createDirectories(origFile.getParent());
+        putFile(backupFile, origFile, manifest.getBackupMode());
+        manifest.addFile(relativePath, Files.readAttributes(origFile, BasicFileAttributes.class));
+
+        updateRestoredFlag(true);
+        log.info("File " + origFile + " is restored.");
+    }
+
+    /**
+     * Put a file on the place of another one, by hard linking or copying it.
+     * The file attributes are preserved.
+     *
+     * @return true if the file is hard linked, false if it is copied
+     */
+    private boolean putFile( Path sourceFile, Path targetFile, DirectoryBackupMode mode ) throws IOException {
+
+        // delete the target first, as it might be a hard link to the source file
+        Files.deleteIfExists(targetFile);
+
+        if (mode == DirectoryBackupMode.LINK && !Files.isSymbolicLink(sourceFile)) {
+            try {
+                Files.createLink(targetFile, sourceFile);
+                return true;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                // e.g. the files are on different file systems, copy the file instead
+                log.debug("Could not create hard link " + targetFile + " to " + sourceFile
+                          + ", it will be copied. Error is: " + e.getMessage());
+            }
+        }
+
+        Files.copy(sourceFile, targetFile, StandardCopyOption.COPY_ATTRIBUTES);
+        return false;
+    }
+
+    private boolean isBackupFileValid( Path backupFile, DirectoryManifest.Entry entry ) {
+
+        try {
+            return entry.isSameContent(Files.readAttributes(backupFile, BasicFileAttributes.class));
+        } catch (IOException ioe) {
+            return false;
+        }
+    }
+
+    private void deleteDirectory( Path dir ) throws IOException {
+
+        // symbolic links are deleted, but not followed
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile( Path file, BasicFileAttributes attrs ) throws IOException {
+
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory( Path dir, IOException exc ) throws IOException {
+
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static String getRelativeFilePath( Path rootDir, Path file ) {
+
+        return rootDir.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static String getRelativeDirPath( Path rootDir, Path dir ) {
+
+        String relativePath = getRelativeFilePath(rootDir, dir);
+        return relativePath.isEmpty()
+                                      ? relativePath
+                                      : relativePath + "/";
+    }
+
+    private File getManifestFile() {
+
+        String backupDir = getBackupDir();
+        return new File(backupDir.substring(0, backupDir.length() - 1)
+                        + DirectoryManifest.MANIFEST_FILE_EXTENSION);
+    }
+
     private Set<String> getFileAndDirectoryPathsIndex(
                                                        File dir ) throws EnvironmentCleanupException {
 
@@ -285,6 +568,9 @@ private String getBackupDir() {
 
     public EnvironmentUnit getNewCopy() {
 
-        return new DirectoryEnvironmentUnit(this.origDirName, this.backupDirPath, this.backupDirName);
+        DirectoryEnvironmentUnit newCopy = new DirectoryEnvironmentUnit(this.origDirName, this.backupDirPath,
+                                                                        this.backupDirName);
+        newCopy.setBackupMode(this.backupMode);
+        return newCopy;
     }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.environment.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.core.utils.IoUtils;
+
+/**
+ * The state of all files and directories of a backed up directory.
+ * It is used to find which files are changed since the backup, without comparing them with the backup files.
+ * <p>
+ * A file is considered not changed when its size, modification time and file key
+ * (the inode on UNIX systems) are the same as at backup time.
+ * </p>
+ */
+class DirectoryManifest {
+
+    private static final Logger       log                     = Logger.getLogger(DirectoryManifest.class);
+
+    static final String               MANIFEST_FILE_EXTENSION = ".ats_manifest";
+
+    private static final int          MANIFEST_FILE_MAGIC     = 0x4154534d;                             // "ATSM"
+    // version 2 keeps the modification times in nanoseconds
+    private static final int          MANIFEST_FILE_VERSION   = 2;
+
+    private final DirectoryBackupMode backupMode;
+
+    // <path relative to the backed up directory, entry>, directory paths end with '/'
+    // parent directories always come before their content
+    private final Map<String, Entry>  entries                 = new LinkedHashMap<String, Entry>();
+
+    DirectoryManifest( DirectoryBackupMode backupMode ) {
+
+        this.backupMode = backupMode;
+    }
+
+    DirectoryBackupMode getBackupMode() {
+
+        return backupMode;
+    }
+
+    Map<String, Entry> getEntries() {
+
+        return entries;
+    }
+
+    Entry get( String relativePath ) {
+
+        return entries.get(relativePath);
+    }
+
+    void addDirectory( String relativePath ) {
+
+        entries.put(relativePath, new Entry(Entry.DIRECTORY, -1, -1, ""));
+    }
+
+    void addFile( String relativePath, BasicFileAttributes attributes ) {
+
+        entries.put(relativePath, new Entry(Entry.FILE, attributes));
+    }
+
+    void addSkippedFile( String relativePath ) {
+
+        entries.put(relativePath, new Entry(Entry.SKIPPED_FILE, -1, -1, ""));
+    }
+
+    /**
+     * Load a manifest
+     *
+     * @param manifestFile the manifest file
+     * @return the manifest or null if there is no valid manifest in this file
+     */
+    static DirectoryManifest load( File manifestFile ) {
+
+        if (!manifestFile.isFile()) {
+            return null;
+        }
+
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(manifestFile)));
+            if (!IoUtils.readFileHeader(dis, MANIFEST_FILE_MAGIC, MANIFEST_FILE_VERSION)) {
+                log.warn("File " + manifestFile + " is not a valid backup manifest, it will be ignored");
+                return null;
+            }
+
+            DirectoryManifest manifest = new DirectoryManifest(DirectoryBackupMode.valueOf(dis.readUTF()));
+            int numberOfEntries = dis.readInt();
+            for (int i = 0; i < numberOfEntries; i++) {
+                String relativePath = dis.readUTF();
+                byte type = dis.readByte();
+                long size = dis.readLong();
+                long timeModified = dis.readLong();
+                String fileKey = dis.readUTF();
+                manifest.entries.put(relativePath, new Entry(type, size, timeModified, fileKey));
+            }
+            return manifest;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not load backup manifest " + manifestFile + ", it will be ignored", e);
+            return null;
+        } finally {
+            IoUtils.closeStream(dis);
+        }
+    }
+
+    void save( File manifestFile ) throws IOException {
+
+        DataOutputStream dos = null;
+        try {
+            dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(manifestFile)));
+            IoUtils.writeFileHeader(dos, MANIFEST_FILE_MAGIC, MANIFEST_FILE_VERSION);
+            dos.writeUTF(backupMode.name());
+            dos.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                Entry manifestEntry = entry.getValue();
+                dos.writeUTF(entry.getKey());
+                dos.writeByte(manifestEntry.type);
+                dos.writeLong(manifestEntry.size);
+                dos.writeLong(manifestEntry.timeModified);
+                dos.writeUTF(manifestEntry.fileKey);
+            }
+        } finally {
+            IoUtils.closeStream(dos);
+        }
+    }
+
+    static class Entry {
+
+        private static final byte FILE         = 0;
+        private static final byte DIRECTORY    = 1;
+        // a file which could not be backed up, so it is not restored either
+        private static final byte SKIPPED_FILE = 2;
+
+        private final byte        type;
+        private final long        size;
+        private final long        timeModified;
+        private final String      fileKey;
+
+        private Entry( byte type, BasicFileAttributes attributes ) {
+
+            this(type, attributes.size(), IoUtils.getModificationTime(attributes), IoUtils.getFileKey(attributes));
+        }
+
+        private Entry( byte type, long size, long timeModified, String fileKey ) {
+
+            this.type = type;
+            this.size = size;
+            this.timeModified = timeModified;
+            this.fileKey = fileKey;
+        }
+
+        boolean isDirectory() {
+
+            return type == DIRECTORY;
+        }
+
+        boolean isSkippedFile() {
+
+            return type == SKIPPED_FILE;
+        }
+
+        /**
+         * @return whether these are the attributes of the file this entry was created for
+         */
+        boolean isSameFile( BasicFileAttributes attributes ) {
+
+            return isSameContent(attributes) && fileKey.equals(IoUtils.getFileKey(attributes));
+        }
+
+        /**
+         * @return whether the file has the size and modification time this entry was created with
+         */
+        boolean isSameContent( BasicFileAttributes attributes ) {
+
+            return size == attributes.size() && timeModified == IoUtils.getModificationTime(attributes);
+        }
+    }
+}
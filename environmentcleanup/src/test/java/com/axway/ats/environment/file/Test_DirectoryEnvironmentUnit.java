@@ -22,10 +22,15 @@
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 
 import org.apache.log4j.Logger;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -208,4 +213,113 @@ public void useTempBackupDir() throws Exception {
         assertFalse(dirEnvUnit.restore());
         assertNull(getTempBackupDir(dirEnvUnit));
     }
+
+    @Test
+    public void linkBackupAndRestoreChangedFiles() throws Exception {
+
+        File origDir = Files.createTempDirectory("ats_link_orig").toFile();
+        File backupParentDir = Files.createTempDirectory("ats_link_backup").toFile();
+        try {
+            writeFile(new File(origDir, "file1.txt"), "content 1");
+            writeFile(new File(origDir, "subdir/file2.txt"), "content 2");
+
+            DirectoryEnvironmentUnit dirEnvUnit = new DirectoryEnvironmentUnit(origDir.getPath(),
+                                                                               backupParentDir.getPath(),
+                                                                               "backup");
+            dirEnvUnit.setBackupMode(DirectoryBackupMode.LINK);
+            dirEnvUnit.backup();
+
+            File backupFile1 = new File(backupParentDir, "backup/file1.txt");
+            assertEquals("content 1", readFile(backupFile1));
+            Assume.assumeTrue("Hard links are not supported here",
+                              isSameFile(new File(origDir, "file1.txt"), backupFile1));
+
+            // nothing is changed
+            assertFalse(dirEnvUnit.restore());
+
+            // replace one file, delete another one and add a new one
+            new File(origDir, "file1.txt").delete();
+            writeFile(new File(origDir, "file1.txt"), "new content");
+            new File(origDir, "subdir/file2.txt").delete();
+            writeFile(new File(origDir, "subdir/newFile.txt"), "new file");
+
+            assertTrue(dirEnvUnit.restore());
+            assertEquals("content 1", readFile(new File(origDir, "file1.txt")));
+            assertEquals("content 2", readFile(new File(origDir, "subdir/file2.txt")));
+            assertFalse(new File(origDir, "subdir/newFile.txt").exists());
+
+            assertFalse(dirEnvUnit.restore());
+
+            // a file modified in place can not be restored, as its backup is modified too
+            FileOutputStream fos = new FileOutputStream(new File(origDir, "file1.txt"), true);
+            fos.write("more content".getBytes(StandardCharsets.UTF_8));
+            fos.close();
+            try {
+                dirEnvUnit.restore();
+                Assert.fail("Modified hard linked file is not reported");
+            } catch (EnvironmentCleanupException e) {
+                // expected
+            }
+        } finally {
+            deleteFolder(origDir);
+            deleteFolder(backupParentDir);
+        }
+    }
+
+    @Test
+    public void copyBackupIsIncremental() throws Exception {
+
+        File origDir = Files.createTempDirectory("ats_copy_orig").toFile();
+        File backupParentDir = Files.createTempDirectory("ats_copy_backup").toFile();
+        try {
+            writeFile(new File(origDir, "file1.txt"), "content 1");
+            writeFile(new File(origDir, "file2.txt"), "content 2");
+
+            DirectoryEnvironmentUnit dirEnvUnit = new DirectoryEnvironmentUnit(origDir.getPath(),
+                                                                               backupParentDir.getPath(),
+                                                                               "backup");
+            dirEnvUnit.backup();
+
+            File backupFile1 = new File(backupParentDir, "backup/file1.txt");
+            Object backupFileKey = getFileKey(backupFile1);
+            assertFalse(isSameFile(new File(origDir, "file1.txt"), backupFile1));
+
+            // not changed files are not copied again, removed files are removed from the backup too
+            new File(origDir, "file2.txt").delete();
+            dirEnvUnit.backup();
+            assertEquals(backupFileKey, getFileKey(backupFile1));
+            assertFalse(new File(backupParentDir, "backup/file2.txt").exists());
+
+            // a file modified in place is restored
+            writeFile(new File(origDir, "file1.txt"), "new content");
+            assertTrue(dirEnvUnit.restore());
+            assertEquals("content 1", readFile(new File(origDir, "file1.txt")));
+            assertFalse(dirEnvUnit.restore());
+        } finally {
+            deleteFolder(origDir);
+            deleteFolder(backupParentDir);
+        }
+    }
+
+    private static void writeFile( File file, String content ) throws IOException {
+
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readFile( File file ) throws IOException {
+
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static Object getFileKey( File file ) throws IOException {
+
+        return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+    }
+
+    private static boolean isSameFile( File file1, File file2 ) throws IOException {
+
+        Object fileKey = getFileKey(file1);
+        return fileKey != null && fileKey.equals(getFileKey(file2));
+    }
 }
@@ -27,6 +27,7 @@
 import com.axway.ats.log.appenders.ActiveDbAppender;
 import com.axway.ats.log.appenders.PassiveDbAppender;
 import com.axway.ats.log.autodb.TestCaseState;
+import com.axway.ats.log.autodb.entities.CheckpointSummary;
 import com.axway.ats.log.autodb.entities.TestcaseMetainfo;
 import com.axway.ats.log.autodb.events.AddRunMetainfoEvent;
 import com.axway.ats.log.autodb.events.AddScenarioMetainfoEvent;
@@ -46,6 +47,7 @@
 import com.axway.ats.log.autodb.events.InsertCheckpointEvent;
 import com.axway.ats.log.autodb.events.InsertMessageEvent;
 import com.axway.ats.log.autodb.events.InsertSystemStatisticEvent;
+import com.axway.ats.log.autodb.events.InsertSystemStatisticsEvent;
 import com.axway.ats.log.autodb.events.InsertUserActivityStatisticEvent;
 import com.axway.ats.log.autodb.events.JoinTestCaseEvent;
 import com.axway.ats.log.autodb.events.LeaveTestCaseEvent;
@@ -58,6 +60,7 @@
 import com.axway.ats.log.autodb.events.StartRunEvent;
 import com.axway.ats.log.autodb.events.StartSuiteEvent;
 import com.axway.ats.log.autodb.events.StartTestCaseEvent;
+import com.axway.ats.log.autodb.events.UpdateCheckpointSummaryEvent;
 import com.axway.ats.log.autodb.events.UpdateRunEvent;
 import com.axway.ats.log.autodb.events.UpdateSuiteEvent;
 import com.axway.ats.log.autodb.events.UpdateTestcaseEvent;
@@ -754,6 +757,20 @@ public void insertCheckpoint(
                                             result));
     }
 
+    /**
+     * Add checkpoint values, aggregated in memory, to the checkpoint summary.
+     * The summary is created if it does not exist yet.
+     *
+     * @param checkpointSummary the aggregated values. The averages must be for the new checkpoints only.
+     */
+    public void updateCheckpointSummary( CheckpointSummary checkpointSummary ) {
+
+        sendEvent(new UpdateCheckpointSummaryEvent(ATS_DB_LOGGER_CLASS_NAME,
+                                                   logger,
+                                                   checkpointSummary,
+                                                   Thread.currentThread().getName()));
+    }
+
     /**
      * Insert system statistics identified by their DB IDs
      *
@@ -776,6 +793,28 @@ public void insertSystemStatistcs(
                                                  timestamp));
     }
 
+    /**
+     * Insert system statistics identified by their DB IDs for many timestamps at once
+     *
+     * @param monitoredMachine the monitored machine
+     * @param timestamps the timestamps
+     * @param statisticIds the statistics' DB IDs for each timestamp
+     * @param statisticValues the statistics' values for each timestamp
+     */
+    public void insertSystemStatistcs(
+                                       String monitoredMachine,
+                                       long[] timestamps,
+                                       String[] statisticIds,
+                                       String[] statisticValues ) {
+
+        sendEvent(new InsertSystemStatisticsEvent(ATS_DB_LOGGER_CLASS_NAME,
+                                                  logger,
+                                                  monitoredMachine,
+                                                  timestamps,
+                                                  statisticIds,
+                                                  statisticValues));
+    }
+
     /**
      * Insert user activity statistics identified by their DB IDs
      *
@@ -16,10 +16,13 @@
 
 package com.axway.ats.log.appenders;
 
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 
 import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.Layout;
+import org.apache.log4j.Level;
 
 import com.axway.ats.common.systemproperties.AtsSystemProperties;
 import com.axway.ats.core.log.AtsConsoleLogger;
@@ -30,8 +33,10 @@
 import com.axway.ats.log.autodb.exceptions.DbAppenederException;
 import com.axway.ats.log.autodb.exceptions.InvalidAppenderConfigurationException;
 import com.axway.ats.log.autodb.logqueue.DbEventRequestProcessor;
+import com.axway.ats.log.autodb.logqueue.LogEventDispatcher;
 import com.axway.ats.log.autodb.logqueue.LogEventRequest;
 import com.axway.ats.log.autodb.logqueue.QueueLoggerThread;
+import com.axway.ats.log.autodb.logqueue.QueueOverflowPolicy;
 import com.axway.ats.log.autodb.model.EventRequestProcessorListener;
 
 /**
@@ -43,25 +48,40 @@ public abstract class AbstractDbAppender extends AppenderSkeleton {
     protected AtsConsoleLogger                    atsConsoleLogger          = new AtsConsoleLogger(getClass());
 
     /**
-     * The appender's data for the current thread
+     * Passes the events from all threads to the logging queue(s)
      */
-    protected ArrayBlockingQueue<LogEventRequest> queue;
+    protected LogEventDispatcher                  eventDispatcher;
 
     /**
-     * the logger thread
+     * The appender's data for the current thread. This is the queue of the first logger thread.
+     */
+    protected BlockingQueue<LogEventRequest>      queue;
+
+    /**
+     * the logger thread. This is the first one when there are more logger threads.
      */
     protected QueueLoggerThread                   queueLogger;
 
+    /**
+     * All logger threads, one per queue
+     */
+    protected List<QueueLoggerThread>             queueLoggers              = new ArrayList<QueueLoggerThread>();
+
     /**
      * The configuration for this appender
      */
     protected DbAppenderConfiguration             appenderConfig;
 
     /**
-     * The class which will process the logging requests
+     * The class which will process the logging requests. This is the processor of the first logger thread.
      */
     protected DbEventRequestProcessor             eventProcessor;
 
+    /**
+     * All event processors, one per logger thread
+     */
+    protected List<DbEventRequestProcessor>       eventProcessors           = new ArrayList<DbEventRequestProcessor>();
+
     /**
      * Here we are caching the state of the currently executed test case. This
      * way we do not need to go through the queue(which is in another thread)
@@ -129,9 +149,24 @@ public void activateOptions() {
         // set the threshold if there is such
         appenderConfig.setLoggingThreshold(getThreshold());
 
-        // the logging queue
-        queue = new ArrayBlockingQueue<LogEventRequest>(getMaxNumberLogEvents());
+        // the logging queue(s)
+        String queueType = AtsSystemProperties.getPropertyAsString(AtsSystemProperties.LOG__EVENTS_QUEUE_TYPE,
+                                                                   LogEventDispatcher.QUEUE_TYPE_ARRAY);
+        QueueOverflowPolicy overflowPolicy = QueueOverflowPolicy.fromString(AtsSystemProperties.getPropertyAsString(AtsSystemProperties.LOG__EVENTS_QUEUE_OVERFLOW_POLICY));
+        Level dropLevel = Level.toLevel(AtsSystemProperties.getPropertyAsString(AtsSystemProperties.LOG__EVENTS_QUEUE_DROP_LEVEL),
+                                        Level.INFO);
 
+        eventDispatcher = new LogEventDispatcher(queueType, getMaxNumberLogEvents(), getNumberOfLoggerThreads(),
+                                                 overflowPolicy, dropLevel);
+        queue = eventDispatcher.getLane(0);
+    }
+
+    /**
+     * @return how many threads send the events to the DB. Each thread uses its own queue and DB connection.
+     */
+    protected int getNumberOfLoggerThreads() {
+
+        return 1;
     }
 
     protected void initializeDbLogging() {
@@ -143,20 +178,30 @@ protected void initializeDbLogging() {
             isBatchMode = isBatchMode();
         }
 
-        // create new event processor
-        try {
-            eventProcessor = new DbEventRequestProcessor(appenderConfig,
-                                                         layout,
-                                                         getEventRequestProcessorListener(),
-                                                         isBatchMode);
-        } catch (DatabaseAccessException e) {
-            throw new RuntimeException("Unable to create DB event processor", e);
+        for (int i = 0; i < eventDispatcher.getNumberOfLanes(); i++) {
+            // create new event processor
+            DbEventRequestProcessor laneEventProcessor;
+            try {
+                laneEventProcessor = new DbEventRequestProcessor(appenderConfig,
+                                                                 layout,
+                                                                 getEventRequestProcessorListener(),
+                                                                 isBatchMode);
+            } catch (DatabaseAccessException e) {
+                throw new RuntimeException("Unable to create DB event processor", e);
+            }
+            eventProcessors.add(laneEventProcessor);
+
+            // start the logging thread
+            QueueLoggerThread laneQueueLogger = new QueueLoggerThread(eventDispatcher.getLane(i),
+                                                                      laneEventProcessor,
+                                                                      isBatchMode);
+            laneQueueLogger.setDaemon(true);
+            laneQueueLogger.start();
+            queueLoggers.add(laneQueueLogger);
         }
 
-        // start the logging thread
-        queueLogger = new QueueLoggerThread(queue, eventProcessor, isBatchMode);
-        queueLogger.setDaemon(true);
-        queueLogger.start();
+        eventProcessor = eventProcessors.get(0);
+        queueLogger = queueLoggers.get(0);
     }
 
     protected void passEventToLoggerQueue(
@@ -174,32 +219,23 @@ protected void passEventToLoggerQueue(
             // Do this every second.
             long newTick = System.currentTimeMillis();
             if (newTick - lastQueueCapacityTick > 1000) {
+                int remainingQueueCapacity = eventDispatcher.remainingCapacity();
                 if (minRemainingQueueCapacity == -1) {
-                    minRemainingQueueCapacity = queue.remainingCapacity();
+                    minRemainingQueueCapacity = remainingQueueCapacity;
                 } else {
-                    minRemainingQueueCapacity = Math.min(minRemainingQueueCapacity, queue.remainingCapacity());
+                    minRemainingQueueCapacity = Math.min(minRemainingQueueCapacity, remainingQueueCapacity);
                 }
-                atsConsoleLogger.info("Remaining queue capacity is " + queue.remainingCapacity()
-                                      + " out of " + (queue.remainingCapacity() + queue.size())
-                                      + ". Bottom remaining capacity is " + minRemainingQueueCapacity);
+                atsConsoleLogger.info("Remaining queue capacity is " + remainingQueueCapacity
+                                      + " out of " + eventDispatcher.getCapacity()
+                                      + ". Bottom remaining capacity is " + minRemainingQueueCapacity
+                                      + ". Dropped events count is " + eventDispatcher.getDroppedEventsCount());
                 lastQueueCapacityTick = newTick;
             }
         }
 
-        // this thread passes the events to the queue,
-        // while another thread is reading them on the other side
-        try {
-            queue.add(packedEvent);
-        } catch (IllegalStateException ex) {
-            if (queue.remainingCapacity() < 1) {
-                throw new IllegalStateException("There are too many messages queued"
-                                                + " for TestExplorer DB logging. Decrease messages count"
-                                                + " by lowering effective log4j severity or check whether"
-                                                + " connection to DB is too slow", ex);
-            } else {
-                throw ex;
-            }
-        }
+        // this thread passes the events to the queue(s),
+        // while other thread(s) are reading them on the other side
+        eventDispatcher.dispatch(packedEvent);
     }
 
     public abstract GetCurrentTestCaseEvent getCurrentTestCaseState(
@@ -214,9 +250,9 @@ public abstract GetCurrentTestCaseEvent getCurrentTestCaseState(
      */
     public void close() {
 
-        // When the appender is unloaded, terminate the logging thread
-        if (queueLogger != null) {
-            queueLogger.interrupt();
+        // When the appender is unloaded, terminate the logging thread(s)
+        for (QueueLoggerThread laneQueueLogger : queueLoggers) {
+            laneQueueLogger.interrupt();
         }
     }
 
@@ -241,9 +277,9 @@ public void setLayout(
 
         super.setLayout(layout);
 
-        // set the layout to the event processor as well
-        if (eventProcessor != null) {
-            eventProcessor.setLayout(layout);
+        // set the layout to the event processor(s) as well
+        for (DbEventRequestProcessor laneEventProcessor : eventProcessors) {
+            laneEventProcessor.setLayout(layout);
         }
     }
 
@@ -272,7 +308,7 @@ public int getMaxNumberLogEvents() {
      */
     public int getNumberPendingLogEvents() {
 
-        return queue.size();
+        return eventDispatcher.size();
     }
 
     /**
@@ -318,7 +318,7 @@ private void waitForEventToBeExecuted( LogEventRequest packedEvent, LoggingEvent
         synchronized (listenerMutex) {
 
             //we need to wait for the event to be handled
-            queue.add(packedEvent);
+            eventDispatcher.dispatchToFirstLane(packedEvent);
 
             try {
 
@@ -22,6 +22,7 @@
 import org.apache.log4j.Logger;
 import org.apache.log4j.spi.LoggingEvent;
 
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
 import com.axway.ats.core.threads.ThreadsPerCaller;
 import com.axway.ats.log.autodb.TestCaseState;
 import com.axway.ats.log.autodb.events.GetCurrentTestCaseEvent;
@@ -69,6 +70,17 @@ public String getCaller() {
         return caller;
     }
 
+    /**
+     * On the Agent side many load threads may log at the same time,
+     * so we allow sending the events to the DB by more than one thread
+     */
+    @Override
+    protected int getNumberOfLoggerThreads() {
+
+        return Math.max(1, AtsSystemProperties.getPropertyAsNumber(AtsSystemProperties.LOG__EVENTS_PROCESSING_THREADS,
+                                                                   1));
+    }
+
     @Override
     public void activateOptions() {
 
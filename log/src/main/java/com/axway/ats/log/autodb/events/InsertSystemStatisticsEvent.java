@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.log.autodb.events;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.log.autodb.model.LoggingEventType;
+import com.axway.ats.log.autodb.model.TestCaseLoggingEvent;
+
+/**
+ * Event for inserting system statistics for many timestamps in the log DB at once
+ */
+@SuppressWarnings( "serial")
+public class InsertSystemStatisticsEvent extends TestCaseLoggingEvent {
+
+    private String   monitoredMachine;
+    private long[]   timestamps;
+    private String[] statisticIds;
+    private String[] statisticValues;
+
+    /**
+     * Constructor
+     *
+     * @param loggerFQCN
+     * @param logger
+     * @param monitoredMachine
+     * @param timestamps one timestamp per row
+     * @param statisticIds the statistic IDs for each row
+     * @param statisticValues the statistic values for each row
+     */
+    public InsertSystemStatisticsEvent( String loggerFQCN,
+                                        Logger logger,
+                                        String monitoredMachine,
+                                        long[] timestamps,
+                                        String[] statisticIds,
+                                        String[] statisticValues ) {
+
+        super(loggerFQCN, logger, "Insert system statistics", LoggingEventType.INSERT_SYSTEM_STATS);
+
+        this.monitoredMachine = monitoredMachine;
+        this.timestamps = timestamps;
+        this.statisticIds = statisticIds;
+        this.statisticValues = statisticValues;
+    }
+
+    /**
+     * @return the name of the monitored machine
+     */
+    public String getMonitoredMachine() {
+
+        return monitoredMachine;
+    }
+
+    /**
+     * @return the timestamps of the rows
+     */
+    public long[] getTimestamps() {
+
+        return timestamps;
+    }
+
+    /**
+     * @return the DB IDs of the statistics for each row
+     */
+    public String[] getStatisticIds() {
+
+        return statisticIds;
+    }
+
+    /**
+     * @return the values of the statistics for each row
+     */
+    public String[] getStatisticValues() {
+
+        return statisticValues;
+    }
+}
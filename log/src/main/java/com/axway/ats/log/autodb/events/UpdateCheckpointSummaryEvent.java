@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.log.autodb.events;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.log.autodb.entities.CheckpointSummary;
+import com.axway.ats.log.autodb.model.CacheableEvent;
+import com.axway.ats.log.autodb.model.LoggingEventType;
+import com.axway.ats.log.autodb.model.TestCaseLoggingEvent;
+
+/**
+ * Adds checkpoint values, aggregated in memory, to the checkpoint summary in the DB
+ */
+@SuppressWarnings( "serial")
+public class UpdateCheckpointSummaryEvent extends TestCaseLoggingEvent implements CacheableEvent {
+
+    private CheckpointSummary checkpointSummary;
+    private String            threadName;
+
+    /**
+     * @param fqnOfCategoryClass
+     * @param logger
+     * @param checkpointSummary the aggregated values. The averages are for the newly aggregated checkpoints only.
+     * @param threadName the thread which sends the event, it must be registered with the load queue
+     */
+    public UpdateCheckpointSummaryEvent( String fqnOfCategoryClass,
+                                         Logger logger,
+                                         CheckpointSummary checkpointSummary,
+                                         String threadName ) {
+
+        super(fqnOfCategoryClass,
+              logger,
+              "Update checkpoint summary '" + checkpointSummary.name + "'",
+              LoggingEventType.UPDATE_CHECKPOINT_SUMMARY);
+
+        this.checkpointSummary = checkpointSummary;
+        this.threadName = threadName;
+    }
+
+    public CheckpointSummary getCheckpointSummary() {
+
+        return checkpointSummary;
+    }
+
+    /**
+     * @return the name of the thread this summary comes from
+     */
+    public String getThread() {
+
+        return threadName;
+    }
+}
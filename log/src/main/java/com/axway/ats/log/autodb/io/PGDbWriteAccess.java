@@ -15,18 +15,26 @@
  */
 package com.axway.ats.log.autodb.io;
 
+import java.io.StringReader;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
 import com.axway.ats.core.dbaccess.DbConnection;
 import com.axway.ats.core.dbaccess.DbUtils;
+import com.axway.ats.core.utils.ExceptionUtils;
 import com.axway.ats.core.utils.StringUtils;
 import com.axway.ats.log.autodb.CheckpointInfo;
 import com.axway.ats.log.autodb.exceptions.DatabaseAccessException;
@@ -38,10 +46,73 @@ public class PGDbWriteAccess extends SQLServerDbWriteAccess {
     // it shadows the DbWriteAccess's private variable with the same name
     protected PGInsertEventStatementsFactory insertFactory;
 
+    // in batch mode the messages and checkpoints are streamed to the DB with COPY
+    // it is null when COPY can not be used, then the events are sent as batch of stored procedure calls
+    private DbEventsCopyCache                dbEventsCopyCache;
+
     public PGDbWriteAccess( DbConnection dbConnection, boolean isBatchMode ) throws DatabaseAccessException {
 
         super(dbConnection, isBatchMode);
         this.insertFactory = new PGInsertEventStatementsFactory(isBatchMode);
+        if (isBatchMode) {
+            if (isCopySupported(dbEventsCache.getConnection())) {
+                this.dbEventsCopyCache = new DbEventsCopyCache();
+                this.dbEventsCopyCache.setCacheSize(this.chunkSize);
+            } else {
+                log.warn("The DB connection does not support COPY, so the batch mode will use stored procedure calls");
+            }
+        }
+    }
+
+    /**
+     * @param connection the batch mode connection
+     * @return whether COPY can be used over this connection
+     */
+    private static boolean isCopySupported( Connection connection ) {
+
+        try {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void setMaxNumberOfCachedEvents( int maxNumberOfCachedEvents ) {
+
+        super.setMaxNumberOfCachedEvents(maxNumberOfCachedEvents);
+        if (this.dbEventsCopyCache != null) {
+            this.dbEventsCopyCache.setCacheSize(maxNumberOfCachedEvents);
+        }
+    }
+
+    /**
+     * Expected to be called only in batch mode. Flush any pending events
+     *
+     * @throws DatabaseAccessException
+     */
+    @Override
+    public void flushCache() throws DatabaseAccessException {
+
+        super.flushCache();
+        if (dbEventsCopyCache != null) {
+            dbEventsCopyCache.flush();
+        }
+    }
+
+    /**
+     * Expected to be called only in batch mode. Flush any pending events in
+     * case the cache is full or it is too old
+     *
+     * @throws DatabaseAccessException
+     */
+    @Override
+    public void flushCacheIfNeeded() throws DatabaseAccessException {
+
+        super.flushCacheIfNeeded();
+        if (dbEventsCopyCache != null) {
+            dbEventsCopyCache.flushIfNeeded();
+        }
     }
 
     /**
@@ -159,6 +230,12 @@ public boolean insertMessage( String message, int level, boolean escapeHtml, Str
 
         timestamp = inUTC(timestamp);
 
+        if (dbEventsCopyCache != null) {
+            // schedule this event for the next COPY
+            return dbEventsCopyCache.addTestcaseMessage(message, level, escapeHtml, machineName, threadName,
+                                                        timestamp, testCaseId);
+        }
+
         Connection currentConnection;
         if (!isBatchMode) {
             currentConnection = refreshInternalConnection();
@@ -226,6 +303,12 @@ public boolean insertRunMessage( String message, int level, boolean escapeHtml,
 
             timestamp = inUTC(timestamp);
 
+            if (dbEventsCopyCache != null) {
+                // schedule this event for the next COPY
+                return dbEventsCopyCache.addRunMessage(message, level, escapeHtml, machineName, threadName,
+                                                      timestamp, runId);
+            }
+
             Connection currentConnection;
             if (!isBatchMode) {
                 currentConnection = refreshInternalConnection();
@@ -294,6 +377,12 @@ public boolean insertSuiteMessage( String message, int level, boolean escapeHtml
 
             timestamp = inUTC(timestamp);
 
+            if (dbEventsCopyCache != null) {
+                // schedule this event for the next COPY
+                return dbEventsCopyCache.addSuiteMessage(message, level, escapeHtml, machineName, threadName,
+                                                      timestamp, suiteId);
+            }
+
             Connection currentConnection;
             if (!isBatchMode) {
                 currentConnection = refreshInternalConnection();
@@ -373,8 +462,8 @@ public CheckpointInfo startCheckpoint( String name, long startTimestamp, String
                 throw new DatabaseAccessException(errMsg + " - checkpoint summary ID returned was 0");
             }
 
-            // we update the checkpoint table only in FULL mode
-            if (checkpointLogLevel == CheckpointLogLevel.FULL && callableStatement.getInt(indexCheckpointId) == 0) {
+            // we update the checkpoint table only in FULL and AGGREGATED modes
+            if (checkpointLogLevel != CheckpointLogLevel.SHORT && callableStatement.getInt(indexCheckpointId) == 0) {
                 throw new DatabaseAccessException(errMsg + " - checkpoint ID returned was 0");
             }
 
@@ -400,6 +489,12 @@ public boolean insertCheckpoint( String name, long startTimestamp, long response
 
         startTimestamp = inUTC(startTimestamp);
 
+        if (dbEventsCopyCache != null) {
+            // schedule this event for the next COPY
+            return dbEventsCopyCache.addCheckpoint(name, responseTime, startTimestamp + responseTime, transferSize,
+                                                   transferUnit, result, checkpointLogLevel, loadQueueId);
+        }
+
         Connection currentConnection;
         if (!isBatchMode) {
             currentConnection = refreshInternalConnection();
@@ -550,6 +645,375 @@ public boolean isTestcasePresent( int testcaseId ) throws DatabaseAccessExceptio
         return false;
     }
 
+    /**
+     * Batch mode cache which sends the events to the DB with COPY instead of one stored procedure call per event.
+     * <p>
+     * The cached events are kept per event type. On flush the rows of each type are streamed as CSV
+     * with a single COPY into a session temporary table and then the insert stored procedure is invoked for each
+     * of them, in the order they came, by one statement on the DB side. This way the DB does the same work as
+     * before (summaries, unique messages etc.), but there is just one round trip per event type instead of one per
+     * event. If the COPY fails, the same events are sent as a batch of stored procedure calls.
+     * </p>
+     */
+    protected class DbEventsCopyCache {
+
+        private int                      cacheSize        = AbstractDbAccess.DEFAULT_CHUNK_SIZE;
+
+        private long                     maxCacheWaitTime = TimeUnit.SECONDS.toMillis(
+                AtsSystemProperties.getPropertyAsNumber(AtsSystemProperties.LOG__MAX_CACHE_EVENTS_FLUSH_TIMEOUT, 10));
+        private long                     cacheBirthTime;
+
+        private final CopyStagingTable   runMessages      = new CopyStagingTable("tmp_ats_run_messages",
+                                                                                 "sp_insert_run_message",
+                                                                                 "runId INTEGER", "level INTEGER",
+                                                                                 "message VARCHAR",
+                                                                                 "escapeHtml BOOLEAN",
+                                                                                 "machineName VARCHAR",
+                                                                                 "threadName VARCHAR",
+                                                                                 "timestamp TIMESTAMP");
+        private final CopyStagingTable   suiteMessages    = new CopyStagingTable("tmp_ats_suite_messages",
+                                                                                 "sp_insert_suite_message",
+                                                                                 "suiteId INTEGER", "level INTEGER",
+                                                                                 "message VARCHAR",
+                                                                                 "escapeHtml BOOLEAN",
+                                                                                 "machineName VARCHAR",
+                                                                                 "threadName VARCHAR",
+                                                                                 "timestamp TIMESTAMP");
+        private final CopyStagingTable   testcaseMessages = new CopyStagingTable("tmp_ats_messages",
+                                                                                 "sp_insert_message",
+                                                                                 "testcaseId INTEGER",
+                                                                                 "level INTEGER",
+                                                                                 "message VARCHAR",
+                                                                                 "escapeHtml BOOLEAN",
+                                                                                 "machineName VARCHAR",
+                                                                                 "threadName VARCHAR",
+                                                                                 "timestamp TIMESTAMP");
+        private final CopyStagingTable   checkpoints      = new CopyStagingTable("tmp_ats_checkpoints",
+                                                                                 "sp_insert_checkpoint",
+                                                                                 "loadQueueId INTEGER",
+                                                                                 "name VARCHAR",
+                                                                                 "responseTime BIGINT",
+                                                                                 "endTime TIMESTAMP",
+                                                                                 "transferSize BIGINT",
+                                                                                 "transferUnit VARCHAR",
+                                                                                 "result INTEGER",
+                                                                                 "logLevel INTEGER");
+
+        private final CopyStagingTable[] stagingTables    = new CopyStagingTable[]{ runMessages, suiteMessages,
+                                                                                    testcaseMessages,
+                                                                                    checkpoints };
+
+        public void setCacheSize( int cacheSize ) {
+
+            this.cacheSize = cacheSize;
+        }
+
+        public boolean addRunMessage( String message, int level, boolean escapeHtml, String machineName,
+                                      String threadName, long timestamp, int runId ) throws DatabaseAccessException {
+
+            runMessages.addRow(runId, level, message, escapeHtml, machineName, threadName, new Timestamp(timestamp));
+            return eventAdded();
+        }
+
+        public boolean addSuiteMessage( String message, int level, boolean escapeHtml, String machineName,
+                                        String threadName, long timestamp,
+                                        int suiteId ) throws DatabaseAccessException {
+
+            suiteMessages.addRow(suiteId, level, message, escapeHtml, machineName, threadName,
+                                 new Timestamp(timestamp));
+            return eventAdded();
+        }
+
+        public boolean addTestcaseMessage( String message, int level, boolean escapeHtml, String machineName,
+                                           String threadName, long timestamp,
+                                           int testCaseId ) throws DatabaseAccessException {
+
+            testcaseMessages.addRow(testCaseId, level, message, escapeHtml, machineName, threadName,
+                                    new Timestamp(timestamp));
+            return eventAdded();
+        }
+
+        public boolean addCheckpoint( String name, long responseTime, long endTimestamp, long transferSize,
+                                      String transferUnit, int result, CheckpointLogLevel checkpointLogLevel,
+                                      int loadQueueId ) throws DatabaseAccessException {
+
+            checkpoints.addRow(loadQueueId, name, responseTime, new Timestamp(endTimestamp), transferSize,
+                               transferUnit, result, checkpointLogLevel);
+            return eventAdded();
+        }
+
+        public boolean flushIfNeeded() throws DatabaseAccessException {
+
+            int numberEvents = getNumberCachedEvents();
+            if (numberEvents == 0) {
+                return false;
+            }
+
+            if (numberEvents >= cacheSize || System.currentTimeMillis() - cacheBirthTime >= maxCacheWaitTime) {
+                flush();
+                return true;
+            }
+            return false;
+        }
+
+        public void flush() throws DatabaseAccessException {
+
+            int numberEvents = getNumberCachedEvents();
+            if (numberEvents == 0) {
+                return;
+            }
+
+            long batchStartTime = System.currentTimeMillis();
+            int batchCheckpoints = checkpoints.getNumberRows();
+
+            for (CopyStagingTable stagingTable : stagingTables) {
+                flush(stagingTable);
+            }
+            cacheBirthTime = 0;
+
+            if (isMonitorEventsQueue) {
+                log.getLog4jLogger()
+                   .info("Copied " + batchCheckpoints + " checkpoints and " + (numberEvents - batchCheckpoints)
+                         + " messages in " + (System.currentTimeMillis() - batchStartTime) + " ms");
+            }
+        }
+
+        private void flush( CopyStagingTable stagingTable ) throws DatabaseAccessException {
+
+            if (stagingTable.getNumberRows() == 0) {
+                return;
+            }
+
+            Connection connection = dbEventsCache.getConnection();
+            boolean isCopied = false;
+            boolean gotError = false;
+            Statement statement = null;
+            try {
+                statement = connection.createStatement();
+                statement.execute(stagingTable.getCreateTableSql());
+
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                copyManager.copyIn(stagingTable.getCopySql(), new StringReader(stagingTable.getCsvRows()));
+
+                // the rows are deleted from the temporary table on commit
+                statement.execute(stagingTable.getInsertSql());
+
+                // data sent to the DB, commit the transaction
+                connection.commit();
+                isCopied = true;
+            } catch (Exception e) {
+                // rollback the entire transaction
+                try {
+                    connection.rollback();
+
+                    log.getLog4jLogger()
+                       .error(ExceptionUtils.getExceptionMsg(e,
+                                                             "Commit failed while copying "
+                                                                + stagingTable.getNumberRows() + " events into "
+                                                                + stagingTable.getTableName()
+                                                                + ". They will be sent with stored procedure calls"));
+                } catch (Exception rollbackException) {
+                    gotError = true;
+
+                    log.getLog4jLogger()
+                       .error(ExceptionUtils.getExceptionMsg(rollbackException,
+                                                             "Commit and rollback both failed while copying "
+                                                                                + stagingTable.getNumberRows()
+                                                                                + " events into "
+                                                                                + stagingTable.getTableName()
+                                                                                + ". Following is the rollback exception ..."));
+                }
+            } finally {
+                DbUtils.closeStatement(statement);
+            }
+
+            if (gotError) {
+                dbEventsCache.connection = refreshInternalConnection();
+            }
+
+            if (!isCopied) {
+                // the rows are kept until they are handed to the batch, so they are not lost if this fails too
+                insertWithStoredProcedures(stagingTable);
+            }
+            stagingTable.clear();
+        }
+
+        /**
+         * Send the cached events as a batch of stored procedure calls, the way it is done when COPY is not supported
+         *
+         * @param stagingTable the events to send
+         * @throws DatabaseAccessException
+         */
+        private void insertWithStoredProcedures( CopyStagingTable stagingTable ) throws DatabaseAccessException {
+
+            Connection connection = dbEventsCache.getConnection();
+            for (Object[] row : stagingTable.getRows()) {
+                CallableStatement statement;
+                if (stagingTable == checkpoints) {
+                    statement = insertFactory.getInsertCheckpointStatement(connection, (String) row[1], (Long) row[2],
+                                                                           ((Timestamp) row[3]).getTime(),
+                                                                           (Long) row[4], (String) row[5],
+                                                                           (Integer) row[6],
+                                                                           (CheckpointLogLevel) row[7],
+                                                                           (Integer) row[0]);
+                    dbEventsCache.addInsertCheckpointEventToBatch(statement);
+                } else if (stagingTable == testcaseMessages) {
+                    statement = insertFactory.getInsertTestcaseMessageStatement(connection, (String) row[2],
+                                                                                (Integer) row[1], (Boolean) row[3],
+                                                                                (String) row[4], (String) row[5],
+                                                                                ((Timestamp) row[6]).getTime(),
+                                                                                (Integer) row[0]);
+                    dbEventsCache.addInsertTestcaseMessageEventToBatch(statement);
+                } else if (stagingTable == suiteMessages) {
+                    statement = insertFactory.getInsertSuiteMessageStatement(connection, (String) row[2],
+                                                                             (Integer) row[1], (Boolean) row[3],
+                                                                             (String) row[4], (String) row[5],
+                                                                             ((Timestamp) row[6]).getTime(),
+                                                                             (Integer) row[0]);
+                    dbEventsCache.addInsertSuiteMessageEventToBatch(statement);
+                } else {
+                    statement = insertFactory.getInsertRunMessageStatement(connection, (String) row[2],
+                                                                           (Integer) row[1], (Boolean) row[3],
+                                                                           (String) row[4], (String) row[5],
+                                                                           ((Timestamp) row[6]).getTime(),
+                                                                           (Integer) row[0]);
+                    dbEventsCache.addInsertRunMessageEventToBatch(statement);
+                }
+            }
+            dbEventsCache.flushCache();
+        }
+
+        private boolean eventAdded() throws DatabaseAccessException {
+
+            if (getNumberCachedEvents() == 1) {
+                // this is the first event, we have to remember the cache birth time
+                cacheBirthTime = System.currentTimeMillis();
+            }
+            return flushIfNeeded();
+        }
+
+        private int getNumberCachedEvents() {
+
+            int numberEvents = 0;
+            for (CopyStagingTable stagingTable : stagingTables) {
+                numberEvents += stagingTable.getNumberRows();
+            }
+            return numberEvents;
+        }
+    }
+
+    /**
+     * A temporary table used to pass many events of the same type with one COPY.
+     * The events are kept until the next COPY and are converted to CSV format for it.
+     */
+    static class CopyStagingTable {
+
+        private final String         tableName;
+        private final String         createTableSql;
+        private final String         copySql;
+        private final String         insertSql;
+
+        private final List<Object[]> rows = new ArrayList<Object[]>();
+
+        /**
+         * @param tableName the temporary table name
+         * @param procedureName the stored procedure to be called for each row
+         * @param columns the column definitions, their order must match the order of the procedure parameters
+         */
+        CopyStagingTable( String tableName, String procedureName, String... columns ) {
+
+            StringBuilder columnDefinitions = new StringBuilder();
+            StringBuilder columnNames = new StringBuilder();
+            StringBuilder rowColumns = new StringBuilder();
+            for (String column : columns) {
+                if (columnNames.length() > 0) {
+                    columnDefinitions.append(", ");
+                    columnNames.append(", ");
+                    rowColumns.append(", ");
+                }
+                String columnName = column.substring(0, column.indexOf(' '));
+                columnDefinitions.append(column);
+                columnNames.append(columnName);
+                rowColumns.append("r.").append(columnName);
+            }
+
+            this.tableName = tableName;
+            // 'seq' keeps the order in which the events came
+            this.createTableSql = "CREATE TEMPORARY TABLE IF NOT EXISTS " + tableName + " (seq BIGSERIAL, "
+                                  + columnDefinitions + ") ON COMMIT DELETE ROWS";
+            this.copySql = "COPY " + tableName + " (" + columnNames + ") FROM STDIN WITH (FORMAT csv)";
+            // a SELECT does not guarantee the order of the procedure calls even over a sorted sub-query,
+            // so the rows are walked one by one in the order of the events
+            this.insertSql = "DO $$ DECLARE r RECORD; BEGIN FOR r IN SELECT * FROM " + tableName
+                             + " ORDER BY seq LOOP PERFORM " + procedureName + "(" + rowColumns
+                             + "); END LOOP; END $$";
+        }
+
+        void addRow( Object... values ) {
+
+            rows.add(values);
+        }
+
+        void clear() {
+
+            rows.clear();
+        }
+
+        String getTableName() {
+
+            return tableName;
+        }
+
+        String getCreateTableSql() {
+
+            return createTableSql;
+        }
+
+        String getCopySql() {
+
+            return copySql;
+        }
+
+        String getInsertSql() {
+
+            return insertSql;
+        }
+
+        List<Object[]> getRows() {
+
+            return rows;
+        }
+
+        String getCsvRows() {
+
+            StringBuilder csv = new StringBuilder();
+            for (Object[] values : rows) {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        csv.append(',');
+                    }
+                    Object value = values[i];
+                    if (value instanceof String) {
+                        // quote all strings, so an empty string is not read as NULL
+                        csv.append('"').append( ((String) value).replace("\"", "\"\"")).append('"');
+                    } else if (value instanceof CheckpointLogLevel) {
+                        csv.append( ((CheckpointLogLevel) value).toInt());
+                    } else if (value != null) {
+                        csv.append(value);
+                    }
+                    // else an empty unquoted value is read as NULL
+                }
+                csv.append('\n');
+            }
+            return csv.toString();
+        }
+
+        int getNumberRows() {
+
+            return rows.size();
+        }
+    }
+
     /**
      * Provides the event statements
      */
@@ -1188,6 +1188,8 @@ public static CheckpointLogLevel getCheckpointLogLevel() {
      *                               DB. <em>Note</em> that this might rapidly grow your DB. <br />
      *                               For {@link CheckpointLogLevel#SHORT} only total summary (aggregated status) is
      *                               updated.
+     *                               For {@link CheckpointLogLevel#AGGREGATED} the checkpoints are aggregated on
+     *                               the ATS Agent and only the summary is periodically updated.
      */
     public static void setCheckpointLogLevel(
                                               CheckpointLogLevel newCheckpointLogLevel ) {
@@ -1229,8 +1231,8 @@ public CheckpointInfo startCheckpoint(
                 throw new DatabaseAccessException(errMsg + " - checkpoint summary ID returned was 0");
             }
 
-            // we update the checkpoint table only in FULL mode
-            if (checkpointLogLevel == CheckpointLogLevel.FULL
+            // we update the checkpoint table only in FULL and AGGREGATED modes
+            if (checkpointLogLevel != CheckpointLogLevel.SHORT
                 && callableStatement.getLong(indexCheckpointId) == 0) {
                 throw new DatabaseAccessException(errMsg + " - checkpoint ID returned was 0");
             }
@@ -1395,6 +1397,46 @@ public void insertSystemStatistics(
         }
     }
 
+    public void insertSystemStatistics(
+                                        int testCaseId,
+                                        String machine,
+                                        long[] timestamps,
+                                        String[] statisticIds,
+                                        String[] statisticValues,
+                                        boolean closeConnection ) throws DatabaseAccessException {
+
+        CallableStatement callableStatement = null;
+        try {
+            refreshInternalConnection();
+
+            callableStatement = connection.prepareCall("{ call sp_insert_system_statistic_by_ids(?, ?, ?, ?, ?) }");
+            for (int i = 0; i < timestamps.length; i++) {
+                callableStatement.setInt(1, testCaseId);
+                callableStatement.setString(2, machine);
+                callableStatement.setString(3, statisticIds[i]);
+                callableStatement.setString(4, statisticValues[i]);
+                callableStatement.setTimestamp(5, new Timestamp(inUTC(timestamps[i])));
+                callableStatement.addBatch();
+            }
+
+            callableStatement.executeBatch();
+
+        } catch (Exception e) {
+            String errMsg = "Unable to insert system statistics for " + timestamps.length
+                            + " timestamps, the first timestamp is "
+                            + (timestamps.length > 0
+                                                     ? timestamps[0]
+                                                     : "not available");
+            throw new DatabaseAccessException(errMsg, e);
+        } finally {
+            if (closeConnection) {
+                DbUtils.close(connection, callableStatement);
+            } else {
+                DbUtils.closeStatement(callableStatement);
+            }
+        }
+    }
+
     public void insertUserActivityStatistics(
                                               int testCaseId,
                                               String machine,
@@ -1467,6 +1509,41 @@ public int populateCheckpointSummary( int loadQueueId, String name, String trans
         }
     }
 
+    public void updateCheckpointSummary( int checkpointSummaryId, int numRunning, int numPassed, int numFailed,
+                                         int minResponseTime, double avgResponseTime, int maxResponseTime,
+                                         double minTransferRate, double avgTransferRate, double maxTransferRate,
+                                         boolean closeConnection ) throws DatabaseAccessException {
+
+        final String errMsg = "Unable to update checkpoint summary with id " + checkpointSummaryId;
+
+        CallableStatement callableStatement = null;
+        try {
+            refreshInternalConnection();
+
+            callableStatement = connection.prepareCall("{ call sp_update_checkpoint_summary(?, ?, ?, ?, ?, ?, ?, ?, ?, ?) }");
+            callableStatement.setInt(1, checkpointSummaryId);
+            callableStatement.setInt(2, numPassed);
+            callableStatement.setInt(3, numFailed);
+            callableStatement.setInt(4, numRunning);
+            callableStatement.setInt(5, minResponseTime);
+            callableStatement.setInt(6, maxResponseTime);
+            callableStatement.setDouble(7, avgResponseTime);
+            callableStatement.setDouble(8, minTransferRate);
+            callableStatement.setDouble(9, maxTransferRate);
+            callableStatement.setDouble(10, avgTransferRate);
+
+            callableStatement.execute();
+        } catch (Exception e) {
+            throw new DatabaseAccessException(errMsg, e);
+        } finally {
+            if (closeConnection) {
+                DbUtils.close(connection, callableStatement);
+            } else {
+                DbUtils.closeStatement(callableStatement);
+            }
+        }
+    }
+
     public int populateSystemStatisticDefinition(
                                                   String name,
                                                   String parentName,
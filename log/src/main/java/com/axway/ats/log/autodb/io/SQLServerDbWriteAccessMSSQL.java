@@ -139,6 +139,12 @@ protected class DbCheckpointsCache {
         // The checkpoint insert data is just a StringBuffer where checkpoint information is stored in CSV format
         private Map<Integer, StringBuilder> checkpointsInsertData = new HashMap<>();
 
+        /*
+         * { loadQueueId -> { checkpointName -> checkpoint summary ID } }
+         * */
+        // The summary IDs do not change, so they are kept between flushes and are read from the DB only once
+        private Map<Integer, Map<String, Integer>> checkpointSummaryIds = new HashMap<>();
+
         private long batchStartTime;
 
         public DbCheckpointsCache( Connection connection ) {
@@ -256,17 +262,28 @@ public boolean addCheckpoint( String name, long startTimestamp, long responseTim
         private int getCheckpointSummaryId( int loadQueueId, String name, String transferUnit,
                                             boolean closeConnection ) {
 
+            Map<String, Integer> loadQueueSummaryIds = checkpointSummaryIds.get(loadQueueId);
+            if (loadQueueSummaryIds == null) {
+                loadQueueSummaryIds = new HashMap<>();
+                checkpointSummaryIds.put(loadQueueId, loadQueueSummaryIds);
+            }
+            Integer cachedId = loadQueueSummaryIds.get(name);
+            if (cachedId != null) {
+                return cachedId;
+            }
+
             int id = -1;
             PreparedStatement preparedStatement = null;
             java.sql.ResultSet rs = null;
             try {
                 preparedStatement = connection.prepareStatement(
-                        "SELECT checkpointSummaryId FROM tCheckpointsSummary WHERE name = '"
-                        + name + "' AND loadQueueId = " + loadQueueId
-                        + " ORDER BY name");
+                        "SELECT checkpointSummaryId FROM tCheckpointsSummary WHERE name = ? AND loadQueueId = ?");
+                preparedStatement.setString(1, name);
+                preparedStatement.setInt(2, loadQueueId);
                 rs = preparedStatement.executeQuery();
                 if (rs.next()) {
                     id = rs.getInt(1);
+                    loadQueueSummaryIds.put(name, id);
                 } else {
                     throw new DbException("No ID for checkpoint " + name + " from load queue " + loadQueueId
                                           + " found in DB. Did you invoke " + this.getClass().getName()
@@ -295,7 +312,7 @@ private boolean isTimeToFlush() {
         private void doAddCheckpoint( String name, long startTimestamp, long responseTime, long transferSize,
                                       String transferUnit, int result, int loadQueueId ) {
 
-            if (SQLServerDbWriteAccess.checkpointLogLevel == CheckpointLogLevel.FULL) {
+            if (SQLServerDbWriteAccess.checkpointLogLevel != CheckpointLogLevel.SHORT) {
                 int checkpointSummaryId = checkpointSummaries.get(loadQueueId).get(name).checkpointSummaryId;
                 StringBuilder loadQueueCheckpointsInsertData = checkpointsInsertData.get(loadQueueId);
 
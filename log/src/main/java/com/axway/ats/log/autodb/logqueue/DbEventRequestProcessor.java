@@ -48,6 +48,7 @@
 import com.axway.ats.log.autodb.DbAppenderConfiguration;
 import com.axway.ats.log.autodb.LoadQueuesState;
 import com.axway.ats.log.autodb.TestCaseState;
+import com.axway.ats.log.autodb.entities.CheckpointSummary;
 import com.axway.ats.log.autodb.entities.Run;
 import com.axway.ats.log.autodb.entities.Testcase;
 import com.axway.ats.log.autodb.events.AddRunMetainfoEvent;
@@ -60,6 +61,7 @@
 import com.axway.ats.log.autodb.events.InsertCheckpointEvent;
 import com.axway.ats.log.autodb.events.InsertMessageEvent;
 import com.axway.ats.log.autodb.events.InsertSystemStatisticEvent;
+import com.axway.ats.log.autodb.events.InsertSystemStatisticsEvent;
 import com.axway.ats.log.autodb.events.InsertUserActivityStatisticEvent;
 import com.axway.ats.log.autodb.events.JoinTestCaseEvent;
 import com.axway.ats.log.autodb.events.RegisterThreadWithLoadQueueEvent;
@@ -68,6 +70,7 @@
 import com.axway.ats.log.autodb.events.StartRunEvent;
 import com.axway.ats.log.autodb.events.StartSuiteEvent;
 import com.axway.ats.log.autodb.events.StartTestCaseEvent;
+import com.axway.ats.log.autodb.events.UpdateCheckpointSummaryEvent;
 import com.axway.ats.log.autodb.events.UpdateRunEvent;
 import com.axway.ats.log.autodb.events.UpdateSuiteEvent;
 import com.axway.ats.log.autodb.events.UpdateTestcaseEvent;
@@ -525,9 +528,15 @@ public void processEventRequest( LogEventRequest eventRequest ) throws LoggingEx
                 case INSERT_CHECKPOINT:
                     insertCheckpoint((InsertCheckpointEvent) event);
                     break;
+                case UPDATE_CHECKPOINT_SUMMARY:
+                    updateCheckpointSummary((UpdateCheckpointSummaryEvent) event);
+                    break;
                 case INSERT_SYSTEM_STAT:
                     insertSystemStatistics((InsertSystemStatisticEvent) event);
                     break;
+                case INSERT_SYSTEM_STATS:
+                    insertSystemStatistics((InsertSystemStatisticsEvent) event);
+                    break;
                 case INSERT_USER_ACTIVITY_STAT:
                     insertUserActivityStatistics((InsertUserActivityStatisticEvent) event);
                     break;
@@ -1043,6 +1052,35 @@ private void insertCheckpoint( InsertCheckpointEvent insertCheckpointEvent ) thr
         }
     }
 
+    private void
+            updateCheckpointSummary( UpdateCheckpointSummaryEvent updateCheckpointSummaryEvent ) throws LoggingException {
+
+        //check if checkpoints are enabled at all
+        if (appenderConfig.getEnableCheckpoints()) {
+
+            LoadQueuesState loadQueuesState = eventProcessorState.getLoadQueuesState();
+            int loadQueueId = loadQueuesState.getLoadQueueIdForThread(updateCheckpointSummaryEvent.getThread());
+
+            final int testcaseId = eventProcessorState.getTestCaseId();
+            if (!deletedTestcases.contains(testcaseId)) {
+                try {
+                    // the aggregated summaries are sent often, so both calls keep using the same connection
+                    CheckpointSummary summary = updateCheckpointSummaryEvent.getCheckpointSummary();
+                    int checkpointSummaryId = dbAccess.populateCheckpointSummary(loadQueueId, summary.name,
+                                                                                 summary.transferRateUnit,
+                                                                                 false);
+                    dbAccess.updateCheckpointSummary(checkpointSummaryId, summary.numRunning, summary.numPassed,
+                                                     summary.numFailed, summary.minResponseTime,
+                                                     summary.avgResponseTime, summary.maxResponseTime,
+                                                     summary.minTransferRate, summary.avgTransferRate,
+                                                     summary.maxTransferRate, false);
+                } catch (LoggingException e) {
+                    handleDeletedTestcase(e, testcaseId);
+                }
+            }
+        }
+    }
+
     private void
             insertSystemStatistics( InsertSystemStatisticEvent insertSystemStatEvent ) throws LoggingException {
 
@@ -1060,6 +1098,23 @@ private void insertCheckpoint( InsertCheckpointEvent insertCheckpointEvent ) thr
         }
     }
 
+    private void
+            insertSystemStatistics( InsertSystemStatisticsEvent insertSystemStatsEvent ) throws LoggingException {
+
+        final int testcaseId = eventProcessorState.getTestCaseId();
+        if (!deletedTestcases.contains(testcaseId)) {
+            try {
+                dbAccess.insertSystemStatistics(eventProcessorState.getTestCaseId(),
+                                                insertSystemStatsEvent.getMonitoredMachine(),
+                                                insertSystemStatsEvent.getTimestamps(),
+                                                insertSystemStatsEvent.getStatisticIds(),
+                                                insertSystemStatsEvent.getStatisticValues(), true);
+            } catch (LoggingException e) {
+                handleDeletedTestcase(e, testcaseId);
+            }
+        }
+    }
+
     private void
             insertUserActivityStatistics( InsertUserActivityStatisticEvent insertUserActivityStatEvent ) throws LoggingException {
 
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.log.autodb.logqueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+
+import com.axway.ats.core.log.AtsConsoleLogger;
+import com.axway.ats.log.autodb.events.CleanupLoadQueueStateEvent;
+import com.axway.ats.log.autodb.events.EndLoadQueueEvent;
+import com.axway.ats.log.autodb.events.InsertMessageEvent;
+import com.axway.ats.log.autodb.exceptions.DbAppenederException;
+import com.axway.ats.log.autodb.model.AbstractLoggingEvent;
+
+/**
+ * Passes the log events from the logging threads to one or more queues(lanes).
+ * Each lane is served by its own {@link QueueLoggerThread} and {@link DbEventRequestProcessor}.
+ * <p>
+ * When there is more than one lane:
+ * <ul>
+ * <li>the events of a thread always go to the same lane, so they are processed in the order they are logged</li>
+ * <li>the events which change the processor state (join/leave test case, load queue state etc.)
+ * are sent to all lanes, so each processor knows where to log its events</li>
+ * <li>the END_LOADQUEUE event is written in the DB by the first lane only,
+ * the other lanes just clean their load queue state</li>
+ * </ul>
+ * </p>
+ */
+public class LogEventDispatcher {
+
+    private static final AtsConsoleLogger              log                  = new AtsConsoleLogger(LogEventDispatcher.class);
+
+    /**
+     * The queue type based on {@link ArrayBlockingQueue}. This is the default type.
+     */
+    public static final String                         QUEUE_TYPE_ARRAY     = "array";
+    /**
+     * The queue type based on {@link MpscLogEventQueue}
+     */
+    public static final String                         QUEUE_TYPE_MPSC      = "mpsc";
+
+    private final List<BlockingQueue<LogEventRequest>> lanes;
+    private final int                                  capacity;
+
+    private final QueueOverflowPolicy                  overflowPolicy;
+    private final Level                                dropLevel;
+    private final AtomicLong                           droppedEventsCount   = new AtomicLong();
+
+    /*
+     * Events sent to all lanes are added under this lock,
+     * so all lanes see them in the same order
+     */
+    private final Object                               broadcastLock        = new Object();
+
+    /**
+     * @param queueType the type of the queues - {@link #QUEUE_TYPE_ARRAY} or {@link #QUEUE_TYPE_MPSC}
+     * @param capacity the total capacity, it is split between all lanes
+     * @param numberOfLanes number of queues
+     * @param overflowPolicy what to do when a queue is full
+     * @param dropLevel used with {@link QueueOverflowPolicy#DROP_BY_LEVEL}, messages with level not higher
+     * than this one are dropped
+     */
+    public LogEventDispatcher( String queueType, int capacity, int numberOfLanes, QueueOverflowPolicy overflowPolicy,
+                               Level dropLevel ) {
+
+        if (numberOfLanes < 1) {
+            numberOfLanes = 1;
+        }
+
+        int laneCapacity = (capacity + numberOfLanes - 1) / numberOfLanes;
+        boolean isMpscQueue = QUEUE_TYPE_MPSC.equalsIgnoreCase(queueType);
+
+        this.lanes = new ArrayList<BlockingQueue<LogEventRequest>>(numberOfLanes);
+        int realCapacity = 0;
+        for (int i = 0; i < numberOfLanes; i++) {
+            BlockingQueue<LogEventRequest> lane;
+            if (isMpscQueue) {
+                lane = new MpscLogEventQueue(laneCapacity);
+            } else {
+                lane = new ArrayBlockingQueue<LogEventRequest>(laneCapacity);
+            }
+            realCapacity += lane.remainingCapacity();
+            lanes.add(lane);
+        }
+        this.capacity = realCapacity;
+
+        this.overflowPolicy = overflowPolicy;
+        this.dropLevel = dropLevel;
+    }
+
+    /**
+     * Pass an event to the lane(s) it belongs to
+     *
+     * @param eventRequest the event
+     */
+    public void dispatch( LogEventRequest eventRequest ) {
+
+        if (lanes.size() == 1) {
+            addToLane(lanes.get(0), eventRequest);
+            return;
+        }
+
+        LoggingEvent event = eventRequest.getEvent();
+        if (event instanceof AbstractLoggingEvent) {
+            switch ( ((AbstractLoggingEvent) event).getEventType()) {
+                case JOIN_TEST_CASE:
+                case LEAVE_TEST_CASE:
+                case REMEMBER_LOADQUEUE_STATE:
+                case CLEANUP_LOADQUEUE_STATE:
+                case START_AFTER_SUITE:
+                case END_AFTER_SUITE:
+                case START_AFTER_CLASS:
+                case END_AFTER_CLASS:
+                case START_AFTER_METHOD:
+                case END_AFTER_METHOD:
+                    broadcast(eventRequest, eventRequest);
+                    return;
+                case END_LOADQUEUE:
+                    EndLoadQueueEvent endLoadQueueEvent = (EndLoadQueueEvent) event;
+                    CleanupLoadQueueStateEvent cleanupEvent = new CleanupLoadQueueStateEvent(endLoadQueueEvent.fqnOfCategoryClass,
+                                                                                             Logger.getLogger(endLoadQueueEvent.getLoggerName()),
+                                                                                             endLoadQueueEvent.getName());
+                    broadcast(eventRequest, new LogEventRequest(eventRequest.getThreadName(),
+                                                                cleanupEvent,
+                                                                eventRequest.getTimestamp()));
+                    return;
+                default:
+                    break;
+            }
+        }
+
+        addToLane(lanes.get(getLaneIndex(eventRequest.getThreadName())), eventRequest);
+    }
+
+    /**
+     * Pass an event to the first lane, applying the overflow policy.
+     * Used for the events some thread waits for, as the first lane processes them.
+     *
+     * @param eventRequest the event
+     */
+    public void dispatchToFirstLane( LogEventRequest eventRequest ) {
+
+        addToLane(lanes.get(0), eventRequest);
+    }
+
+    /**
+     * @param index the lane index
+     * @return the queue of the lane
+     */
+    public BlockingQueue<LogEventRequest> getLane( int index ) {
+
+        return lanes.get(index);
+    }
+
+    /**
+     * @return number of lanes
+     */
+    public int getNumberOfLanes() {
+
+        return lanes.size();
+    }
+
+    /**
+     * @return the number of events waiting in all lanes
+     */
+    public int size() {
+
+        int size = 0;
+        for (BlockingQueue<LogEventRequest> lane : lanes) {
+            size += lane.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return how many more events can be added into all lanes
+     */
+    public int remainingCapacity() {
+
+        int remainingCapacity = 0;
+        for (BlockingQueue<LogEventRequest> lane : lanes) {
+            remainingCapacity += lane.remainingCapacity();
+        }
+        return remainingCapacity;
+    }
+
+    /**
+     * @return the total capacity of all lanes
+     */
+    public int getCapacity() {
+
+        return capacity;
+    }
+
+    /**
+     * @return number of events dropped due to full queue
+     */
+    public long getDroppedEventsCount() {
+
+        return droppedEventsCount.get();
+    }
+
+    private int getLaneIndex( String threadName ) {
+
+        int hash = (threadName == null)
+                                        ? 0
+                                        : threadName.hashCode();
+        // spread the hash bits, as thread names often differ in the last characters only
+        hash ^= (hash >>> 16);
+        return (hash & 0x7fffffff) % lanes.size();
+    }
+
+    private void broadcast( LogEventRequest firstLaneEvent, LogEventRequest otherLanesEvent ) {
+
+        synchronized (broadcastLock) {
+            addToLane(lanes.get(0), firstLaneEvent);
+            for (int i = 1; i < lanes.size(); i++) {
+                addToLane(lanes.get(i), otherLanesEvent);
+            }
+        }
+    }
+
+    private void addToLane( BlockingQueue<LogEventRequest> lane, LogEventRequest eventRequest ) {
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                put(lane, eventRequest);
+                break;
+            case DROP_BY_LEVEL:
+                if (!lane.offer(eventRequest)) {
+                    if (isDroppable(eventRequest.getEvent())) {
+                        if (droppedEventsCount.getAndIncrement() == 0) {
+                            log.warn("The logging queue is full, so messages with level " + dropLevel
+                                     + " or lower will be dropped until there is room in the queue");
+                        }
+                    } else {
+                        put(lane, eventRequest);
+                    }
+                }
+                break;
+            default:
+                try {
+                    lane.add(eventRequest);
+                } catch (IllegalStateException ex) {
+                    if (lane.remainingCapacity() < 1) {
+                        throw new IllegalStateException("There are too many messages queued"
+                                                        + " for TestExplorer DB logging. Decrease messages count"
+                                                        + " by lowering effective log4j severity or check whether"
+                                                        + " connection to DB is too slow", ex);
+                    } else {
+                        throw ex;
+                    }
+                }
+                break;
+        }
+    }
+
+    private void put( BlockingQueue<LogEventRequest> lane, LogEventRequest eventRequest ) {
+
+        try {
+            lane.put(eventRequest);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new DbAppenederException("Interrupted while waiting for room in the logging queue", ie);
+        }
+    }
+
+    private boolean isDroppable( LoggingEvent event ) {
+
+        if (event instanceof AbstractLoggingEvent && ! (event instanceof InsertMessageEvent)) {
+            // DB entity events are never dropped
+            return false;
+        }
+
+        return dropLevel.isGreaterOrEqual(event.getLevel());
+    }
+}
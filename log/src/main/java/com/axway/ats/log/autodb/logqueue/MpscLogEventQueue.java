@@ -0,0 +1,318 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.log.autodb.logqueue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, lock-free multi-producer single-consumer ring buffer for log events.
+ * <p>
+ * Producers (the threads which log) claim a slot with a single CAS on the tail sequence,
+ * so they never take a monitor. Only one thread - the {@link QueueLoggerThread} serving this queue -
+ * is allowed to take events out of it.
+ * </p>
+ * <p>
+ * When the consumer has nothing to do it parks and it is unparked by the next producer.
+ * When the queue is full, the blocking producer methods back off with a short park until a slot is free.
+ * </p>
+ */
+public class MpscLogEventQueue extends AbstractQueue<LogEventRequest> implements BlockingQueue<LogEventRequest> {
+
+    // how long a producer sleeps before retrying to add into a full queue
+    private static final long                           PRODUCER_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    // how many times a producer retries to add into a full queue, before starting to park
+    private static final int                            PRODUCER_SPIN_TRIES    = 64;
+
+    private final int                                   capacity;
+    private final int                                   mask;
+
+    private final AtomicReferenceArray<LogEventRequest> buffer;
+    /*
+     * Each slot has a sequence number.
+     * When 'sequence == position' the slot is free for the producer claiming that position,
+     * when 'sequence == position + 1' the slot holds an event ready for the consumer.
+     */
+    private final AtomicLongArray                       sequences;
+
+    // next position to be claimed by a producer
+    private final AtomicLong                            tail                   = new AtomicLong();
+    // next position to be read by the consumer, written by the consumer thread only
+    private volatile long                               head;
+
+    // the consumer thread when it is waiting for new events
+    private volatile Thread                             waitingConsumer;
+
+    /**
+     * @param requestedCapacity the minimum capacity of the queue, it is rounded up to the next power of 2
+     * (but not less than 2)
+     */
+    public MpscLogEventQueue( int requestedCapacity ) {
+
+        if (requestedCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be a positive number, but it is "
+                                               + requestedCapacity);
+        }
+
+        // at least 2 slots are needed, otherwise a published slot looks like a free one for the next position
+        int powerOf2Capacity = 2;
+        while (powerOf2Capacity < requestedCapacity) {
+            powerOf2Capacity <<= 1;
+        }
+
+        this.capacity = powerOf2Capacity;
+        this.mask = powerOf2Capacity - 1;
+        this.buffer = new AtomicReferenceArray<LogEventRequest>(powerOf2Capacity);
+        this.sequences = new AtomicLongArray(powerOf2Capacity);
+        for (int i = 0; i < powerOf2Capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return the real capacity of this queue
+     */
+    public int getCapacity() {
+
+        return capacity;
+    }
+
+    @Override
+    public boolean offer( LogEventRequest event ) {
+
+        if (event == null) {
+            throw new NullPointerException();
+        }
+
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer.lazySet(index, event);
+                    // publish the event, this must be a volatile write as it pairs with the consumer parking
+                    sequences.set(index, position + 1);
+
+                    Thread consumer = waitingConsumer;
+                    if (consumer != null) {
+                        LockSupport.unpark(consumer);
+                    }
+                    return true;
+                }
+            } else if (difference < 0) {
+                // the consumer did not release this slot yet, so the queue is full
+                return false;
+            }
+            // else another producer claimed this position, try the next one
+        }
+    }
+
+    @Override
+    public void put( LogEventRequest event ) throws InterruptedException {
+
+        int tries = 0;
+        while (!offer(event)) {
+            backOff(tries++);
+        }
+    }
+
+    @Override
+    public boolean offer( LogEventRequest event, long timeout, TimeUnit unit ) throws InterruptedException {
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int tries = 0;
+        while (!offer(event)) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            backOff(tries++);
+        }
+        return true;
+    }
+
+    @Override
+    public LogEventRequest poll() {
+
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            // nothing published at this position yet
+            return null;
+        }
+
+        LogEventRequest event = buffer.get(index);
+        buffer.lazySet(index, null);
+        // release the slot for the producer which will come here on the next lap
+        sequences.set(index, position + capacity);
+        head = position + 1;
+
+        return event;
+    }
+
+    @Override
+    public LogEventRequest take() throws InterruptedException {
+
+        while (true) {
+            LogEventRequest event = poll();
+            if (event != null) {
+                return event;
+            }
+
+            waitingConsumer = Thread.currentThread();
+            try {
+                // check again after announcing we are waiting, so we do not miss a wake up
+                event = poll();
+                if (event != null) {
+                    return event;
+                }
+                LockSupport.park(this);
+            } finally {
+                waitingConsumer = null;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    public LogEventRequest poll( long timeout, TimeUnit unit ) throws InterruptedException {
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            LogEventRequest event = poll();
+            if (event != null) {
+                return event;
+            }
+
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return null;
+            }
+
+            waitingConsumer = Thread.currentThread();
+            try {
+                event = poll();
+                if (event != null) {
+                    return event;
+                }
+                LockSupport.parkNanos(this, remainingNanos);
+            } finally {
+                waitingConsumer = null;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    public LogEventRequest peek() {
+
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        return buffer.get(index);
+    }
+
+    @Override
+    public int size() {
+
+        // read head first, so we never return a negative number
+        long currentHead = head;
+        long size = tail.get() - currentHead;
+        if (size < 0) {
+            return 0;
+        }
+        return (int) Math.min(size, capacity);
+    }
+
+    @Override
+    public int remainingCapacity() {
+
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo( Collection<? super LogEventRequest> collection ) {
+
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo( Collection<? super LogEventRequest> collection, int maxElements ) {
+
+        if (collection == this) {
+            throw new IllegalArgumentException("Cannot drain a queue into itself");
+        }
+
+        int count = 0;
+        LogEventRequest event;
+        while (count < maxElements && (event = poll()) != null) {
+            collection.add(event);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Weakly consistent iterator over a snapshot of the currently queued events.
+     * It is meant for diagnostic purposes only and does not support removal.
+     */
+    @Override
+    public Iterator<LogEventRequest> iterator() {
+
+        List<LogEventRequest> snapshot = new ArrayList<LogEventRequest>();
+        long position = head;
+        long lastPosition = tail.get();
+        for (; position < lastPosition; position++) {
+            LogEventRequest event = buffer.get((int) (position & mask));
+            if (event != null) {
+                snapshot.add(event);
+            }
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    private void backOff( int tries ) throws InterruptedException {
+
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        if (tries < PRODUCER_SPIN_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(this, PRODUCER_BACKOFF_NANOS);
+        }
+    }
+}
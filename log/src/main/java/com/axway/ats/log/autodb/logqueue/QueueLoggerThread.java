@@ -19,7 +19,7 @@
 
 package com.axway.ats.log.autodb.logqueue;
 
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import org.apache.log4j.spi.LoggingEvent;
 
@@ -49,10 +49,10 @@ public class QueueLoggerThread extends Thread {
     /**
      * The queue of events waiting to be logged into DB
      */
-    private ArrayBlockingQueue<LogEventRequest> queue;
+    private BlockingQueue<LogEventRequest>      queue;
     private int                                 minorSqlExceptionsCounter              = 0;                                            // counter for minor SQL exceptions. Used to prevent flooding of the log
 
-    public QueueLoggerThread( ArrayBlockingQueue<LogEventRequest> queue, EventRequestProcessor eventProcessor,
+    public QueueLoggerThread( BlockingQueue<LogEventRequest> queue, EventRequestProcessor eventProcessor,
                               boolean isBatchMode ) {
 
         this.queue = queue;
@@ -73,7 +73,7 @@ public void run() {
 
         CONSOLE_LOG.info(
                          "Started logger thread named '"
-                         + getName() + "' with queue of maximum " + queue.remainingCapacity() + queue.size()
+                         + getName() + "' with queue of maximum " + (queue.remainingCapacity() + queue.size())
                          + " events. Batch mode is " + (isBatchMode
                                                                     ? "enabled"
                                                                     : "disabled"));
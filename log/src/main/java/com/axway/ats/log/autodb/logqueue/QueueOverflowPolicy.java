@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.log.autodb.logqueue;
+
+/**
+ * What to do with a new log event when the logging queue is full
+ */
+public enum QueueOverflowPolicy {
+
+    /**
+     * Throw an exception in the logging thread. This is the default behavior.
+     */
+    FAIL,
+
+    /**
+     * Block the logging thread until there is room in the queue
+     */
+    BLOCK,
+
+    /**
+     * Drop regular messages with level not higher than the configured drop level.
+     * All other events block the logging thread until there is room in the queue.
+     */
+    DROP_BY_LEVEL;
+
+    /**
+     * @param policy the policy name, case insensitive
+     * @return the matching policy or {@link #FAIL} if the name is not known
+     */
+    public static QueueOverflowPolicy fromString( String policy ) {
+
+        if (policy != null) {
+            for (QueueOverflowPolicy value : values()) {
+                if (value.name().equalsIgnoreCase(policy.trim())) {
+                    return value;
+                }
+            }
+        }
+
+        return FAIL;
+    }
+}
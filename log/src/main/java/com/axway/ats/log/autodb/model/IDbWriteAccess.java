@@ -182,6 +182,20 @@ public void insertSystemStatistics( int testCaseId, String machine, String stati
                                         String statisticValues, long timestamp,
                                         boolean closeConnection ) throws DatabaseAccessException;
 
+    /**
+     * Insert system statistics for many timestamps with a single round trip to the DB
+     *
+     * @param testCaseId the test case ID
+     * @param machine the monitored machine
+     * @param timestamps the timestamps, one per row
+     * @param statisticIds the statistic DB IDs for each row, in the same format as for a single timestamp
+     * @param statisticValues the statistic values for each row, in the same format as for a single timestamp
+     * @param closeConnection whether to close the DB connection
+     */
+    public void insertSystemStatistics( int testCaseId, String machine, long[] timestamps,
+                                        String[] statisticIds, String[] statisticValues,
+                                        boolean closeConnection ) throws DatabaseAccessException;
+
     public void insertUserActivityStatistics( int testCaseId, String machine, String statisticIds,
                                               String statisticValues, long timestamp,
                                               boolean closeConnection ) throws DatabaseAccessException;
@@ -192,6 +206,18 @@ public int populateSystemStatisticDefinition( String name, String parentName, St
     public int populateCheckpointSummary( int loadQueueId, String name, String transferRateUnit,
                                           boolean closeConnection ) throws DatabaseAccessException;
 
+    /**
+     * Add new values to an existing checkpoint summary
+     *
+     * @param checkpointSummaryId the summary ID, as returned by {@link #populateCheckpointSummary(int, String, String, boolean)}
+     * @param avgResponseTime the average response time of the new passed checkpoints only
+     * @param avgTransferRate the average transfer rate of the new passed checkpoints only
+     */
+    public void updateCheckpointSummary( int checkpointSummaryId, int numRunning, int numPassed, int numFailed,
+                                         int minResponseTime, double avgResponseTime, int maxResponseTime,
+                                         double minTransferRate, double avgTransferRate, double maxTransferRate,
+                                         boolean closeConnection ) throws DatabaseAccessException;
+
     public void updateMachineInfo( String machineName, String machineInfo,
                                    boolean closeConnection ) throws DatabaseAccessException;
 
@@ -169,6 +169,11 @@ public enum LoggingEventType {
      */
     INSERT_CHECKPOINT,
 
+    /**
+     * Add aggregated checkpoint values to a checkpoint summary
+     */
+    UPDATE_CHECKPOINT_SUMMARY,
+
     /**
      * Set the checkpoint log level
      */
@@ -179,6 +184,11 @@ public enum LoggingEventType {
      */
     INSERT_SYSTEM_STAT,
 
+    /**
+     * Insert system statistics for many timestamps at once
+     */
+    INSERT_SYSTEM_STATS,
+
     /**
      * Insert an user activity statistic
      */
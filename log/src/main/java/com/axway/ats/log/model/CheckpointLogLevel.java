@@ -20,7 +20,15 @@
  */
 public enum CheckpointLogLevel {
 
-    SHORT(0), FULL(1);
+    SHORT(0), FULL(1),
+
+    /**
+     * The checkpoints are aggregated in memory on the ATS Agent and only the checkpoint summaries
+     * are periodically updated in the DB.<br>
+     * The checkpoints which are sampled (see <i>ats.agent.checkpoints.aggregation.sample.every</i>)
+     * are logged as in {@link #FULL} mode, that is why this level has the same DB value.
+     */
+    AGGREGATED(1);
 
     private int value;
 
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.log.autodb.io;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.anyString;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+
+import java.io.Reader;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import com.axway.ats.core.dbaccess.DbConnection;
+import com.axway.ats.log.autodb.io.PGDbWriteAccess.CopyStagingTable;
+import com.axway.ats.log.model.CheckpointLogLevel;
+
+public class Test_PGDbWriteAccess {
+
+    private Connection        connection;
+    private Statement         statement;
+    private CopyManager       copyManager;
+    private CallableStatement callableStatement;
+    private DbConnection      dbConnection;
+
+    private PGDbWriteAccess   dbAccess;
+
+    @Before
+    public void setUp() throws Exception {
+
+        connection = createNiceMock(Connection.class);
+        statement = createNiceMock(Statement.class);
+        copyManager = createNiceMock(CopyManager.class);
+        callableStatement = createNiceMock(CallableStatement.class);
+
+        PGConnection pgConnection = createNiceMock(PGConnection.class);
+        expect(pgConnection.getCopyAPI()).andReturn(copyManager).anyTimes();
+        expect(connection.isWrapperFor(PGConnection.class)).andReturn(true).anyTimes();
+        expect(connection.unwrap(PGConnection.class)).andReturn(pgConnection).anyTimes();
+        expect(connection.createStatement()).andReturn(statement).anyTimes();
+        expect(connection.prepareCall(anyString())).andReturn(callableStatement).anyTimes();
+
+        DataSource dataSource = createNiceMock(DataSource.class);
+        expect(dataSource.getConnection(null, null)).andReturn(connection).anyTimes();
+        dbConnection = createNiceMock(DbConnection.class);
+        expect(dbConnection.getConnHash()).andReturn(Test_PGDbWriteAccess.class.getName() + hashCode())
+                                          .anyTimes();
+        expect(dbConnection.getDataSource()).andReturn(dataSource).anyTimes();
+
+        replay(pgConnection, dataSource, dbConnection);
+    }
+
+    @Test
+    public void csvRows() {
+
+        CopyStagingTable table = new CopyStagingTable("tmp_table", "sp_insert", "id INTEGER", "name VARCHAR",
+                                                      "level INTEGER", "time TIMESTAMP");
+        table.addRow(1, "say \"hi\", bye", CheckpointLogLevel.FULL, new Timestamp(0));
+        table.addRow(2, "", null, null);
+
+        assertEquals(2, table.getNumberRows());
+        assertEquals("1,\"say \"\"hi\"\", bye\",1," + new Timestamp(0) + "\n" + "2,\"\",,\n", table.getCsvRows());
+        assertEquals("COPY tmp_table (id, name, level, time) FROM STDIN WITH (FORMAT csv)", table.getCopySql());
+
+        table.clear();
+        assertEquals(0, table.getNumberRows());
+        assertEquals("", table.getCsvRows());
+    }
+
+    @Test
+    public void procedureIsCalledInTheOrderOfTheRows() {
+
+        CopyStagingTable table = new CopyStagingTable("tmp_table", "sp_insert", "id INTEGER", "name VARCHAR");
+
+        assertEquals("DO $$ DECLARE r RECORD; BEGIN FOR r IN SELECT * FROM tmp_table ORDER BY seq LOOP"
+                     + " PERFORM sp_insert(r.id, r.name); END LOOP; END $$", table.getInsertSql());
+    }
+
+    @Test
+    public void copyMessages() throws Exception {
+
+        expect(copyManager.copyIn(anyString(), anyObject(Reader.class))).andReturn(2L);
+        expect(statement.execute(anyString())).andReturn(false).times(2);
+        connection.commit();
+        expectLastCall().once();
+        replay(connection, statement, copyManager, callableStatement);
+
+        dbAccess = new PGDbWriteAccess(dbConnection, true);
+        insertMessages();
+        dbAccess.flushCache();
+
+        verify(connection, statement, copyManager, callableStatement);
+    }
+
+    @Test
+    public void copyFailureFallsBackToStoredProcedures() throws Exception {
+
+        expect(copyManager.copyIn(anyString(), anyObject(Reader.class))).andThrow(new SQLException("COPY failed"));
+        connection.rollback();
+        expectLastCall().once();
+        // the messages are sent as before COPY was used
+        callableStatement.setString(3, "message 1");
+        expectLastCall().once();
+        callableStatement.setString(3, "message 2");
+        expectLastCall().once();
+        callableStatement.addBatch();
+        expectLastCall().times(2);
+        expect(callableStatement.executeBatch()).andReturn(new int[]{ 1, 1 });
+        connection.commit();
+        expectLastCall().once();
+        replay(connection, statement, copyManager, callableStatement);
+
+        dbAccess = new PGDbWriteAccess(dbConnection, true);
+        insertMessages();
+        dbAccess.flushCache();
+
+        verify(connection, statement, copyManager, callableStatement);
+    }
+
+    private void insertMessages() throws Exception {
+
+        long timestamp = System.currentTimeMillis();
+        dbAccess.insertMessage("message 1", 4, false, "machine", "thread", timestamp, 1, false);
+        dbAccess.insertMessage("message 2", 4, false, "machine", "thread", timestamp, 1, false);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.log.autodb.logqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.Test;
+
+import com.axway.ats.log.autodb.events.CleanupLoadQueueStateEvent;
+import com.axway.ats.log.autodb.events.EndLoadQueueEvent;
+import com.axway.ats.log.autodb.events.LeaveTestCaseEvent;
+import com.axway.ats.log.model.LoadQueueResult;
+
+public class Test_LogEventDispatcher {
+
+    private static final String FQCN   = Test_LogEventDispatcher.class.getName();
+    private static final Logger LOGGER = Logger.getLogger(Test_LogEventDispatcher.class);
+
+    @Test
+    public void mpscQueueKeepsOrder() throws InterruptedException {
+
+        MpscLogEventQueue queue = new MpscLogEventQueue(4);
+        for (int i = 0; i < 10; i++) {
+            // go around the ring a few times
+            LogEventRequest first = message("thread-1", Level.INFO);
+            LogEventRequest second = message("thread-1", Level.INFO);
+            assertTrue(queue.offer(first));
+            assertTrue(queue.offer(second));
+            assertEquals(2, queue.size());
+
+            assertSame(first, queue.take());
+            assertSame(second, queue.poll(1, TimeUnit.SECONDS));
+            assertNull(queue.poll());
+        }
+    }
+
+    @Test
+    public void mpscQueueCapacity() {
+
+        MpscLogEventQueue queue = new MpscLogEventQueue(3);
+        assertEquals(4, queue.getCapacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(message("thread-1", Level.INFO)));
+        }
+        assertFalse(queue.offer(message("thread-1", Level.INFO)));
+        assertEquals(0, queue.remainingCapacity());
+
+        queue.poll();
+        assertTrue(queue.offer(message("thread-1", Level.INFO)));
+    }
+
+    @Test
+    public void mpscQueueManyProducers() throws InterruptedException {
+
+        final int producers = 8;
+        final int eventsPerProducer = 10000;
+        final MpscLogEventQueue queue = new MpscLogEventQueue(64);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        for (int i = 0; i < producers; i++) {
+            final String threadName = "producer-" + i;
+            Thread producer = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    try {
+                        startLatch.await();
+                        for (int j = 0; j < eventsPerProducer; j++) {
+                            queue.put(new LogEventRequest(threadName, event(Level.INFO), j));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, threadName);
+            producer.setDaemon(true);
+            producer.start();
+        }
+        startLatch.countDown();
+
+        // the events of each producer must come in the order they were added
+        long[] lastTimestamps = new long[producers];
+        for (int i = 0; i < producers; i++) {
+            lastTimestamps[i] = -1;
+        }
+        for (int i = 0; i < producers * eventsPerProducer; i++) {
+            LogEventRequest request = queue.poll(10, TimeUnit.SECONDS);
+            int producer = Integer.parseInt(request.getThreadName().substring("producer-".length()));
+            assertEquals(lastTimestamps[producer] + 1, request.getTimestamp());
+            lastTimestamps[producer] = request.getTimestamp();
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void sameThreadGoesToSameLane() {
+
+        LogEventDispatcher dispatcher = new LogEventDispatcher(LogEventDispatcher.QUEUE_TYPE_MPSC, 100, 4,
+                                                               QueueOverflowPolicy.FAIL, Level.INFO);
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(message("thread-1", Level.INFO));
+        }
+        assertEquals(10, dispatcher.size());
+
+        int usedLanes = 0;
+        for (int i = 0; i < dispatcher.getNumberOfLanes(); i++) {
+            if (dispatcher.getLane(i).size() > 0) {
+                assertEquals(10, dispatcher.getLane(i).size());
+                usedLanes++;
+            }
+        }
+        assertEquals(1, usedLanes);
+    }
+
+    @Test
+    public void stateEventsGoToAllLanes() {
+
+        LogEventDispatcher dispatcher = new LogEventDispatcher(LogEventDispatcher.QUEUE_TYPE_ARRAY, 100, 3,
+                                                               QueueOverflowPolicy.FAIL, Level.INFO);
+        LogEventRequest leaveEvent = new LogEventRequest("thread-1", new LeaveTestCaseEvent(FQCN, LOGGER), 1);
+        dispatcher.dispatch(leaveEvent);
+
+        for (int i = 0; i < dispatcher.getNumberOfLanes(); i++) {
+            assertSame(leaveEvent, dispatcher.getLane(i).poll());
+        }
+    }
+
+    @Test
+    public void endLoadQueueIsLoggedByTheFirstLaneOnly() {
+
+        LogEventDispatcher dispatcher = new LogEventDispatcher(LogEventDispatcher.QUEUE_TYPE_MPSC, 100, 3,
+                                                               QueueOverflowPolicy.FAIL, Level.INFO);
+        LogEventRequest endEvent = new LogEventRequest("thread-1",
+                                                       new EndLoadQueueEvent(FQCN, LOGGER, "queue 1",
+                                                                             LoadQueueResult.PASSED),
+                                                       1);
+        dispatcher.dispatch(endEvent);
+
+        assertSame(endEvent, dispatcher.getLane(0).poll());
+        for (int i = 1; i < dispatcher.getNumberOfLanes(); i++) {
+            LoggingEvent laneEvent = dispatcher.getLane(i).poll().getEvent();
+            assertTrue(laneEvent instanceof CleanupLoadQueueStateEvent);
+            assertEquals("queue 1", ((CleanupLoadQueueStateEvent) laneEvent).getName());
+        }
+    }
+
+    @Test
+    public void dropByLevel() {
+
+        LogEventDispatcher dispatcher = new LogEventDispatcher(LogEventDispatcher.QUEUE_TYPE_ARRAY, 2, 1,
+                                                               QueueOverflowPolicy.DROP_BY_LEVEL, Level.INFO);
+        dispatcher.dispatch(message("thread-1", Level.INFO));
+        dispatcher.dispatch(message("thread-1", Level.INFO));
+
+        // the queue is full now
+        dispatcher.dispatch(message("thread-1", Level.DEBUG));
+        dispatcher.dispatch(message("thread-1", Level.INFO));
+        assertEquals(2, dispatcher.getDroppedEventsCount());
+        assertEquals(2, dispatcher.size());
+    }
+
+    @Test( expected = IllegalStateException.class)
+    public void failWhenFull() {
+
+        LogEventDispatcher dispatcher = new LogEventDispatcher(LogEventDispatcher.QUEUE_TYPE_MPSC, 2, 1,
+                                                               QueueOverflowPolicy.FAIL, Level.INFO);
+        BlockingQueue<LogEventRequest> lane = dispatcher.getLane(0);
+        dispatcher.dispatch(message("thread-1", Level.INFO));
+        dispatcher.dispatch(message("thread-1", Level.INFO));
+        assertEquals(0, lane.remainingCapacity());
+
+        dispatcher.dispatch(message("thread-1", Level.INFO));
+    }
+
+    @Test
+    public void firstLaneUsesTheOverflowPolicy() throws InterruptedException {
+
+        final LogEventDispatcher dispatcher = new LogEventDispatcher(LogEventDispatcher.QUEUE_TYPE_ARRAY, 2, 2,
+                                                                     QueueOverflowPolicy.BLOCK, Level.INFO);
+        LogEventRequest firstEvent = message("thread-1", Level.INFO);
+        final LogEventRequest secondEvent = message("thread-2", Level.INFO);
+        dispatcher.dispatchToFirstLane(firstEvent);
+
+        // the first lane is full, so the next event waits for room in it
+        final CountDownLatch dispatched = new CountDownLatch(1);
+        new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                dispatcher.dispatchToFirstLane(secondEvent);
+                dispatched.countDown();
+            }
+        }).start();
+        assertFalse(dispatched.await(200, TimeUnit.MILLISECONDS));
+
+        assertSame(firstEvent, dispatcher.getLane(0).poll());
+        assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        assertSame(secondEvent, dispatcher.getLane(0).poll());
+        assertEquals(0, dispatcher.getLane(1).size());
+    }
+
+    private static LogEventRequest message( String threadName, Level level ) {
+
+        return new LogEventRequest(threadName, event(level), System.currentTimeMillis());
+    }
+
+    private static LoggingEvent event( Level level ) {
+
+        return new LoggingEvent(FQCN, LOGGER, level, "some message", null);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.log.benchmark;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.axway.ats.log.autodb.logqueue.LogEventDispatcher;
+import com.axway.ats.log.autodb.logqueue.LogEventRequest;
+import com.axway.ats.log.autodb.logqueue.QueueOverflowPolicy;
+
+/**
+ * Measures how many log events per second many logging threads can pass to the DB logger thread
+ * through the different queue types.
+ * <p>
+ * This is not a unit test, run it with the <code>main</code> method from the test classpath.
+ * </p>
+ */
+@State( Scope.Group)
+@BenchmarkMode( Mode.Throughput)
+@OutputTimeUnit( TimeUnit.MILLISECONDS)
+@Warmup( iterations = 3, time = 2)
+@Measurement( iterations = 5, time = 2)
+@Fork( 1)
+public class LogEventQueueBenchmark {
+
+    @Param( { LogEventDispatcher.QUEUE_TYPE_ARRAY, LogEventDispatcher.QUEUE_TYPE_MPSC })
+    public String                          queueType;
+
+    private BlockingQueue<LogEventRequest> queue;
+    private LoggingEvent                   event;
+
+    @Setup
+    public void setUp() {
+
+        queue = new LogEventDispatcher(queueType, 100000, 1, QueueOverflowPolicy.FAIL, Level.INFO).getLane(0);
+        event = new LoggingEvent(LogEventQueueBenchmark.class.getName(),
+                                 Logger.getLogger(LogEventQueueBenchmark.class), Level.INFO, "message", null);
+    }
+
+    @Benchmark
+    @Group( "queue")
+    @GroupThreads( 16)
+    public boolean logEvent() {
+
+        LogEventRequest eventRequest = new LogEventRequest(Thread.currentThread().getName(), event,
+                                                           System.currentTimeMillis());
+        while (!queue.offer(eventRequest)) {
+            // the consumer is behind
+            Thread.yield();
+        }
+        return true;
+    }
+
+    @Benchmark
+    @Group( "queue")
+    @GroupThreads( 1)
+    public LogEventRequest processEvent() {
+
+        return queue.poll();
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(LogEventQueueBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -17,8 +17,7 @@
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
 
 import org.apache.log4j.Logger;
 
@@ -28,6 +27,7 @@
 import com.axway.ats.rbv.model.RbvException;
 import com.axway.ats.rbv.rules.Rule;
 import com.axway.ats.rbv.storage.Matchable;
+import com.axway.ats.rbv.storage.SharedMatchable;
 
 public class Monitor {
 
@@ -46,8 +46,9 @@ public class Monitor {
     private final boolean       endOnFirstMatch;
     private final boolean       endOnFirstFailure;
 
-    private Timer               timer;
+    private ScheduledFuture<?>  pollingTask;
     private boolean             isActive;
+    private long                startTime;
 
     private String              lastRuleName;
     private String              lastError;
@@ -110,10 +111,10 @@ public synchronized void start(
 
         matchable.open();
 
-        timer = new Timer();
-        timer.schedule(new MonitorTimerTask(),
-                       pollingParameters.getInitialDelay(),
-                       pollingParameters.getPollInterval());
+        startTime = System.currentTimeMillis();
+        pollingTask = MonitorScheduler.schedule(new MonitorTask(),
+                                                pollingParameters.getInitialDelay(),
+                                                pollingParameters.getPollInterval());
 
         isActive = true;
     }
@@ -129,7 +130,7 @@ private synchronized void end(
 
         if (isActive) {
             try {
-                timer.cancel();
+                pollingTask.cancel(false);
                 matchable.close();
 
                 //if we have at least one match then we succeeded
@@ -155,7 +156,7 @@ public synchronized void cancelExecution() throws RbvException {
 
         if (isActive) {
 
-            timer.cancel();
+            pollingTask.cancel(false);
             matchable.close();
 
             log.debug(name + " execution has been cancelled");
@@ -221,7 +222,7 @@ private void logExpectedBehaviour() {
         log.info(msg);
     }
 
-    private class MonitorTimerTask extends TimerTask {
+    private class MonitorTask implements Runnable {
 
         @Override
         public void run() {
@@ -242,10 +243,17 @@ public void run() {
                     List<MetaData> metaDataReceived;
                     if (endOnFirstMatch && endOnFirstFailure) {
                         metaDataReceived = matchable.getNewMetaData();
+                        log.info(name + " " + matchable.getMetaDataCounts());
+                    } else if (matchable instanceof SharedMatchable) {
+                        // reuse the meta data if another monitor has just read the same source
+                        long maxSnapshotAge = pollingParameters.getPollInterval() / 2;
+                        metaDataReceived = MonitorScheduler.getSharedMetaData((SharedMatchable) matchable,
+                                                                              maxSnapshotAge, startTime);
+                        log.info(name + " total entries: " + metaDataReceived.size());
                     } else {
                         metaDataReceived = matchable.getAllMetaData();
+                        log.info(name + " " + matchable.getMetaDataCounts());
                     }
-                    log.info(name + " " + matchable.getMetaDataCounts());
 
                     String status = null;
                     if (expectedResult == true) {
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.rbv;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.rbv.model.RbvException;
+import com.axway.ats.rbv.storage.SharedMatchable;
+
+/**
+ * Runs the polling of all {@link Monitor}s in a shared pool of threads, instead of a timer thread per monitor.
+ * It also keeps the last meta data read from each {@link SharedMatchable} source, so the monitors
+ * polling the same source at the same time do not read it again.
+ */
+class MonitorScheduler {
+
+    private static final Logger                log                = Logger.getLogger(MonitorScheduler.class);
+
+    // the snapshots not used for this time are forgotten
+    private static final long                  SNAPSHOT_RETENTION = 60 * 1000;
+
+    private static ScheduledThreadPoolExecutor executor;
+
+    private static final Map<String, Snapshot> snapshots          = new HashMap<String, Snapshot>();
+
+    /**
+     * Schedule a polling task
+     *
+     * @param task the task
+     * @param initialDelay milliseconds before the first run
+     * @param pollInterval milliseconds between the end of a run and the start of the next one
+     * @return the scheduled task, cancel it to stop the polling
+     */
+    static ScheduledFuture<?> schedule( Runnable task, long initialDelay, long pollInterval ) {
+
+        return getExecutor().scheduleWithFixedDelay(task, initialDelay, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get all meta data of a source. If it was read by another monitor not earlier than the provided
+     * max age, the same meta data is returned.
+     * <p>
+     * Meta data read before the calling monitor was started is never reused, as it may not contain
+     * the changes the monitor is waiting for.
+     * </p>
+     *
+     * @param matchable the matchable
+     * @param maxAge the maximum age in milliseconds of a meta data that can be reused
+     * @param monitorStartTime the time the calling monitor was started
+     * @return all meta data
+     * @throws RbvException
+     */
+    static List<MetaData> getSharedMetaData( SharedMatchable matchable, long maxAge,
+                                             long monitorStartTime ) throws RbvException {
+
+        String snapshotKey = matchable.getSnapshotKey();
+
+        Snapshot snapshot;
+        synchronized (snapshots) {
+            long now = System.currentTimeMillis();
+            Iterator<Snapshot> it = snapshots.values().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().lastUsed > SNAPSHOT_RETENTION) {
+                    it.remove();
+                }
+            }
+
+            snapshot = snapshots.get(snapshotKey);
+            if (snapshot == null) {
+                snapshot = new Snapshot();
+                snapshots.put(snapshotKey, snapshot);
+            }
+            snapshot.lastUsed = now;
+        }
+
+        // the monitors of other sources are not blocked while reading this one
+        synchronized (snapshot) {
+            if (snapshot.metaData == null || snapshot.readTime < monitorStartTime
+                || System.currentTimeMillis() - snapshot.readTime > maxAge) {
+                // remember when the reading started, as the changes made while reading may be missed
+                long readTime = System.currentTimeMillis();
+                snapshot.metaData = matchable.getAllMetaData();
+                snapshot.readTime = readTime;
+            } else {
+                log.debug("Reusing the meta data of " + matchable.getDescription() + " read "
+                          + (System.currentTimeMillis() - snapshot.readTime) + " ms ago");
+            }
+            return new ArrayList<MetaData>(snapshot.metaData);
+        }
+    }
+
+    private static synchronized ScheduledThreadPoolExecutor getExecutor() {
+
+        if (executor == null) {
+            int defaultThreads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+            int threads = AtsSystemProperties.getPropertyAsNumber(AtsSystemProperties.RBV__MONITOR_THREADS,
+                                                                  defaultThreads);
+            if (threads < 1) {
+                threads = defaultThreads;
+            }
+
+            executor = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+
+                private final AtomicInteger threadNumber = new AtomicInteger();
+
+                @Override
+                public Thread newThread( Runnable runnable ) {
+
+                    Thread thread = new Thread(runnable, "RBV-Monitor-" + threadNumber.incrementAndGet());
+                    // do not keep the JVM alive because of some forgotten monitor
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            log.debug("Started " + threads + " threads for polling RBV monitors");
+        }
+        return executor;
+    }
+
+    private static class Snapshot {
+
+        private List<MetaData> metaData;
+        private long           readTime;
+        private long           lastUsed;
+    }
+}
@@ -17,9 +17,12 @@
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 
@@ -33,9 +36,9 @@
 import com.axway.ats.rbv.model.MatchableNotOpenException;
 import com.axway.ats.rbv.model.RbvException;
 import com.axway.ats.rbv.model.RbvStorageException;
-import com.axway.ats.rbv.storage.Matchable;
+import com.axway.ats.rbv.storage.SharedMatchable;
 
-public class DbFolder implements Matchable {
+public class DbFolder implements SharedMatchable {
 
     private static Logger             log = Logger.getLogger(DbFolder.class);
 
@@ -47,6 +50,15 @@ public class DbFolder implements Matchable {
     private HashMap<String, MetaData> allMetaDataMap;
     private HashMap<String, MetaData> newMetaDataMap;
 
+    // the watermark column, null when all records are read on each poll
+    private String                    watermarkColumn;
+    // the biggest watermark value seen so far
+    private Object                    watermark;
+    // hashes of the records with the current watermark value, as the next poll reads them again
+    private Set<String>               watermarkRecords;
+    // number of records read since opened, used when reading new meta data only
+    private long                      watermarkRecordsCount;
+
     DbFolder( DbSearchTerm searchTerm,
               DbProvider dbProvider ) {
 
@@ -54,6 +66,7 @@ public class DbFolder implements Matchable {
 
         this.searchQuery = searchTerm.getDbQuery();
         this.dbProvider = dbProvider;
+        this.watermarkColumn = searchTerm.getWatermarkColumn();
 
         this.allMetaDataMap = new HashMap<String, MetaData>();
         this.newMetaDataMap = new HashMap<String, MetaData>();
@@ -68,6 +81,9 @@ public void open() throws RbvStorageException {
 
         allMetaDataMap = new HashMap<String, MetaData>();
         newMetaDataMap = new HashMap<String, MetaData>();
+        watermark = null;
+        watermarkRecords = new HashSet<String>();
+        watermarkRecordsCount = 0;
         isOpen = true;
         didPollingOccured = false;
 
@@ -92,10 +108,14 @@ public List<MetaData> getAllMetaData() throws RbvException {
             throw new MatchableNotOpenException("DB folder is not open");
         }
 
-        allMetaDataMap.clear();
-
         List<MetaData> metaDataValues = new ArrayList<MetaData>();
-        refresh();
+        if (watermarkColumn != null) {
+            // the records read before are kept, only the new ones come from the DB
+            refreshAfterWatermark(true);
+        } else {
+            allMetaDataMap.clear();
+            refresh();
+        }
 
         metaDataValues.addAll(allMetaDataMap.values());
         return metaDataValues;
@@ -109,7 +129,11 @@ public List<MetaData> getNewMetaData() throws RbvException {
         }
 
         List<MetaData> metaDataValues = new ArrayList<MetaData>();
-        refresh();
+        if (watermarkColumn != null) {
+            refreshAfterWatermark(false);
+        } else {
+            refresh();
+        }
 
         metaDataValues.addAll(newMetaDataMap.values());
         return metaDataValues;
@@ -137,41 +161,174 @@ private void refresh() throws RbvException {
         if (queryResults != null) {
             for (DbRecordValuesList queryResult : queryResults) {
                 DbMetaData currentData = new DbMetaData();
-                StringBuffer metaDataHash = new StringBuffer();
+                String metaDataSum = toMetaData(queryResult, currentData);
 
-                for (DbRecordValue recordValue : queryResult) {
-                    DbMetaDataKey key = new DbMetaDataKey(recordValue.getDbColumn());
-                    Object value = recordValue.getValue();
+                if (!oldMetaDataMap.containsKey(metaDataSum)) {
+                    newMetaDataMap.put(metaDataSum, currentData);
+                }
 
-                    currentData.putProperty(key.toString(), value);
+                //always put the record in the map holding all meta data
+                allMetaDataMap.put(metaDataSum, currentData);
+            }
 
-                    //calculate the hash
-                    metaDataHash.append(key.toString());
-                    metaDataHash.append(recordValue.getValueAsString());
-                }
+            didPollingOccured = true;
+        }
+    }
 
-                try {
-                    //compute MD5 so we don't keep the whole StringBuffer in memory
-                    MessageDigest metaDataHashDigest = MessageDigest.getInstance("MD5");
-                    String metaDataSum = new String(metaDataHashDigest.digest(metaDataHash.toString()
-                                                                                          .getBytes()));
+    /**
+     * Read only the records with watermark not less than the biggest one seen so far.
+     * The records with the same watermark are read again, as more of them might have been
+     * inserted since the last poll, the ones we have already seen are skipped by their hash.
+     *
+     * @param keepAllMetaData whether to keep all records in memory, needed when all meta data is requested
+     */
+    private void refreshAfterWatermark(
+                                        boolean keepAllMetaData ) throws RbvException {
 
-                    if (!oldMetaDataMap.containsKey(metaDataSum)) {
-                        newMetaDataMap.put(metaDataSum, currentData);
-                    }
+        newMetaDataMap = new HashMap<String, MetaData>();
+        if (!keepAllMetaData) {
+            allMetaDataMap = new HashMap<String, MetaData>();
+        }
+
+        DbQuery query;
+        if (watermark == null) {
+            // first poll, read everything
+            query = searchQuery;
+        } else {
+            List<Object> arguments = new ArrayList<Object>(searchQuery.getArguments());
+            arguments.add(watermark);
+            query = new DbQuery("SELECT * FROM (" + searchQuery.getQuery() + ") ats_watermark WHERE "
+                                + watermarkColumn + " >= ?", arguments);
+        }
+
+        log.debug("Run DB query '" + query.getQuery() + "'");
 
-                    //always put the record in the map holding all meta data
+        DbRecordValuesList[] queryResults;
+        try {
+            queryResults = dbProvider.select(query);
+        } catch (DbException dbe) {
+            throw new RbvException(dbe);
+        }
+
+        if (queryResults != null) {
+            if (watermark == null && queryResults.length > 0) {
+                // fail now and not on the next poll, which wraps the query
+                checkUniqueColumnNames(queryResults[0]);
+            }
+
+            Object newWatermark = watermark;
+            Set<String> newWatermarkRecords = watermarkRecords;
+
+            for (DbRecordValuesList queryResult : queryResults) {
+                DbMetaData currentData = new DbMetaData();
+                String metaDataSum = toMetaData(queryResult, currentData);
+                Object recordWatermark = getWatermark(queryResult);
+
+                if (!watermarkRecords.contains(metaDataSum)) {
+                    newMetaDataMap.put(metaDataSum, currentData);
                     allMetaDataMap.put(metaDataSum, currentData);
+                    watermarkRecordsCount++;
+                }
 
-                } catch (NoSuchAlgorithmException e) {
-                    throw new RuntimeException(e);
+                if (recordWatermark != null) {
+                    int comparison = (newWatermark == null)
+                                                            ? 1
+                                                            : compareWatermarks(recordWatermark, newWatermark);
+                    if (comparison > 0) {
+                        newWatermark = recordWatermark;
+                        newWatermarkRecords = new HashSet<String>();
+                        newWatermarkRecords.add(metaDataSum);
+                    } else if (comparison == 0) {
+                        if (newWatermarkRecords == watermarkRecords) {
+                            newWatermarkRecords = new HashSet<String>(watermarkRecords);
+                        }
+                        newWatermarkRecords.add(metaDataSum);
+                    }
                 }
             }
 
+            watermark = newWatermark;
+            watermarkRecords = newWatermarkRecords;
             didPollingOccured = true;
         }
     }
 
+    /**
+     * Fill the meta data with the record values
+     *
+     * @return the record hash
+     */
+    private String toMetaData(
+                               DbRecordValuesList queryResult,
+                               DbMetaData metaData ) throws RbvException {
+
+        StringBuffer metaDataHash = new StringBuffer();
+
+        for (DbRecordValue recordValue : queryResult) {
+            DbMetaDataKey key = new DbMetaDataKey(recordValue.getDbColumn());
+            Object value = recordValue.getValue();
+
+            metaData.putProperty(key.toString(), value);
+
+            //calculate the hash
+            metaDataHash.append(key.toString());
+            metaDataHash.append(recordValue.getValueAsString());
+        }
+
+        try {
+            //compute MD5 so we don't keep the whole StringBuffer in memory
+            MessageDigest metaDataHashDigest = MessageDigest.getInstance("MD5");
+            return new String(metaDataHashDigest.digest(metaDataHash.toString().getBytes()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void checkUniqueColumnNames(
+                                         DbRecordValuesList queryResult ) throws RbvException {
+
+        Set<String> columnNames = new HashSet<String>();
+        for (DbRecordValue recordValue : queryResult) {
+            String columnName = recordValue.getDbColumn().getColumnName();
+            if (!columnNames.add(columnName.toLowerCase())) {
+                throw new RbvException("Column '" + columnName + "' is returned more than once by query '"
+                                       + searchQuery.getQuery()
+                                       + "'. This is not supported when a watermark column is used, give the columns unique names");
+            }
+        }
+    }
+
+    private Object getWatermark(
+                                 DbRecordValuesList queryResult ) throws RbvException {
+
+        for (DbRecordValue recordValue : queryResult) {
+            if (watermarkColumn.equalsIgnoreCase(recordValue.getDbColumn().getColumnName())) {
+                return recordValue.getValue();
+            }
+        }
+
+        throw new RbvException("The watermark column '" + watermarkColumn + "' is not returned by query '"
+                               + searchQuery.getQuery() + "'");
+    }
+
+    @SuppressWarnings( { "unchecked", "rawtypes" })
+    private int compareWatermarks(
+                                   Object first,
+                                   Object second ) throws RbvException {
+
+        if (first instanceof Number && second instanceof Number) {
+            // the driver may return different number types for the same column
+            return new BigDecimal(first.toString()).compareTo(new BigDecimal(second.toString()));
+        }
+
+        if (first instanceof Comparable && first.getClass().isInstance(second)) {
+            return ((Comparable) first).compareTo(second);
+        }
+
+        throw new RbvException("Values of watermark column '" + watermarkColumn + "' can not be compared: '"
+                               + first + "' and '" + second + "'");
+    }
+
     public String getMetaDataCounts() throws RbvStorageException {
 
         //first check if the folder is already open
@@ -183,9 +340,19 @@ public String getMetaDataCounts() throws RbvStorageException {
             throw new RbvStorageException("DbFolder.getMetaDataCounts() called before any polling");
         }
 
+        if (watermarkColumn != null) {
+            return "Total DB records: " + watermarkRecordsCount + ", new DB records: " + newMetaDataMap.size();
+        }
+
         return "Total DB records: " + allMetaDataMap.size() + ", new DB records: " + newMetaDataMap.size();
     }
 
+    public String getSnapshotKey() {
+
+        return "db|" + dbProvider.getDbConnection().getDescription() + "|" + searchQuery.getQuery() + "|"
+               + searchQuery.getArguments() + "|" + watermarkColumn;
+    }
+
     public String getDescription() {
 
         return "DB data with " + dbProvider.getDbConnection().getDescription();
@@ -16,6 +16,7 @@
 package com.axway.ats.rbv.db;
 
 import java.util.ArrayList;
+import java.util.regex.Pattern;
 
 import com.axway.ats.common.PublicAtsApi;
 import com.axway.ats.common.dbaccess.DbQuery;
@@ -24,7 +25,10 @@
 @PublicAtsApi
 public class DbSearchTerm implements SearchTerm {
 
-    private DbQuery dbQuery;
+    private static final Pattern ORDER_BY = Pattern.compile("\\border\\s+by\\b", Pattern.CASE_INSENSITIVE);
+
+    private DbQuery              dbQuery;
+    private String               watermarkColumn;
 
     @PublicAtsApi
     public DbSearchTerm( DbQuery selectQuery ) {
@@ -38,8 +42,70 @@ public DbSearchTerm( String selectSQL ) {
         this.dbQuery = new DbQuery(selectSQL, new ArrayList<Object>());
     }
 
+    /**
+     * Search using a watermark column - a column which values always increase
+     * for the newly inserted records, like an auto incremented ID or an insertion timestamp.
+     * <br>After the first poll, only the records with watermark not less than the biggest one seen so far
+     * are read from the DB, so the DB load does not grow with the table size.
+     * <br>This is meant for tables which records are not modified after they are inserted (like audit tables),
+     * as the records which are already read are not checked for changes.
+     * <br>From the second poll on the query is used as a derived table:
+     * <i>SELECT * FROM (&lt;select query&gt;) ats_watermark WHERE &lt;watermark column&gt; &gt;= ?</i>,
+     * so the select query:
+     * <ul>
+     * <li>must not have ORDER BY, as some databases do not allow it in a derived table. The order of the records
+     * does not matter for the verification</li>
+     * <li>must not return more than one column with the same name, for example from both tables of a join.
+     * This is checked on the first poll</li>
+     * </ul>
+     * A qualified watermark column like <i>t.id</i> is accepted, only the column name is used.
+     *
+     * @param selectQuery the select query
+     * @param watermarkColumn the name of the watermark column as returned by the select query
+     * @throws IllegalArgumentException if the watermark column is empty or the query has ORDER BY
+     */
+    @PublicAtsApi
+    public DbSearchTerm( DbQuery selectQuery,
+                         String watermarkColumn ) {
+
+        if (watermarkColumn == null || watermarkColumn.trim().isEmpty()) {
+            throw new IllegalArgumentException("No watermark column is given");
+        }
+        if (ORDER_BY.matcher(selectQuery.getQuery()).find()) {
+            throw new IllegalArgumentException("ORDER BY is not supported in a query with a watermark column: '"
+                                               + selectQuery.getQuery() + "'");
+        }
+
+        this.dbQuery = selectQuery;
+        // the derived table knows the column by its name only
+        watermarkColumn = watermarkColumn.trim();
+        this.watermarkColumn = watermarkColumn.substring(watermarkColumn.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Search using a watermark column. See {@link #DbSearchTerm(DbQuery, String)} for details.
+     *
+     * @param selectSQL the select query
+     * @param watermarkColumn the name of the watermark column as returned by the select query
+     * @throws IllegalArgumentException if the watermark column is empty or the query has ORDER BY
+     */
+    @PublicAtsApi
+    public DbSearchTerm( String selectSQL,
+                         String watermarkColumn ) {
+
+        this(new DbQuery(selectSQL, new ArrayList<Object>()), watermarkColumn);
+    }
+
     public DbQuery getDbQuery() {
 
         return dbQuery;
     }
+
+    /**
+     * @return the watermark column or null if all records are read on each poll
+     */
+    public String getWatermarkColumn() {
+
+        return watermarkColumn;
+    }
 }
@@ -16,6 +16,19 @@
 
 package com.axway.ats.rbv.executors;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.rbv.MetaData;
+import com.axway.ats.rbv.model.RbvException;
 import com.axway.ats.rbv.rules.AbstractRule;
 import com.axway.ats.rbv.rules.AndRuleOperation;
 import com.axway.ats.rbv.rules.Rule;
@@ -26,7 +39,13 @@
  * were taken before the actual instance is created
  */
 public abstract class BasicExecutor implements Executor {
-    protected Rule rootRule = null;
+
+    // number of chunks per thread, so a slow chunk does not keep the other threads idle
+    private static final int       CHUNKS_PER_THREAD = 4;
+
+    private static ExecutorService evaluationPool;
+
+    protected Rule                 rootRule          = null;
 
     /**
      * Default constructor
@@ -36,6 +55,112 @@ public BasicExecutor() {
         this.rootRule = new AndRuleOperation();
     }
 
+    /**
+     * Find the meta data pieces matching the root rule.
+     * Big lists (see {@link AtsSystemProperties#RBV__PARALLEL_EVALUATION_THRESHOLD}) are split in chunks
+     * which are evaluated in parallel.
+     *
+     * @param metaData the meta data to check
+     * @param endOnFirstMatch whether to return just the first matching piece
+     * @return the matched pieces in the order they come in the provided list
+     * @throws RbvException
+     */
+    protected List<MetaData> findMatches( final List<MetaData> metaData,
+                                          final boolean endOnFirstMatch ) throws RbvException {
+
+        int threshold = AtsSystemProperties.getPropertyAsNonNegativeNumber(AtsSystemProperties.RBV__PARALLEL_EVALUATION_THRESHOLD,
+                                                                           AtsSystemProperties.RBV__PARALLEL_EVALUATION_THRESHOLD_DEFAULT);
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (threshold == 0 || metaData.size() < threshold || threads < 2) {
+            return findMatches(metaData, 0, metaData.size(), endOnFirstMatch, null, -1);
+        }
+
+        int chunksCount = threads * CHUNKS_PER_THREAD;
+        final int chunkSize = (metaData.size() + chunksCount - 1) / chunksCount;
+        // the index of the first chunk with a match, the chunks after it do not need to be checked
+        final AtomicInteger firstMatchedChunk = new AtomicInteger(Integer.MAX_VALUE);
+
+        List<Future<List<MetaData>>> chunkResults = new ArrayList<Future<List<MetaData>>>();
+        for (int i = 0; i * chunkSize < metaData.size(); i++) {
+            final int chunkIndex = i;
+            chunkResults.add(getEvaluationPool().submit(new Callable<List<MetaData>>() {
+
+                @Override
+                public List<MetaData> call() throws Exception {
+
+                    return findMatches(metaData, chunkIndex * chunkSize,
+                                       Math.min(metaData.size(), (chunkIndex + 1) * chunkSize), endOnFirstMatch,
+                                       firstMatchedChunk, chunkIndex);
+                }
+            }));
+        }
+
+        List<MetaData> matched = new ArrayList<MetaData>();
+        try {
+            for (Future<List<MetaData>> chunkResult : chunkResults) {
+                matched.addAll(chunkResult.get());
+                if (endOnFirstMatch && !matched.isEmpty()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RbvException("Interrupted while evaluating the meta data", ie);
+        } catch (ExecutionException ee) {
+            // throw the same exception as when evaluating serially
+            if (ee.getCause() instanceof RbvException) {
+                throw (RbvException) ee.getCause();
+            } else if (ee.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ee.getCause();
+            }
+            throw new RbvException(ee.getCause());
+        } finally {
+            for (Future<List<MetaData>> chunkResult : chunkResults) {
+                chunkResult.cancel(false);
+            }
+        }
+        return matched;
+    }
+
+    private List<MetaData> findMatches( List<MetaData> metaData, int fromIndex, int toIndex,
+                                        boolean endOnFirstMatch, AtomicInteger firstMatchedChunk,
+                                        int chunkIndex ) throws RbvException {
+
+        List<MetaData> matched = new ArrayList<MetaData>();
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (endOnFirstMatch && firstMatchedChunk != null && firstMatchedChunk.get() < chunkIndex) {
+                // a previous chunk has already matched
+                break;
+            }
+
+            MetaData currentMeta = metaData.get(i);
+            if (this.rootRule.isMatch(currentMeta)) {
+                matched.add(currentMeta);
+
+                if (endOnFirstMatch) {
+                    if (firstMatchedChunk != null) {
+                        int currentFirst;
+                        while ( (currentFirst = firstMatchedChunk.get()) > chunkIndex
+                                && !firstMatchedChunk.compareAndSet(currentFirst, chunkIndex)) {
+                            // retry
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static synchronized ExecutorService getEvaluationPool() {
+
+        if (evaluationPool == null) {
+            evaluationPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                          new EvaluationThreadFactory());
+        }
+        return evaluationPool;
+    }
+
     public String getLastRuleName() {
 
         if (rootRule instanceof RuleOperation) {
@@ -44,4 +169,18 @@ public String getLastRuleName() {
             return ((AbstractRule) rootRule).getRuleName();
         }
     }
+
+    private static class EvaluationThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread( Runnable runnable ) {
+
+            Thread thread = new Thread(runnable, "RBV-Evaluation-" + threadNumber.incrementAndGet());
+            // do not keep the JVM alive
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -16,11 +16,8 @@
 
 package com.axway.ats.rbv.executors;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.log4j.Logger;
-
 import com.axway.ats.rbv.MetaData;
 import com.axway.ats.rbv.model.RbvException;
 import com.axway.ats.rbv.rules.Rule;
@@ -34,7 +31,6 @@
 public class MetaExecutor extends BasicExecutor {
 
 	private boolean endOnFirstMatch = true;
-	private static final Logger log = Logger.getLogger(MetaExecutor.class);
 
 	/**
 	 * Evaluates the {@link MetaData} received as a parameter against the rules that
@@ -46,24 +42,8 @@ public class MetaExecutor extends BasicExecutor {
 	 */
 	public List<MetaData> evaluate(List<MetaData> metaData) throws RbvException {
 
-		List<MetaData> matched = new ArrayList<MetaData>();
-
-		for (MetaData currentMeta : metaData) {
-			if (this.rootRule.isMatch(currentMeta)) {
-
-				log.info("Matched a meta data!");
-
-				// we matched a piece of MetaData - add it to the
-				// collection that would be returned as a result
-				matched.add(currentMeta);
-
-				if (this.endOnFirstMatch) {
-					return matched;
-				}
-			}
-		}
-
-		return matched;
+		// big lists are evaluated in parallel
+		return findMatches(metaData, this.endOnFirstMatch);
 	}
 
 	/**
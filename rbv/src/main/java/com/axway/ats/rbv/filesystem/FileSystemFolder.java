@@ -16,9 +16,13 @@
 package com.axway.ats.rbv.filesystem;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.apache.log4j.Logger;
 
@@ -27,6 +31,8 @@
 import com.axway.ats.action.objects.model.PackageException;
 import com.axway.ats.action.system.SystemOperations;
 import com.axway.ats.common.system.OperatingSystemType;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.core.utils.HostUtils;
 import com.axway.ats.core.utils.IoUtils;
 import com.axway.ats.core.utils.StringUtils;
 import com.axway.ats.rbv.MetaData;
@@ -34,9 +40,9 @@
 import com.axway.ats.rbv.model.MatchableNotOpenException;
 import com.axway.ats.rbv.model.RbvException;
 import com.axway.ats.rbv.model.RbvStorageException;
-import com.axway.ats.rbv.storage.Matchable;
+import com.axway.ats.rbv.storage.SharedMatchable;
 
-public class FileSystemFolder implements Matchable {
+public class FileSystemFolder implements SharedMatchable {
 
     private static final Logger       log = Logger.getLogger(FileSystemFolder.class);
 
@@ -54,6 +60,12 @@ public class FileSystemFolder implements Matchable {
     private HashMap<String, MetaData> allMetaData;
     private List<MetaData>            newMetaData;
 
+    // used when the folder is watched for changes instead of being listed on each poll
+    private boolean                   watchChanges;
+    private FileSystemFolderWatcher   watcher;
+    // entry path -> its unique identifier
+    private TreeMap<String, String>   entries;
+
     FileSystemFolder( String atsAgent, String path, String fileName, boolean isRegExp,
                       boolean includeSubDirs ) {
 
@@ -86,6 +98,12 @@ public void open() throws RbvStorageException {
             throw new RbvStorageException("Could not open " + getDescription(), e);
         }
 
+        this.watchChanges = this.osType == OperatingSystemType.LINUX
+                            && OperatingSystemType.getCurrentOsType() == OperatingSystemType.LINUX
+                            && HostUtils.isLocalAtsAgent(atsAgent)
+                            && AtsSystemProperties.getPropertyAsBoolean(AtsSystemProperties.RBV__FILESYSTEM_WATCH_CHANGES,
+                                                                        false);
+
         isOpen = true;
     }
 
@@ -96,6 +114,7 @@ public void close() throws RbvStorageException {
             throw new MatchableNotOpenException("File system folder is not open");
         }
 
+        stopWatching();
         isOpen = false;
     }
 
@@ -116,6 +135,33 @@ public List<MetaData> getAllMetaData() throws RbvException {
             throw new MatchableNotOpenException("File system folder is not open");
         }
 
+        if (!refreshMetaData()) {
+            return new ArrayList<MetaData>();
+        }
+
+        return new ArrayList<MetaData>(allMetaData.values());
+    }
+
+    public List<MetaData> getNewMetaData() throws RbvException {
+
+        //first check if the folder is already open
+        if (!isOpen) {
+            throw new MatchableNotOpenException("File system folder is not open");
+        }
+
+        refreshMetaData();
+
+        return newMetaData;
+    }
+
+    /**
+     * Find the current and the new files
+     *
+     * @return false if the folder does not exist
+     * @throws RbvException
+     */
+    private boolean refreshMetaData() throws RbvException {
+
         newMetaData.clear();
 
         if (fileName == null) {
@@ -123,12 +169,38 @@ public List<MetaData> getAllMetaData() throws RbvException {
             isRegExp = true;
         }
 
+        if (watcher != null) {
+            Set<String> changes;
+            try {
+                changes = watcher.pollChanges();
+            } catch (IOException ioe) {
+                log.warn("Could not get the changes in " + getDescription() + ", its content will be listed", ioe);
+                changes = null;
+            }
+            if (changes != null) {
+                applyChanges(changes);
+                return true;
+            }
+            // some changes are lost, list the whole content
+            stopWatching();
+        }
+
+        if (watchChanges) {
+            // start watching before listing the content, so no change is missed
+            startWatching();
+        }
+
         HashMap<String, MetaData> tempMetaData = new HashMap<String, MetaData>();
 
         //fetch dir contents recursively
         String[] fileList;
         try {
-            fileList = this.fileSystemOperations.findFiles(path, fileName, isRegExp, true, includeSubDirs);
+            if (watcher != null) {
+                // the watcher reports the changes against its own root folder, so list the content the same way
+                fileList = listWatchedEntries();
+            } else {
+                fileList = this.fileSystemOperations.findFiles(path, fileName, isRegExp, true, includeSubDirs);
+            }
         } catch (Exception e) {
             final String notExistMessageSuffix = "does not exist or is not a folder";
             if ( (e.getMessage() != null && e.getMessage().endsWith(notExistMessageSuffix))
@@ -137,7 +209,7 @@ public List<MetaData> getAllMetaData() throws RbvException {
                                                                                    .endsWith(notExistMessageSuffix))) {
 
                 log.warn(getDescription() + " does not exist, skipping to next poll attempt");
-                return new ArrayList<MetaData>();
+                return false;
             }
             throw new RbvException("Unable to list the contents of " + path, e);
         }
@@ -159,6 +231,9 @@ public List<MetaData> getAllMetaData() throws RbvException {
                     }
 
                     tempMetaData.put(hashKey, metaData);
+                    if (entries != null) {
+                        entries.put(fileName.trim(), hashKey);
+                    }
                 } catch (PackageException e) {
                     // the creation of the package somehow failed - a simple explanation would be that
                     // the filed was removed during the execution of this method or something similar;
@@ -171,19 +246,113 @@ public List<MetaData> getAllMetaData() throws RbvException {
         allMetaData.clear();
         allMetaData.putAll(tempMetaData);
 
-        return new ArrayList<MetaData>(allMetaData.values());
+        return true;
     }
 
-    public List<MetaData> getNewMetaData() throws RbvException {
+    private void startWatching() {
 
-        //first check if the folder is already open
-        if (!isOpen) {
-            throw new MatchableNotOpenException("File system folder is not open");
+        try {
+            watcher = new FileSystemFolderWatcher(path, includeSubDirs);
+            entries = new TreeMap<String, String>();
+        } catch (IOException ioe) {
+            // most probably the folder does not exist yet, we will try again on the next poll
+            log.debug("Could not start watching " + getDescription(), ioe);
         }
+    }
 
-        getAllMetaData();
+    private void stopWatching() {
 
-        return newMetaData;
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+        entries = null;
+    }
+
+    /**
+     * Update the known entries according to the changes reported by the watcher.
+     * The changed entries are checked the same way as when listing the whole folder.
+     */
+    private void applyChanges( Set<String> changes ) {
+
+        for (String changedPath : changes) {
+            File entry = new File(changedPath);
+            if (!entry.exists()) {
+                // forget the entry and everything below it in case it was a folder
+                forgetEntry(changedPath);
+                String folderPrefix = IoUtils.normalizeDirPath(changedPath);
+                SortedMap<String, String> folderEntries = entries.subMap(folderPrefix,
+                                                                         folderPrefix + Character.MAX_VALUE);
+                for (String removedHashKey : folderEntries.values()) {
+                    allMetaData.remove(removedHashKey);
+                }
+                folderEntries.clear();
+                continue;
+            }
+
+            if (!isMatchingName(entry.getName())) {
+                continue;
+            }
+
+            String entryPath = entry.isDirectory()
+                                                   ? IoUtils.normalizeDirPath(changedPath)
+                                                   : changedPath;
+            try {
+                FilePackage file = new FilePackage(atsAgent, entryPath, osType);
+                String hashKey = file.getUniqueIdentifier();
+
+                String previousHashKey = entries.put(entryPath, hashKey);
+                if (hashKey.equals(previousHashKey)) {
+                    continue;
+                }
+                if (previousHashKey != null) {
+                    allMetaData.remove(previousHashKey);
+                }
+
+                MetaData metaData = new FileSystemMetaData(file);
+                allMetaData.put(hashKey, metaData);
+                newMetaData.add(metaData);
+            } catch (PackageException e) {
+                // the entry was most probably deleted meanwhile, we will get an event about this
+                log.warn("Unable to build up metadata for " + entryPath, e);
+            }
+        }
+    }
+
+    /**
+     * List the matching entries of the watched folder, the folders end with a file separator
+     * as when listing with {@link FileSystemOperations#findFiles(String, String, boolean, boolean, boolean)}
+     */
+    private String[] listWatchedEntries() throws IOException {
+
+        List<String> matchingEntries = new ArrayList<String>();
+        for (String entryPath : watcher.listEntries()) {
+            File entry = new File(entryPath);
+            if (isMatchingName(entry.getName())) {
+                matchingEntries.add(entry.isDirectory()
+                                                        ? IoUtils.normalizeDirPath(entryPath)
+                                                        : entryPath);
+            }
+        }
+        return matchingEntries.toArray(new String[matchingEntries.size()]);
+    }
+
+    private boolean isMatchingName( String entryName ) {
+
+        return (isRegExp && entryName.matches(fileName)) || (!isRegExp && entryName.equals(fileName));
+    }
+
+    private void forgetEntry( String entryPath ) {
+
+        String hashKey = entries.remove(entryPath);
+        if (hashKey != null) {
+            allMetaData.remove(hashKey);
+        }
+    }
+
+    public String getSnapshotKey() {
+
+        return "file system|" + atsAgent + "|" + path + "|" + fileName + "|" + isRegExp + "|" + includeSubDirs;
     }
 
     public String getDescription() {
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.rbv.filesystem;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Collects the changes in a local folder using a {@link WatchService},
+ * so the folder content does not have to be listed on each poll.
+ * <p>
+ * The folder content is listed by {@link #listEntries()}, so the listed entries and the changes
+ * are resolved against the same root folder and can be matched with each other.
+ * </p>
+ */
+class FileSystemFolderWatcher {
+
+    private static final Logger       log = Logger.getLogger(FileSystemFolderWatcher.class);
+
+    private final Path                rootFolder;
+    private final boolean             includeSubDirs;
+
+    private final WatchService        watchService;
+    private final Map<WatchKey, Path> watchedFolders;
+
+    /**
+     * Start watching a folder
+     *
+     * @param folder the folder to watch
+     * @param includeSubDirs whether to watch the sub folders as well
+     * @throws IOException if the folder does not exist or can not be watched
+     */
+    FileSystemFolderWatcher( String folder, boolean includeSubDirs ) throws IOException {
+
+        this.rootFolder = new File(folder).getCanonicalFile().toPath();
+        this.includeSubDirs = includeSubDirs;
+
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.watchedFolders = new HashMap<WatchKey, Path>();
+        try {
+            if (includeSubDirs) {
+                registerTree(rootFolder, null);
+            } else {
+                register(rootFolder);
+            }
+        } catch (IOException ioe) {
+            close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * Get the entries changed since the previous call. An entry is reported when it is created,
+     * modified or deleted. When a new folder appears, all entries in it are reported as well.
+     *
+     * @return the absolute paths of the changed entries or null if some changes are lost,
+     * in which case the caller must list the folder content again
+     * @throws IOException
+     */
+    Set<String> pollChanges() throws IOException {
+
+        Set<String> changes = new LinkedHashSet<String>();
+        boolean changesLost = false;
+
+        WatchKey key;
+        while ( (key = watchService.poll()) != null) {
+            Path folder = watchedFolders.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW || folder == null) {
+                    // the OS could not keep all events
+                    changesLost = true;
+                    continue;
+                }
+
+                Path entry = folder.resolve((Path) event.context());
+                changes.add(entry.toString());
+
+                if (includeSubDirs && event.kind() == ENTRY_CREATE
+                    && Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                    // files could be created in the new folder before it is registered
+                    registerTree(entry, changes);
+                }
+            }
+
+            if (!key.reset()) {
+                // the folder is deleted or is not accessible anymore
+                if (rootFolder.equals(watchedFolders.remove(key))) {
+                    changesLost = true;
+                }
+            }
+        }
+
+        if (changesLost) {
+            log.debug("Some changes in folder '" + rootFolder + "' are lost");
+            return null;
+        }
+        return changes;
+    }
+
+    /**
+     * List the entries of the watched folder, resolved the same way as the changes
+     * returned by {@link #pollChanges()}
+     *
+     * @return the absolute paths of all files and folders in the watched folder
+     * @throws IOException
+     */
+    List<String> listEntries() throws IOException {
+
+        final List<String> entries = new ArrayList<String>();
+        int maxDepth = includeSubDirs
+                                      ? Integer.MAX_VALUE
+                                      : 1;
+        Files.walkFileTree(rootFolder, EnumSet.noneOf(FileVisitOption.class), maxDepth,
+                           new SimpleFileVisitor<Path>() {
+
+                               @Override
+                               public FileVisitResult preVisitDirectory( Path dir,
+                                                                         BasicFileAttributes attrs ) {
+
+                                   if (!dir.equals(rootFolder)) {
+                                       entries.add(dir.toString());
+                                   }
+                                   return FileVisitResult.CONTINUE;
+                               }
+
+                               @Override
+                               public FileVisitResult visitFile( Path file, BasicFileAttributes attrs ) {
+
+                                   // the sub folders are visited as files when not going into them
+                                   entries.add(file.toString());
+                                   return FileVisitResult.CONTINUE;
+                               }
+
+                               @Override
+                               public FileVisitResult visitFileFailed( Path file, IOException exc ) {
+
+                                   // the entry was deleted meanwhile or we have no rights to read it
+                                   log.debug("Could not visit '" + file + "'", exc);
+                                   return FileVisitResult.CONTINUE;
+                               }
+                           });
+        return entries;
+    }
+
+    /**
+     * Stop watching
+     */
+    void close() {
+
+        try {
+            watchService.close();
+        } catch (IOException ioe) {
+            log.warn("Could not stop watching folder '" + rootFolder + "'", ioe);
+        }
+        watchedFolders.clear();
+    }
+
+    private void register( Path folder ) throws IOException {
+
+        watchedFolders.put(folder.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), folder);
+    }
+
+    private void registerTree( final Path startFolder, final Set<String> changes ) throws IOException {
+
+        Files.walkFileTree(startFolder, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory( Path dir,
+                                                      BasicFileAttributes attrs ) throws IOException {
+
+                register(dir);
+                if (changes != null && !dir.equals(startFolder)) {
+                    changes.add(dir.toString());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile( Path file, BasicFileAttributes attrs ) throws IOException {
+
+                if (changes != null) {
+                    changes.add(file.toString());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed( Path file, IOException exc ) throws IOException {
+
+                // the entry was deleted meanwhile or we have no rights to read it
+                log.debug("Could not visit '" + file + "'", exc);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
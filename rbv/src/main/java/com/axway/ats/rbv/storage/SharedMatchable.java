@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.rbv.storage;
+
+/**
+ * A {@link Matchable} whose content can be shared between the monitors
+ * which poll the same source at the same time.
+ * <p>
+ * When a few monitors poll for all meta data of matchables with the same snapshot key,
+ * the source is read just once per polling interval and all monitors evaluate the same meta data.
+ * </p>
+ */
+public interface SharedMatchable extends Matchable {
+
+    /**
+     * @return a key which is equal for all matchables that return the same meta data,
+     * for example the same folder on the same host with the same file name filter
+     */
+    public String getSnapshotKey();
+}
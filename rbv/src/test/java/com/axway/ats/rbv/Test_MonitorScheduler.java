@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.rbv;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.axway.ats.rbv.model.RbvException;
+import com.axway.ats.rbv.storage.SharedMatchable;
+
+public class Test_MonitorScheduler extends BaseTest {
+
+    @Test
+    public void reuseFreshMetaData() throws Exception {
+
+        CountingMatchable matchable = new CountingMatchable("reuseFreshMetaData");
+        long monitorStartTime = System.currentTimeMillis();
+
+        MonitorScheduler.getSharedMetaData(matchable, 10000, monitorStartTime);
+        MonitorScheduler.getSharedMetaData(matchable, 10000, monitorStartTime);
+        assertEquals(1, matchable.reads);
+    }
+
+    @Test
+    public void doNotReuseOldMetaData() throws Exception {
+
+        CountingMatchable matchable = new CountingMatchable("doNotReuseOldMetaData");
+
+        MonitorScheduler.getSharedMetaData(matchable, 0, System.currentTimeMillis());
+        Thread.sleep(10);
+        MonitorScheduler.getSharedMetaData(matchable, 0, System.currentTimeMillis());
+        assertEquals(2, matchable.reads);
+    }
+
+    @Test
+    public void doNotReuseMetaDataReadBeforeTheMonitorStart() throws Exception {
+
+        CountingMatchable matchable = new CountingMatchable("doNotReuseMetaDataReadBeforeTheMonitorStart");
+
+        MonitorScheduler.getSharedMetaData(matchable, 10000, System.currentTimeMillis());
+        Thread.sleep(10);
+        // another monitor starts after the meta data was read, so it must not see the old meta data
+        long monitorStartTime = System.currentTimeMillis();
+        MonitorScheduler.getSharedMetaData(matchable, 10000, monitorStartTime);
+        assertEquals(2, matchable.reads);
+
+        // but it is shared with the monitors started before this reading
+        MonitorScheduler.getSharedMetaData(matchable, 10000, monitorStartTime);
+        assertEquals(2, matchable.reads);
+    }
+
+    private static class CountingMatchable implements SharedMatchable {
+
+        private final String snapshotKey;
+        private int          reads;
+
+        CountingMatchable( String snapshotKey ) {
+
+            this.snapshotKey = snapshotKey;
+        }
+
+        @Override
+        public String getSnapshotKey() {
+
+            return snapshotKey;
+        }
+
+        @Override
+        public void open() {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+
+        @Override
+        public List<MetaData> getAllMetaData() throws RbvException {
+
+            reads++;
+            return new ArrayList<MetaData>();
+        }
+
+        @Override
+        public List<MetaData> getNewMetaData() throws RbvException {
+
+            return getAllMetaData();
+        }
+
+        @Override
+        public String getDescription() {
+
+            return "counting matchable " + snapshotKey;
+        }
+
+        @Override
+        public String getMetaDataCounts() {
+
+            return "Total: " + reads;
+        }
+    }
+}
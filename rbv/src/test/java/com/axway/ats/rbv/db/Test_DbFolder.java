@@ -16,11 +16,16 @@
 package com.axway.ats.rbv.db;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
 
+import com.axway.ats.common.dbaccess.DbQuery;
+import com.axway.ats.core.dbaccess.DbRecordValue;
+import com.axway.ats.core.dbaccess.DbRecordValuesList;
 import com.axway.ats.rbv.BaseTest;
 import com.axway.ats.rbv.MetaData;
 import com.axway.ats.rbv.db.DbSearchTerm;
@@ -188,4 +193,151 @@ public void openNegativeFolderAlreadyOpen() throws RbvStorageException {
         folder.open();
         folder.open();
     }
+
+    @Test
+    public void watermarkNewMetaData() throws Exception {
+
+        WatermarkDbProvider dbProvider = new WatermarkDbProvider();
+        dbProvider.addRecord(1, "first");
+        dbProvider.addRecord(2, "second");
+
+        DbStorage storage = new DbStorage(dbProvider);
+        Matchable folder = storage.getFolder(new DbSearchTerm("SELECT * FROM audit", "id"));
+
+        folder.open();
+        assertEquals(2, folder.getNewMetaData().size());
+        assertEquals("SELECT * FROM audit", dbProvider.lastQuery.getQuery());
+
+        dbProvider.addRecord(3, "third");
+        List<MetaData> metaData = folder.getNewMetaData();
+        assertEquals(1, metaData.size());
+        assertEquals("third", metaData.get(0).getProperty("audit.value"));
+        assertEquals("Total DB records: 3, new DB records: 1", folder.getMetaDataCounts());
+
+        // only the records after the last watermark are read
+        assertTrue(dbProvider.lastQuery.getQuery().endsWith("WHERE id >= ?"));
+        assertEquals(2L, dbProvider.lastQuery.getArguments().get(0));
+
+        assertEquals(0, folder.getNewMetaData().size());
+        folder.close();
+    }
+
+    @Test
+    public void watermarkSameValue() throws Exception {
+
+        WatermarkDbProvider dbProvider = new WatermarkDbProvider();
+        dbProvider.addRecord(1, "first");
+
+        DbStorage storage = new DbStorage(dbProvider);
+        Matchable folder = storage.getFolder(new DbSearchTerm("SELECT * FROM audit", "id"));
+
+        folder.open();
+        assertEquals(1, folder.getNewMetaData().size());
+
+        // a record with the same watermark value is inserted after the poll
+        dbProvider.addRecord(1, "first again");
+        List<MetaData> metaData = folder.getNewMetaData();
+        assertEquals(1, metaData.size());
+        assertEquals("first again", metaData.get(0).getProperty("audit.value"));
+
+        folder.close();
+    }
+
+    @Test
+    public void watermarkAllMetaData() throws Exception {
+
+        WatermarkDbProvider dbProvider = new WatermarkDbProvider();
+        dbProvider.addRecord(1, "first");
+        dbProvider.addRecord(2, "second");
+
+        DbStorage storage = new DbStorage(dbProvider);
+        Matchable folder = storage.getFolder(new DbSearchTerm("SELECT * FROM audit", "id"));
+
+        folder.open();
+        assertEquals(2, folder.getAllMetaData().size());
+
+        dbProvider.addRecord(3, "third");
+        assertEquals(3, folder.getAllMetaData().size());
+        assertEquals(1, dbProvider.lastQuery.getArguments().size());
+        assertEquals("Total DB records: 3, new DB records: 1", folder.getMetaDataCounts());
+
+        folder.close();
+    }
+
+    @Test( expected = IllegalArgumentException.class)
+    public void watermarkWithOrderBy() throws Exception {
+
+        new DbSearchTerm("SELECT * FROM audit\nORDER  BY id DESC", "id");
+    }
+
+    @Test
+    public void watermarkQualifiedColumn() throws Exception {
+
+        WatermarkDbProvider dbProvider = new WatermarkDbProvider();
+        dbProvider.addRecord(1, "first");
+
+        DbStorage storage = new DbStorage(dbProvider);
+        Matchable folder = storage.getFolder(new DbSearchTerm("SELECT a.* FROM audit a", "a.id"));
+
+        folder.open();
+        assertEquals(1, folder.getNewMetaData().size());
+
+        dbProvider.addRecord(2, "second");
+        assertEquals(1, folder.getNewMetaData().size());
+        // the wrapped query knows the column by its name only
+        assertTrue(dbProvider.lastQuery.getQuery().endsWith("WHERE id >= ?"));
+
+        folder.close();
+    }
+
+    @Test( expected = RbvException.class)
+    public void watermarkDuplicatedColumns() throws Exception {
+
+        WatermarkDbProvider dbProvider = new WatermarkDbProvider();
+        dbProvider.addRecord(1, "first");
+        dbProvider.records.get(0).add(new DbRecordValue("details", "id", 1L));
+
+        DbStorage storage = new DbStorage(dbProvider);
+        Matchable folder = storage.getFolder(new DbSearchTerm("SELECT * FROM audit JOIN details ON audit.id = details.id",
+                                                              "id"));
+
+        folder.open();
+        // fails on the first poll
+        folder.getNewMetaData();
+    }
+
+    /**
+     * Returns the records which are after the watermark
+     */
+    private static class WatermarkDbProvider extends MockDbProvider {
+
+        private List<DbRecordValuesList> records = new ArrayList<DbRecordValuesList>();
+        private DbQuery                  lastQuery;
+
+        void addRecord(
+                        long id,
+                        String value ) {
+
+            DbRecordValuesList record = new DbRecordValuesList();
+            record.add(new DbRecordValue("audit", "id", id));
+            record.add(new DbRecordValue("audit", "value", value));
+            records.add(record);
+        }
+
+        @Override
+        public DbRecordValuesList[] select(
+                                            DbQuery query ) {
+
+            lastQuery = query;
+
+            List<DbRecordValuesList> result = new ArrayList<DbRecordValuesList>();
+            for (DbRecordValuesList record : records) {
+                if (query.getArguments().isEmpty()
+                    || (Long) record.get(0).getValue() >= (Long) query.getArguments().get(0)) {
+                    result.add(record);
+                }
+            }
+            return result.toArray(new DbRecordValuesList[result.size()]);
+        }
+    }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.rbv.filesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.common.system.OperatingSystemType;
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.rbv.BaseTest;
+import com.axway.ats.rbv.MetaData;
+
+public class Test_FileSystemFolderWatcher extends BaseTest {
+
+    // how long to wait for the file system events
+    private static final long WAIT_TIMEOUT = 10000;
+
+    private File              folder;
+
+    @Before
+    public void before() throws IOException {
+
+        assumeTrue(OperatingSystemType.getCurrentOsType() == OperatingSystemType.LINUX);
+
+        folder = Files.createTempDirectory("ats_rbv_watch").toFile().getCanonicalFile();
+    }
+
+    @After
+    public void after() {
+
+        System.clearProperty(AtsSystemProperties.RBV__FILESYSTEM_WATCH_CHANGES);
+        if (folder != null) {
+            delete(folder);
+        }
+    }
+
+    @Test
+    public void collectChanges() throws Exception {
+
+        new File(folder, "existing.txt").createNewFile();
+
+        FileSystemFolderWatcher watcher = new FileSystemFolderWatcher(folder.getPath(), true);
+        try {
+            assertEquals(0, watcher.pollChanges().size());
+
+            File subFolder = new File(folder, "sub");
+            subFolder.mkdir();
+            new File(subFolder, "file1.txt").createNewFile();
+            new File(folder, "existing.txt").delete();
+
+            Set<String> expectedChanges = new HashSet<String>();
+            expectedChanges.add(subFolder.getPath());
+            expectedChanges.add(new File(subFolder, "file1.txt").getPath());
+            expectedChanges.add(new File(folder, "existing.txt").getPath());
+            assertEquals(expectedChanges, waitForChanges(watcher, expectedChanges.size()));
+
+            // the new folder is watched as well
+            new File(subFolder, "file2.txt").createNewFile();
+            assertTrue(waitForChanges(watcher, 1).contains(new File(subFolder, "file2.txt").getPath()));
+        } finally {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void watchFolder() throws Exception {
+
+        System.setProperty(AtsSystemProperties.RBV__FILESYSTEM_WATCH_CHANGES, "true");
+        new File(folder, "file1.txt").createNewFile();
+        new File(folder, "file2.log").createNewFile();
+
+        FileSystemFolder fsFolder = new FileSystemFolder(FileSystemStorage.LOCAL_AGENT, folder.getPath(),
+                                                         ".*\\.txt", true, true);
+        fsFolder.open();
+        try {
+            List<MetaData> newMetaData = fsFolder.getNewMetaData();
+            assertEquals(1, newMetaData.size());
+            assertEquals(0, fsFolder.getNewMetaData().size());
+
+            new File(folder, "file3.txt").createNewFile();
+            new File(folder, "file4.log").createNewFile();
+            newMetaData = waitForNewMetaData(fsFolder);
+            assertEquals(1, newMetaData.size());
+            assertEquals("file3.txt",
+                         ((FileSystemMetaData) newMetaData.get(0)).getFilePackage().getName());
+            assertEquals(2, fsFolder.getAllMetaData().size());
+
+            new File(folder, "file1.txt").delete();
+            long endTime = System.currentTimeMillis() + WAIT_TIMEOUT;
+            while (fsFolder.getAllMetaData().size() != 1 && System.currentTimeMillis() < endTime) {
+                Thread.sleep(50);
+            }
+            assertEquals("Total files: 1, new files: 0", fsFolder.getMetaDataCounts());
+        } finally {
+            fsFolder.close();
+        }
+    }
+
+    @Test
+    public void watchFolderWithLinks() throws Exception {
+
+        System.setProperty(AtsSystemProperties.RBV__FILESYSTEM_WATCH_CHANGES, "true");
+        File realFolder = new File(folder, "real");
+        realFolder.mkdir();
+        File targetFile = new File(folder, "target.txt");
+        targetFile.createNewFile();
+        new File(realFolder, "file1.txt").createNewFile();
+        Files.createSymbolicLink(new File(realFolder, "link.txt").toPath(), targetFile.toPath());
+        // the folder is given with a path which is not the canonical one
+        File linkFolder = new File(folder, "link");
+        Files.createSymbolicLink(linkFolder.toPath(), realFolder.toPath());
+
+        FileSystemFolder fsFolder = new FileSystemFolder(FileSystemStorage.LOCAL_AGENT, linkFolder.getPath(),
+                                                         ".*\\.txt", true, true);
+        fsFolder.open();
+        try {
+            assertEquals(2, fsFolder.getNewMetaData().size());
+
+            // the deleted entries are found, as they are listed the same way as the changes are reported
+            new File(realFolder, "file1.txt").delete();
+            new File(realFolder, "link.txt").delete();
+            long endTime = System.currentTimeMillis() + WAIT_TIMEOUT;
+            while (fsFolder.getAllMetaData().size() != 0 && System.currentTimeMillis() < endTime) {
+                Thread.sleep(50);
+            }
+            assertEquals("Total files: 0, new files: 0", fsFolder.getMetaDataCounts());
+        } finally {
+            fsFolder.close();
+        }
+    }
+
+    private static Set<String> waitForChanges( FileSystemFolderWatcher watcher,
+                                               int expectedCount ) throws Exception {
+
+        Set<String> changes = new HashSet<String>();
+        long endTime = System.currentTimeMillis() + WAIT_TIMEOUT;
+        while (changes.size() < expectedCount && System.currentTimeMillis() < endTime) {
+            changes.addAll(watcher.pollChanges());
+            Thread.sleep(50);
+        }
+        return changes;
+    }
+
+    private static List<MetaData> waitForNewMetaData( FileSystemFolder fsFolder ) throws Exception {
+
+        long endTime = System.currentTimeMillis() + WAIT_TIMEOUT;
+        List<MetaData> newMetaData = fsFolder.getNewMetaData();
+        while (newMetaData.isEmpty() && System.currentTimeMillis() < endTime) {
+            Thread.sleep(50);
+            newMetaData = fsFolder.getNewMetaData();
+        }
+        return newMetaData;
+    }
+
+    private static void delete( File file ) {
+
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Axway Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.axway.ats.rbv.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.axway.ats.common.systemproperties.AtsSystemProperties;
+import com.axway.ats.rbv.BaseTest;
+import com.axway.ats.rbv.MetaData;
+import com.axway.ats.rbv.db.DbMetaData;
+import com.axway.ats.rbv.db.rules.DbStringFieldRule;
+import com.axway.ats.rbv.executors.MetaExecutor;
+import com.axway.ats.rbv.model.MetaDataIncorrectException;
+import com.axway.ats.rbv.model.RbvException;
+
+/**
+ * Unit tests for the {@link MetaExecutor} object
+ */
+public class Test_MetaExecutor extends BaseTest {
+
+    private static final String TABLE_NAME  = "table";
+    private static final String COLUMN_NAME = "column";
+    private static final String META_KEY    = TABLE_NAME + "." + COLUMN_NAME;
+
+    private List<MetaData>      metaData;
+
+    @Before
+    public void setUp() throws RbvException {
+
+        // evaluate in parallel even small lists
+        System.setProperty(AtsSystemProperties.RBV__PARALLEL_EVALUATION_THRESHOLD, "10");
+
+        metaData = new ArrayList<MetaData>();
+        for (int i = 0; i < 5000; i++) {
+            DbMetaData meta = new DbMetaData();
+            meta.putProperty(META_KEY, "value" + (i % 1000));
+            metaData.add(meta);
+        }
+    }
+
+    @After
+    public void tearDown() {
+
+        System.clearProperty(AtsSystemProperties.RBV__PARALLEL_EVALUATION_THRESHOLD);
+    }
+
+    @Test
+    public void firstMatchInParallel() throws RbvException {
+
+        MetaExecutor executor = new MetaExecutor();
+        executor.setRootRule(new DbStringFieldRule(TABLE_NAME,
+                                                   COLUMN_NAME,
+                                                   "value999",
+                                                   DbStringFieldRule.MatchRelation.EQUALS,
+                                                   "firstMatchInParallel",
+                                                   true));
+
+        // there are 5 matching pieces, the first one must be returned
+        List<MetaData> result = executor.evaluate(metaData);
+        assertEquals(1, result.size());
+        assertSame(metaData.get(999), result.get(0));
+    }
+
+    @Test
+    public void noMatchInParallel() throws RbvException {
+
+        MetaExecutor executor = new MetaExecutor();
+        executor.setRootRule(new DbStringFieldRule(TABLE_NAME,
+                                                   COLUMN_NAME,
+                                                   "value1000",
+                                                   DbStringFieldRule.MatchRelation.EQUALS,
+                                                   "noMatchInParallel",
+                                                   true));
+
+        assertTrue(executor.evaluate(metaData).isEmpty());
+    }
+
+    @Test( expected = MetaDataIncorrectException.class)
+    public void errorInParallel() throws RbvException {
+
+        // this piece has a value which is not a String
+        DbMetaData meta = new DbMetaData();
+        meta.putProperty(META_KEY, 4000);
+        metaData.set(4000, meta);
+
+        MetaExecutor executor = new MetaExecutor();
+        executor.setRootRule(new DbStringFieldRule(TABLE_NAME,
+                                                   COLUMN_NAME,
+                                                   "value1000",
+                                                   DbStringFieldRule.MatchRelation.EQUALS,
+                                                   "errorInParallel",
+                                                   true));
+
+        executor.evaluate(metaData);
+    }
+}